@@ -0,0 +1,106 @@
+#!/usr/bin/env bash
+# Compara consultas de periodo recente em lancamentos/pagamentos antes e depois da migration V4
+# (particionamento anual) em um PostgreSQL local.
+#
+# Cria um banco descartavel, aplica V1-V3, carrega N anos de dados sinteticos nas tabelas heap,
+# mede as consultas, aplica V4 (copiando os dados para as particoes), mede de novo e remove o banco.
+# Cada consulta roda 5 vezes com EXPLAIN ANALYZE; e impressa a mediana do "Execution Time" em ms,
+# alem do tempo de VACUUM ANALYZE do ano corrente (particao) contra a tabela inteira (heap).
+#
+# Uso:
+#   scripts/benchmark-particionamento.sh [-a anos] [-l lancamentos-por-ano] [-d banco]
+#
+# Conexao pelas variaveis padrao do psql (PGHOST, PGPORT, PGUSER, PGPASSWORD). Exemplo:
+#   PGHOST=localhost PGUSER=postgres PGPASSWORD=postgres scripts/benchmark-particionamento.sh -a 8 -l 500000
+set -euo pipefail
+
+ANOS=8
+POR_ANO=500000
+BANCO=empcard_benchmark_particoes
+MIGRATIONS="$(cd "$(dirname "$0")/.." && pwd)/src/main/resources/db/migration"
+
+while getopts "a:l:d:" opcao; do
+    case "$opcao" in
+        a) ANOS="$OPTARG" ;;
+        l) POR_ANO="$OPTARG" ;;
+        d) BANCO="$OPTARG" ;;
+        *) echo "Uso: $0 [-a anos] [-l lancamentos-por-ano] [-d banco]" >&2; exit 2 ;;
+    esac
+done
+
+PSQL=(psql -X -q -v ON_ERROR_STOP=1 -d "$BANCO")
+
+dropdb --if-exists "$BANCO"
+createdb "$BANCO"
+trap 'dropdb --if-exists "$BANCO"' EXIT
+
+for arquivo in V1__criar_tabelas_base.sql V2__criar_tokens_api.sql V3__criar_sincronizacao.sql; do
+    "${PSQL[@]}" -f "$MIGRATIONS/$arquivo"
+done
+
+echo "Carregando $ANOS anos x $POR_ANO lancamentos (e metade em pagamentos)..."
+"${PSQL[@]}" <<SQL
+INSERT INTO pessoas (nome, cpf)
+SELECT 'PESSOA ' || g, lpad(g::TEXT, 11, '0') FROM generate_series(1, 2000) g;
+INSERT INTO cartoes (numero, bandeira, banco, dia_fechamento, dia_vencimento)
+SELECT lpad(g::TEXT, 16, '4'), 'VISA', 'BANCO ' || g, 1 + g % 28, 1 + (g + 9) % 28 FROM generate_series(1, 50) g;
+
+INSERT INTO lancamentos (pessoa_id, cartao_id, descricao, tipo, valor_total, quantidade_parcelas, data_compra)
+SELECT 1 + (random() * 1999)::INT,
+       1 + (random() * 49)::INT,
+       'COMPRA ' || g,
+       (ARRAY ['AVULSO', 'AVULSO', 'AVULSO', 'PARCELADO', 'FIXO'])[1 + g % 5],
+       round((10 + random() * 990)::NUMERIC, 2),
+       CASE WHEN g % 5 = 3 THEN 1 + g % 12 ELSE 1 END,
+       CURRENT_DATE - (random() * ($ANOS * 365))::INT
+FROM generate_series(1, $ANOS * $POR_ANO) g;
+
+INSERT INTO pagamentos (pessoa_id, cartao_id, data_pagamento, valor)
+SELECT 1 + (random() * 1999)::INT,
+       1 + (random() * 49)::INT,
+       CURRENT_DATE - (random() * ($ANOS * 365))::INT,
+       round((10 + random() * 990)::NUMERIC, 2)
+FROM generate_series(1, $ANOS * $POR_ANO / 2) g;
+
+ANALYZE;
+SQL
+
+CONSULTAS=(
+    "fatura-avulsos|SELECT * FROM lancamentos WHERE cartao_id = 7 AND tipo = 'AVULSO' AND data_compra >= date_trunc('month', CURRENT_DATE) - INTERVAL '1 month' AND data_compra < date_trunc('month', CURRENT_DATE)"
+    "lancamentos-90-dias|SELECT cartao_id, count(*), sum(valor_total) FROM lancamentos WHERE data_compra >= CURRENT_DATE - 90 GROUP BY cartao_id"
+    "pagamentos-do-mes|SELECT pessoa_id, sum(valor) FROM pagamentos WHERE data_pagamento >= date_trunc('month', CURRENT_DATE) GROUP BY pessoa_id"
+    "relatorio-pessoa|SELECT * FROM lancamentos WHERE pessoa_id = 42 AND data_compra <= CURRENT_DATE ORDER BY data_compra, id"
+)
+
+medir() {
+    local rotulo="$1"
+    for item in "${CONSULTAS[@]}"; do
+        local nome="${item%%|*}" sql="${item#*|}" tempos=()
+        for _ in 1 2 3 4 5; do
+            tempos+=("$("${PSQL[@]}" -At -c "EXPLAIN (ANALYZE, BUFFERS) $sql" \
+                | sed -n 's/^Execution Time: \([0-9.]*\) ms$/\1/p')")
+        done
+        printf '%-8s %-22s %10s ms\n' "$rotulo" "$nome" \
+            "$(printf '%s\n' "${tempos[@]}" | sort -n | sed -n 3p)"
+    done
+}
+
+vacuum() {
+    local rotulo="$1" alvo="$2" inicio fim
+    inicio=$(date +%s%N)
+    "${PSQL[@]}" -c "VACUUM (ANALYZE) $alvo"
+    fim=$(date +%s%N)
+    printf '%-8s %-22s %10s ms\n' "$rotulo" "vacuum $alvo" "$(((fim - inicio) / 1000000))"
+}
+
+medir heap
+vacuum heap lancamentos
+
+inicio=$(date +%s%N)
+"${PSQL[@]}" -f "$MIGRATIONS/V4__particionar_lancamentos_pagamentos.sql"
+"${PSQL[@]}" -c "ANALYZE"
+fim=$(date +%s%N)
+echo "Migration V4 aplicada em $(((fim - inicio) / 1000000)) ms"
+
+medir anual
+vacuum anual "lancamentos_$(date +%Y)"
@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Mede o tempo ate a primeira resposta HTTP (time-to-first-request) da aplicacao.
+#
+# Sobe a aplicacao N vezes com o comando informado, consulta /login a cada 50 ms ate receber
+# qualquer resposta HTTP e imprime cada medicao e a mediana em milissegundos.
+#
+# Uso:
+#   scripts/medir-startup.sh [-n execucoes] [-p porta] -- <comando que inicia a aplicacao>
+#
+# Exemplos (comparar antes/depois):
+#   scripts/medir-startup.sh -- java -jar target/empcard-1.0.0.jar
+#   scripts/medir-startup.sh -- java -Dspring.profiles.include=rapido -jar target/empcard-1.0.0.jar
+#   scripts/medir-startup.sh -- java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+#       -Dspring.profiles.include=rapido -jar app.jar
+set -euo pipefail
+
+EXECUCOES=5
+PORTA=18081
+
+while getopts "n:p:" opcao; do
+    case "$opcao" in
+        n) EXECUCOES="$OPTARG" ;;
+        p) PORTA="$OPTARG" ;;
+        *) echo "Uso: $0 [-n execucoes] [-p porta] -- comando" >&2; exit 2 ;;
+    esac
+done
+shift $((OPTIND - 1))
+[ "${1:-}" = "--" ] && shift
+[ $# -gt 0 ] || { echo "Informe o comando que inicia a aplicacao apos --" >&2; exit 2; }
+
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+tempos=()
+
+for i in $(seq 1 "$EXECUCOES"); do
+    inicio=$(date +%s%N)
+    PORT="$PORTA" "$@" > "$LOG" 2>&1 &
+    pid=$!
+
+    until curl -s -o /dev/null "http://localhost:${PORTA}/login"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Aplicacao encerrou antes de responder. Ultimas linhas do log:" >&2
+            tail -n 30 "$LOG" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+
+    ms=$(( ($(date +%s%N) - inicio) / 1000000 ))
+    tempos+=("$ms")
+    echo "execucao ${i}: ${ms} ms"
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+done
+
+mediana=$(printf '%s\n' "${tempos[@]}" | sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }')
+echo "mediana: ${mediana} ms (${EXECUCOES} execucoes)"
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Sobe um PostgreSQL principal (porta 5432) e uma replica em streaming (porta 5433) em Docker para testar o
+# roteamento de leitura localmente com o perfil dev.
+#
+# Uso:
+#   scripts/replica-local.sh [subir|parar]
+#
+# Depois de subir:
+#   EMPCARD_REPLICA_LEITURA_HABILITADO=true ./mvnw spring-boot:run -Dspring-boot.run.profiles=dev
+set -euo pipefail
+
+IMAGEM=postgres:16
+REDE=empcard-replica
+PRIMARIO=empcard-pg-primario
+REPLICA=empcard-pg-replica
+BANCO=empcard_dev
+
+parar() {
+    docker rm -f "$REPLICA" "$PRIMARIO" >/dev/null 2>&1 || true
+    docker network rm "$REDE" >/dev/null 2>&1 || true
+}
+
+aguardar() {
+    local container="$1"
+    for _ in $(seq 1 60); do
+        if docker exec "$container" pg_isready -U postgres >/dev/null 2>&1; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Timeout aguardando $container" >&2
+    exit 1
+}
+
+subir() {
+    parar
+    docker network create "$REDE" >/dev/null
+
+    docker run -d --name "$PRIMARIO" --network "$REDE" -p 5432:5432 \
+        -e POSTGRES_PASSWORD=postgres -e POSTGRES_DB="$BANCO" \
+        "$IMAGEM" -c wal_level=replica -c max_wal_senders=5 -c hot_standby=on >/dev/null
+    aguardar "$PRIMARIO"
+
+    docker exec "$PRIMARIO" psql -q -U postgres \
+        -c "CREATE ROLE replicador WITH REPLICATION LOGIN PASSWORD 'replicador'"
+    docker exec "$PRIMARIO" sh -c \
+        'echo "host replication replicador all scram-sha-256" >> "$PGDATA/pg_hba.conf"'
+    docker exec "$PRIMARIO" psql -q -U postgres -c "SELECT pg_reload_conf()" >/dev/null
+
+    # A replica nasce de um pg_basebackup do principal; -R grava standby.signal e primary_conninfo.
+    docker run -d --name "$REPLICA" --network "$REDE" -p 5433:5432 \
+        -e PGPASSWORD=replicador --entrypoint sh "$IMAGEM" -c "
+            rm -rf /var/lib/postgresql/data/* &&
+            pg_basebackup -h $PRIMARIO -U replicador -D /var/lib/postgresql/data -R -X stream &&
+            chown -R postgres:postgres /var/lib/postgresql/data &&
+            chmod 700 /var/lib/postgresql/data &&
+            exec gosu postgres postgres" >/dev/null
+    aguardar "$REPLICA"
+
+    echo "Principal: jdbc:postgresql://localhost:5432/$BANCO"
+    echo "Replica:   jdbc:postgresql://localhost:5433/$BANCO"
+}
+
+case "${1:-subir}" in
+    subir) subir ;;
+    parar) parar ;;
+    *) echo "Uso: $0 [subir|parar]" >&2; exit 2 ;;
+esac
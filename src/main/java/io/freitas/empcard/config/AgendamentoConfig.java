@@ -0,0 +1,47 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Habilita a execucao de rotinas agendadas (ex.: fechamento mensal).
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+
+    /**
+     * Mantem a criacao antecipada de beans com metodos {@link Scheduled} quando o perfil {@code rapido}
+     * liga a inicializacao preguicosa; do contrario o agendamento so seria registrado no primeiro uso do bean.
+     *
+     * @return filtro de exclusao da inicializacao preguicosa
+     */
+    @Bean
+    static LazyInitializationExcludeFilter manterAgendamentosAntecipados() {
+        return (beanName, beanDefinition, beanType) -> possuiAgendamento(beanType);
+    }
+
+    /**
+     * Indica se o tipo declara algum metodo agendado.
+     *
+     * @param tipo tipo do bean
+     * @return true quando ha metodo com {@link Scheduled}
+     */
+    private static boolean possuiAgendamento(Class<?> tipo) {
+        if (tipo == null) {
+            return false;
+        }
+        AtomicBoolean encontrado = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(tipo,
+                metodo -> encontrado.set(true),
+                metodo -> !encontrado.get() && AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class));
+        return encontrado.get();
+    }
+}
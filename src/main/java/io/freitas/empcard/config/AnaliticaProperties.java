@@ -0,0 +1,17 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Parametros das series analiticas da carteira.
+ *
+ * @param maximoCompetencias quantidade maxima de meses por consulta
+ * @param cacheHabilitado    quando true, guarda em memoria os agregados dos meses ja encerrados
+ */
+@ConfigurationProperties(prefix = "empcard.analitica")
+public record AnaliticaProperties(
+        @DefaultValue("120") int maximoCompetencias,
+        @DefaultValue("true") boolean cacheHabilitado
+) {
+}
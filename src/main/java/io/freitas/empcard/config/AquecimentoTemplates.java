@@ -0,0 +1,109 @@
+package io.freitas.empcard.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.engine.TemplateManager;
+import org.thymeleaf.exceptions.TemplateInputException;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aquece o cache de templates do Thymeleaf no startup de producao.
+ *
+ * <p>Com {@code spring.thymeleaf.cache=true} cada template e parseado uma unica vez, mas o primeiro
+ * acesso a cada pagina ainda pagaria esse custo. Todos os templates sao processados com contexto vazio
+ * depois da criacao dos beans e antes de o servidor web aceitar conexoes: o parse entra no cache antes da
+ * avaliacao das expressoes, entao falhas de avaliacao por falta de variaveis sao esperadas e ignoradas.
+ * O processamento vai direto ao {@link TemplateManager}, que nao registra essas falhas como erro (o
+ * {@link TemplateEngine#process} registraria), sem mexer no nivel de log do engine. Erros de sintaxe
+ * continuam reportados aqui, no startup.</p>
+ */
+@Slf4j
+@Component
+@Profile("prod")
+@RequiredArgsConstructor
+public class AquecimentoTemplates implements SmartInitializingSingleton {
+
+    private static final String PREFIXO = "/templates/";
+    private static final String SUFIXO = ".html";
+
+    private final TemplateEngine templateEngine;
+    private final ResourcePatternResolver resourcePatternResolver;
+
+    /**
+     * Carrega no cache todos os templates HTML do classpath.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long inicio = System.nanoTime();
+        TemplateManager templateManager = templateEngine.getConfiguration().getTemplateManager();
+        Resource[] templates;
+        try {
+            templates = resourcePatternResolver.getResources("classpath:" + PREFIXO + "**/*" + SUFIXO);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nao foi possivel listar os templates", ex);
+        }
+        int aquecidos = 0;
+        for (Resource template : templates) {
+            String nome = extrairNome(template);
+            if (nome != null && aquecer(templateManager, nome)) {
+                aquecidos++;
+            }
+        }
+        log.info("Cache de templates aquecido. templates={}/{}, duracaoMs={}",
+                aquecidos, templates.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    /**
+     * Processa o template para forcar parse e armazenamento no cache.
+     *
+     * @param templateManager gerenciador de parse e cache do engine
+     * @param nome            nome logico do template (ex.: {@code pessoas/lista})
+     * @return false quando o template nao pode ser parseado
+     */
+    private boolean aquecer(TemplateManager templateManager, String nome) {
+        try {
+            TemplateSpec especificacao = new TemplateSpec(nome, (TemplateMode) null);
+            templateManager.parseAndProcess(especificacao, new Context(), Writer.nullWriter());
+        } catch (TemplateInputException ex) {
+            log.warn("Falha ao parsear template no aquecimento. template={}", nome, ex);
+            return false;
+        } catch (RuntimeException ex) {
+            // Esperado: variaveis de modelo ausentes; o template ja foi parseado e cacheado.
+            log.debug("Avaliacao ignorada no aquecimento. template={}, erro={}", nome, ex.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Converte a URL do recurso no nome logico usado pelos controllers.
+     *
+     * @param template recurso do template
+     * @return nome sem prefixo e sufixo ou null quando fora do padrao
+     */
+    private String extrairNome(Resource template) {
+        String url;
+        try {
+            url = template.getURL().toString();
+        } catch (IOException ex) {
+            return null;
+        }
+        int indice = url.lastIndexOf(PREFIXO);
+        if (indice < 0 || !url.endsWith(SUFIXO)) {
+            return null;
+        }
+        return url.substring(indice + PREFIXO.length(), url.length() - SUFIXO.length());
+    }
+}
@@ -0,0 +1,189 @@
+package io.freitas.empcard.config;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Datasource que envia transacoes somente leitura para a replica e o restante para o principal.
+ *
+ * <p>Deve ficar atras de um {@code LazyConnectionDataSourceProxy}: a conexao real so e escolhida no primeiro
+ * comando, quando a transacao ja esta marcada como somente leitura. Codigo fora de transacao usa o principal.</p>
+ *
+ * <p>Leitura apos escrita: ao confirmar uma transacao de escrita em uma requisicao com sessao HTTP, o instante
+ * fica na sessao, e as leituras dessa sessao vao ao principal durante a janela configurada. Assim o usuario ve
+ * o que acabou de gravar mesmo com atraso de replicacao. Requisicoes sem sessao (tokens de API) e rotinas
+ * agendadas nao tem essa garantia.</p>
+ *
+ * <p>Cargas de caches em memoria e o feed de sincronizacao nao podem ler dados atrasados: um cache preenchido pela
+ * replica logo apos uma invalidacao guardaria o valor antigo ate a proxima escrita, e o cursor do feed passaria
+ * por linhas ainda nao replicadas. Esses caminhos abrem {@link #lerDoPrincipal()} antes do primeiro comando, e os
+ * caches consultam {@link #transacaoLeuDaReplica()} para nao guardar o que veio da replica.</p>
+ */
+public class DataSourceRoteador extends AbstractRoutingDataSource {
+
+    static final String ATRIBUTO_ULTIMA_ESCRITA = DataSourceRoteador.class.getName() + ".ULTIMA_ESCRITA";
+
+    private static final String RECURSO_LEITURA_REPLICA = DataSourceRoteador.class.getName() + ".LEITURA_REPLICA";
+    private static final ThreadLocal<Integer> LEITURAS_NO_PRINCIPAL = ThreadLocal.withInitial(() -> 0);
+
+    private final Duration janelaPosEscrita;
+
+    /**
+     * Cria o roteador.
+     *
+     * @param primario         datasource de escrita
+     * @param replica          datasource de leitura
+     * @param janelaPosEscrita tempo em que a sessao que escreveu continua lendo do principal
+     */
+    public DataSourceRoteador(DataSource primario, DataSource replica, Duration janelaPosEscrita) {
+        this.janelaPosEscrita = janelaPosEscrita;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Escolhe o destino da conexao pela transacao corrente.
+     *
+     * @return destino da conexao
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscritaAoConfirmar();
+            return Destino.PRIMARIO;
+        }
+        if (LEITURAS_NO_PRINCIPAL.get() > 0 || escreveuRecentemente()) {
+            return Destino.PRIMARIO;
+        }
+        registrarLeituraDaReplica();
+        return Destino.REPLICA;
+    }
+
+    /**
+     * Forca o principal para as transacoes somente leitura que obtiverem conexao na thread corrente ate o
+     * fechamento do escopo. Como a conexao real so e escolhida no primeiro comando, o escopo pode ser aberto
+     * dentro do metodo transacional, desde que antes de qualquer consulta. Sem replica configurada nao tem efeito.
+     *
+     * @return escopo a fechar com try-with-resources
+     */
+    public static LeituraPrincipal lerDoPrincipal() {
+        LEITURAS_NO_PRINCIPAL.set(LEITURAS_NO_PRINCIPAL.get() + 1);
+        return () -> {
+            int restantes = LEITURAS_NO_PRINCIPAL.get() - 1;
+            if (restantes > 0) {
+                LEITURAS_NO_PRINCIPAL.set(restantes);
+            } else {
+                LEITURAS_NO_PRINCIPAL.remove();
+            }
+        };
+    }
+
+    /**
+     * Indica se a transacao corrente leu da replica, cujos dados podem estar atrasados em relacao ao principal.
+     *
+     * @return true quando o resultado nao deve ser guardado em cache
+     */
+    public static boolean transacaoLeuDaReplica() {
+        return TransactionSynchronizationManager.hasResource(RECURSO_LEITURA_REPLICA);
+    }
+
+    /**
+     * Marca a transacao corrente como leitora da replica ate o seu termino.
+     */
+    private static void registrarLeituraDaReplica() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(RECURSO_LEITURA_REPLICA)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(RECURSO_LEITURA_REPLICA, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RECURSO_LEITURA_REPLICA);
+            }
+        });
+    }
+
+    /**
+     * Agenda a marcacao de escrita na sessao para depois do commit da transacao corrente, se houver.
+     */
+    private void registrarEscritaAoConfirmar() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                HttpSession sessao = sessaoAtual();
+                if (sessao != null) {
+                    sessao.setAttribute(ATRIBUTO_ULTIMA_ESCRITA, Instant.now());
+                }
+            }
+        });
+    }
+
+    /**
+     * Indica se a sessao da requisicao corrente confirmou escrita dentro da janela.
+     *
+     * @return true quando a leitura deve ir ao principal
+     */
+    private boolean escreveuRecentemente() {
+        HttpSession sessao = sessaoAtual();
+        if (sessao == null) {
+            return false;
+        }
+        try {
+            return sessao.getAttribute(ATRIBUTO_ULTIMA_ESCRITA) instanceof Instant ultimaEscrita
+                    && ultimaEscrita.plus(janelaPosEscrita).isAfter(Instant.now());
+        } catch (IllegalStateException ex) {
+            // Sessao invalidada durante a requisicao (ex.: logout).
+            return false;
+        }
+    }
+
+    /**
+     * Sessao HTTP da requisicao na thread corrente, sem criar uma nova.
+     *
+     * @return sessao existente ou null fora de requisicao ou sem sessao
+     */
+    private static HttpSession sessaoAtual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest().getSession(false);
+        }
+        return null;
+    }
+
+    /**
+     * Escopo de {@link #lerDoPrincipal()}.
+     */
+    @FunctionalInterface
+    public interface LeituraPrincipal extends AutoCloseable {
+
+        /**
+         * Encerra o escopo; escopos aninhados mantem o principal ate o mais externo fechar.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Destinos possiveis da conexao.
+     */
+    enum Destino {
+        PRIMARIO,
+        REPLICA
+    }
+}
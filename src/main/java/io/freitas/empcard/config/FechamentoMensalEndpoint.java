@@ -0,0 +1,47 @@
+package io.freitas.empcard.config;
+
+import io.freitas.empcard.dto.SituacaoFechamentoMensalDto;
+import io.freitas.empcard.service.FechamentoMensalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Endpoint do actuator ({@code /actuator/fechamentomensal}) para acompanhar e disparar o fechamento mensal.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "fechamentomensal")
+public class FechamentoMensalEndpoint {
+
+    private final FechamentoMensalService fechamentoMensalService;
+
+    /**
+     * Retorna progresso e duracao da execucao atual ou da ultima concluida.
+     *
+     * @return situacao do fechamento
+     */
+    @ReadOperation
+    public SituacaoFechamentoMensalDto situacao() {
+        return fechamentoMensalService.situacao();
+    }
+
+    /**
+     * Dispara manualmente o pre-calculo em segundo plano.
+     *
+     * @param competencia competencia no formato yyyy-MM (padrao: competencia atual)
+     * @return indicador se a execucao foi iniciada
+     */
+    @WriteOperation
+    public Map<String, Object> executar(@Nullable String competencia) {
+        YearMonth alvo = competencia == null || competencia.isBlank() ? YearMonth.now() : YearMonth.parse(competencia);
+        boolean iniciado = fechamentoMensalService.iniciarAssincrono(alvo);
+        return Map.of("competencia", alvo.toString(), "iniciado", iniciado);
+    }
+}
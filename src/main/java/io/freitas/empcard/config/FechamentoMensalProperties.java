@@ -0,0 +1,21 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Parametros do job de fechamento mensal que pre-calcula relatorios da nova competencia.
+ *
+ * @param habilitado liga/desliga a execucao agendada
+ * @param cron       expressao cron do agendamento (padrao: dia 1 as 00:05)
+ * @param threads    tamanho maximo do pool de workers
+ * @param gerarPdf   quando true, tambem pre-gera o PDF de cada relatorio
+ */
+@ConfigurationProperties(prefix = "empcard.fechamento-mensal")
+public record FechamentoMensalProperties(
+        @DefaultValue("true") boolean habilitado,
+        @DefaultValue("0 5 0 1 * *") String cron,
+        @DefaultValue("4") int threads,
+        @DefaultValue("false") boolean gerarPdf
+) {
+}
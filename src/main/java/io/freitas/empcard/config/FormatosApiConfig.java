@@ -0,0 +1,54 @@
+package io.freitas.empcard.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios da API REST negociados pelo {@code Accept}: {@code application/cbor} e
+ * {@code application/x-jackson-smile}, alem do JSON padrao.
+ *
+ * <p>Os conversores usam o mesmo {@link Jackson2ObjectMapperBuilder} do Spring Boot, entao datas, competencias
+ * e enums saem com a mesma representacao do JSON. Ficam logo depois do conversor JSON: clientes que aceitam
+ * qualquer tipo continuam recebendo JSON. Todos escrevem direto no corpo da resposta, sem montar o payload
+ * inteiro em memoria.</p>
+ */
+@Configuration
+@RequiredArgsConstructor
+public class FormatosApiConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> construtorObjectMapper;
+
+    /**
+     * Troca os conversores CBOR/Smile padrao do Spring MVC pelos configurados com o builder do Boot.
+     *
+     * @param conversores conversores ja registrados
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> conversores) {
+        conversores.removeIf(conversor -> conversor instanceof MappingJackson2CborHttpMessageConverter
+                || conversor instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int posicao = conversores.size();
+        for (int i = 0; i < conversores.size(); i++) {
+            if (conversores.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                posicao = i + 1;
+                break;
+            }
+        }
+        conversores.add(posicao, new MappingJackson2SmileHttpMessageConverter(
+                construtorObjectMapper.getObject().factory(new SmileFactory()).build()));
+        conversores.add(posicao, new MappingJackson2CborHttpMessageConverter(
+                construtorObjectMapper.getObject().factory(new CBORFactory()).build()));
+    }
+}
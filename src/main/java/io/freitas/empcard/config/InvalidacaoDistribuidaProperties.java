@@ -0,0 +1,23 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Parametros do barramento de invalidacao entre instancias via LISTEN/NOTIFY do PostgreSQL.
+ *
+ * @param habilitado      publica e escuta alteracoes; desligado, cada instancia so invalida o proprio cache
+ * @param canal           canal do NOTIFY, o mesmo em todas as instancias
+ * @param intervaloEspera espera maxima por notificacoes antes de testar a conexao dedicada
+ * @param esperaReconexao pausa entre tentativas de reconectar apos falha
+ */
+@ConfigurationProperties(prefix = "empcard.invalidacao-distribuida")
+public record InvalidacaoDistribuidaProperties(
+        @DefaultValue("false") boolean habilitado,
+        @DefaultValue("empcard_alteracoes") String canal,
+        @DefaultValue("10s") Duration intervaloEspera,
+        @DefaultValue("5s") Duration esperaReconexao
+) {
+}
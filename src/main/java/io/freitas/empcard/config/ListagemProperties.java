@@ -0,0 +1,15 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Parametros das telas de listagem renderizadas em lotes.
+ *
+ * @param tamanhoLote quantidade de linhas lidas do banco por consulta; a resposta e enviada ao navegador a cada lote
+ */
+@ConfigurationProperties(prefix = "empcard.listagem")
+public record ListagemProperties(
+        @DefaultValue("500") int tamanhoLote
+) {
+}
@@ -1,28 +1,48 @@
 package io.freitas.empcard.config;
 
+import io.freitas.empcard.observabilidade.FiltroRegistroAcesso;
+import io.freitas.empcard.observabilidade.RegistradorAcessoAssincrono;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
+import org.springframework.core.Ordered;
 
 /**
  * Configuracoes de logging HTTP para ampliar rastreabilidade operacional.
  */
 @Configuration
+@ConditionalOnProperty(prefix = "empcard.acesso", name = "habilitado", havingValue = "true", matchIfMissing = true)
 public class LogConfig {
 
     /**
-     * Habilita log detalhado de requisicoes recebidas (metodo, URL e query string).
+     * Thread escritora e buffer circular do log de acesso.
      *
-     * @return filtro de logging de requests
+     * @param properties    parametros do log de acesso
+     * @param meterRegistry registro de metricas para o contador de descartes
+     * @return registrador assincrono
      */
     @Bean
-    public CommonsRequestLoggingFilter requestLoggingFilter() {
-        CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
-        filter.setIncludeClientInfo(true);
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(false);
-        filter.setIncludeHeaders(false);
-        filter.setAfterMessagePrefix("REQUEST RECEBIDA: ");
-        return filter;
+    public RegistradorAcessoAssincrono registradorAcessoAssincrono(RegistroAcessoProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new RegistradorAcessoAssincrono(properties.capacidade(), meterRegistry);
+    }
+
+    /**
+     * Registra o filtro de acesso antes da cadeia de seguranca para medir o atendimento completo
+     * (metodo, rota, status e latencia em JSON).
+     *
+     * @param registrador registrador assincrono
+     * @param properties  parametros do log de acesso
+     * @return registro do filtro
+     */
+    @Bean
+    public FilterRegistrationBean<FiltroRegistroAcesso> filtroRegistroAcesso(RegistradorAcessoAssincrono registrador,
+                                                                            RegistroAcessoProperties properties) {
+        FilterRegistrationBean<FiltroRegistroAcesso> registro =
+                new FilterRegistrationBean<>(new FiltroRegistroAcesso(registrador, properties));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
     }
 }
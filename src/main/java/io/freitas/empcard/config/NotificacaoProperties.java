@@ -0,0 +1,21 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Parametros do canal SSE de notificacoes de saldo.
+ *
+ * @param timeout      duracao maxima de uma conexao; o navegador reconecta sozinho ao expirar
+ * @param heartbeat    intervalo do comentario enviado para detectar conexoes mortas e manter proxies abertos
+ * @param maxConexoes  limite de conexoes simultaneas por instancia (acima dele responde 503)
+ */
+@ConfigurationProperties(prefix = "empcard.notificacoes")
+public record NotificacaoProperties(
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("25s") Duration heartbeat,
+        @DefaultValue("5000") int maxConexoes
+) {
+}
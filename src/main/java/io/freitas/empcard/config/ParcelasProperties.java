@@ -0,0 +1,19 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Parametros do cronograma materializado de parcelas.
+ *
+ * @param horizonteMeses meses a frente do mes atual ate onde lancamentos fixos sem fim tem linhas geradas
+ * @param tamanhoLote    linhas inseridas por lote na sincronizacao do startup e do agendamento
+ * @param cron           expressao cron da extensao mensal do horizonte (padrao: dia 1 as 00:01)
+ */
+@ConfigurationProperties(prefix = "empcard.parcelas")
+public record ParcelasProperties(
+        @DefaultValue("24") int horizonteMeses,
+        @DefaultValue("1000") int tamanhoLote,
+        @DefaultValue("0 1 0 1 * *") String cron
+) {
+}
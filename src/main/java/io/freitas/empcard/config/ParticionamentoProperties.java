@@ -0,0 +1,19 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Parametros da criacao automatica de particoes anuais de lancamentos e pagamentos (PostgreSQL).
+ *
+ * @param habilitado liga/desliga a criacao no startup e no agendamento
+ * @param anosAFrente quantidade de anos futuros mantidos com particao pronta
+ * @param cron        expressao cron do agendamento (padrao: dia 1 as 04:00)
+ */
+@ConfigurationProperties(prefix = "empcard.particionamento")
+public record ParticionamentoProperties(
+        @DefaultValue("true") boolean habilitado,
+        @DefaultValue("1") int anosAFrente,
+        @DefaultValue("0 0 4 1 * *") String cron
+) {
+}
@@ -0,0 +1,41 @@
+package io.freitas.empcard.config;
+
+import io.freitas.empcard.dto.MemoriaRazaoColunarDto;
+import io.freitas.empcard.service.RazaoCarteiraService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint do actuator ({@code /actuator/razaocolunar}) com a ocupacao de memoria do razao colunar.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "razaocolunar")
+public class RazaoColunarEndpoint {
+
+    private final RazaoCarteiraService razaoCarteiraService;
+
+    /**
+     * Retorna linhas carregadas, bytes alocados e o custo projetado por milhao de linhas.
+     *
+     * @return ocupacao do razao
+     */
+    @ReadOperation
+    public MemoriaRazaoColunarDto memoria() {
+        return razaoCarteiraService.memoria();
+    }
+
+    /**
+     * Recarrega o razao inteiro a partir do banco.
+     *
+     * @return ocupacao apos a carga
+     */
+    @WriteOperation
+    public MemoriaRazaoColunarDto recarregar() {
+        razaoCarteiraService.carregar();
+        return razaoCarteiraService.memoria();
+    }
+}
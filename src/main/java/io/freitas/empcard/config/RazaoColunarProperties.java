@@ -0,0 +1,17 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Parametros do razao colunar em memoria usado nas agregacoes da carteira.
+ *
+ * @param habilitado         quando true, carrega lancamentos e pagamentos no startup e os mantem atualizados
+ * @param tamanhoLoteLeitura linhas trazidas do banco por ida ao servidor durante a carga (fetch size do cursor)
+ */
+@ConfigurationProperties(prefix = "empcard.razao-colunar")
+public record RazaoColunarProperties(
+        @DefaultValue("true") boolean habilitado,
+        @DefaultValue("10000") int tamanhoLoteLeitura
+) {
+}
@@ -0,0 +1,136 @@
+package io.freitas.empcard.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.springframework.web.servlet.resource.VersionStrategy;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Pipeline de assets estaticos do ambiente de producao.
+ *
+ * <p>As URLs de CSS/JS recebem o hash do conteudo (ex.: {@code /css/app-3f2a...css}), entao podem ser
+ * cacheadas por um ano como {@code immutable}: qualquer alteracao gera uma URL nova. O mesmo arquivo pedido
+ * sem hash (links externos, favoritos, scripts antigos) recebe {@code no-cache} e e revalidado pelo
+ * {@code Last-Modified}, para que um deploy nao deixe navegadores presos a versao anterior. Quando o build
+ * gerou variantes {@code .br}/{@code .gz}, elas sao servidas conforme o {@code Accept-Encoding}.</p>
+ */
+@Configuration
+@Profile("prod")
+public class RecursosEstaticosConfig implements WebMvcConfigurer {
+
+    private static final Duration VALIDADE_ASSETS = Duration.ofDays(365);
+    private static final String[] CAMINHOS_VERSIONADOS = {"/css/**", "/js/**"};
+
+    private final VersionStrategy estrategiaVersao = new ContentVersionStrategy();
+
+    /**
+     * Substitui os handlers padrao de CSS e JS pela cadeia versionada.
+     *
+     * @param registry registro de handlers de recursos
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registrarVersionado(registry, "css");
+        registrarVersionado(registry, "js");
+    }
+
+    /**
+     * Define o {@code Cache-Control} dos assets conforme a URL traga ou nao o hash do conteudo.
+     *
+     * @param registry registro de interceptors
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CacheAssets(estrategiaVersao)).addPathPatterns(CAMINHOS_VERSIONADOS);
+    }
+
+    /**
+     * Reescreve {@code @{/css/...}} e {@code @{/js/...}} dos templates para a URL versionada.
+     *
+     * @return filtro de codificacao de URLs de recursos
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
+    /**
+     * Registra um diretorio de {@code static} com versionamento por conteudo e variantes pre-comprimidas.
+     * O handler nao define cache: o {@code Cache-Control} vem de {@link CacheAssets}.
+     *
+     * @param registry  registro de handlers de recursos
+     * @param diretorio subdiretorio de {@code static} e prefixo da URL
+     */
+    private void registrarVersionado(ResourceHandlerRegistry registry, String diretorio) {
+        registry.addResourceHandler("/" + diretorio + "/**")
+                .addResourceLocations("classpath:/static/" + diretorio + "/")
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addVersionStrategy(estrategiaVersao, "/**"))
+                .addTransformer(new CssLinkResourceTransformer());
+    }
+
+    /**
+     * Marca como {@code immutable} apenas URLs com hash de conteudo; as demais sao revalidadas a cada uso.
+     */
+    static final class CacheAssets implements HandlerInterceptor {
+
+        /**
+         * Hash MD5 em hexadecimal gerado pelo {@link ContentVersionStrategy}; evita tratar como versao um trecho
+         * comum de nome de arquivo (ex.: {@code -min} em {@code lib-min.js}).
+         */
+        private static final Pattern HASH_CONTEUDO = Pattern.compile("[0-9a-f]{32}");
+
+        private static final String CACHE_VERSIONADO =
+                CacheControl.maxAge(VALIDADE_ASSETS).cachePublic().immutable().getHeaderValue();
+        private static final String CACHE_SEM_VERSAO = CacheControl.noCache().cachePublic().getHeaderValue();
+
+        private final VersionStrategy estrategiaVersao;
+
+        CacheAssets(VersionStrategy estrategiaVersao) {
+            this.estrategiaVersao = estrategiaVersao;
+        }
+
+        /**
+         * Grava o {@code Cache-Control} antes do handler de recursos, que nao define cache proprio.
+         *
+         * @param request  requisicao do asset
+         * @param response resposta HTTP
+         * @param handler  handler de recursos
+         * @return sempre true
+         */
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            String caminho = request.getRequestURI().substring(request.getContextPath().length());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, versionado(caminho) ? CACHE_VERSIONADO : CACHE_SEM_VERSAO);
+            return true;
+        }
+
+        /**
+         * Indica se o caminho traz o hash de conteudo inserido pelo {@link ResourceUrlEncodingFilter}.
+         *
+         * @param caminho caminho do asset sem o context path
+         * @return true quando a URL muda a cada alteracao do arquivo
+         */
+        boolean versionado(String caminho) {
+            String versao = estrategiaVersao.extractVersion(caminho);
+            return versao != null && HASH_CONTEUDO.matcher(versao).matches();
+        }
+    }
+}
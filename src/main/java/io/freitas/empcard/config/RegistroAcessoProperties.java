@@ -0,0 +1,31 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Parametros do log de acesso HTTP assincrono.
+ *
+ * @param habilitado    liga/desliga o registro de acessos
+ * @param capacidade    tamanho do buffer circular entre as threads de requisicao e a thread escritora
+ * @param limiteLentoMs requisicoes acima deste tempo sao sempre registradas, independente da amostragem
+ * @param amostragem    taxa de amostragem (0.0 a 1.0) por padrao Ant de URI; a primeira correspondencia vence
+ *                      e rotas sem correspondencia sao registradas integralmente
+ */
+@ConfigurationProperties(prefix = "empcard.acesso")
+public record RegistroAcessoProperties(
+        @DefaultValue("true") boolean habilitado,
+        @DefaultValue("8192") int capacidade,
+        @DefaultValue("1000") long limiteLentoMs,
+        Map<String, Double> amostragem
+) {
+
+    /**
+     * Normaliza mapa ausente para vazio.
+     */
+    public RegistroAcessoProperties {
+        amostragem = amostragem == null ? Map.of() : amostragem;
+    }
+}
@@ -0,0 +1,17 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limites do cache em memoria de relatorios mensais.
+ *
+ * @param maxEntradas quantidade maxima de relatorios mantidos em memoria; acima dela sai o menos usado
+ * @param maxPdfs     quantidade maxima de PDFs mantidos em memoria (cada um ocupa dezenas de KB)
+ */
+@ConfigurationProperties(prefix = "empcard.relatorio-cache")
+public record RelatorioCacheProperties(
+        @DefaultValue("10000") int maxEntradas,
+        @DefaultValue("200") int maxPdfs
+) {
+}
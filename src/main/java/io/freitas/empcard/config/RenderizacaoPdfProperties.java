@@ -0,0 +1,27 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Controle de admissao da geracao de PDFs sob demanda.
+ *
+ * @param concorrencia  PDFs renderizados ao mesmo tempo por instancia
+ * @param fila          requisicoes aguardando vaga alem das em renderizacao; acima disso responde 429
+ * @param esperaMaxima  tempo maximo que uma requisicao sincrona espera na fila antes de receber 429
+ * @param retryAfter    valor do cabecalho {@code Retry-After} enviado com o 429
+ * @param retencao      tempo que um PDF assincrono pronto fica disponivel para download
+ * @param maxTrabalhos  PDFs assincronos guardados (pendentes ou prontos) por instancia
+ */
+@ConfigurationProperties(prefix = "empcard.pdf")
+public record RenderizacaoPdfProperties(
+        @DefaultValue("2") int concorrencia,
+        @DefaultValue("16") int fila,
+        @DefaultValue("15s") Duration esperaMaxima,
+        @DefaultValue("10s") Duration retryAfter,
+        @DefaultValue("10m") Duration retencao,
+        @DefaultValue("200") int maxTrabalhos
+) {
+}
@@ -0,0 +1,79 @@
+package io.freitas.empcard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Datasources principal e de replica com roteamento por transacao, ativado por
+ * {@code empcard.replica-leitura.habilitado=true}.
+ *
+ * <p>O principal continua configurado por {@code spring.datasource.*} e {@code spring.datasource.hikari.*}.
+ * Os dois pools nao sao candidatos a injecao por tipo: JPA, Flyway e JdbcTemplate recebem o datasource
+ * roteado.</p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "empcard.replica-leitura", name = "habilitado", havingValue = "true")
+public class ReplicaLeituraConfig {
+
+    /**
+     * Pool do banco principal, usado para escritas e para codigo fora de transacao.
+     *
+     * @param properties propriedades {@code spring.datasource}
+     * @return pool principal
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Pool somente leitura da replica.
+     *
+     * @param principal propriedades {@code spring.datasource}, usadas como padrao de driver e credenciais
+     * @param replica   propriedades da replica
+     * @return pool da replica
+     */
+    @Bean(defaultCandidate = false)
+    HikariDataSource dataSourceReplica(DataSourceProperties principal, ReplicaLeituraProperties replica) {
+        if (!StringUtils.hasText(replica.url())) {
+            throw new IllegalStateException("empcard.replica-leitura.url obrigatoria com a replica habilitada");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("empcard-replica");
+        dataSource.setDriverClassName(principal.determineDriverClassName());
+        dataSource.setJdbcUrl(replica.url());
+        dataSource.setUsername(StringUtils.hasText(replica.username()) ? replica.username() : principal.determineUsername());
+        dataSource.setPassword(replica.password() != null ? replica.password() : principal.determinePassword());
+        dataSource.setMaximumPoolSize(replica.tamanhoPool());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Datasource exposto a aplicacao: roteia por transacao e so obtem a conexao real no primeiro comando.
+     *
+     * @param primario   pool principal
+     * @param replica    pool da replica
+     * @param properties propriedades da replica
+     * @return datasource roteado
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                          @Qualifier("dataSourceReplica") DataSource replica,
+                          ReplicaLeituraProperties properties) {
+        return new LazyConnectionDataSourceProxy(
+                new DataSourceRoteador(primario, replica, properties.janelaPosEscrita()));
+    }
+}
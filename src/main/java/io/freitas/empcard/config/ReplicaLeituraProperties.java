@@ -0,0 +1,27 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Parametros da replica de leitura usada pelas transacoes somente leitura.
+ *
+ * @param habilitado       liga o roteamento; desligado, tudo usa o datasource principal
+ * @param url              URL JDBC da replica
+ * @param username         usuario da replica (padrao: o mesmo do principal)
+ * @param password         senha da replica (padrao: a mesma do principal)
+ * @param tamanhoPool      conexoes maximas do pool da replica
+ * @param janelaPosEscrita tempo em que a sessao que escreveu continua lendo do principal
+ */
+@ConfigurationProperties(prefix = "empcard.replica-leitura")
+public record ReplicaLeituraProperties(
+        @DefaultValue("false") boolean habilitado,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int tamanhoPool,
+        @DefaultValue("5s") Duration janelaPosEscrita
+) {
+}
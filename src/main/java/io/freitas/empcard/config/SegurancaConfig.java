@@ -1,21 +1,31 @@
 package io.freitas.empcard.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.freitas.empcard.security.FiltroSetupInicial;
+import io.freitas.empcard.security.FiltroTokenApi;
+import io.freitas.empcard.security.PontoEntradaTokenApi;
 import io.freitas.empcard.security.UsuarioDetailsService;
+import io.freitas.empcard.service.TokenApiService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 /**
  * Configuracao central de autenticacao e autorizacao da aplicacao.
@@ -28,6 +38,41 @@ public class SegurancaConfig {
 
     private final UsuarioDetailsService usuarioDetailsService;
     private final FiltroSetupInicial filtroSetupInicial;
+    private final TokenApiService tokenApiService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Cadeia stateless para clientes da API e do actuator que enviam {@code Authorization: Bearer}: sem sessao,
+     * sem CSRF e sem redirecionamento para login. Gerenciar tokens exige sessao, para que um token
+     * vazado nao consiga emitir outros.
+     *
+     * @param http objeto de configuracao HTTP do Spring Security
+     * @return cadeia de filtros da API por token
+     * @throws Exception erro de configuracao
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiTokenFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(new AndRequestMatcher(
+                        new OrRequestMatcher(
+                                PathPatternRequestMatcher.withDefaults().matcher("/api/**"),
+                                PathPatternRequestMatcher.withDefaults().matcher("/actuator/**")),
+                        FiltroTokenApi::possuiToken))
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/tokens/**").denyAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/**").hasAnyRole("ADMIN", "CONSULTA")
+                        .anyRequest().hasRole("ADMIN")
+                )
+                .exceptionHandling(excecao -> excecao.authenticationEntryPoint(new PontoEntradaTokenApi(objectMapper)))
+                .addFilterBefore(new FiltroTokenApi(tokenApiService), BasicAuthenticationFilter.class);
+
+        return http.build();
+    }
 
     /**
      * Configura regras de acesso para paginas MVC e endpoints REST.
@@ -37,6 +82,7 @@ public class SegurancaConfig {
      * @throws Exception erro de configuracao
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf
@@ -46,6 +92,9 @@ public class SegurancaConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/setup/**", "/login", "/css/**", "/js/**", "/images/**", "/error").permitAll()
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/api-docs/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/api/tokens/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/**").hasAnyRole("ADMIN", "CONSULTA")
                         .requestMatchers("/api/**").hasRole("ADMIN")
                         .requestMatchers("/usuarios/minha-senha").authenticated()
@@ -0,0 +1,24 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Parametros do feed de sincronizacao incremental.
+ *
+ * @param tamanhoPagina        maximo de registros por colecao em cada resposta
+ * @param margemConsistencia   atraso aplicado ao limite superior para que transacoes em andamento
+ *                             (cujo {@code updated_at} e o inicio da transacao) ja tenham feito commit
+ * @param retencaoExclusoes    tempo que as lapides sao mantidas; marcas mais antigas exigem carga completa
+ * @param cronLimpeza          agenda da remocao de lapides vencidas
+ */
+@ConfigurationProperties(prefix = "empcard.sincronizacao")
+public record SincronizacaoProperties(
+        @DefaultValue("500") int tamanhoPagina,
+        @DefaultValue("5s") Duration margemConsistencia,
+        @DefaultValue("90d") Duration retencaoExclusoes,
+        @DefaultValue("0 30 3 * * *") String cronLimpeza
+) {
+}
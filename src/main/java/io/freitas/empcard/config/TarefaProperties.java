@@ -0,0 +1,29 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Parametros dos workers de tarefas distribuidas entre instancias.
+ *
+ * @param habilitado          quando true, esta instancia busca e executa tarefas e a sincronizacao de parcelas vira lote
+ * @param threads             tarefas executadas ao mesmo tempo por instancia
+ * @param intervaloBusca      pausa entre buscas de tarefas pendentes
+ * @param intervaloHeartbeat  frequencia com que a instancia renova as tarefas em execucao (thread dedicada)
+ * @param limiteHeartbeat     tempo sem renovacao apos o qual a tarefa e considerada abandonada
+ * @param maxTentativas       tentativas por tarefa antes de marca-la como falha
+ * @param esperaRetentativa   espera antes da segunda tentativa; dobra a cada nova falha
+ */
+@ConfigurationProperties(prefix = "empcard.tarefas")
+public record TarefaProperties(
+        @DefaultValue("false") boolean habilitado,
+        @DefaultValue("4") int threads,
+        @DefaultValue("5s") Duration intervaloBusca,
+        @DefaultValue("15s") Duration intervaloHeartbeat,
+        @DefaultValue("1m") Duration limiteHeartbeat,
+        @DefaultValue("3") int maxTentativas,
+        @DefaultValue("30s") Duration esperaRetentativa
+) {
+}
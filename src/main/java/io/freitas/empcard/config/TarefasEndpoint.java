@@ -0,0 +1,45 @@
+package io.freitas.empcard.config;
+
+import io.freitas.empcard.dto.ProgressoLoteTarefaDto;
+import io.freitas.empcard.service.TarefaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint do actuator ({@code /actuator/tarefas}) com o progresso dos lotes de tarefas distribuidas.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "tarefas")
+public class TarefasEndpoint {
+
+    private static final int LOTES_RECENTES = 20;
+
+    private final TarefaService tarefaService;
+
+    /**
+     * Lista o progresso dos lotes mais recentes, somado entre todas as instancias.
+     *
+     * @return progresso dos ultimos lotes
+     */
+    @ReadOperation
+    public List<ProgressoLoteTarefaDto> lotes() {
+        return tarefaService.listarProgresso(LOTES_RECENTES);
+    }
+
+    /**
+     * Retorna o progresso de um lote ({@code /actuator/tarefas/{id}}); lote inexistente responde 404.
+     *
+     * @param id lote
+     * @return progresso do lote ou null
+     */
+    @ReadOperation
+    public ProgressoLoteTarefaDto lote(@Selector Long id) {
+        return tarefaService.buscarProgresso(id).orElse(null);
+    }
+}
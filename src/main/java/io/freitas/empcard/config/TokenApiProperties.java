@@ -0,0 +1,21 @@
+package io.freitas.empcard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Parametros dos tokens de acesso a API.
+ *
+ * @param validadePadraoDias validade aplicada quando a emissao nao informa prazo (0 = sem expiracao)
+ * @param cacheTtl           tempo maximo que uma verificacao fica em memoria sem consultar o banco
+ * @param cacheMaxEntradas   limite de tokens verificados mantidos em memoria
+ */
+@ConfigurationProperties(prefix = "empcard.token-api")
+public record TokenApiProperties(
+        @DefaultValue("90") int validadePadraoDias,
+        @DefaultValue("5m") Duration cacheTtl,
+        @DefaultValue("10000") int cacheMaxEntradas
+) {
+}
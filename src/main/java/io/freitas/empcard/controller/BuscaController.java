@@ -0,0 +1,38 @@
+package io.freitas.empcard.controller;
+
+import io.freitas.empcard.service.BuscaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Tela de busca unificada por pessoas, cartoes e lancamentos.
+ */
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/busca")
+public class BuscaController {
+
+    private static final int LIMITE_POR_TIPO = 20;
+
+    private final BuscaService buscaService;
+
+    /**
+     * Exibe resultados da busca agrupados por tipo.
+     *
+     * @param q     termo pesquisado
+     * @param model modelo da tela
+     * @return template de resultados
+     */
+    @GetMapping
+    public String buscar(@RequestParam(required = false) String q, Model model) {
+        if (q != null && !q.isBlank()) {
+            model.addAttribute("resultado", buscaService.buscar(q, LIMITE_POR_TIPO));
+        }
+        model.addAttribute("termo", q);
+        return "busca/resultado";
+    }
+}
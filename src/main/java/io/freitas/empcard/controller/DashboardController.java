@@ -18,6 +18,7 @@ import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Dashboard principal com visao consolidada do sistema.
@@ -46,11 +47,12 @@ public class DashboardController {
         List<Pessoa> pessoasAtivas = pessoaService.listarAtivos();
         List<ResumoSaldoPessoa> rankingSaldos = new ArrayList<>();
 
-        // Calcula saldo consolidado por pessoa na competencia corrente para priorizar cobranca.
+        // Saldo consolidado por pessoa na competencia corrente, calculado em lote, para priorizar cobranca.
+        Map<Long, RelatorioPessoaDto> relatorios = relatorioService.gerarRelatoriosPessoas(pessoasAtivas, competenciaAtual);
         for (Pessoa pessoa : pessoasAtivas) {
-            RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(pessoa.getId(), competenciaAtual);
+            RelatorioPessoaDto relatorio = relatorios.get(pessoa.getId());
             if (relatorio.totalGeralSaldo().signum() > 0) {
-                rankingSaldos.add(new ResumoSaldoPessoa(pessoa.getNome(), relatorio.totalGeralSaldo()));
+                rankingSaldos.add(new ResumoSaldoPessoa(pessoa.getId(), pessoa.getNome(), relatorio.totalGeralSaldo()));
             }
         }
 
@@ -62,22 +64,23 @@ public class DashboardController {
 
         model.addAttribute("competenciaAtual", competenciaAtual);
         model.addAttribute("totalPessoasAtivas", pessoasAtivas.size());
-        model.addAttribute("totalCartoesAtivos", cartaoService.listarAtivos().size());
-        model.addAttribute("totalLancamentos", lancamentoService.listarTodos().size());
-        model.addAttribute("totalPagamentos", pagamentoService.listarTodos().size());
+        model.addAttribute("totalCartoesAtivos", cartaoService.contarAtivos());
+        model.addAttribute("totalLancamentos", lancamentoService.contar());
+        model.addAttribute("totalPagamentos", pagamentoService.contar());
         model.addAttribute("totalEmAberto", totalEmAberto);
         model.addAttribute("rankingSaldos", rankingSaldos.stream().limit(10).toList());
 
-        log.info("Dashboard carregado para competencia {}", competenciaAtual);
+        log.debug("Dashboard carregado para competencia {}", competenciaAtual);
         return "dashboard/index";
     }
 
     /**
      * Projecao interna para exibir ranking de saldos no dashboard.
      *
+     * @param pessoaId   id da pessoa, usado para atualizar a linha por notificacao
      * @param nomePessoa nome da pessoa
      * @param saldo      saldo em aberto
      */
-    private record ResumoSaldoPessoa(String nomePessoa, BigDecimal saldo) {
+    private record ResumoSaldoPessoa(Long pessoaId, String nomePessoa, BigDecimal saldo) {
     }
 }
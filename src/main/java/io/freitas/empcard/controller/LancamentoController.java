@@ -6,6 +6,7 @@ import io.freitas.empcard.model.TipoLancamento;
 import io.freitas.empcard.service.CartaoService;
 import io.freitas.empcard.service.LancamentoService;
 import io.freitas.empcard.service.PessoaService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,12 +35,13 @@ public class LancamentoController {
     /**
      * Lista lancamentos ja registrados.
      *
-     * @param model modelo da tela
+     * @param model    modelo da tela
+     * @param response resposta enviada em lotes durante a renderizacao
      * @return template de listagem
      */
     @GetMapping
-    public String listar(Model model) {
-        model.addAttribute("lancamentos", lancamentoService.listarTodos());
+    public String listar(Model model, HttpServletResponse response) {
+        model.addAttribute("lancamentos", RespostaEmLotes.enviarPorLote(lancamentoService.listarEmLotes(), response));
         return "lancamentos/lista";
     }
 
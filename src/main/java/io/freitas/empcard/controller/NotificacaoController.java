@@ -0,0 +1,34 @@
+package io.freitas.empcard.controller;
+
+import io.freitas.empcard.service.NotificacaoSaldoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Canal SSE usado pelo dashboard e pelo relatorio para refletir alteracoes de saldo sem recarregar a pagina.
+ */
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/notificacoes")
+public class NotificacaoController {
+
+    private final NotificacaoSaldoService notificacaoSaldoService;
+
+    /**
+     * Abre o fluxo de notificacoes de saldo; acima do limite de conexoes responde 503 e o navegador tenta de novo.
+     *
+     * @return emitter da conexao ou 503 quando a instancia esta cheia
+     */
+    @GetMapping(value = "/saldos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> saldos() {
+        return notificacaoSaldoService.conectar()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
@@ -5,6 +5,7 @@ import io.freitas.empcard.model.Pagamento;
 import io.freitas.empcard.service.CartaoService;
 import io.freitas.empcard.service.PagamentoService;
 import io.freitas.empcard.service.PessoaService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -35,12 +36,13 @@ public class PagamentoController {
     /**
      * Lista pagamentos registrados.
      *
-     * @param model modelo da tela
+     * @param model    modelo da tela
+     * @param response resposta enviada em lotes durante a renderizacao
      * @return template de listagem
      */
     @GetMapping
-    public String listar(Model model) {
-        model.addAttribute("pagamentos", pagamentoService.listarTodos());
+    public String listar(Model model, HttpServletResponse response) {
+        model.addAttribute("pagamentos", RespostaEmLotes.enviarPorLote(pagamentoService.listarEmLotes(), response));
         return "pagamentos/lista";
     }
 
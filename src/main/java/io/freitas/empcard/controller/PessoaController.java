@@ -3,6 +3,7 @@ package io.freitas.empcard.controller;
 import io.freitas.empcard.dto.PessoaFormDto;
 import io.freitas.empcard.model.Pessoa;
 import io.freitas.empcard.service.PessoaService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,12 +32,13 @@ public class PessoaController {
     /**
      * Lista pessoas cadastradas exibindo botoes de visualizar, editar, desativar e excluir.
      *
-     * @param model modelo da tela
+     * @param model    modelo da tela
+     * @param response resposta enviada em lotes durante a renderizacao
      * @return template de listagem
      */
     @GetMapping
-    public String listar(Model model) {
-        model.addAttribute("pessoas", pessoaService.listarTodos());
+    public String listar(Model model, HttpServletResponse response) {
+        model.addAttribute("pessoas", RespostaEmLotes.enviarPorLote(pessoaService.listarEmLotes(), response));
         return "pessoas/lista";
     }
 
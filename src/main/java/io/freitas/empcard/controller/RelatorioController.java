@@ -1,11 +1,22 @@
 package io.freitas.empcard.controller;
 
+import io.freitas.empcard.dto.ArquivoPdfDto;
+import io.freitas.empcard.dto.FaturaCartaoDto;
+import io.freitas.empcard.dto.RelatorioInadimplenciaDto;
 import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.dto.SituacaoTrabalhoPdf;
+import io.freitas.empcard.dto.TrabalhoPdfDto;
+import io.freitas.empcard.service.CartaoService;
+import io.freitas.empcard.service.FaturaCartaoService;
+import io.freitas.empcard.service.FilaRenderizacaoPdfService;
+import io.freitas.empcard.service.InadimplenciaService;
 import io.freitas.empcard.service.PdfRelatorioService;
 import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.RelatorioCacheService;
 import io.freitas.empcard.service.RelatorioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -16,12 +27,16 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.time.YearMonth;
+import java.util.UUID;
 
 /**
- * Controlador de relatorios mensais por pessoa com exportacao em PDF.
+ * Controlador de relatorios mensais por pessoa e faturas por cartao com exportacao em PDF.
  */
 @Slf4j
 @Controller
@@ -31,7 +46,12 @@ public class RelatorioController {
 
     private final PessoaService pessoaService;
     private final RelatorioService relatorioService;
-    private final PdfRelatorioService pdfRelatorioService;
+    private final ObjectProvider<PdfRelatorioService> pdfRelatorioService;
+    private final RelatorioCacheService relatorioCacheService;
+    private final InadimplenciaService inadimplenciaService;
+    private final CartaoService cartaoService;
+    private final FaturaCartaoService faturaCartaoService;
+    private final FilaRenderizacaoPdfService filaRenderizacaoPdfService;
 
     /**
      * Exibe filtro e resultado do relatorio analitico mensal por pessoa.
@@ -63,7 +83,24 @@ public class RelatorioController {
     }
 
     /**
-     * Exporta PDF analitico mensal de pessoa para envio externo.
+     * Devolve apenas o bloco de resultado do relatorio, usado para atualizar a tela apos notificacao de saldo.
+     *
+     * @param pessoaId         id da pessoa
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @param model            modelo do fragmento
+     * @return fragmento de resultado do template de relatorio
+     */
+    @GetMapping("/pessoas/{pessoaId}/resultado")
+    public String resultadoPessoa(@PathVariable Long pessoaId,
+                                  @RequestParam String competenciaTexto,
+                                  Model model) {
+        model.addAttribute("relatorio", relatorioService.gerarRelatorioPessoa(pessoaId, YearMonth.parse(competenciaTexto)));
+        return "relatorios/pessoa :: resultado";
+    }
+
+    /**
+     * Exporta PDF analitico mensal de pessoa para envio externo. A renderizacao passa pelo controle de
+     * admissao e, com a fila cheia, responde 429 com Retry-After.
      *
      * @param pessoaId         id da pessoa
      * @param competenciaTexto competencia no formato yyyy-MM
@@ -74,17 +111,175 @@ public class RelatorioController {
                                               @RequestParam String competenciaTexto) {
         YearMonth competencia = YearMonth.parse(competenciaTexto);
         RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(pessoaId, competencia);
-        byte[] arquivo = pdfRelatorioService.gerarPdfRelatorioPessoa(relatorio);
 
-        String nomeArquivo = "relatorio-" + relatorio.nomePessoa().replace(' ', '-') + "-" + competencia + ".pdf";
+        // PDFs pre-gerados pelo fechamento mensal evitam nova renderizacao no pico de acesso.
+        byte[] arquivo = relatorioCacheService.buscarPdf(pessoaId, competencia);
+        if (arquivo == null) {
+            arquivo = filaRenderizacaoPdfService.executar(
+                    () -> pdfRelatorioService.getObject().gerarPdfRelatorioPessoa(relatorio));
+        }
+
+        log.debug("PDF disponibilizado para download. pessoaId={}, competencia={}", pessoaId, competencia);
+        return ResponseEntity.ok().headers(cabecalhosPdf(nomeArquivoRelatorio(relatorio))).body(arquivo);
+    }
+
+    /**
+     * Modo assincrono do PDF de pessoa ({@code assincrono=true}): enfileira a geracao e responde 202 com o
+     * endereco de acompanhamento, sem ocupar a requisicao durante a renderizacao.
+     *
+     * @param pessoaId         id da pessoa
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @param principal        usuario autenticado, unico autorizado a baixar o arquivo
+     * @return 202 com id do trabalho e cabecalho Location
+     */
+    @GetMapping(value = "/pessoas/{pessoaId}/pdf", params = "assincrono=true")
+    public ResponseEntity<TrabalhoPdfDto> agendarPdf(@PathVariable Long pessoaId,
+                                                     @RequestParam String competenciaTexto,
+                                                     Principal principal) {
+        YearMonth competencia = YearMonth.parse(competenciaTexto);
+        RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(pessoaId, competencia);
+        byte[] emCache = relatorioCacheService.buscarPdf(pessoaId, competencia);
+
+        UUID id = filaRenderizacaoPdfService.agendar(principal.getName(), () -> new ArquivoPdfDto(
+                nomeArquivoRelatorio(relatorio),
+                emCache != null ? emCache : pdfRelatorioService.getObject().gerarPdfRelatorioPessoa(relatorio)));
+
+        TrabalhoPdfDto trabalho = trabalhoPdf(id, SituacaoTrabalhoPdf.PENDENTE);
+        return ResponseEntity.accepted().location(URI.create(trabalho.urlSituacao())).body(trabalho);
+    }
+
+    /**
+     * Consulta a situacao de um PDF assincrono.
+     *
+     * @param id        trabalho
+     * @param principal usuario autenticado
+     * @return situacao com endereco de download quando pronto, ou 404
+     */
+    @GetMapping("/pdf/{id}")
+    public ResponseEntity<TrabalhoPdfDto> situacaoPdf(@PathVariable UUID id, Principal principal) {
+        return ResponseEntity.of(filaRenderizacaoPdfService.situacao(id, principal.getName())
+                .map(situacao -> trabalhoPdf(id, situacao)));
+    }
+
+    /**
+     * Baixa um PDF assincrono pronto.
+     *
+     * @param id        trabalho
+     * @param principal usuario autenticado
+     * @return arquivo PDF em anexo, ou 404 quando inexistente, expirado ou ainda nao pronto
+     */
+    @GetMapping("/pdf/{id}/arquivo")
+    public ResponseEntity<byte[]> baixarPdf(@PathVariable UUID id, Principal principal) {
+        return filaRenderizacaoPdfService.arquivo(id, principal.getName())
+                .map(arquivo -> ResponseEntity.ok().headers(cabecalhosPdf(arquivo.nomeArquivo())).body(arquivo.conteudo()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Exibe filtro e resultado da fatura de um cartao com as compras de todas as pessoas.
+     *
+     * @param cartaoId         id do cartao selecionado
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @param model            modelo da tela
+     * @return template de fatura por cartao
+     */
+    @GetMapping("/cartoes")
+    public String faturaCartoes(@RequestParam(required = false) Long cartaoId,
+                                @RequestParam(required = false) String competenciaTexto,
+                                Model model) {
+        model.addAttribute("cartoes", cartaoService.listarAtivos());
+
+        YearMonth competencia = (competenciaTexto == null || competenciaTexto.isBlank())
+                ? YearMonth.now()
+                : YearMonth.parse(competenciaTexto);
+
+        model.addAttribute("competenciaSelecionada", competencia);
+        model.addAttribute("cartaoIdSelecionado", cartaoId);
+
+        if (cartaoId != null) {
+            model.addAttribute("fatura", faturaCartaoService.gerarFatura(cartaoId, competencia));
+        }
+
+        return "relatorios/cartao";
+    }
+
+    /**
+     * Exporta PDF da fatura de um cartao para conferencia com a fatura do banco.
+     *
+     * @param cartaoId         id do cartao
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @return arquivo PDF em anexo
+     */
+    @GetMapping("/cartoes/{cartaoId}/pdf")
+    public ResponseEntity<byte[]> exportarPdfFatura(@PathVariable Long cartaoId,
+                                                    @RequestParam String competenciaTexto) {
+        YearMonth competencia = YearMonth.parse(competenciaTexto);
+        FaturaCartaoDto fatura = faturaCartaoService.gerarFatura(cartaoId, competencia);
+        byte[] arquivo = filaRenderizacaoPdfService.executar(() -> pdfRelatorioService.getObject().gerarPdfFaturaCartao(fatura));
+
+        String nomeArquivo = "fatura-" + fatura.banco().replace(' ', '-') + "-"
+                + fatura.numeroMascarado().substring(Math.max(0, fatura.numeroMascarado().length() - 4))
+                + "-" + competencia + ".pdf";
+
+        log.debug("PDF de fatura disponibilizado para download. cartaoId={}, competencia={}", cartaoId, competencia);
+        return ResponseEntity.ok().headers(cabecalhosPdf(nomeArquivo)).body(arquivo);
+    }
+
+    /**
+     * Exporta aging de inadimplencia da carteira em CSV.
+     *
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @return arquivo CSV em anexo
+     */
+    @GetMapping("/inadimplencia/csv")
+    public ResponseEntity<byte[]> exportarInadimplenciaCsv(@RequestParam String competenciaTexto) {
+        YearMonth competencia = YearMonth.parse(competenciaTexto);
+        RelatorioInadimplenciaDto relatorio = inadimplenciaService.gerarRelatorio(competencia);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("inadimplencia-" + competencia + ".csv", StandardCharsets.UTF_8)
+                .build());
+        return ResponseEntity.ok().headers(headers).body(inadimplenciaService.gerarCsv(relatorio));
+    }
 
+    /**
+     * Monta cabecalhos de download de PDF.
+     *
+     * @param nomeArquivo nome sugerido ao navegador
+     * @return cabecalhos com tipo e Content-Disposition de anexo
+     */
+    private static HttpHeaders cabecalhosPdf(String nomeArquivo) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDisposition(ContentDisposition.attachment()
                 .filename(nomeArquivo, StandardCharsets.UTF_8)
                 .build());
+        return headers;
+    }
+
+    /**
+     * Nome do arquivo do relatorio mensal de pessoa.
+     *
+     * @param relatorio relatorio exportado
+     * @return nome do PDF
+     */
+    private static String nomeArquivoRelatorio(RelatorioPessoaDto relatorio) {
+        return "relatorio-" + relatorio.nomePessoa().replace(' ', '-') + "-" + relatorio.competencia() + ".pdf";
+    }
 
-        log.info("PDF disponibilizado para download. pessoaId={}, competencia={}", pessoaId, competencia);
-        return ResponseEntity.ok().headers(headers).body(arquivo);
+    /**
+     * Monta a resposta de um PDF assincrono com os enderecos de acompanhamento e download.
+     *
+     * @param id       trabalho
+     * @param situacao etapa atual
+     * @return dados do trabalho
+     */
+    private static TrabalhoPdfDto trabalhoPdf(UUID id, SituacaoTrabalhoPdf situacao) {
+        String urlSituacao = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/relatorios/pdf/{id}").buildAndExpand(id).toUriString();
+        return new TrabalhoPdfDto(id, situacao, urlSituacao,
+                situacao == SituacaoTrabalhoPdf.PRONTO ? urlSituacao + "/arquivo" : null);
     }
 }
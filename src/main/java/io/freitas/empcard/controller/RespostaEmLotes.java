@@ -0,0 +1,40 @@
+package io.freitas.empcard.controller;
+
+import io.freitas.empcard.service.ListagemEmLotes;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Apoio as telas de listagem renderizadas em lotes.
+ *
+ * <p>O Thymeleaf escreve direto no writer da resposta enquanto percorre a listagem; descarregar o buffer antes
+ * de cada consulta envia o cabecalho da pagina e as linhas ja prontas sem esperar o fim. Depois do primeiro
+ * envio a resposta esta confirmada: uma falha no meio da listagem interrompe a pagina em vez de exibir a tela
+ * de erro.</p>
+ */
+final class RespostaEmLotes {
+
+    private RespostaEmLotes() {
+    }
+
+    /**
+     * Faz a listagem descarregar a resposta antes de buscar cada lote.
+     *
+     * @param listagem listagem em lotes
+     * @param response resposta HTTP da tela
+     * @param <T>      tipo listado
+     * @return a propria listagem
+     */
+    static <T> ListagemEmLotes<T> enviarPorLote(ListagemEmLotes<T> listagem, HttpServletResponse response) {
+        return listagem.antesDeBuscarLote(() -> {
+            try {
+                response.flushBuffer();
+            } catch (IOException ex) {
+                // Cliente desconectou: interrompe a renderizacao e as consultas restantes.
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+}
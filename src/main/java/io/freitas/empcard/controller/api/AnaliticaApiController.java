@@ -0,0 +1,92 @@
+package io.freitas.empcard.controller.api;
+
+import io.freitas.empcard.dto.DimensaoAnalitica;
+import io.freitas.empcard.dto.SerieAnaliticaDto;
+import io.freitas.empcard.exception.RegraDeNegocioException;
+import io.freitas.empcard.service.AnaliticaCarteiraService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.Locale;
+
+/**
+ * API REST de series analiticas da carteira inteira.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "Series mensais de compras e pagamentos da carteira")
+public class AnaliticaApiController {
+
+    private static final int MESES_PADRAO = 12;
+
+    private final AnaliticaCarteiraService analiticaCarteiraService;
+
+    /**
+     * Retorna compras por mes: quantidade, valor contratado e media de parcelas por tipo, banco ou bandeira.
+     *
+     * @param por    agrupamento: total, tipo, banco ou bandeira
+     * @param inicio primeira competencia no formato yyyy-MM; padrao e onze meses antes do fim
+     * @param fim    ultima competencia no formato yyyy-MM; padrao e a competencia atual
+     * @return serie mensal das compras
+     */
+    @GetMapping("/compras")
+    @Operation(summary = "Serie mensal de compras da carteira")
+    public ResponseEntity<SerieAnaliticaDto> compras(@RequestParam(defaultValue = "tipo") String por,
+                                                     @RequestParam(required = false) String inicio,
+                                                     @RequestParam(required = false) String fim) {
+        YearMonth ultima = competencia(fim, YearMonth.now());
+        return ResponseEntity.ok(analiticaCarteiraService.compras(
+                dimensao(por), competencia(inicio, ultima.minusMonths(MESES_PADRAO - 1)), ultima));
+    }
+
+    /**
+     * Retorna pagamentos recebidos por mes, no total ou por banco ou bandeira do cartao.
+     *
+     * @param por    agrupamento: total, banco ou bandeira
+     * @param inicio primeira competencia no formato yyyy-MM; padrao e onze meses antes do fim
+     * @param fim    ultima competencia no formato yyyy-MM; padrao e a competencia atual
+     * @return serie mensal dos pagamentos
+     */
+    @GetMapping("/pagamentos")
+    @Operation(summary = "Serie mensal de pagamentos recebidos")
+    public ResponseEntity<SerieAnaliticaDto> pagamentos(@RequestParam(defaultValue = "total") String por,
+                                                        @RequestParam(required = false) String inicio,
+                                                        @RequestParam(required = false) String fim) {
+        YearMonth ultima = competencia(fim, YearMonth.now());
+        return ResponseEntity.ok(analiticaCarteiraService.pagamentos(
+                dimensao(por), competencia(inicio, ultima.minusMonths(MESES_PADRAO - 1)), ultima));
+    }
+
+    /**
+     * Converte o agrupamento informado, sem diferenciar maiusculas.
+     *
+     * @param por texto do agrupamento
+     * @return dimensao correspondente
+     */
+    private DimensaoAnalitica dimensao(String por) {
+        try {
+            return DimensaoAnalitica.valueOf(por.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new RegraDeNegocioException("Agrupamento invalido: " + por);
+        }
+    }
+
+    /**
+     * Le competencia opcional.
+     *
+     * @param texto  competencia no formato yyyy-MM
+     * @param padrao valor usado quando o texto esta vazio
+     * @return competencia
+     */
+    private YearMonth competencia(String texto, YearMonth padrao) {
+        return texto == null || texto.isBlank() ? padrao : YearMonth.parse(texto);
+    }
+}
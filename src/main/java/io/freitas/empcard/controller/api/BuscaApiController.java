@@ -0,0 +1,38 @@
+package io.freitas.empcard.controller.api;
+
+import io.freitas.empcard.dto.ResultadoBuscaDto;
+import io.freitas.empcard.service.BuscaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * API de busca aproximada por pessoas, cartoes e lancamentos.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/busca")
+@Tag(name = "Busca", description = "Busca aproximada por nome, CPF, cartao e descricao")
+public class BuscaApiController {
+
+    private final BuscaService buscaService;
+
+    /**
+     * Busca o termo por nome e CPF de pessoas, final/banco/bandeira de cartoes e descricao de lancamentos.
+     *
+     * @param q      termo pesquisado (minimo de 2 caracteres uteis)
+     * @param limite quantidade maxima por tipo (ate 50)
+     * @return resultados agrupados por tipo em ordem de relevancia
+     */
+    @GetMapping
+    @Operation(summary = "Buscar pessoas, cartoes e lancamentos")
+    public ResponseEntity<ResultadoBuscaDto> buscar(@RequestParam String q,
+                                                    @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(buscaService.buscar(q, limite));
+    }
+}
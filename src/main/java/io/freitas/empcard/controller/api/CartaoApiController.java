@@ -3,7 +3,9 @@ package io.freitas.empcard.controller.api;
 import io.freitas.empcard.dto.CartaoFormDto;
 import io.freitas.empcard.dto.CartaoResponseDto;
 import io.freitas.empcard.mapper.CartaoMapper;
+import io.freitas.empcard.model.Cartao;
 import io.freitas.empcard.service.CartaoService;
+import io.freitas.empcard.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,28 +35,34 @@ import java.util.List;
 public class CartaoApiController {
 
     private final CartaoService cartaoService;
+    private final VersaoRecursoService versaoRecursoService;
 
     /**
-     * Lista cartoes cadastrados.
+     * Lista cartoes cadastrados, respondendo 304 quando o cliente informa ETag ainda valido.
      *
+     * @param request requisicao com cabecalhos condicionais
      * @return lista de cartoes
      */
     @GetMapping
     @Operation(summary = "Listar cartoes")
-    public List<CartaoResponseDto> listar() {
-        return cartaoService.listarTodos().stream().map(CartaoMapper::paraResponse).toList();
+    public ResponseEntity<List<CartaoResponseDto>> listar(WebRequest request) {
+        return RespostaCondicionalApi.responder(request, versaoRecursoService.etagCartoes(),
+                () -> cartaoService.listarTodos().stream().map(CartaoMapper::paraResponse).toList());
     }
 
     /**
      * Busca cartao por id.
      *
-     * @param id id do cartao
+     * @param id      id do cartao
+     * @param request requisicao com cabecalhos condicionais
      * @return cartao encontrado
      */
     @GetMapping("/{id}")
     @Operation(summary = "Buscar cartao por id")
-    public CartaoResponseDto buscarPorId(@PathVariable Long id) {
-        return CartaoMapper.paraResponse(cartaoService.buscarPorId(id));
+    public ResponseEntity<CartaoResponseDto> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Cartao cartao = cartaoService.buscarPorId(id);
+        String etag = versaoRecursoService.etagEntidade("cartoes", id, cartao);
+        return RespostaCondicionalApi.responder(request, etag, () -> CartaoMapper.paraResponse(cartao));
     }
 
     /**
@@ -3,7 +3,9 @@ package io.freitas.empcard.controller.api;
 import io.freitas.empcard.dto.LancamentoFormDto;
 import io.freitas.empcard.dto.LancamentoResponseDto;
 import io.freitas.empcard.mapper.LancamentoMapper;
+import io.freitas.empcard.model.Lancamento;
 import io.freitas.empcard.service.LancamentoService;
+import io.freitas.empcard.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,28 +35,34 @@ import java.util.List;
 public class LancamentoApiController {
 
     private final LancamentoService lancamentoService;
+    private final VersaoRecursoService versaoRecursoService;
 
     /**
-     * Lista lancamentos cadastrados.
+     * Lista lancamentos cadastrados, respondendo 304 quando o cliente informa ETag ainda valido.
      *
+     * @param request requisicao com cabecalhos condicionais
      * @return lista de lancamentos
      */
     @GetMapping
     @Operation(summary = "Listar lancamentos")
-    public List<LancamentoResponseDto> listar() {
-        return lancamentoService.listarTodos().stream().map(LancamentoMapper::paraResponse).toList();
+    public ResponseEntity<List<LancamentoResponseDto>> listar(WebRequest request) {
+        return RespostaCondicionalApi.responder(request, versaoRecursoService.etagLancamentos(),
+                () -> lancamentoService.listarTodos().stream().map(LancamentoMapper::paraResponse).toList());
     }
 
     /**
      * Busca lancamento por id.
      *
-     * @param id id do lancamento
+     * @param id      id do lancamento
+     * @param request requisicao com cabecalhos condicionais
      * @return lancamento encontrado
      */
     @GetMapping("/{id}")
     @Operation(summary = "Buscar lancamento por id")
-    public LancamentoResponseDto buscarPorId(@PathVariable Long id) {
-        return LancamentoMapper.paraResponse(lancamentoService.buscarPorId(id));
+    public ResponseEntity<LancamentoResponseDto> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Lancamento lancamento = lancamentoService.buscarPorId(id);
+        String etag = versaoRecursoService.etagEntidade("lancamentos", id, lancamento, lancamento.getPessoa(), lancamento.getCartao());
+        return RespostaCondicionalApi.responder(request, etag, () -> LancamentoMapper.paraResponse(lancamento));
     }
 
     /**
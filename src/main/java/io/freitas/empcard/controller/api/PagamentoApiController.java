@@ -3,7 +3,9 @@ package io.freitas.empcard.controller.api;
 import io.freitas.empcard.dto.PagamentoFormDto;
 import io.freitas.empcard.dto.PagamentoResponseDto;
 import io.freitas.empcard.mapper.PagamentoMapper;
+import io.freitas.empcard.model.Pagamento;
 import io.freitas.empcard.service.PagamentoService;
+import io.freitas.empcard.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,28 +34,34 @@ import java.util.List;
 public class PagamentoApiController {
 
     private final PagamentoService pagamentoService;
+    private final VersaoRecursoService versaoRecursoService;
 
     /**
-     * Lista pagamentos cadastrados.
+     * Lista pagamentos cadastrados, respondendo 304 quando o cliente informa ETag ainda valido.
      *
+     * @param request requisicao com cabecalhos condicionais
      * @return lista de pagamentos
      */
     @GetMapping
     @Operation(summary = "Listar pagamentos")
-    public List<PagamentoResponseDto> listar() {
-        return pagamentoService.listarTodos().stream().map(PagamentoMapper::paraResponse).toList();
+    public ResponseEntity<List<PagamentoResponseDto>> listar(WebRequest request) {
+        return RespostaCondicionalApi.responder(request, versaoRecursoService.etagPagamentos(),
+                () -> pagamentoService.listarTodos().stream().map(PagamentoMapper::paraResponse).toList());
     }
 
     /**
      * Busca pagamento por id.
      *
-     * @param id id do pagamento
+     * @param id      id do pagamento
+     * @param request requisicao com cabecalhos condicionais
      * @return pagamento encontrado
      */
     @GetMapping("/{id}")
     @Operation(summary = "Buscar pagamento por id")
-    public PagamentoResponseDto buscarPorId(@PathVariable Long id) {
-        return PagamentoMapper.paraResponse(pagamentoService.buscarPorId(id));
+    public ResponseEntity<PagamentoResponseDto> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Pagamento pagamento = pagamentoService.buscarPorId(id);
+        String etag = versaoRecursoService.etagEntidade("pagamentos", id, pagamento, pagamento.getPessoa(), pagamento.getCartao());
+        return RespostaCondicionalApi.responder(request, etag, () -> PagamentoMapper.paraResponse(pagamento));
     }
 
     /**
@@ -3,7 +3,9 @@ package io.freitas.empcard.controller.api;
 import io.freitas.empcard.dto.PessoaFormDto;
 import io.freitas.empcard.dto.PessoaResponseDto;
 import io.freitas.empcard.mapper.PessoaMapper;
+import io.freitas.empcard.model.Pessoa;
 import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,28 +35,34 @@ import java.util.List;
 public class PessoaApiController {
 
     private final PessoaService pessoaService;
+    private final VersaoRecursoService versaoRecursoService;
 
     /**
-     * Lista todas as pessoas cadastradas.
+     * Lista todas as pessoas cadastradas, respondendo 304 quando o cliente informa ETag ainda valido.
      *
+     * @param request requisicao com cabecalhos condicionais
      * @return lista de pessoas
      */
     @GetMapping
     @Operation(summary = "Listar pessoas")
-    public List<PessoaResponseDto> listar() {
-        return pessoaService.listarTodos().stream().map(PessoaMapper::paraResponse).toList();
+    public ResponseEntity<List<PessoaResponseDto>> listar(WebRequest request) {
+        return RespostaCondicionalApi.responder(request, versaoRecursoService.etagPessoas(),
+                () -> pessoaService.listarTodos().stream().map(PessoaMapper::paraResponse).toList());
     }
 
     /**
      * Busca pessoa por id.
      *
-     * @param id id da pessoa
+     * @param id      id da pessoa
+     * @param request requisicao com cabecalhos condicionais
      * @return pessoa encontrada
      */
     @GetMapping("/{id}")
     @Operation(summary = "Buscar pessoa por id")
-    public PessoaResponseDto buscarPorId(@PathVariable Long id) {
-        return PessoaMapper.paraResponse(pessoaService.buscarPorId(id));
+    public ResponseEntity<PessoaResponseDto> buscarPorId(@PathVariable Long id, WebRequest request) {
+        Pessoa pessoa = pessoaService.buscarPorId(id);
+        String etag = versaoRecursoService.etagEntidade("pessoas", id, pessoa);
+        return RespostaCondicionalApi.responder(request, etag, () -> PessoaMapper.paraResponse(pessoa));
     }
 
     /**
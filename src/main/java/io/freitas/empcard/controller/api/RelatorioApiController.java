@@ -1,15 +1,26 @@
 package io.freitas.empcard.controller.api;
 
+import io.freitas.empcard.dto.FaturaCartaoDto;
+import io.freitas.empcard.dto.ProjecaoRecebiveisDto;
+import io.freitas.empcard.dto.RelatorioInadimplenciaDto;
 import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.dto.ResumoCarteiraDto;
+import io.freitas.empcard.service.FaturaCartaoService;
+import io.freitas.empcard.service.InadimplenciaService;
+import io.freitas.empcard.service.ProjecaoRecebiveisService;
+import io.freitas.empcard.service.RazaoCarteiraService;
 import io.freitas.empcard.service.RelatorioService;
+import io.freitas.empcard.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.YearMonth;
 
@@ -23,18 +34,84 @@ import java.time.YearMonth;
 public class RelatorioApiController {
 
     private final RelatorioService relatorioService;
+    private final VersaoRecursoService versaoRecursoService;
+    private final InadimplenciaService inadimplenciaService;
+    private final ProjecaoRecebiveisService projecaoRecebiveisService;
+    private final FaturaCartaoService faturaCartaoService;
+    private final RazaoCarteiraService razaoCarteiraService;
 
     /**
      * Retorna relatorio mensal de uma pessoa para integracoes externas.
+     * Clientes que reenviam o ETag recebem 304 sem que o historico seja recalculado.
      *
      * @param pessoaId         id da pessoa
      * @param competenciaTexto competencia no formato yyyy-MM
+     * @param request          requisicao com cabecalhos condicionais
      * @return relatorio consolidado
      */
     @GetMapping("/pessoas/{pessoaId}")
     @Operation(summary = "Gerar relatorio mensal de pessoa")
-    public RelatorioPessoaDto relatorioPessoa(@PathVariable Long pessoaId,
-                                              @RequestParam String competenciaTexto) {
-        return relatorioService.gerarRelatorioPessoa(pessoaId, YearMonth.parse(competenciaTexto));
+    public ResponseEntity<RelatorioPessoaDto> relatorioPessoa(@PathVariable Long pessoaId,
+                                                              @RequestParam String competenciaTexto,
+                                                              WebRequest request) {
+        YearMonth competencia = YearMonth.parse(competenciaTexto);
+        return RespostaCondicionalApi.responder(request, versaoRecursoService.etagRelatorioPessoa(pessoaId, competencia),
+                () -> relatorioService.gerarRelatorioPessoa(pessoaId, competencia));
+    }
+
+    /**
+     * Retorna fatura de um cartao na competencia, somando as compras de todas as pessoas.
+     *
+     * @param cartaoId         id do cartao
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @return total da fatura e itens por pessoa
+     */
+    @GetMapping("/cartoes/{cartaoId}")
+    @Operation(summary = "Gerar fatura de cartao")
+    public ResponseEntity<FaturaCartaoDto> faturaCartao(@PathVariable Long cartaoId,
+                                                        @RequestParam String competenciaTexto) {
+        return ResponseEntity.ok(faturaCartaoService.gerarFatura(cartaoId, YearMonth.parse(competenciaTexto)));
+    }
+
+    /**
+     * Retorna aging de inadimplencia de toda a carteira por pessoa e cartao.
+     *
+     * @param competenciaTexto competencia no formato yyyy-MM
+     * @return saldo em aberto por faixa de atraso
+     */
+    @GetMapping("/inadimplencia")
+    @Operation(summary = "Gerar aging de inadimplencia da carteira")
+    public ResponseEntity<RelatorioInadimplenciaDto> inadimplencia(@RequestParam String competenciaTexto) {
+        return ResponseEntity.ok(inadimplenciaService.gerarRelatorio(YearMonth.parse(competenciaTexto)));
+    }
+
+    /**
+     * Retorna projecao dos recebiveis futuros (parcelas restantes e fixos ativos) da carteira.
+     *
+     * @param inicio primeira competencia no formato yyyy-MM; padrao e a competencia atual
+     * @param meses  quantidade de competencias projetadas
+     * @return curva mensal da carteira e valores por pessoa e cartao
+     */
+    @GetMapping("/projecao")
+    @Operation(summary = "Projetar recebiveis futuros da carteira")
+    public ResponseEntity<ProjecaoRecebiveisDto> projecao(@RequestParam(required = false) String inicio,
+                                                          @RequestParam(defaultValue = "12") int meses) {
+        YearMonth competenciaInicial = inicio == null || inicio.isBlank() ? YearMonth.now() : YearMonth.parse(inicio);
+        return ResponseEntity.ok(projecaoRecebiveisService.projetar(competenciaInicial, meses));
+    }
+
+    /**
+     * Retorna saldo em aberto, exposicao por banco e fluxo mensal da carteira, calculados sobre o razao em memoria.
+     *
+     * @param competenciaTexto competencia no formato yyyy-MM; padrao e a competencia atual
+     * @return resumo da carteira
+     */
+    @GetMapping("/carteira")
+    @Operation(summary = "Resumir saldo e fluxo da carteira")
+    public ResponseEntity<ResumoCarteiraDto> carteira(@RequestParam(required = false) String competenciaTexto) {
+        YearMonth competencia = competenciaTexto == null || competenciaTexto.isBlank()
+                ? YearMonth.now()
+                : YearMonth.parse(competenciaTexto);
+        return ResponseEntity.ok(razaoCarteiraService.resumir(competencia));
     }
 }
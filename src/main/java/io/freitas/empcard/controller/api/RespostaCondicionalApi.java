@@ -0,0 +1,53 @@
+package io.freitas.empcard.controller.api;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Apoio a GET condicional (If-None-Match) nos endpoints REST.
+ *
+ * <p>O ETag e fraco: o mesmo validador vale para JSON, CBOR e Smile e para o corpo com ou sem gzip, que sao
+ * representacoes equivalentes dos mesmos dados (o Tomcat nao comprime respostas com ETag forte). O
+ * {@code Vary: Accept} impede que caches compartilhados entreguem um formato a quem pediu outro.</p>
+ */
+final class RespostaCondicionalApi {
+
+    /**
+     * Clientes podem guardar a resposta, mas devem revalidar com o ETag a cada uso.
+     */
+    private static final CacheControl CONTROLE_CACHE = CacheControl.noCache().cachePrivate();
+
+    private RespostaCondicionalApi() {
+    }
+
+    /**
+     * Responde 304 quando o ETag informado pelo cliente ainda e valido; caso contrario monta o corpo.
+     * O corpo e produzido apenas depois da validacao, evitando consulta e serializacao desnecessarias.
+     *
+     * @param request requisicao atual com cabecalhos condicionais
+     * @param etag    validador atual do recurso (sem aspas)
+     * @param corpo   fornecedor do corpo da resposta
+     * @param <T>     tipo do corpo
+     * @return resposta 200 com ETag ou 304 sem corpo
+     */
+    static <T> ResponseEntity<T> responder(WebRequest request, String etag, Supplier<T> corpo) {
+        String etagFraco = "W/\"" + etag + "\"";
+        if (request.checkNotModified(etagFraco)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etagFraco)
+                    .cacheControl(CONTROLE_CACHE)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etagFraco)
+                .cacheControl(CONTROLE_CACHE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(corpo.get());
+    }
+}
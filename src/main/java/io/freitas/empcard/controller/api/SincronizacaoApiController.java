@@ -0,0 +1,37 @@
+package io.freitas.empcard.controller.api;
+
+import io.freitas.empcard.dto.SincronizacaoResponseDto;
+import io.freitas.empcard.service.SincronizacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * API de sincronizacao incremental para clientes offline.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/sincronizacao")
+@Tag(name = "Sincronizacao", description = "Feed de alteracoes por marca de sincronizacao")
+public class SincronizacaoApiController {
+
+    private final SincronizacaoService sincronizacaoService;
+
+    /**
+     * Lista registros alterados e excluidos desde a marca informada.
+     * Sem marca, devolve a carga completa; enquanto {@code possuiMais} for true, chamar novamente com a nova marca.
+     *
+     * @param marca marca recebida na resposta anterior
+     * @return pagina de alteracoes
+     */
+    @GetMapping
+    @Operation(summary = "Listar alteracoes desde a ultima sincronizacao")
+    public ResponseEntity<SincronizacaoResponseDto> listar(@RequestParam(required = false) String marca) {
+        return ResponseEntity.ok(sincronizacaoService.listarAlteracoes(marca));
+    }
+}
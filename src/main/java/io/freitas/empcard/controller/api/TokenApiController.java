@@ -0,0 +1,78 @@
+package io.freitas.empcard.controller.api;
+
+import io.freitas.empcard.dto.TokenApiEmitidoDto;
+import io.freitas.empcard.dto.TokenApiFormDto;
+import io.freitas.empcard.dto.TokenApiResponseDto;
+import io.freitas.empcard.mapper.TokenApiMapper;
+import io.freitas.empcard.service.TokenApiService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * API REST para emissao e revogacao de tokens de acesso do usuario autenticado.
+ * Acessivel apenas com sessao; chamadas com token Bearer sao recusadas.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/tokens")
+@Tag(name = "Tokens de API", description = "Tokens Bearer para integracoes sem sessao")
+public class TokenApiController {
+
+    private final TokenApiService tokenApiService;
+
+    /**
+     * Lista tokens emitidos pelo usuario autenticado.
+     *
+     * @param authentication usuario autenticado
+     * @return tokens sem o valor secreto
+     */
+    @GetMapping
+    @Operation(summary = "Listar tokens do usuario")
+    public List<TokenApiResponseDto> listar(Authentication authentication) {
+        return tokenApiService.listarDoUsuario(authentication.getName()).stream()
+                .map(TokenApiMapper::paraResponse)
+                .toList();
+    }
+
+    /**
+     * Emite token para o usuario autenticado. O valor so aparece nesta resposta.
+     *
+     * @param form           descricao e validade em dias
+     * @param authentication usuario autenticado
+     * @return token emitido
+     */
+    @PostMapping
+    @Operation(summary = "Emitir token")
+    public ResponseEntity<TokenApiEmitidoDto> emitir(@Valid @RequestBody TokenApiFormDto form,
+                                                     Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(tokenApiService.emitir(authentication.getName(), form));
+    }
+
+    /**
+     * Revoga token; o efeito e imediato nesta instancia.
+     *
+     * @param id             id do token
+     * @param authentication usuario autenticado
+     * @return resposta sem conteudo
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Revogar token")
+    public ResponseEntity<Void> revogar(@PathVariable Long id, Authentication authentication) {
+        tokenApiService.revogar(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -5,6 +5,7 @@ import io.freitas.empcard.dto.UsuarioFormDto;
 import io.freitas.empcard.dto.UsuarioResponseDto;
 import io.freitas.empcard.mapper.UsuarioMapper;
 import io.freitas.empcard.service.UsuarioService;
+import io.freitas.empcard.service.VersaoRecursoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,16 +33,19 @@ import java.util.List;
 public class UsuarioApiController {
 
     private final UsuarioService usuarioService;
+    private final VersaoRecursoService versaoRecursoService;
 
     /**
-     * Lista usuarios do sistema.
+     * Lista usuarios do sistema, respondendo 304 quando o cliente informa ETag ainda valido.
      *
+     * @param request requisicao com cabecalhos condicionais
      * @return lista de usuarios
      */
     @GetMapping
     @Operation(summary = "Listar usuarios")
-    public List<UsuarioResponseDto> listar() {
-        return usuarioService.listarTodos().stream().map(UsuarioMapper::paraResponse).toList();
+    public ResponseEntity<List<UsuarioResponseDto>> listar(WebRequest request) {
+        return RespostaCondicionalApi.responder(request, versaoRecursoService.etagUsuarios(),
+                () -> usuarioService.listarTodos().stream().map(UsuarioMapper::paraResponse).toList());
     }
 
     /**
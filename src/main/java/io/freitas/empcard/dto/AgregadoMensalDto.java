@@ -0,0 +1,36 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha de agregacao SQL por mes e grupo usada nas series analiticas.
+ *
+ * @param ano           ano da data do movimento
+ * @param mes           mes da data do movimento (1 a 12)
+ * @param grupo         valor do agrupamento (tipo, banco, bandeira ou TOTAL)
+ * @param quantidade    quantidade de movimentos
+ * @param valor         soma dos valores
+ * @param mediaParcelas media de parcelas das compras (null para pagamentos)
+ */
+public record AgregadoMensalDto(
+        Integer ano,
+        Integer mes,
+        String grupo,
+        Long quantidade,
+        BigDecimal valor,
+        Double mediaParcelas
+) {
+
+    /**
+     * Linha de pagamentos, que nao tem parcelas.
+     *
+     * @param ano        ano da data do pagamento
+     * @param mes        mes da data do pagamento
+     * @param grupo      valor do agrupamento
+     * @param quantidade quantidade de pagamentos
+     * @param valor      soma dos valores
+     */
+    public AgregadoMensalDto(Integer ano, Integer mes, String grupo, Long quantidade, BigDecimal valor) {
+        this(ano, mes, grupo, quantidade, valor, null);
+    }
+}
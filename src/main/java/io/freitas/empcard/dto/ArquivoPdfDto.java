@@ -0,0 +1,13 @@
+package io.freitas.empcard.dto;
+
+/**
+ * PDF gerado e pronto para download.
+ *
+ * @param nomeArquivo nome sugerido no download
+ * @param conteudo    bytes do PDF
+ */
+public record ArquivoPdfDto(
+        String nomeArquivo,
+        byte[] conteudo
+) {
+}
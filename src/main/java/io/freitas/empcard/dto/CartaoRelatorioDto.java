@@ -0,0 +1,30 @@
+package io.freitas.empcard.dto;
+
+/**
+ * Metadados de cartao usados pelo motor de relatorio, carregados uma unica vez por relatorio.
+ *
+ * @param id            identificador do cartao
+ * @param numero        numero completo (mascarado na saida)
+ * @param bandeira      bandeira do cartao
+ * @param banco         banco emissor
+ * @param diaFechamento dia de fechamento da fatura
+ * @param diaVencimento dia de vencimento da fatura
+ */
+public record CartaoRelatorioDto(
+        Long id,
+        String numero,
+        String bandeira,
+        String banco,
+        Short diaFechamento,
+        Short diaVencimento
+) {
+
+    /**
+     * Identificacao curta para planilhas e listagens da carteira, sem expor o numero completo.
+     *
+     * @return banco, bandeira e quatro ultimos digitos
+     */
+    public String identificacao() {
+        return banco + " " + bandeira + " final " + numero.substring(Math.max(0, numero.length() - 4));
+    }
+}
@@ -0,0 +1,17 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.model.SituacaoTarefa;
+
+/**
+ * Quantidade de tarefas de um lote em uma situacao.
+ *
+ * @param loteId   lote
+ * @param situacao situacao contada
+ * @param total    quantidade de tarefas
+ */
+public record ContagemSituacaoTarefaDto(
+        Long loteId,
+        SituacaoTarefa situacao,
+        long total
+) {
+}
@@ -0,0 +1,11 @@
+package io.freitas.empcard.dto;
+
+/**
+ * Agrupamento das series analiticas da carteira.
+ */
+public enum DimensaoAnalitica {
+    TOTAL,
+    TIPO,
+    BANCO,
+    BANDEIRA
+}
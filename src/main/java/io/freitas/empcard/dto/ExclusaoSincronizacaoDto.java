@@ -0,0 +1,15 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.evento.TipoRegistro;
+
+/**
+ * Registro excluido definitivamente desde a ultima sincronizacao.
+ *
+ * @param tipo tipo do registro excluido
+ * @param id   identificador do registro excluido
+ */
+public record ExclusaoSincronizacaoDto(
+        TipoRegistro tipo,
+        Long id
+) {
+}
@@ -0,0 +1,17 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo da carteira concentrado nos cartoes de um banco.
+ *
+ * @param banco   banco emissor
+ * @param cartoes cartoes do banco com saldo diferente de zero
+ * @param saldo   valor cobrado menos valor pago nos cartoes do banco, sem juros e multa
+ */
+public record ExposicaoBancoDto(
+        String banco,
+        int cartoes,
+        BigDecimal saldo
+) {
+}
@@ -0,0 +1,23 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo em aberto distribuido por dias de atraso em relacao a data base.
+ *
+ * @param aVencer  cobrancas com vencimento posterior a data base
+ * @param ate30    vencidas de 0 a 30 dias
+ * @param de31a60  vencidas de 31 a 60 dias
+ * @param de61a90  vencidas de 61 a 90 dias
+ * @param acima90  vencidas ha mais de 90 dias
+ * @param total    soma de todas as faixas
+ */
+public record FaixasAtrasoDto(
+        BigDecimal aVencer,
+        BigDecimal ate30,
+        BigDecimal de31a60,
+        BigDecimal de61a90,
+        BigDecimal acima90,
+        BigDecimal total
+) {
+}
@@ -0,0 +1,34 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Fatura de um cartao em uma competencia, somando as compras de todas as pessoas.
+ *
+ * @param cartaoId        identificador do cartao
+ * @param numeroMascarado numero parcialmente mascarado
+ * @param bandeira        bandeira do cartao
+ * @param banco           banco emissor
+ * @param competencia     competencia da fatura
+ * @param inicioJanela    primeiro dia de compra avulsa faturada na competencia
+ * @param fimJanela       ultimo dia de compra avulsa faturada na competencia
+ * @param dataVencimento  vencimento da fatura
+ * @param pessoas         itens agrupados por pessoa
+ * @param total           valor total da fatura
+ */
+public record FaturaCartaoDto(
+        Long cartaoId,
+        String numeroMascarado,
+        String bandeira,
+        String banco,
+        YearMonth competencia,
+        LocalDate inicioJanela,
+        LocalDate fimJanela,
+        LocalDate dataVencimento,
+        List<FaturaPessoaDto> pessoas,
+        BigDecimal total
+) {
+}
@@ -0,0 +1,20 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Parte de uma pessoa na fatura de um cartao.
+ *
+ * @param pessoaId   identificador da pessoa
+ * @param nomePessoa nome da pessoa
+ * @param itens      itens cobrados da pessoa na competencia
+ * @param total      soma dos itens
+ */
+public record FaturaPessoaDto(
+        Long pessoaId,
+        String nomePessoa,
+        List<ItemRelatorioDto> itens,
+        BigDecimal total
+) {
+}
@@ -0,0 +1,21 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Valores de um grupo em cada competencia da serie, na mesma ordem de {@link SerieAnaliticaDto#competencias()}.
+ *
+ * @param grupo          valor do agrupamento (tipo, banco, bandeira ou TOTAL)
+ * @param quantidades    quantidade de movimentos por competencia
+ * @param valores        soma dos valores por competencia
+ * @param mediasParcelas media de parcelas das compras por competencia (null nos meses sem compra e nas series
+ *                       de pagamentos)
+ */
+public record GrupoSerieAnaliticaDto(
+        String grupo,
+        List<Long> quantidades,
+        List<BigDecimal> valores,
+        List<BigDecimal> mediasParcelas
+) {
+}
@@ -0,0 +1,19 @@
+package io.freitas.empcard.dto;
+
+/**
+ * Aging de uma pessoa em um cartao.
+ *
+ * @param pessoaId   identificador da pessoa
+ * @param nomePessoa nome da pessoa
+ * @param cartaoId   identificador do cartao
+ * @param cartao     identificacao curta do cartao (banco e final)
+ * @param faixas     saldo em aberto por faixa de atraso
+ */
+public record InadimplenciaCartaoDto(
+        Long pessoaId,
+        String nomePessoa,
+        Long cartaoId,
+        String cartao,
+        FaixasAtrasoDto faixas
+) {
+}
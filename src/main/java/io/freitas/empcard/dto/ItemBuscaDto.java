@@ -0,0 +1,21 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.evento.TipoRegistro;
+
+/**
+ * Registro encontrado pela busca.
+ *
+ * @param tipo       tipo do registro (pessoa, cartao ou lancamento)
+ * @param id         identificador do registro
+ * @param titulo     texto principal do resultado
+ * @param detalhe    texto complementar do resultado
+ * @param relevancia pontuacao da busca; acima de 1 quando o termo aparece inteiro
+ */
+public record ItemBuscaDto(
+        TipoRegistro tipo,
+        Long id,
+        String titulo,
+        String detalhe,
+        double relevancia
+) {
+}
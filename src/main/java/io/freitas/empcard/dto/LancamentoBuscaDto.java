@@ -0,0 +1,22 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projecao de lancamento com as colunas usadas pelo indice de busca.
+ *
+ * @param id         identificador do lancamento
+ * @param descricao  descricao pesquisavel
+ * @param nomePessoa pessoa do lancamento, exibida no resultado
+ * @param dataCompra data da compra, exibida no resultado
+ * @param valorTotal valor da compra, exibido no resultado
+ */
+public record LancamentoBuscaDto(
+        Long id,
+        String descricao,
+        String nomePessoa,
+        LocalDate dataCompra,
+        BigDecimal valorTotal
+) {
+}
@@ -0,0 +1,32 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.model.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projecao de lancamento com apenas as colunas usadas pelo motor de relatorio (sem entidade gerenciada).
+ *
+ * @param pessoaId           pessoa do lancamento
+ * @param cartaoId           cartao do lancamento
+ * @param tipo               avulso, parcelado ou fixo
+ * @param valorTotal         valor total da compra
+ * @param quantidadeParcelas quantidade de parcelas
+ * @param dataCompra         data da compra
+ * @param dataFimFixo        ultimo mes de cobranca do fixo (null quando indeterminado)
+ * @param descricao          descricao exibida no relatorio
+ * @param observacao         observacao exibida no relatorio
+ */
+public record LancamentoRelatorioDto(
+        Long pessoaId,
+        Long cartaoId,
+        TipoLancamento tipo,
+        BigDecimal valorTotal,
+        Integer quantidadeParcelas,
+        LocalDate dataCompra,
+        LocalDate dataFimFixo,
+        String descricao,
+        String observacao
+) {
+}
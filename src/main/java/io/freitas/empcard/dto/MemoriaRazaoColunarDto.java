@@ -0,0 +1,27 @@
+package io.freitas.empcard.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ocupacao de memoria do razao colunar.
+ *
+ * @param habilitado                quando false, o razao nao e carregado
+ * @param lancamentos               lancamentos carregados
+ * @param pagamentos                pagamentos carregados
+ * @param bytesAlocados             bytes dos arrays, incluindo a folga de capacidade
+ * @param bytesPorMilhaoLancamentos bytes ocupados por um milhao de lancamentos
+ * @param bytesPorMilhaoPagamentos  bytes ocupados por um milhao de pagamentos
+ * @param carregadoEm               fim da ultima carga completa
+ * @param tempoCargaMs              duracao da ultima carga completa
+ */
+public record MemoriaRazaoColunarDto(
+        boolean habilitado,
+        int lancamentos,
+        int pagamentos,
+        long bytesAlocados,
+        long bytesPorMilhaoLancamentos,
+        long bytesPorMilhaoPagamentos,
+        LocalDateTime carregadoEm,
+        Long tempoCargaMs
+) {
+}
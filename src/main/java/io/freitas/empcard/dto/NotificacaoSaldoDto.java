@@ -0,0 +1,28 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.evento.TipoRegistro;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Notificacao enviada por SSE quando um lancamento ou pagamento altera o saldo de uma pessoa.
+ *
+ * @param tipo          tipo do registro alterado
+ * @param pessoaId      pessoa afetada
+ * @param nomePessoa    nome da pessoa afetada
+ * @param competencia   competencia do saldo (a atual)
+ * @param saldoAnterior saldo antes da alteracao (null quando nao estava em cache)
+ * @param saldo         saldo apos a alteracao
+ * @param variacao      diferenca entre saldo e saldo anterior (null quando o anterior e desconhecido)
+ */
+public record NotificacaoSaldoDto(
+        TipoRegistro tipo,
+        Long pessoaId,
+        String nomePessoa,
+        YearMonth competencia,
+        BigDecimal saldoAnterior,
+        BigDecimal saldo,
+        BigDecimal variacao
+) {
+}
@@ -0,0 +1,20 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projecao de pagamento com apenas as colunas usadas pelo motor de relatorio.
+ *
+ * @param pessoaId      pessoa do pagamento
+ * @param cartaoId      cartao do pagamento
+ * @param dataPagamento data do pagamento
+ * @param valor         valor pago
+ */
+public record PagamentoRelatorioDto(
+        Long pessoaId,
+        Long cartaoId,
+        LocalDate dataPagamento,
+        BigDecimal valor
+) {
+}
@@ -0,0 +1,32 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.model.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projecao de parcela materializada com os dados do lancamento exibidos no relatorio.
+ *
+ * @param pessoaId           pessoa da cobranca
+ * @param cartaoId           cartao da cobranca
+ * @param competencia        primeiro dia da competencia de fatura
+ * @param tipo               avulso, parcelado ou fixo
+ * @param numero             numero da parcela (mes de cobranca, no fixo)
+ * @param quantidadeParcelas quantidade de parcelas do lancamento
+ * @param valor              valor cobrado na competencia
+ * @param descricao          descricao exibida no relatorio
+ * @param observacao         observacao exibida no relatorio
+ */
+public record ParcelaRelatorioDto(
+        Long pessoaId,
+        Long cartaoId,
+        LocalDate competencia,
+        TipoLancamento tipo,
+        Integer numero,
+        Integer quantidadeParcelas,
+        BigDecimal valor,
+        String descricao,
+        String observacao
+) {
+}
@@ -0,0 +1,33 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.model.TipoTarefa;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progresso de um lote de tarefas distribuidas, somado entre todas as instancias.
+ *
+ * @param id          lote
+ * @param tipo        tipo do lote
+ * @param referencia  referencia do lote (ex.: competencia)
+ * @param geracao     execucao da referencia (1 na primeira, incrementada a cada nova execucao)
+ * @param total       quantidade de itens
+ * @param pendentes   itens aguardando worker, inclusive os que aguardam nova tentativa
+ * @param emExecucao  itens reservados por alguma instancia
+ * @param concluidas  itens concluidos
+ * @param falhas      itens que esgotaram as tentativas
+ * @param criadoEm    criacao do lote
+ */
+public record ProgressoLoteTarefaDto(
+        Long id,
+        TipoTarefa tipo,
+        String referencia,
+        int geracao,
+        int total,
+        long pendentes,
+        long emExecucao,
+        long concluidas,
+        long falhas,
+        LocalDateTime criadoEm
+) {
+}
@@ -0,0 +1,24 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Recebiveis projetados de uma pessoa em um cartao.
+ *
+ * @param pessoaId   identificador da pessoa
+ * @param nomePessoa nome da pessoa
+ * @param cartaoId   identificador do cartao
+ * @param cartao     identificacao curta do cartao
+ * @param valores    valor a receber por competencia, alinhado com {@link ProjecaoRecebiveisDto#competencias()}
+ * @param total      soma do horizonte
+ */
+public record ProjecaoCartaoDto(
+        Long pessoaId,
+        String nomePessoa,
+        Long cartaoId,
+        String cartao,
+        List<BigDecimal> valores,
+        BigDecimal total
+) {
+}
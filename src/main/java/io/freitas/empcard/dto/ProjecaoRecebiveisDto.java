@@ -0,0 +1,21 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Curva de recebiveis futuros da carteira: parcelas restantes, fixos ativos e avulsos ainda nao faturados.
+ *
+ * @param competencias competencias projetadas, em ordem
+ * @param curva        total da carteira por competencia
+ * @param total        soma do horizonte
+ * @param linhas       pessoa x cartao com valores a receber, do maior para o menor total
+ */
+public record ProjecaoRecebiveisDto(
+        List<YearMonth> competencias,
+        List<BigDecimal> curva,
+        BigDecimal total,
+        List<ProjecaoCartaoDto> linhas
+) {
+}
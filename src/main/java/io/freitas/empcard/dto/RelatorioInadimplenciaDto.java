@@ -0,0 +1,21 @@
+package io.freitas.empcard.dto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Aging de inadimplencia de toda a carteira em uma competencia.
+ *
+ * @param competencia competencia de referencia
+ * @param dataBase    data usada para contar os dias de atraso
+ * @param linhas      pessoa x cartao com saldo em aberto, do maior para o menor total
+ * @param totais      soma das faixas de toda a carteira
+ */
+public record RelatorioInadimplenciaDto(
+        YearMonth competencia,
+        LocalDate dataBase,
+        List<InadimplenciaCartaoDto> linhas,
+        FaixasAtrasoDto totais
+) {
+}
@@ -0,0 +1,19 @@
+package io.freitas.empcard.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da busca agrupado por tipo de registro, cada grupo em ordem de relevancia.
+ *
+ * @param termo       termo pesquisado
+ * @param pessoas     pessoas encontradas
+ * @param cartoes     cartoes encontrados
+ * @param lancamentos lancamentos encontrados
+ */
+public record ResultadoBuscaDto(
+        String termo,
+        List<ItemBuscaDto> pessoas,
+        List<ItemBuscaDto> cartoes,
+        List<ItemBuscaDto> lancamentos
+) {
+}
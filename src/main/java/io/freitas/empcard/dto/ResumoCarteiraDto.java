@@ -0,0 +1,30 @@
+package io.freitas.empcard.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Visao agregada da carteira inteira calculada sobre o razao colunar em memoria.
+ *
+ * <p>Saldos consideram apenas principal (compras cobradas menos pagamentos); juros e multa dependem da
+ * simulacao mes a mes do relatorio por pessoa e nao entram aqui.</p>
+ *
+ * @param competencia       competencia de referencia
+ * @param saldoEmAberto     soma dos saldos positivos por pessoa ate a competencia
+ * @param exposicaoPorBanco saldo por banco emissor, do maior para o menor
+ * @param competencias      competencias do fluxo, terminando na de referencia
+ * @param cobrancas         compras cobradas em cada competencia
+ * @param recebimentos      pagamentos recebidos em cada competencia
+ * @param calculoMicros     tempo das agregacoes sobre as colunas, em microssegundos
+ */
+public record ResumoCarteiraDto(
+        YearMonth competencia,
+        BigDecimal saldoEmAberto,
+        List<ExposicaoBancoDto> exposicaoPorBanco,
+        List<YearMonth> competencias,
+        List<BigDecimal> cobrancas,
+        List<BigDecimal> recebimentos,
+        long calculoMicros
+) {
+}
@@ -0,0 +1,20 @@
+package io.freitas.empcard.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Serie mensal compacta da carteira: uma lista de competencias e, por grupo, listas paralelas de valores.
+ *
+ * @param dimensao       agrupamento aplicado
+ * @param competencias   meses da serie, em ordem (mes da data da compra ou do pagamento)
+ * @param grupos         grupos com movimento no periodo, em ordem alfabetica
+ * @param consultaMicros tempo da montagem, incluindo consultas aos meses fora do cache, em microssegundos
+ */
+public record SerieAnaliticaDto(
+        DimensaoAnalitica dimensao,
+        List<YearMonth> competencias,
+        List<GrupoSerieAnaliticaDto> grupos,
+        long consultaMicros
+) {
+}
@@ -0,0 +1,25 @@
+package io.freitas.empcard.dto;
+
+import java.util.List;
+
+/**
+ * Pagina do feed de alteracoes da sincronizacao incremental.
+ *
+ * @param marca         marca opaca a enviar na proxima chamada
+ * @param possuiMais    true quando alguma colecao atingiu o tamanho da pagina; chamar de novo com a marca
+ * @param pessoas       pessoas criadas ou alteradas
+ * @param cartoes       cartoes criados ou alterados
+ * @param lancamentos   lancamentos criados ou alterados
+ * @param pagamentos    pagamentos criados ou alterados
+ * @param exclusoes     registros excluidos definitivamente
+ */
+public record SincronizacaoResponseDto(
+        String marca,
+        boolean possuiMais,
+        List<PessoaResponseDto> pessoas,
+        List<CartaoResponseDto> cartoes,
+        List<LancamentoResponseDto> lancamentos,
+        List<PagamentoResponseDto> pagamentos,
+        List<ExclusaoSincronizacaoDto> exclusoes
+) {
+}
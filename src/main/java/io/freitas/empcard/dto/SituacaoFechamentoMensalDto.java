@@ -0,0 +1,19 @@
+package io.freitas.empcard.dto;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Progresso e duracao da ultima execucao do fechamento mensal.
+ */
+public record SituacaoFechamentoMensalDto(
+        boolean emExecucao,
+        YearMonth competencia,
+        int totalPessoas,
+        int processadas,
+        int falhas,
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        Long duracaoMs
+) {
+}
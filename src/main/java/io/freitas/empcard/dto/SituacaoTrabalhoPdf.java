@@ -0,0 +1,10 @@
+package io.freitas.empcard.dto;
+
+/**
+ * Etapas de um PDF gerado em modo assincrono.
+ */
+public enum SituacaoTrabalhoPdf {
+    PENDENTE,
+    PRONTO,
+    FALHA
+}
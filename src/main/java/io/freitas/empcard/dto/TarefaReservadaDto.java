@@ -0,0 +1,21 @@
+package io.freitas.empcard.dto;
+
+import io.freitas.empcard.model.TipoTarefa;
+
+/**
+ * Tarefa reservada por esta instancia, com os dados do lote necessarios para executa-la.
+ *
+ * @param id         tarefa
+ * @param tipo       tipo do lote
+ * @param referencia referencia do lote
+ * @param itemId     item a processar
+ * @param tentativa  numero desta tentativa, a partir de 1
+ */
+public record TarefaReservadaDto(
+        Long id,
+        TipoTarefa tipo,
+        String referencia,
+        Long itemId,
+        int tentativa
+) {
+}
@@ -0,0 +1,14 @@
+package io.freitas.empcard.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta da emissao de token; unico momento em que o valor do token e exibido.
+ */
+public record TokenApiEmitidoDto(
+        Long id,
+        String descricao,
+        String token,
+        LocalDateTime expiraEm
+) {
+}
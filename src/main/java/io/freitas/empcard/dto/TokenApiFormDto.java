@@ -0,0 +1,24 @@
+package io.freitas.empcard.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Dados para emissao de token de acesso a API.
+ */
+@Getter
+@Setter
+public class TokenApiFormDto {
+
+    @NotBlank(message = "Descricao e obrigatoria")
+    @Size(max = 120, message = "Descricao deve ter no maximo 120 caracteres")
+    private String descricao;
+
+    @Min(value = 0, message = "Validade nao pode ser negativa")
+    @Max(value = 3650, message = "Validade deve ser de no maximo 3650 dias")
+    private Integer validadeDias;
+}
@@ -0,0 +1,16 @@
+package io.freitas.empcard.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saida de token de API sem o valor secreto.
+ */
+public record TokenApiResponseDto(
+        Long id,
+        String descricao,
+        String prefixo,
+        LocalDateTime criadoEm,
+        LocalDateTime expiraEm,
+        LocalDateTime revogadoEm
+) {
+}
@@ -0,0 +1,19 @@
+package io.freitas.empcard.dto;
+
+import java.util.UUID;
+
+/**
+ * Situacao de um PDF pedido em modo assincrono.
+ *
+ * @param id          identificador do trabalho
+ * @param situacao    etapa atual
+ * @param urlSituacao endereco para consultar a situacao
+ * @param urlArquivo  endereco de download, preenchido quando o PDF esta pronto
+ */
+public record TrabalhoPdfDto(
+        UUID id,
+        SituacaoTrabalhoPdf situacao,
+        String urlSituacao,
+        String urlArquivo
+) {
+}
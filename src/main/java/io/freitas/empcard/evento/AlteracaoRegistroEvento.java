@@ -0,0 +1,22 @@
+package io.freitas.empcard.evento;
+
+/**
+ * Evento publicado pelos servicos de escrita sempre que um registro financeiro ou cadastral muda.
+ *
+ * <p>Os consumidores devem reagir apenas apos o commit da transacao, para nunca enxergar
+ * dados que ainda podem sofrer rollback.</p>
+ *
+ * @param tipo       tipo do registro alterado
+ * @param operacao   operacao executada
+ * @param registroId identificador do registro alterado
+ * @param pessoaId   pessoa afetada (null quando a alteracao nao se limita a uma pessoa)
+ * @param cartaoId   cartao afetado (null quando a alteracao nao se limita a um cartao)
+ */
+public record AlteracaoRegistroEvento(
+        TipoRegistro tipo,
+        OperacaoRegistro operacao,
+        Long registroId,
+        Long pessoaId,
+        Long cartaoId
+) {
+}
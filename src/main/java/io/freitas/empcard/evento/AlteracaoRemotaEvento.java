@@ -0,0 +1,12 @@
+package io.freitas.empcard.evento;
+
+/**
+ * Alteracao confirmada por outra instancia e recebida pelo barramento de invalidacao.
+ *
+ * <p>Publicado fora de transacao, quando o commit remoto ja ocorreu. Apenas caches locais devem reagir;
+ * efeitos gravados no banco (como lapides de exclusao) ja foram feitos pela instancia de origem.</p>
+ *
+ * @param alteracao alteracao original, com os mesmos campos publicados na instancia de origem
+ */
+public record AlteracaoRemotaEvento(AlteracaoRegistroEvento alteracao) {
+}
@@ -0,0 +1,9 @@
+package io.freitas.empcard.evento;
+
+/**
+ * Aviso de que alteracoes de outras instancias podem ter sido perdidas (conexao do barramento caiu).
+ *
+ * <p>Caches locais devem ser descartados ou reconstruidos por completo.</p>
+ */
+public record AlteracoesRemotasPerdidasEvento() {
+}
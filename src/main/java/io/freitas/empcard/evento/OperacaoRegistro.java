@@ -0,0 +1,10 @@
+package io.freitas.empcard.evento;
+
+/**
+ * Operacoes de escrita que disparam eventos de alteracao.
+ */
+public enum OperacaoRegistro {
+    CRIACAO,
+    ATUALIZACAO,
+    EXCLUSAO
+}
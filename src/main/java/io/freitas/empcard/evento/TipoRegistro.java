@@ -0,0 +1,28 @@
+package io.freitas.empcard.evento;
+
+/**
+ * Tipos de registro cujas alteracoes impactam calculos e consultas derivadas.
+ */
+public enum TipoRegistro {
+    PESSOA(true),
+    CARTAO(true),
+    LANCAMENTO(true),
+    PAGAMENTO(true),
+    USUARIO(false),
+    TOKEN_API(false);
+
+    private final boolean financeiro;
+
+    TipoRegistro(boolean financeiro) {
+        this.financeiro = financeiro;
+    }
+
+    /**
+     * Indica se o registro entra no calculo de saldos e relatorios.
+     *
+     * @return true para cadastros e movimentos financeiros
+     */
+    public boolean isFinanceiro() {
+        return financeiro;
+    }
+}
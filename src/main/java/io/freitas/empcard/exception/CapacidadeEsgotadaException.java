@@ -0,0 +1,25 @@
+package io.freitas.empcard.exception;
+
+import java.time.Duration;
+
+/**
+ * Excecao para recusar trabalho pesado quando a fila da instancia esta cheia; o cliente deve tentar de novo.
+ */
+public class CapacidadeEsgotadaException extends RuntimeException {
+
+    private final Duration tentarNovamenteEm;
+
+    public CapacidadeEsgotadaException(String mensagem, Duration tentarNovamenteEm) {
+        super(mensagem);
+        this.tentarNovamenteEm = tentarNovamenteEm;
+    }
+
+    /**
+     * Tempo sugerido ao cliente antes de nova tentativa.
+     *
+     * @return espera sugerida
+     */
+    public Duration getTentarNovamenteEm() {
+        return tentarNovamenteEm;
+    }
+}
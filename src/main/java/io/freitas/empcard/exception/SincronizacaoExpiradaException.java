@@ -0,0 +1,11 @@
+package io.freitas.empcard.exception;
+
+/**
+ * Marca de sincronizacao invalida ou anterior a retencao das lapides; o cliente deve refazer a carga completa.
+ */
+public class SincronizacaoExpiradaException extends RuntimeException {
+
+    public SincronizacaoExpiradaException(String mensagem) {
+        super(mensagem);
+    }
+}
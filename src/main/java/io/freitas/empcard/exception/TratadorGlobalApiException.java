@@ -89,6 +89,29 @@ public class TratadorGlobalApiException {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
     }
 
+    /**
+     * Trata marca de sincronizacao invalida ou expirada e devolve status 410.
+     *
+     * @param ex      excecao de sincronizacao
+     * @param request requisicao atual
+     * @return erro padronizado orientando carga completa
+     */
+    @ExceptionHandler(SincronizacaoExpiradaException.class)
+    public ResponseEntity<ErroApiResponse> tratarSincronizacaoExpirada(SincronizacaoExpiradaException ex,
+                                                                        HttpServletRequest request) {
+        log.warn("Marca de sincronizacao recusada: path={}, mensagem={}", request.getRequestURI(), ex.getMessage());
+
+        ErroApiResponse erro = new ErroApiResponse(
+                LocalDateTime.now(),
+                HttpStatus.GONE.value(),
+                HttpStatus.GONE.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI(),
+                List.of()
+        );
+        return ResponseEntity.status(HttpStatus.GONE).body(erro);
+    }
+
     /**
      * Trata qualquer erro inesperado evitando vazamento de detalhes sensiveis.
      *
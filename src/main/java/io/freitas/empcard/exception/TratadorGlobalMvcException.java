@@ -2,6 +2,10 @@ package io.freitas.empcard.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -30,6 +34,23 @@ public class TratadorGlobalMvcException {
         return "error/erro";
     }
 
+    /**
+     * Recusa trabalho pesado com a instancia no limite: 429 com Retry-After, para o navegador ou o cliente
+     * tentar de novo em vez de receber uma pagina de erro.
+     *
+     * @param ex      excecao com a espera sugerida
+     * @param request requisicao em processamento
+     * @return resposta 429 em texto simples
+     */
+    @ExceptionHandler(CapacidadeEsgotadaException.class)
+    public ResponseEntity<String> tratarCapacidadeEsgotada(CapacidadeEsgotadaException ex, HttpServletRequest request) {
+        log.warn("Requisicao recusada por capacidade esgotada: path={}", request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getTentarNovamenteEm().toSeconds())))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(ex.getMessage());
+    }
+
     /**
      * Trata excecoes nao previstas e exibe mensagem sem detalhes sensiveis.
      *
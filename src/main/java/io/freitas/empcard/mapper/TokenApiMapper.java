@@ -0,0 +1,30 @@
+package io.freitas.empcard.mapper;
+
+import io.freitas.empcard.dto.TokenApiResponseDto;
+import io.freitas.empcard.model.TokenApi;
+
+/**
+ * Mapper manual para converter TokenApi em DTO de resposta.
+ */
+public final class TokenApiMapper {
+
+    private TokenApiMapper() {
+    }
+
+    /**
+     * Converte entidade TokenApi para DTO REST, sem expor o hash.
+     *
+     * @param token entidade origem
+     * @return DTO de saida
+     */
+    public static TokenApiResponseDto paraResponse(TokenApi token) {
+        return new TokenApiResponseDto(
+                token.getId(),
+                token.getDescricao(),
+                token.getPrefixo(),
+                token.getCreatedAt(),
+                token.getExpiraEm(),
+                token.getRevogadoEm()
+        );
+    }
+}
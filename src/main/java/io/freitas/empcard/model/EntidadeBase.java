@@ -4,20 +4,25 @@ import jakarta.persistence.Column;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 /**
  * Entidade base com colunas de auditoria para rastrear criacao e ultima atualizacao.
+ * Os valores sao preenchidos pelo banco (default e trigger); o {@link ColumnDefault} replica o default
+ * no schema gerado pelo Hibernate nos testes com H2.
  */
 @Getter
 @Setter
 @MappedSuperclass
 public abstract class EntidadeBase {
 
+    @ColumnDefault("CURRENT_TIMESTAMP")
     @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
     private LocalDateTime createdAt;
 
+    @ColumnDefault("CURRENT_TIMESTAMP")
     @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,44 @@
+package io.freitas.empcard.model;
+
+import io.freitas.empcard.evento.TipoRegistro;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lapide de um registro excluido definitivamente, consumida pela sincronizacao incremental.
+ * O instante da exclusao e preenchido pelo banco, na mesma base de tempo do {@code updated_at}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "exclusoes_registro")
+public class ExclusaoRegistro {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoRegistro tipo;
+
+    @Column(name = "registro_id", nullable = false)
+    private Long registroId;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "excluido_em", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime excluidoEm;
+}
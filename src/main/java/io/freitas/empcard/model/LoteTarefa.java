@@ -0,0 +1,52 @@
+package io.freitas.empcard.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lote de tarefas distribuidas. Cada nova execucao de um tipo + referencia ganha a proxima geracao; a restricao
+ * unica em tipo + referencia + geracao impede que instancias disparadas ao mesmo tempo criem a mesma geracao
+ * duas vezes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "lotes_tarefa", uniqueConstraints = @UniqueConstraint(
+        name = "uk_lotes_tarefa_tipo_referencia_geracao", columnNames = {"tipo", "referencia", "geracao"}))
+public class LoteTarefa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private TipoTarefa tipo;
+
+    @Column(nullable = false, length = 40)
+    private String referencia;
+
+    @Column(nullable = false)
+    private int geracao;
+
+    @Column(nullable = false)
+    private int total;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,60 @@
+package io.freitas.empcard.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cobranca mensal materializada de um lancamento: uma linha por competencia de fatura, com o valor ja arredondado.
+ * Mantida pelo {@code CronogramaParcelasService} nas escritas de lancamento e cartao; fixos sao gerados ate um
+ * horizonte movel de meses.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "parcelas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_parcelas_lancamento_numero", columnNames = {"lancamento_id", "numero"}))
+public class Parcela {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lancamento_id", nullable = false)
+    private Long lancamentoId;
+
+    @Column(name = "pessoa_id", nullable = false)
+    private Long pessoaId;
+
+    @Column(name = "cartao_id", nullable = false)
+    private Long cartaoId;
+
+    @Column(nullable = false)
+    private LocalDate competencia;
+
+    @Column(nullable = false)
+    private Integer numero;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoLancamento tipo;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(nullable = false)
+    private boolean ativo = true;
+}
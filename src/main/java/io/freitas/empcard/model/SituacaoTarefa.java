@@ -0,0 +1,11 @@
+package io.freitas.empcard.model;
+
+/**
+ * Ciclo de vida de uma tarefa distribuida.
+ */
+public enum SituacaoTarefa {
+    PENDENTE,
+    EM_EXECUCAO,
+    CONCLUIDA,
+    FALHA
+}
@@ -0,0 +1,59 @@
+package io.freitas.empcard.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item de um lote de tarefas. Enquanto {@code EM_EXECUCAO}, pertence a {@code instancia}, que renova
+ * {@code heartbeatEm}; sem renovacao dentro do limite, outra instancia pode retoma-lo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "tarefas")
+public class Tarefa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lote_id", nullable = false)
+    private Long loteId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SituacaoTarefa situacao;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "executar_apos", nullable = false)
+    private LocalDateTime executarApos;
+
+    @Column(length = 100)
+    private String instancia;
+
+    @Column(name = "heartbeat_em")
+    private LocalDateTime heartbeatEm;
+
+    @Column(name = "concluida_em")
+    private LocalDateTime concluidaEm;
+
+    @Column(length = 500)
+    private String erro;
+}
@@ -0,0 +1,11 @@
+package io.freitas.empcard.model;
+
+/**
+ * Tipos de lote executados pelos workers de tarefas distribuidas.
+ */
+public enum TipoTarefa {
+    /**
+     * Sincronizacao do cronograma de parcelas dos lancamentos de um cartao; referencia = competencia yyyy-MM.
+     */
+    CRONOGRAMA_PARCELAS
+}
@@ -0,0 +1,50 @@
+package io.freitas.empcard.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token de acesso a API emitido para um usuario. O valor do token nunca e persistido, apenas seu hash.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "tokens_api")
+public class TokenApi extends EntidadeBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(nullable = false, length = 120)
+    private String descricao;
+
+    @Column(nullable = false, length = 12)
+    private String prefixo;
+
+    @Column(name = "hash_token", nullable = false, unique = true, length = 64)
+    private String hashToken;
+
+    @Column(name = "expira_em")
+    private LocalDateTime expiraEm;
+
+    @Column(name = "revogado_em")
+    private LocalDateTime revogadoEm;
+}
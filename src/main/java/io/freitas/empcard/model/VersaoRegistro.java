@@ -0,0 +1,29 @@
+package io.freitas.empcard.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador de versao de um conjunto de registros (uma tabela inteira ou os dados de uma pessoa), incrementado
+ * dentro da transacao de cada escrita. Como o incremento trava a linha ate o commit, o valor lido so muda
+ * quando a escrita fica visivel, o que o torna base segura para validadores HTTP (ETag).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "versoes_registro")
+public class VersaoRegistro {
+
+    @Id
+    @Column(length = 60)
+    private String chave;
+
+    @Column(nullable = false)
+    private long versao;
+}
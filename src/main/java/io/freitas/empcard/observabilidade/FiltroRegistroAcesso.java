@@ -0,0 +1,152 @@
+package io.freitas.empcard.observabilidade;
+
+import io.freitas.empcard.config.RegistroAcessoProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede cada requisicao e entrega o resultado ao {@link RegistradorAcessoAssincrono}.
+ *
+ * <p>O custo na thread da requisicao se resume a duas leituras de relogio, a decisao de amostragem e um
+ * {@code offer} no buffer. Erros (5xx) e requisicoes acima de {@code empcard.acesso.limite-lento-ms}
+ * sao sempre registrados; as demais seguem a taxa de amostragem da rota.</p>
+ */
+public class FiltroRegistroAcesso extends OncePerRequestFilter {
+
+    private static final int STATUS_ERRO = 500;
+
+    private final RegistradorAcessoAssincrono registrador;
+    private final List<Map.Entry<String, Double>> amostragem;
+    private final long limiteLentoUs;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public FiltroRegistroAcesso(RegistradorAcessoAssincrono registrador, RegistroAcessoProperties properties) {
+        this.registrador = registrador;
+        this.amostragem = List.copyOf(properties.amostragem().entrySet());
+        this.limiteLentoUs = TimeUnit.MILLISECONDS.toMicros(properties.limiteLentoMs());
+    }
+
+    /**
+     * Executa a cadeia medindo o tempo total; requisicoes assincronas sao registradas na conclusao.
+     *
+     * @param request     requisicao atual
+     * @param response    resposta HTTP
+     * @param filterChain cadeia de filtros
+     * @throws ServletException erro interno de servlet
+     * @throws IOException      erro de IO
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long inicioEpochMs = System.currentTimeMillis();
+        long inicioNanos = System.nanoTime();
+        boolean falhou = false;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException ex) {
+            falhou = true;
+            throw ex;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ConclusaoAssincrona(request, response, inicioEpochMs, inicioNanos));
+            } else {
+                registrar(request, falhou ? STATUS_ERRO : response.getStatus(), inicioEpochMs, inicioNanos);
+            }
+        }
+    }
+
+    /**
+     * Aplica as regras de amostragem e enfileira o registro.
+     *
+     * @param request       requisicao atendida
+     * @param status        status final
+     * @param inicioEpochMs instante de chegada
+     * @param inicioNanos   relogio monotonico na chegada
+     */
+    private void registrar(HttpServletRequest request, int status, long inicioEpochMs, long inicioNanos) {
+        long latenciaUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicioNanos);
+        String uri = request.getRequestURI();
+        if (status < STATUS_ERRO && latenciaUs < limiteLentoUs && !amostrado(uri)) {
+            return;
+        }
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        registrador.registrar(new RegistroAcesso(
+                inicioEpochMs,
+                request.getMethod(),
+                uri,
+                rota != null ? rota.toString() : null,
+                status,
+                latenciaUs,
+                // Com server.forward-headers-strategy=native o Tomcat ja troca o endereco do proxy pelo do cliente.
+                request.getRemoteAddr()
+        ));
+    }
+
+    /**
+     * Sorteia se a requisicao entra no log conforme a taxa da primeira rota correspondente.
+     *
+     * @param uri caminho requisitado
+     * @return true quando deve ser registrada
+     */
+    private boolean amostrado(String uri) {
+        for (Map.Entry<String, Double> regra : amostragem) {
+            if (pathMatcher.match(regra.getKey(), uri)) {
+                double taxa = regra.getValue();
+                return taxa >= 1.0 || (taxa > 0.0 && ThreadLocalRandom.current().nextDouble() < taxa);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registra requisicoes assincronas (ex.: streaming) quando a resposta e concluida.
+     */
+    private final class ConclusaoAssincrona implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long inicioEpochMs;
+        private final long inicioNanos;
+
+        private ConclusaoAssincrona(HttpServletRequest request, HttpServletResponse response,
+                                    long inicioEpochMs, long inicioNanos) {
+            this.request = request;
+            this.response = response;
+            this.inicioEpochMs = inicioEpochMs;
+            this.inicioNanos = inicioNanos;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            registrar(request, response.getStatus(), inicioEpochMs, inicioNanos);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // O registro acontece em onComplete, que sempre sucede o timeout.
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // O registro acontece em onComplete, que sempre sucede o erro.
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nao utilizado.
+        }
+    }
+}
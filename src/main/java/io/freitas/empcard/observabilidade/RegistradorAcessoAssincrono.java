@@ -0,0 +1,184 @@
+package io.freitas.empcard.observabilidade;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escreve o log de acesso em JSON fora da thread da requisicao.
+ *
+ * <p>A requisicao apenas enfileira um {@link RegistroAcesso} em um buffer circular limitado; se o buffer
+ * estiver cheio o registro e descartado (e contado) em vez de bloquear o atendimento. Uma thread dedicada
+ * drena em lotes, formata cada linha reaproveitando o mesmo buffer de texto e envia ao logger
+ * {@code empcard.acesso}, que tem appender proprio em {@code logback-spring.xml} (apenas a linha JSON, sem
+ * repassar aos appenders da aplicacao).</p>
+ */
+@Slf4j
+public class RegistradorAcessoAssincrono {
+
+    static final String NOME_LOGGER = "empcard.acesso";
+
+    private static final Logger ACESSO = LoggerFactory.getLogger(NOME_LOGGER);
+    private static final int TAMANHO_LOTE = 256;
+
+    private final BlockingQueue<RegistroAcesso> fila;
+    private final AtomicLong descartados = new AtomicLong();
+    private final StringBuilder linha = new StringBuilder(256);
+    private final List<RegistroAcesso> lote = new ArrayList<>(TAMANHO_LOTE);
+
+    private volatile boolean ativo;
+    private Thread escritora;
+    private long descartadosReportados;
+
+    public RegistradorAcessoAssincrono(int capacidade, MeterRegistry meterRegistry) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        FunctionCounter.builder("empcard.acesso.descartados", descartados, AtomicLong::get)
+                .description("Registros de acesso descartados por buffer cheio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira o registro sem bloquear; descarta quando o buffer esta cheio.
+     *
+     * @param registro acesso a registrar
+     */
+    public void registrar(RegistroAcesso registro) {
+        if (!fila.offer(registro)) {
+            descartados.incrementAndGet();
+        }
+    }
+
+    /**
+     * Inicia a thread escritora.
+     */
+    @PostConstruct
+    public void iniciar() {
+        ativo = true;
+        escritora = Thread.ofPlatform().name("registro-acesso").daemon(true).start(this::escrever);
+    }
+
+    /**
+     * Encerra a thread escritora gravando o que ainda estiver no buffer.
+     */
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        escritora.interrupt();
+        try {
+            escritora.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Laco da thread escritora: aguarda o primeiro registro e drena o restante em lote.
+     */
+    private void escrever() {
+        while (ativo) {
+            try {
+                RegistroAcesso primeiro = fila.poll(1, TimeUnit.SECONDS);
+                if (primeiro != null) {
+                    lote.add(primeiro);
+                    fila.drainTo(lote, TAMANHO_LOTE - 1);
+                    escreverLote();
+                }
+                reportarDescartes();
+            } catch (InterruptedException ex) {
+                // Interrupcao so ocorre no encerramento; o laco termina pela flag.
+            } catch (RuntimeException ex) {
+                lote.clear();
+                log.warn("Falha ao escrever log de acesso", ex);
+            }
+        }
+        while (fila.drainTo(lote, TAMANHO_LOTE) > 0) {
+            escreverLote();
+        }
+    }
+
+    /**
+     * Formata e envia cada registro do lote atual.
+     */
+    private void escreverLote() {
+        if (ACESSO.isInfoEnabled()) {
+            for (RegistroAcesso registro : lote) {
+                ACESSO.info(formatar(registro));
+            }
+        }
+        lote.clear();
+    }
+
+    /**
+     * Avisa uma vez por ciclo quando houve descarte desde o ultimo aviso.
+     */
+    private void reportarDescartes() {
+        long total = descartados.get();
+        if (total != descartadosReportados) {
+            log.warn("Log de acesso descartou registros por buffer cheio. novos={}, total={}",
+                    total - descartadosReportados, total);
+            descartadosReportados = total;
+        }
+    }
+
+    /**
+     * Monta a linha JSON reaproveitando o buffer de texto; uso exclusivo da thread escritora.
+     *
+     * @param registro acesso a formatar
+     * @return linha JSON
+     */
+    String formatar(RegistroAcesso registro) {
+        linha.setLength(0);
+        linha.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(registro.inicioEpochMs()), linha);
+        linha.append("\",\"metodo\":");
+        adicionarTexto(registro.metodo());
+        linha.append(",\"uri\":");
+        adicionarTexto(registro.uri());
+        if (registro.rota() != null) {
+            linha.append(",\"rota\":");
+            adicionarTexto(registro.rota());
+        }
+        linha.append(",\"status\":").append(registro.status())
+                .append(",\"latenciaUs\":").append(registro.latenciaUs())
+                .append(",\"ip\":");
+        adicionarTexto(registro.ip());
+        return linha.append('}').toString();
+    }
+
+    /**
+     * Acrescenta string JSON com escape de aspas, barra invertida e caracteres de controle.
+     *
+     * @param valor texto a escrever (null vira {@code null})
+     */
+    private void adicionarTexto(String valor) {
+        if (valor == null) {
+            linha.append("null");
+            return;
+        }
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                linha.append('\\').append(c);
+            } else if (c < 0x20) {
+                linha.append(String.format("\\u%04x", (int) c));
+            } else {
+                linha.append(c);
+            }
+        }
+        linha.append('"');
+    }
+}
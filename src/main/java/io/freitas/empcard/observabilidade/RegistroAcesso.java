@@ -0,0 +1,23 @@
+package io.freitas.empcard.observabilidade;
+
+/**
+ * Dados brutos de um acesso HTTP, capturados na thread da requisicao e formatados depois pela thread escritora.
+ *
+ * @param inicioEpochMs instante de chegada da requisicao
+ * @param metodo        metodo HTTP
+ * @param uri           caminho requisitado, sem query string
+ * @param rota          padrao do handler que atendeu (ex.: {@code /api/pessoas/{id}}) ou null
+ * @param status        status HTTP da resposta
+ * @param latenciaUs    tempo total de atendimento em microssegundos
+ * @param ip            endereco do cliente (resolvido de {@code X-Forwarded-For} quando atras de proxy interno)
+ */
+public record RegistroAcesso(
+        long inicioEpochMs,
+        String metodo,
+        String uri,
+        String rota,
+        int status,
+        long latenciaUs,
+        String ip
+) {
+}
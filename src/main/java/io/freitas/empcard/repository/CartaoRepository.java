@@ -1,8 +1,15 @@
 package io.freitas.empcard.repository;
 
+import io.freitas.empcard.dto.CartaoRelatorioDto;
 import io.freitas.empcard.model.Cartao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CartaoRepository extends JpaRepository<Cartao, Long> {
@@ -12,4 +19,32 @@ public interface CartaoRepository extends JpaRepository<Cartao, Long> {
     boolean existsByNumero(String numero);
 
     boolean existsByNumeroAndIdNot(String numero, Long id);
+
+    long countByAtivoTrue();
+
+    @Query("""
+            select new io.freitas.empcard.dto.CartaoRelatorioDto(
+                c.id, c.numero, c.bandeira, c.banco, c.diaFechamento, c.diaVencimento)
+            from Cartao c
+            where c.id in :ids
+            """)
+    List<CartaoRelatorioDto> listarParaRelatorio(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new io.freitas.empcard.dto.CartaoRelatorioDto(
+                c.id, c.numero, c.bandeira, c.banco, c.diaFechamento, c.diaVencimento)
+            from Cartao c
+            """)
+    List<CartaoRelatorioDto> listarTodosParaRelatorio();
+
+    @Query("""
+            select c from Cartao c
+            where (c.updatedAt > :desde or (c.updatedAt = :desde and c.id > :desdeId))
+              and c.updatedAt <= :ate
+            order by c.updatedAt, c.id
+            """)
+    List<Cartao> listarAlteradosDesde(@Param("desde") LocalDateTime desde,
+                                      @Param("desdeId") long desdeId,
+                                      @Param("ate") LocalDateTime ate,
+                                      Limit limite);
 }
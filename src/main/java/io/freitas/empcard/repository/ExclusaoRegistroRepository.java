@@ -0,0 +1,32 @@
+package io.freitas.empcard.repository;
+
+import io.freitas.empcard.model.ExclusaoRegistro;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ExclusaoRegistroRepository extends JpaRepository<ExclusaoRegistro, Long> {
+
+    @Query("""
+            select e from ExclusaoRegistro e
+            where (e.excluidoEm > :desde or (e.excluidoEm = :desde and e.id > :desdeId))
+              and e.excluidoEm <= :ate
+            order by e.excluidoEm, e.id
+            """)
+    List<ExclusaoRegistro> listarDesde(@Param("desde") LocalDateTime desde,
+                                       @Param("desdeId") long desdeId,
+                                       @Param("ate") LocalDateTime ate,
+                                       Limit limite);
+
+    Optional<ExclusaoRegistro> findFirstByExcluidoEmLessThanEqualOrderByExcluidoEmDescIdDesc(LocalDateTime ate);
+
+    @Modifying
+    @Query("delete from ExclusaoRegistro e where e.excluidoEm < :limite")
+    int excluirAnterioresA(@Param("limite") LocalDateTime limite);
+}
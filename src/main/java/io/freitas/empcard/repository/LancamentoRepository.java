@@ -1,18 +1,42 @@
 package io.freitas.empcard.repository;
 
+import io.freitas.empcard.dto.AgregadoMensalDto;
+import io.freitas.empcard.dto.LancamentoBuscaDto;
+import io.freitas.empcard.dto.LancamentoRelatorioDto;
 import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.TipoLancamento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"pessoa", "cartao"})
+    Optional<Lancamento> findById(Long id);
+
     @EntityGraph(attributePaths = {"pessoa", "cartao"})
     List<Lancamento> findAllByOrderByDataCompraDescIdDesc();
 
     @EntityGraph(attributePaths = {"pessoa", "cartao"})
-    List<Lancamento> findByPessoaIdOrderByDataCompraAsc(Long pessoaId);
+    List<Lancamento> findAllByOrderByDataCompraDescIdDesc(Limit limite);
+
+    @EntityGraph(attributePaths = {"pessoa", "cartao"})
+    @Query("""
+            select l from Lancamento l
+            where l.dataCompra < :dataCompra or (l.dataCompra = :dataCompra and l.id < :id)
+            order by l.dataCompra desc, l.id desc
+            """)
+    List<Lancamento> listarAnterioresA(@Param("dataCompra") LocalDate dataCompra,
+                                       @Param("id") Long id,
+                                       Limit limite);
 
     @EntityGraph(attributePaths = {"pessoa", "cartao"})
     List<Lancamento> findByPessoaIdAndCartaoIdOrderByDataCompraAsc(Long pessoaId, Long cartaoId);
@@ -20,4 +44,158 @@ public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
     boolean existsByPessoaId(Long pessoaId);
 
     boolean existsByCartaoId(Long cartaoId);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoRelatorioDto(
+                l.pessoa.id, l.cartao.id, l.tipo, l.valorTotal, l.quantidadeParcelas, l.dataCompra, l.dataFimFixo,
+                l.descricao, l.observacao)
+            from Lancamento l
+            where l.pessoa.id = :pessoaId and l.dataCompra <= :dataLimite
+            order by l.dataCompra, l.id
+            """)
+    List<LancamentoRelatorioDto> listarParaRelatorio(@Param("pessoaId") Long pessoaId,
+                                                     @Param("dataLimite") LocalDate dataLimite);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoRelatorioDto(
+                l.pessoa.id, l.cartao.id, l.tipo, l.valorTotal, l.quantidadeParcelas, l.dataCompra, l.dataFimFixo,
+                l.descricao, l.observacao)
+            from Lancamento l
+            where l.dataCompra <= :dataLimite
+            order by l.dataCompra, l.id
+            """)
+    List<LancamentoRelatorioDto> listarCarteiraParaRelatorio(@Param("dataLimite") LocalDate dataLimite);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoRelatorioDto(
+                l.pessoa.id, l.cartao.id, l.tipo, l.valorTotal, l.quantidadeParcelas, l.dataCompra, l.dataFimFixo,
+                l.descricao, l.observacao)
+            from Lancamento l
+            where l.cartao.id = :cartaoId
+              and l.tipo = :tipoAvulso
+              and l.dataCompra >= :inicio and l.dataCompra < :fim
+            order by l.dataCompra, l.id
+            """)
+    List<LancamentoRelatorioDto> listarAvulsosDoCartaoNoPeriodo(@Param("cartaoId") Long cartaoId,
+                                                                @Param("tipoAvulso") TipoLancamento tipoAvulso,
+                                                                @Param("inicio") LocalDate inicio,
+                                                                @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoRelatorioDto(
+                l.pessoa.id, l.cartao.id, l.tipo, l.valorTotal, l.quantidadeParcelas, l.dataCompra, l.dataFimFixo,
+                l.descricao, l.observacao)
+            from Lancamento l
+            where l.cartao.id = :cartaoId
+              and l.tipo <> :tipoAvulso
+              and l.dataCompra < :fim
+            order by l.dataCompra, l.id
+            """)
+    List<LancamentoRelatorioDto> listarRecorrentesDoCartao(@Param("cartaoId") Long cartaoId,
+                                                           @Param("tipoAvulso") TipoLancamento tipoAvulso,
+                                                           @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoRelatorioDto(
+                l.pessoa.id, l.cartao.id, l.tipo, l.valorTotal, l.quantidadeParcelas, l.dataCompra, l.dataFimFixo,
+                l.descricao, l.observacao)
+            from Lancamento l
+            where l.ativo = true
+              and l.tipo = :tipoAvulso
+              and l.dataCompra >= :inicio and l.dataCompra < :fim
+            """)
+    List<LancamentoRelatorioDto> listarAvulsosAtivosNoPeriodo(@Param("tipoAvulso") TipoLancamento tipoAvulso,
+                                                              @Param("inicio") LocalDate inicio,
+                                                              @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoRelatorioDto(
+                l.pessoa.id, l.cartao.id, l.tipo, l.valorTotal, l.quantidadeParcelas, l.dataCompra, l.dataFimFixo,
+                l.descricao, l.observacao)
+            from Lancamento l
+            where l.ativo = true
+              and l.tipo <> :tipoAvulso
+              and l.dataCompra < :fim
+            """)
+    List<LancamentoRelatorioDto> listarRecorrentesAtivos(@Param("tipoAvulso") TipoLancamento tipoAvulso,
+                                                         @Param("fim") LocalDate fim);
+
+    @EntityGraph(attributePaths = {"pessoa", "cartao"})
+    @Query("""
+            select l from Lancamento l
+            where (l.updatedAt > :desde or (l.updatedAt = :desde and l.id > :desdeId))
+              and l.updatedAt <= :ate
+            order by l.updatedAt, l.id
+            """)
+    List<Lancamento> listarAlteradosDesde(@Param("desde") LocalDateTime desde,
+                                          @Param("desdeId") long desdeId,
+                                          @Param("ate") LocalDateTime ate,
+                                          Limit limite);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoBuscaDto(l.id, l.descricao, p.nome, l.dataCompra, l.valorTotal)
+            from Lancamento l join l.pessoa p
+            """)
+    List<LancamentoBuscaDto> listarParaBusca();
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoBuscaDto(l.id, l.descricao, p.nome, l.dataCompra, l.valorTotal)
+            from Lancamento l join l.pessoa p
+            where l.id = :id
+            """)
+    Optional<LancamentoBuscaDto> buscarParaBusca(@Param("id") Long id);
+
+    @Query("""
+            select new io.freitas.empcard.dto.LancamentoBuscaDto(l.id, l.descricao, p.nome, l.dataCompra, l.valorTotal)
+            from Lancamento l join l.pessoa p
+            where p.id = :pessoaId
+            """)
+    List<LancamentoBuscaDto> listarParaBuscaPorPessoa(@Param("pessoaId") Long pessoaId);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from l.dataCompra), extract(month from l.dataCompra), 'TOTAL',
+                count(l), sum(l.valorTotal), avg(l.quantidadeParcelas))
+            from Lancamento l
+            where l.dataCompra >= :inicio and l.dataCompra < :fim
+            group by extract(year from l.dataCompra), extract(month from l.dataCompra)
+            """)
+    List<AgregadoMensalDto> agregarComprasPorMes(@Param("inicio") LocalDate inicio,
+                                                 @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from l.dataCompra), extract(month from l.dataCompra), cast(l.tipo as String),
+                count(l), sum(l.valorTotal), avg(l.quantidadeParcelas))
+            from Lancamento l
+            where l.dataCompra >= :inicio and l.dataCompra < :fim
+            group by extract(year from l.dataCompra), extract(month from l.dataCompra), l.tipo
+            """)
+    List<AgregadoMensalDto> agregarComprasPorMesETipo(@Param("inicio") LocalDate inicio,
+                                                      @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from l.dataCompra), extract(month from l.dataCompra), c.banco,
+                count(l), sum(l.valorTotal), avg(l.quantidadeParcelas))
+            from Lancamento l join l.cartao c
+            where l.dataCompra >= :inicio and l.dataCompra < :fim
+            group by extract(year from l.dataCompra), extract(month from l.dataCompra), c.banco
+            """)
+    List<AgregadoMensalDto> agregarComprasPorMesEBanco(@Param("inicio") LocalDate inicio,
+                                                       @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from l.dataCompra), extract(month from l.dataCompra), c.bandeira,
+                count(l), sum(l.valorTotal), avg(l.quantidadeParcelas))
+            from Lancamento l join l.cartao c
+            where l.dataCompra >= :inicio and l.dataCompra < :fim
+            group by extract(year from l.dataCompra), extract(month from l.dataCompra), c.bandeira
+            """)
+    List<AgregadoMensalDto> agregarComprasPorMesEBandeira(@Param("inicio") LocalDate inicio,
+                                                          @Param("fim") LocalDate fim);
+
+    @Query("select l.dataCompra from Lancamento l where l.id = :id")
+    Optional<LocalDate> buscarDataCompra(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package io.freitas.empcard.repository;
+
+import io.freitas.empcard.model.LoteTarefa;
+import io.freitas.empcard.model.TipoTarefa;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LoteTarefaRepository extends JpaRepository<LoteTarefa, Long> {
+
+    Optional<LoteTarefa> findFirstByTipoAndReferenciaOrderByGeracaoDesc(TipoTarefa tipo, String referencia);
+
+    List<LoteTarefa> findAllByOrderByIdDesc(Limit limite);
+}
@@ -1,23 +1,110 @@
 package io.freitas.empcard.repository;
 
+import io.freitas.empcard.dto.AgregadoMensalDto;
+import io.freitas.empcard.dto.PagamentoRelatorioDto;
 import io.freitas.empcard.model.Pagamento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"pessoa", "cartao"})
+    Optional<Pagamento> findById(Long id);
+
     @EntityGraph(attributePaths = {"pessoa", "cartao"})
     List<Pagamento> findAllByOrderByDataPagamentoDescIdDesc();
 
     @EntityGraph(attributePaths = {"pessoa", "cartao"})
-    List<Pagamento> findByPessoaIdAndCartaoIdOrderByDataPagamentoAsc(Long pessoaId, Long cartaoId);
+    List<Pagamento> findAllByOrderByDataPagamentoDescIdDesc(Limit limite);
 
     @EntityGraph(attributePaths = {"pessoa", "cartao"})
-    List<Pagamento> findByPessoaIdOrderByDataPagamentoAsc(Long pessoaId);
+    @Query("""
+            select p from Pagamento p
+            where p.dataPagamento < :dataPagamento or (p.dataPagamento = :dataPagamento and p.id < :id)
+            order by p.dataPagamento desc, p.id desc
+            """)
+    List<Pagamento> listarAnterioresA(@Param("dataPagamento") LocalDate dataPagamento,
+                                      @Param("id") Long id,
+                                      Limit limite);
+
+    @EntityGraph(attributePaths = {"pessoa", "cartao"})
+    List<Pagamento> findByPessoaIdAndCartaoIdOrderByDataPagamentoAsc(Long pessoaId, Long cartaoId);
 
     boolean existsByPessoaId(Long pessoaId);
 
     boolean existsByCartaoId(Long cartaoId);
+
+    @Query("""
+            select new io.freitas.empcard.dto.PagamentoRelatorioDto(p.pessoa.id, p.cartao.id, p.dataPagamento, p.valor)
+            from Pagamento p
+            where p.pessoa.id = :pessoaId and p.dataPagamento <= :dataLimite
+            order by p.dataPagamento, p.id
+            """)
+    List<PagamentoRelatorioDto> listarParaRelatorio(@Param("pessoaId") Long pessoaId,
+                                                    @Param("dataLimite") LocalDate dataLimite);
+
+    @Query("""
+            select new io.freitas.empcard.dto.PagamentoRelatorioDto(p.pessoa.id, p.cartao.id, p.dataPagamento, p.valor)
+            from Pagamento p
+            where p.dataPagamento <= :dataLimite
+            order by p.dataPagamento, p.id
+            """)
+    List<PagamentoRelatorioDto> listarCarteiraParaRelatorio(@Param("dataLimite") LocalDate dataLimite);
+
+    @EntityGraph(attributePaths = {"pessoa", "cartao"})
+    @Query("""
+            select p from Pagamento p
+            where (p.updatedAt > :desde or (p.updatedAt = :desde and p.id > :desdeId))
+              and p.updatedAt <= :ate
+            order by p.updatedAt, p.id
+            """)
+    List<Pagamento> listarAlteradosDesde(@Param("desde") LocalDateTime desde,
+                                         @Param("desdeId") long desdeId,
+                                         @Param("ate") LocalDateTime ate,
+                                         Limit limite);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from p.dataPagamento), extract(month from p.dataPagamento), 'TOTAL',
+                count(p), sum(p.valor))
+            from Pagamento p
+            where p.dataPagamento >= :inicio and p.dataPagamento < :fim
+            group by extract(year from p.dataPagamento), extract(month from p.dataPagamento)
+            """)
+    List<AgregadoMensalDto> agregarPagamentosPorMes(@Param("inicio") LocalDate inicio,
+                                                    @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from p.dataPagamento), extract(month from p.dataPagamento), c.banco,
+                count(p), sum(p.valor))
+            from Pagamento p join p.cartao c
+            where p.dataPagamento >= :inicio and p.dataPagamento < :fim
+            group by extract(year from p.dataPagamento), extract(month from p.dataPagamento), c.banco
+            """)
+    List<AgregadoMensalDto> agregarPagamentosPorMesEBanco(@Param("inicio") LocalDate inicio,
+                                                          @Param("fim") LocalDate fim);
+
+    @Query("""
+            select new io.freitas.empcard.dto.AgregadoMensalDto(
+                extract(year from p.dataPagamento), extract(month from p.dataPagamento), c.bandeira,
+                count(p), sum(p.valor))
+            from Pagamento p join p.cartao c
+            where p.dataPagamento >= :inicio and p.dataPagamento < :fim
+            group by extract(year from p.dataPagamento), extract(month from p.dataPagamento), c.bandeira
+            """)
+    List<AgregadoMensalDto> agregarPagamentosPorMesEBandeira(@Param("inicio") LocalDate inicio,
+                                                             @Param("fim") LocalDate fim);
+
+    @Query("select p.dataPagamento from Pagamento p where p.id = :id")
+    Optional<LocalDate> buscarDataPagamento(@Param("id") Long id);
 }
@@ -0,0 +1,42 @@
+package io.freitas.empcard.repository;
+
+import io.freitas.empcard.dto.ParcelaRelatorioDto;
+import io.freitas.empcard.model.Parcela;
+import io.freitas.empcard.model.TipoLancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ParcelaRepository extends JpaRepository<Parcela, Long> {
+
+    @Query("""
+            select new io.freitas.empcard.dto.ParcelaRelatorioDto(
+                p.pessoaId, p.cartaoId, p.competencia, p.tipo, p.numero, l.quantidadeParcelas, p.valor, l.descricao, l.observacao)
+            from Parcela p join Lancamento l on l.id = p.lancamentoId
+            where p.pessoaId = :pessoaId
+              and p.competencia <= :competencia
+              and (p.tipo <> :tipoFixo or p.competencia <= :limiteFixos)
+            order by p.competencia, l.dataCompra, l.id
+            """)
+    List<ParcelaRelatorioDto> listarParaRelatorio(@Param("pessoaId") Long pessoaId,
+                                                  @Param("competencia") LocalDate competencia,
+                                                  @Param("tipoFixo") TipoLancamento tipoFixo,
+                                                  @Param("limiteFixos") LocalDate limiteFixos);
+
+    @Query("""
+            select new io.freitas.empcard.dto.ParcelaRelatorioDto(
+                p.pessoaId, p.cartaoId, p.competencia, p.tipo, p.numero, l.quantidadeParcelas, p.valor, l.descricao, l.observacao)
+            from Parcela p join Lancamento l on l.id = p.lancamentoId
+            where p.competencia <= :competencia
+              and (p.tipo <> :tipoFixo or p.competencia <= :limiteFixos)
+            order by p.competencia, l.dataCompra, l.id
+            """)
+    List<ParcelaRelatorioDto> listarCarteiraParaRelatorio(@Param("competencia") LocalDate competencia,
+                                                          @Param("tipoFixo") TipoLancamento tipoFixo,
+                                                          @Param("limiteFixos") LocalDate limiteFixos);
+
+    List<Parcela> findByLancamentoIdOrderByNumero(Long lancamentoId);
+}
@@ -1,8 +1,13 @@
 package io.freitas.empcard.repository;
 
 import io.freitas.empcard.model.Pessoa;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
@@ -12,4 +17,24 @@ public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
     boolean existsByCpf(String cpf);
 
     boolean existsByCpfAndIdNot(String cpf, Long id);
+
+    List<Pessoa> findAllByOrderByNomeAscIdAsc(Limit limite);
+
+    @Query("""
+            select p from Pessoa p
+            where p.nome > :nome or (p.nome = :nome and p.id > :id)
+            order by p.nome, p.id
+            """)
+    List<Pessoa> listarPosterioresA(@Param("nome") String nome, @Param("id") Long id, Limit limite);
+
+    @Query("""
+            select p from Pessoa p
+            where (p.updatedAt > :desde or (p.updatedAt = :desde and p.id > :desdeId))
+              and p.updatedAt <= :ate
+            order by p.updatedAt, p.id
+            """)
+    List<Pessoa> listarAlteradosDesde(@Param("desde") LocalDateTime desde,
+                                      @Param("desdeId") long desdeId,
+                                      @Param("ate") LocalDateTime ate,
+                                      Limit limite);
 }
@@ -0,0 +1,88 @@
+package io.freitas.empcard.repository;
+
+import io.freitas.empcard.dto.ContagemSituacaoTarefaDto;
+import io.freitas.empcard.model.SituacaoTarefa;
+import io.freitas.empcard.model.Tarefa;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TarefaRepository extends JpaRepository<Tarefa, Long> {
+
+    /**
+     * Trava pendentes vencidas pulando as ja travadas por outra instancia. SQL nativo porque o Hibernate so
+     * emite {@code SKIP LOCKED} para alguns dialetos; o literal {@code 'PENDENTE'} casa com o indice parcial.
+     */
+    @Query(value = """
+            select * from tarefas
+            where situacao = 'PENDENTE' and executar_apos <= :agora
+            order by executar_apos, id
+            limit :limite
+            for update skip locked
+            """, nativeQuery = true)
+    List<Tarefa> travarPendentes(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    boolean existsByLoteIdAndSituacaoIn(Long loteId, Collection<SituacaoTarefa> situacoes);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Tarefa t where t.id = :id")
+    Optional<Tarefa> travarPorId(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+            update Tarefa t set t.heartbeatEm = :agora
+            where t.id in :ids and t.instancia = :instancia and t.situacao = :emExecucao
+            """)
+    int renovarHeartbeat(@Param("ids") Collection<Long> ids,
+                         @Param("instancia") String instancia,
+                         @Param("emExecucao") SituacaoTarefa emExecucao,
+                         @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("""
+            update Tarefa t set t.situacao = :pendente, t.instancia = null, t.erro = :erro
+            where t.situacao = :emExecucao and t.heartbeatEm < :limite and t.tentativas < :maxTentativas
+            """)
+    int liberarAbandonadas(@Param("emExecucao") SituacaoTarefa emExecucao,
+                           @Param("pendente") SituacaoTarefa pendente,
+                           @Param("limite") LocalDateTime limite,
+                           @Param("maxTentativas") int maxTentativas,
+                           @Param("erro") String erro);
+
+    @Modifying
+    @Query("""
+            update Tarefa t set t.situacao = :falha, t.instancia = null, t.erro = :erro
+            where t.situacao = :emExecucao and t.heartbeatEm < :limite and t.tentativas >= :maxTentativas
+            """)
+    int encerrarAbandonadas(@Param("emExecucao") SituacaoTarefa emExecucao,
+                            @Param("falha") SituacaoTarefa falha,
+                            @Param("limite") LocalDateTime limite,
+                            @Param("maxTentativas") int maxTentativas,
+                            @Param("erro") String erro);
+
+    @Modifying
+    @Query("""
+            update Tarefa t set t.situacao = :pendente, t.instancia = null, t.tentativas = t.tentativas - 1
+            where t.id in :ids and t.instancia = :instancia and t.situacao = :emExecucao
+            """)
+    int devolver(@Param("ids") Collection<Long> ids,
+                 @Param("instancia") String instancia,
+                 @Param("emExecucao") SituacaoTarefa emExecucao,
+                 @Param("pendente") SituacaoTarefa pendente);
+
+    @Query("""
+            select new io.freitas.empcard.dto.ContagemSituacaoTarefaDto(t.loteId, t.situacao, count(t))
+            from Tarefa t
+            where t.loteId in :loteIds
+            group by t.loteId, t.situacao
+            """)
+    List<ContagemSituacaoTarefaDto> contarPorSituacao(@Param("loteIds") Collection<Long> loteIds);
+}
@@ -0,0 +1,19 @@
+package io.freitas.empcard.repository;
+
+import io.freitas.empcard.model.TokenApi;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TokenApiRepository extends JpaRepository<TokenApi, Long> {
+
+    @EntityGraph(attributePaths = "usuario")
+    Optional<TokenApi> findByHashToken(String hashToken);
+
+    List<TokenApi> findAllByUsuarioIdOrderByIdDesc(Long usuarioId);
+
+    @EntityGraph(attributePaths = "usuario")
+    List<TokenApi> findAllByOrderByIdDesc();
+}
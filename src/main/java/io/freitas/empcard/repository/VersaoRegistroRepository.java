@@ -0,0 +1,24 @@
+package io.freitas.empcard.repository;
+
+import io.freitas.empcard.model.VersaoRegistro;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VersaoRegistroRepository extends JpaRepository<VersaoRegistro, String> {
+
+    @Modifying
+    @Query(value = "insert into versoes_registro (chave, versao) values (:chave, 0) on conflict do nothing",
+            nativeQuery = true)
+    void criarSeAusente(@Param("chave") String chave);
+
+    @Modifying
+    @Query(value = "update versoes_registro set versao = versao + 1 where chave = :chave", nativeQuery = true)
+    void incrementar(@Param("chave") String chave);
+
+    List<VersaoRegistro> findByChaveIn(Collection<String> chaves);
+}
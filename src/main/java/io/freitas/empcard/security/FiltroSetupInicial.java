@@ -35,6 +35,12 @@ public class FiltroSetupInicial extends OncePerRequestFilter {
 
     private final UsuarioRepository usuarioRepository;
 
+    /**
+     * Usuarios nao sao excluidos, entao depois do primeiro cadastro o setup fica concluido para sempre e a
+     * contagem deixa de ser feita a cada requisicao.
+     */
+    private volatile boolean setupConcluido;
+
     /**
      * Intercepta todas as requisicoes para verificar se o sistema ja possui usuario cadastrado.
      *
@@ -48,18 +54,20 @@ public class FiltroSetupInicial extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        long totalUsuarios = usuarioRepository.count();
+        if (!setupConcluido) {
+            setupConcluido = usuarioRepository.count() > 0;
+        }
         String path = request.getRequestURI();
 
         // Enquanto nao existir usuario, apenas a rota de setup e arquivos estaticos ficam liberados.
-        if (totalUsuarios == 0 && !isRotaPermitida(path)) {
+        if (!setupConcluido && !isRotaPermitida(path)) {
             log.info("Sistema sem usuarios. Redirecionando para setup inicial. path={}", path);
             response.sendRedirect(request.getContextPath() + "/setup/inicial");
             return;
         }
 
         // Se o setup foi concluido, bloquear acesso manual posterior a tela inicial de setup.
-        if (totalUsuarios > 0 && path.startsWith("/setup/inicial")) {
+        if (setupConcluido && path.startsWith("/setup/inicial")) {
             log.info("Tentativa de acesso ao setup inicial apos conclusao. path={}", path);
             response.sendRedirect(request.getContextPath() + "/login");
             return;
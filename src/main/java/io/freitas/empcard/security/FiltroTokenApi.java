@@ -0,0 +1,72 @@
+package io.freitas.empcard.security;
+
+import io.freitas.empcard.service.TokenApiService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Autentica chamadas da API que apresentam {@code Authorization: Bearer <token>}.
+ *
+ * <p>Roda apenas na cadeia stateless da API: o contexto de seguranca vale so para a requisicao
+ * atual e nenhuma sessao HTTP e criada. Token invalido deixa a requisicao anonima, e a cadeia
+ * responde 401.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FiltroTokenApi extends OncePerRequestFilter {
+
+    private static final String ESQUEMA_BEARER = "Bearer ";
+
+    private final TokenApiService tokenApiService;
+
+    /**
+     * Indica se a requisicao usa autenticacao por token; usado como matcher da cadeia da API.
+     *
+     * @param request requisicao atual
+     * @return true quando ha cabecalho Bearer
+     */
+    public static boolean possuiToken(HttpServletRequest request) {
+        String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return cabecalho != null && cabecalho.regionMatches(true, 0, ESQUEMA_BEARER, 0, ESQUEMA_BEARER.length());
+    }
+
+    /**
+     * Valida o token e popula o contexto de seguranca da requisicao.
+     *
+     * @param request     requisicao atual
+     * @param response    resposta HTTP
+     * @param filterChain cadeia de filtros
+     * @throws ServletException erro interno de servlet
+     * @throws IOException      erro de IO
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(ESQUEMA_BEARER.length()).trim();
+
+        tokenApiService.verificar(token).ifPresentOrElse(verificado -> {
+            UsernamePasswordAuthenticationToken autenticacao = UsernamePasswordAuthenticationToken.authenticated(
+                    verificado.nomeUsuario(),
+                    null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + verificado.papel().name())));
+            SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+            contexto.setAuthentication(autenticacao);
+            SecurityContextHolder.setContext(contexto);
+        }, () -> log.warn("Token de API invalido, expirado ou revogado. path={}", request.getRequestURI()));
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,50 @@
+package io.freitas.empcard.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.freitas.empcard.exception.ErroApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Responde 401 no formato padrao de erro da API quando o token Bearer nao autentica a requisicao.
+ */
+@RequiredArgsConstructor
+public class PontoEntradaTokenApi implements AuthenticationEntryPoint {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escreve o erro sem redirecionar para o login, ja que clientes de API nao usam sessao.
+     *
+     * @param request       requisicao atual
+     * @param response      resposta HTTP
+     * @param authException motivo da falha de autenticacao
+     * @throws IOException erro de IO
+     */
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
+            throws IOException {
+        ErroApiResponse erro = new ErroApiResponse(
+                LocalDateTime.now(),
+                HttpStatus.UNAUTHORIZED.value(),
+                HttpStatus.UNAUTHORIZED.getReasonPhrase(),
+                "Token de API invalido, expirado ou revogado",
+                request.getRequestURI(),
+                List.of()
+        );
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), erro);
+    }
+}
@@ -0,0 +1,372 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.AnaliticaProperties;
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.dto.AgregadoMensalDto;
+import io.freitas.empcard.dto.DimensaoAnalitica;
+import io.freitas.empcard.dto.GrupoSerieAnaliticaDto;
+import io.freitas.empcard.dto.SerieAnaliticaDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.exception.RegraDeNegocioException;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PagamentoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Series mensais da carteira inteira (compras e pagamentos por tipo, banco ou bandeira) a partir de agregacoes SQL.
+ *
+ * <p>Cada consulta agrupa por mes da data do movimento no banco e devolve poucas linhas por competencia. Os
+ * agregados de meses encerrados (anteriores ao mes atual) ficam em cache por competencia: uma serie de doze meses
+ * ja aquecida so consulta o mes corrente, e a faixa de datas restrita toca apenas as particoes necessarias.</p>
+ *
+ * <p>Compras cadastradas invalidam apenas o mes da data da compra; atualizacoes e exclusoes nao informam a data
+ * anterior e descartam todos os meses da origem. Alteracoes de cartao descartam as series por banco e bandeira.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnaliticaCarteiraService {
+
+    private final LancamentoRepository lancamentoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final AnaliticaProperties properties;
+
+    private final Map<ChaveCompetencia, List<AgregadoMensalDto>> mesesEncerrados = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+
+    /**
+     * Monta serie mensal das compras pela data da compra, com quantidade, valor contratado e media de parcelas.
+     *
+     * @param dimensao agrupamento das compras
+     * @param inicio   primeira competencia
+     * @param fim      ultima competencia
+     * @return serie das compras
+     */
+    @Transactional(readOnly = true)
+    public SerieAnaliticaDto compras(DimensaoAnalitica dimensao, YearMonth inicio, YearMonth fim) {
+        return montar(Origem.COMPRAS, dimensao, inicio, fim);
+    }
+
+    /**
+     * Monta serie mensal dos pagamentos recebidos pela data do pagamento.
+     *
+     * @param dimensao agrupamento dos pagamentos (tipo de lancamento nao se aplica)
+     * @param inicio   primeira competencia
+     * @param fim      ultima competencia
+     * @return serie dos pagamentos
+     */
+    @Transactional(readOnly = true)
+    public SerieAnaliticaDto pagamentos(DimensaoAnalitica dimensao, YearMonth inicio, YearMonth fim) {
+        if (dimensao == DimensaoAnalitica.TIPO) {
+            throw new RegraDeNegocioException("Pagamentos nao podem ser agrupados por tipo de lancamento");
+        }
+        return montar(Origem.PAGAMENTOS, dimensao, inicio, fim);
+    }
+
+    /**
+     * Quantidade de competencias atualmente em cache.
+     *
+     * @return total de entradas
+     */
+    public int totalEmCache() {
+        return mesesEncerrados.size();
+    }
+
+    /**
+     * Descarta todo o cache.
+     */
+    public void invalidarTudo() {
+        geracao.incrementAndGet();
+        mesesEncerrados.clear();
+        log.debug("Cache de series analiticas invalidado por completo");
+    }
+
+    /**
+     * Descarta os meses afetados por escritas em lancamentos, pagamentos e cartoes apos o commit.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @TransactionalEventListener
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        switch (evento.tipo()) {
+            case LANCAMENTO -> invalidarOrigem(Origem.COMPRAS, evento,
+                    () -> lancamentoRepository.buscarDataCompra(evento.registroId()));
+            case PAGAMENTO -> invalidarOrigem(Origem.PAGAMENTOS, evento,
+                    () -> pagamentoRepository.buscarDataPagamento(evento.registroId()));
+            case CARTAO -> {
+                // Cartao so e excluido sem movimentos; na atualizacao banco e bandeira podem mudar.
+                if (evento.operacao() == OperacaoRegistro.ATUALIZACAO) {
+                    invalidarSe(chave -> chave.dimensao() == DimensaoAnalitica.BANCO
+                            || chave.dimensao() == DimensaoAnalitica.BANDEIRA);
+                }
+            }
+            default -> {
+                // Pessoas, usuarios e tokens nao entram nas series.
+            }
+        }
+    }
+
+    /**
+     * Aplica a mesma invalidacao para alteracoes confirmadas em outra instancia.
+     *
+     * @param evento alteracao recebida pelo barramento de invalidacao
+     */
+    @EventListener
+    public void aoAlterarRegistroRemoto(AlteracaoRemotaEvento evento) {
+        aoAlterarRegistro(evento.alteracao());
+    }
+
+    /**
+     * Descarta todo o cache quando alteracoes remotas podem ter sido perdidas.
+     */
+    @EventListener(AlteracoesRemotasPerdidasEvento.class)
+    public void aoPerderAlteracoesRemotas() {
+        invalidarTudo();
+    }
+
+    /**
+     * Junta meses em cache com uma unica consulta agrupada cobrindo os meses faltantes e monta as listas paralelas.
+     *
+     * @param origem   compras ou pagamentos
+     * @param dimensao agrupamento
+     * @param inicio   primeira competencia
+     * @param fim      ultima competencia
+     * @return serie montada
+     */
+    private SerieAnaliticaDto montar(Origem origem, DimensaoAnalitica dimensao, YearMonth inicio, YearMonth fim) {
+        if (fim.isBefore(inicio)) {
+            throw new RegraDeNegocioException("Competencia final anterior a inicial");
+        }
+        int meses = (int) ChronoUnit.MONTHS.between(inicio, fim) + 1;
+        if (meses > properties.maximoCompetencias()) {
+            throw new RegraDeNegocioException(
+                    "Periodo da serie deve ter no maximo " + properties.maximoCompetencias() + " meses");
+        }
+        long inicioConsulta = System.nanoTime();
+        long geracaoLida = geracao.get();
+        YearMonth atual = YearMonth.now();
+
+        Map<YearMonth, List<AgregadoMensalDto>> porCompetencia = new HashMap<>();
+        YearMonth primeiraFaltante = null;
+        YearMonth ultimaFaltante = null;
+        for (YearMonth competencia = inicio; !competencia.isAfter(fim); competencia = competencia.plusMonths(1)) {
+            List<AgregadoMensalDto> emCache = competencia.isBefore(atual)
+                    ? mesesEncerrados.get(new ChaveCompetencia(origem, dimensao, competencia))
+                    : null;
+            if (emCache != null) {
+                porCompetencia.put(competencia, emCache);
+            } else {
+                primeiraFaltante = primeiraFaltante == null ? competencia : primeiraFaltante;
+                ultimaFaltante = competencia;
+            }
+        }
+        if (primeiraFaltante != null) {
+            Map<YearMonth, List<AgregadoMensalDto>> lidas = new HashMap<>();
+            for (AgregadoMensalDto linha : consultar(origem, dimensao, primeiraFaltante, ultimaFaltante)) {
+                lidas.computeIfAbsent(YearMonth.of(linha.ano(), linha.mes()), chave -> new ArrayList<>()).add(linha);
+            }
+            for (YearMonth competencia = primeiraFaltante; !competencia.isAfter(ultimaFaltante);
+                 competencia = competencia.plusMonths(1)) {
+                if (porCompetencia.containsKey(competencia)) {
+                    continue;
+                }
+                List<AgregadoMensalDto> linhas = Collections.unmodifiableList(lidas.getOrDefault(competencia, List.of()));
+                porCompetencia.put(competencia, linhas);
+                if (competencia.isBefore(atual)) {
+                    armazenar(new ChaveCompetencia(origem, dimensao, competencia), geracaoLida, linhas);
+                }
+            }
+        }
+
+        List<YearMonth> competencias = new ArrayList<>(meses);
+        Map<String, Acumulador> porGrupo = new TreeMap<>();
+        for (int indice = 0; indice < meses; indice++) {
+            YearMonth competencia = inicio.plusMonths(indice);
+            competencias.add(competencia);
+            for (AgregadoMensalDto linha : porCompetencia.get(competencia)) {
+                porGrupo.computeIfAbsent(linha.grupo(), grupo -> new Acumulador(meses)).somar(indice, linha);
+            }
+        }
+        List<GrupoSerieAnaliticaDto> grupos = new ArrayList<>(porGrupo.size());
+        porGrupo.forEach((grupo, acumulador) -> grupos.add(acumulador.paraDto(grupo, origem == Origem.COMPRAS)));
+        return new SerieAnaliticaDto(dimensao, competencias, grupos, (System.nanoTime() - inicioConsulta) / 1_000);
+    }
+
+    /**
+     * Executa a agregacao SQL da origem e dimensao no intervalo de competencias.
+     *
+     * @param origem   compras ou pagamentos
+     * @param dimensao agrupamento
+     * @param inicio   primeira competencia
+     * @param fim      ultima competencia
+     * @return linhas agregadas por mes e grupo
+     */
+    private List<AgregadoMensalDto> consultar(Origem origem, DimensaoAnalitica dimensao, YearMonth inicio, YearMonth fim) {
+        LocalDate de = inicio.atDay(1);
+        LocalDate ate = fim.plusMonths(1).atDay(1);
+        if (origem == Origem.COMPRAS) {
+            return switch (dimensao) {
+                case TOTAL -> lancamentoRepository.agregarComprasPorMes(de, ate);
+                case TIPO -> lancamentoRepository.agregarComprasPorMesETipo(de, ate);
+                case BANCO -> lancamentoRepository.agregarComprasPorMesEBanco(de, ate);
+                case BANDEIRA -> lancamentoRepository.agregarComprasPorMesEBandeira(de, ate);
+            };
+        }
+        return switch (dimensao) {
+            case TOTAL -> pagamentoRepository.agregarPagamentosPorMes(de, ate);
+            case BANCO -> pagamentoRepository.agregarPagamentosPorMesEBanco(de, ate);
+            case BANDEIRA -> pagamentoRepository.agregarPagamentosPorMesEBandeira(de, ate);
+            case TIPO -> throw new IllegalArgumentException("Pagamentos nao tem tipo de lancamento");
+        };
+    }
+
+    /**
+     * Invalida os meses de uma origem: so o mes do movimento na criacao, todos nas demais operacoes.
+     *
+     * @param origem     compras ou pagamentos
+     * @param evento     alteracao confirmada
+     * @param dataCriado busca a data do movimento criado (vazio quando ja foi excluido)
+     */
+    private void invalidarOrigem(Origem origem,
+                                 AlteracaoRegistroEvento evento,
+                                 Supplier<Optional<LocalDate>> dataCriado) {
+        if (evento.operacao() == OperacaoRegistro.CRIACAO) {
+            Optional<LocalDate> data = dataCriado.get();
+            if (data.isPresent()) {
+                YearMonth competencia = YearMonth.from(data.get());
+                invalidarSe(chave -> chave.origem() == origem && chave.competencia().equals(competencia));
+                return;
+            }
+        }
+        invalidarSe(chave -> chave.origem() == origem);
+    }
+
+    /**
+     * Remove as entradas que atendem ao criterio e avanca a geracao.
+     *
+     * @param criterio criterio de remocao
+     */
+    private void invalidarSe(Predicate<ChaveCompetencia> criterio) {
+        geracao.incrementAndGet();
+        mesesEncerrados.keySet().removeIf(criterio);
+    }
+
+    /**
+     * Grava agregados de um mes encerrado e confirma que nenhuma invalidacao concorrente ocorreu.
+     *
+     * @param chave       origem, dimensao e competencia
+     * @param geracaoLida geracao lida antes da consulta
+     * @param linhas      agregados do mes
+     */
+    private void armazenar(ChaveCompetencia chave, long geracaoLida, List<AgregadoMensalDto> linhas) {
+        // Meses lidos da replica podem estar atrasados e nao sao guardados.
+        if (!properties.cacheHabilitado() || geracao.get() != geracaoLida
+                || DataSourceRoteador.transacaoLeuDaReplica()) {
+            return;
+        }
+        mesesEncerrados.put(chave, linhas);
+        if (geracao.get() != geracaoLida) {
+            mesesEncerrados.remove(chave, linhas);
+        }
+    }
+
+    /**
+     * Origem dos movimentos agregados.
+     */
+    private enum Origem {
+        COMPRAS,
+        PAGAMENTOS
+    }
+
+    /**
+     * Chave do cache de meses encerrados.
+     *
+     * @param origem      compras ou pagamentos
+     * @param dimensao    agrupamento
+     * @param competencia mes agregado
+     */
+    private record ChaveCompetencia(Origem origem, DimensaoAnalitica dimensao, YearMonth competencia) {
+    }
+
+    /**
+     * Listas paralelas de um grupo durante a montagem da serie.
+     */
+    private static final class Acumulador {
+
+        private final long[] quantidades;
+        private final BigDecimal[] valores;
+        private final Double[] mediasParcelas;
+
+        /**
+         * Cria acumulador zerado.
+         *
+         * @param meses tamanho da serie
+         */
+        private Acumulador(int meses) {
+            quantidades = new long[meses];
+            valores = new BigDecimal[meses];
+            mediasParcelas = new Double[meses];
+        }
+
+        /**
+         * Registra a linha agregada na posicao da competencia.
+         *
+         * @param indice posicao da competencia na serie
+         * @param linha  agregado do mes
+         */
+        private void somar(int indice, AgregadoMensalDto linha) {
+            quantidades[indice] = linha.quantidade();
+            valores[indice] = linha.valor();
+            mediasParcelas[indice] = linha.mediaParcelas();
+        }
+
+        /**
+         * Converte para o DTO, com zero nos meses sem movimento.
+         *
+         * @param grupo   valor do agrupamento
+         * @param compras true quando a serie tem media de parcelas
+         * @return grupo da serie
+         */
+        private GrupoSerieAnaliticaDto paraDto(String grupo, boolean compras) {
+            List<Long> listaQuantidades = new ArrayList<>(quantidades.length);
+            List<BigDecimal> listaValores = new ArrayList<>(quantidades.length);
+            List<BigDecimal> listaMedias = compras ? new ArrayList<>(quantidades.length) : null;
+            for (int i = 0; i < quantidades.length; i++) {
+                listaQuantidades.add(quantidades[i]);
+                BigDecimal valor = valores[i] == null ? BigDecimal.ZERO : valores[i];
+                listaValores.add(valor.setScale(2, RoundingMode.HALF_UP));
+                if (compras) {
+                    listaMedias.add(mediasParcelas[i] == null
+                            ? null
+                            : BigDecimal.valueOf(mediasParcelas[i]).setScale(2, RoundingMode.HALF_UP));
+                }
+            }
+            return new GrupoSerieAnaliticaDto(grupo, listaQuantidades, listaValores, listaMedias);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.dto.ItemBuscaDto;
+import io.freitas.empcard.dto.LancamentoBuscaDto;
+import io.freitas.empcard.dto.ResultadoBuscaDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.repository.CartaoRepository;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PessoaRepository;
+import io.freitas.empcard.util.DocumentoUtils;
+import io.freitas.empcard.util.ValorMonetarioUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Busca aproximada por pessoas (nome e CPF), cartoes (final, banco e bandeira) e descricao de lancamentos.
+ *
+ * <p>Os indices ficam em memoria e sao montados no startup a partir de projecoes. Depois disso cada escrita
+ * confirmada reindexa apenas o registro afetado, relendo-o do banco. Alteracoes que chegam durante uma
+ * reconstrucao sao reaplicadas sobre os indices novos, para que nada se perca na troca.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BuscaService {
+
+    /**
+     * Quantidade maxima de resultados por tipo de registro.
+     */
+    public static final int LIMITE_MAXIMO = 50;
+
+    private static final DateTimeFormatter FORMATADOR_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final PessoaRepository pessoaRepository;
+    private final CartaoRepository cartaoRepository;
+    private final LancamentoRepository lancamentoRepository;
+
+    private final Queue<AlteracaoRegistroEvento> alteracoesDuranteReconstrucao = new ConcurrentLinkedQueue<>();
+    private volatile Indices indices = new Indices(new IndiceBusca(), new IndiceBusca(), new IndiceBusca());
+    private volatile boolean reconstruindo;
+
+    /**
+     * Busca o termo nos tres indices.
+     * Termo sem letras (ex.: CPF com pontuacao) e pesquisado apenas pelos digitos.
+     *
+     * @param termo  texto digitado
+     * @param limite quantidade maxima por tipo, limitada a {@link #LIMITE_MAXIMO}
+     * @return resultados agrupados por tipo
+     */
+    public ResultadoBuscaDto buscar(String termo, int limite) {
+        String consulta = termo == null ? "" : termo.trim();
+        if (!consulta.isEmpty() && consulta.chars().noneMatch(Character::isLetter)) {
+            consulta = DocumentoUtils.somenteDigitos(consulta);
+        }
+        int limiteEfetivo = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+
+        Indices atuais = indices;
+        return new ResultadoBuscaDto(
+                termo,
+                converter(TipoRegistro.PESSOA, atuais.pessoas().buscar(consulta, limiteEfetivo)),
+                converter(TipoRegistro.CARTAO, atuais.cartoes().buscar(consulta, limiteEfetivo)),
+                converter(TipoRegistro.LANCAMENTO, atuais.lancamentos().buscar(consulta, limiteEfetivo))
+        );
+    }
+
+    /**
+     * Monta os indices a partir do banco e os troca de uma vez pelos atuais.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruirIndices() {
+        long inicio = System.nanoTime();
+        reconstruindo = true;
+        alteracoesDuranteReconstrucao.clear();
+        // Eventos anteriores a reconstrucao ja foram descartados: ler da replica atrasada os perderia de vez.
+        try (DataSourceRoteador.LeituraPrincipal principal = DataSourceRoteador.lerDoPrincipal()) {
+            Indices novos = new Indices(new IndiceBusca(), new IndiceBusca(), new IndiceBusca());
+            pessoaRepository.findAll().forEach(pessoa -> indexar(novos.pessoas(), pessoa));
+            cartaoRepository.findAll().forEach(cartao -> indexar(novos.cartoes(), cartao));
+            lancamentoRepository.listarParaBusca().forEach(lancamento -> indexar(novos.lancamentos(), lancamento));
+            indices = novos;
+        } finally {
+            reconstruindo = false;
+        }
+
+        AlteracaoRegistroEvento pendente;
+        while ((pendente = alteracoesDuranteReconstrucao.poll()) != null) {
+            aplicar(indices, pendente);
+        }
+        log.info("Indices de busca reconstruidos. pessoas={}, cartoes={}, lancamentos={}, tempoMs={}",
+                indices.pessoas().tamanho(), indices.cartoes().tamanho(), indices.lancamentos().tamanho(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Reindexa o registro alterado apos o commit.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @TransactionalEventListener
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        if (reconstruindo) {
+            alteracoesDuranteReconstrucao.add(evento);
+        }
+        aplicar(indices, evento);
+    }
+
+    /**
+     * Reindexa o registro alterado em outra instancia.
+     *
+     * @param evento alteracao recebida pelo barramento de invalidacao
+     */
+    @EventListener
+    public void aoAlterarRegistroRemoto(AlteracaoRemotaEvento evento) {
+        aoAlterarRegistro(evento.alteracao());
+    }
+
+    /**
+     * Reconstroi os indices quando alteracoes remotas podem ter sido perdidas.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(AlteracoesRemotasPerdidasEvento.class)
+    public void aoPerderAlteracoesRemotas() {
+        reconstruirIndices();
+    }
+
+    /**
+     * Aplica alteracao nos indices informados, relendo o registro do banco.
+     *
+     * @param alvo   indices a atualizar
+     * @param evento alteracao confirmada
+     */
+    private void aplicar(Indices alvo, AlteracaoRegistroEvento evento) {
+        boolean exclusao = evento.operacao() == OperacaoRegistro.EXCLUSAO;
+        switch (evento.tipo()) {
+            case PESSOA -> {
+                if (exclusao) {
+                    alvo.pessoas().remover(evento.registroId());
+                    return;
+                }
+                pessoaRepository.findById(evento.registroId()).ifPresent(pessoa -> indexar(alvo.pessoas(), pessoa));
+                // O nome da pessoa aparece no detalhe dos lancamentos dela.
+                lancamentoRepository.listarParaBuscaPorPessoa(evento.registroId())
+                        .forEach(lancamento -> indexar(alvo.lancamentos(), lancamento));
+            }
+            case CARTAO -> {
+                if (exclusao) {
+                    alvo.cartoes().remover(evento.registroId());
+                    return;
+                }
+                cartaoRepository.findById(evento.registroId()).ifPresent(cartao -> indexar(alvo.cartoes(), cartao));
+            }
+            case LANCAMENTO -> {
+                if (exclusao) {
+                    alvo.lancamentos().remover(evento.registroId());
+                    return;
+                }
+                lancamentoRepository.buscarParaBusca(evento.registroId())
+                        .ifPresent(lancamento -> indexar(alvo.lancamentos(), lancamento));
+            }
+            default -> {
+                // Pagamentos, usuarios e tokens nao sao pesquisaveis.
+            }
+        }
+    }
+
+    /**
+     * Indexa pessoa por nome e CPF.
+     *
+     * @param indice indice de pessoas
+     * @param pessoa pessoa a indexar
+     */
+    private void indexar(IndiceBusca indice, Pessoa pessoa) {
+        indice.indexar(pessoa.getId(),
+                pessoa.getNome() + " " + pessoa.getCpf(),
+                pessoa.getNome(),
+                "CPF " + DocumentoUtils.mascararCpf(pessoa.getCpf()));
+    }
+
+    /**
+     * Indexa cartao pelos quatro ultimos digitos, banco e bandeira; o numero completo nao e pesquisavel.
+     *
+     * @param indice indice de cartoes
+     * @param cartao cartao a indexar
+     */
+    private void indexar(IndiceBusca indice, Cartao cartao) {
+        String final4 = cartao.getNumero().substring(Math.max(0, cartao.getNumero().length() - 4));
+        indice.indexar(cartao.getId(),
+                final4 + " " + cartao.getBanco() + " " + cartao.getBandeira(),
+                "Final " + final4 + " - " + cartao.getBandeira(),
+                cartao.getBanco());
+    }
+
+    /**
+     * Indexa lancamento pela descricao.
+     *
+     * @param indice     indice de lancamentos
+     * @param lancamento projecao do lancamento
+     */
+    private void indexar(IndiceBusca indice, LancamentoBuscaDto lancamento) {
+        indice.indexar(lancamento.id(),
+                lancamento.descricao(),
+                lancamento.descricao(),
+                lancamento.nomePessoa() + " - " + FORMATADOR_DATA.format(lancamento.dataCompra())
+                        + " - " + ValorMonetarioUtils.formatar(lancamento.valorTotal()));
+    }
+
+    /**
+     * Converte resultados do indice para o DTO de saida.
+     *
+     * @param tipo       tipo do registro
+     * @param resultados resultados do indice
+     * @return itens de busca
+     */
+    private List<ItemBuscaDto> converter(TipoRegistro tipo, List<IndiceBusca.Resultado> resultados) {
+        return resultados.stream()
+                .map(resultado -> new ItemBuscaDto(tipo, resultado.id(), resultado.titulo(), resultado.detalhe(),
+                        resultado.relevancia()))
+                .toList();
+    }
+
+    /**
+     * Conjunto de indices trocado atomicamente na reconstrucao.
+     *
+     * @param pessoas     indice de pessoas
+     * @param cartoes     indice de cartoes
+     * @param lancamentos indice de lancamentos
+     */
+    private record Indices(IndiceBusca pessoas, IndiceBusca cartoes, IndiceBusca lancamentos) {
+    }
+}
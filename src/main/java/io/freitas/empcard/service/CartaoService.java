@@ -1,6 +1,9 @@
 package io.freitas.empcard.service;
 
 import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
 import io.freitas.empcard.exception.RecursoNaoEncontradoException;
 import io.freitas.empcard.exception.RegraDeNegocioException;
 import io.freitas.empcard.model.Cartao;
@@ -11,6 +14,7 @@ import io.freitas.empcard.util.DocumentoUtils;
 import io.freitas.empcard.util.TextoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +32,8 @@ public class CartaoService {
     private final CartaoRepository cartaoRepository;
     private final LancamentoRepository lancamentoRepository;
     private final PagamentoRepository pagamentoRepository;
+    private final CronogramaParcelasService cronogramaParcelasService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista todos os cartoes ordenados por banco e numero.
@@ -36,7 +42,7 @@ public class CartaoService {
      */
     @Transactional(readOnly = true)
     public List<Cartao> listarTodos() {
-        log.info("Listando todos os cartoes");
+        log.debug("Listando todos os cartoes");
         return cartaoRepository.findAll().stream()
                 .sorted(Comparator.comparing(Cartao::getBanco, Comparator.nullsLast(String::compareTo))
                         .thenComparing(Cartao::getNumero, Comparator.nullsLast(String::compareTo)))
@@ -50,13 +56,23 @@ public class CartaoService {
      */
     @Transactional(readOnly = true)
     public List<Cartao> listarAtivos() {
-        log.info("Listando cartoes ativos");
+        log.debug("Listando cartoes ativos");
         return cartaoRepository.findAll().stream()
                 .filter(Cartao::isAtivo)
                 .sorted(Comparator.comparing(Cartao::getBanco, Comparator.nullsLast(String::compareTo)))
                 .toList();
     }
 
+    /**
+     * Conta cartoes ativos sem carregar as entidades.
+     *
+     * @return quantidade de cartoes ativos
+     */
+    @Transactional(readOnly = true)
+    public long contarAtivos() {
+        return cartaoRepository.countByAtivoTrue();
+    }
+
     /**
      * Busca cartao por id com validacao de existencia.
      *
@@ -65,7 +81,7 @@ public class CartaoService {
      */
     @Transactional(readOnly = true)
     public Cartao buscarPorId(Long id) {
-        log.info("Buscando cartao por id={}", id);
+        log.debug("Buscando cartao por id={}", id);
         return cartaoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Cartao nao encontrado para id " + id));
     }
@@ -85,6 +101,7 @@ public class CartaoService {
         aplicarDados(form, cartao, numero);
 
         Cartao salvo = cartaoRepository.save(cartao);
+        publicarAlteracao(salvo.getId(), OperacaoRegistro.CRIACAO);
         log.info("Cartao criado com sucesso. id={}, numero={}", salvo.getId(), salvo.getNumero());
         return salvo;
     }
@@ -102,9 +119,15 @@ public class CartaoService {
         String numero = DocumentoUtils.somenteDigitos(form.getNumero());
         validarNumeroUnico(numero, id);
 
+        Short diaFechamentoAnterior = cartao.getDiaFechamento();
         aplicarDados(form, cartao, numero);
 
         Cartao salvo = cartaoRepository.save(cartao);
+        // O dia de fechamento define a competencia de cada compra, entao o cronograma do cartao e regerado.
+        if (!diaFechamentoAnterior.equals(salvo.getDiaFechamento())) {
+            cronogramaParcelasService.regravarCartao(salvo.getId(), salvo.getDiaFechamento());
+        }
+        publicarAlteracao(salvo.getId(), OperacaoRegistro.ATUALIZACAO);
         log.info("Cartao atualizado com sucesso. id={}", salvo.getId());
         return salvo;
     }
@@ -119,6 +142,7 @@ public class CartaoService {
         Cartao cartao = buscarPorId(id);
         cartao.setAtivo(!cartao.isAtivo());
         cartaoRepository.save(cartao);
+        publicarAlteracao(cartao.getId(), OperacaoRegistro.ATUALIZACAO);
         log.info("Status do cartao alterado. id={}, ativo={}", cartao.getId(), cartao.isAtivo());
     }
 
@@ -137,6 +161,7 @@ public class CartaoService {
         }
 
         cartaoRepository.delete(cartao);
+        publicarAlteracao(id, OperacaoRegistro.EXCLUSAO);
         log.info("Cartao excluido com sucesso. id={}", id);
     }
 
@@ -175,6 +200,17 @@ public class CartaoService {
         }
     }
 
+    /**
+     * Publica evento de alteracao do cartao; como fechamento e vencimento afetam todas as pessoas
+     * vinculadas, o evento nao restringe pessoa.
+     *
+     * @param id       identificador do cartao
+     * @param operacao operacao executada
+     */
+    private void publicarAlteracao(Long id, OperacaoRegistro operacao) {
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(TipoRegistro.CARTAO, operacao, id, null, id));
+    }
+
     /**
      * Aplica normalizacao de dados e regras de negocio na entidade.
      *
@@ -0,0 +1,352 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.ParcelasProperties;
+import io.freitas.empcard.config.TarefaProperties;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.model.TipoTarefa;
+import io.freitas.empcard.util.DataCompetenciaUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantem a tabela {@code parcelas}: uma linha por lancamento e competencia de fatura, com o valor ja arredondado.
+ *
+ * <p>As escritas de lancamento regravam o cronograma na mesma transacao, e a mudanca do dia de fechamento de um
+ * cartao regrava os lancamentos dele. Fixos sem fim sao gerados ate {@code horizonte-meses} a frente do mes atual;
+ * no startup e no inicio de cada mes a sincronizacao estende esse horizonte e preenche lancamentos sem linhas
+ * (inclusive os anteriores a tabela). As insercoes da sincronizacao ignoram linhas ja existentes, entao varias
+ * instancias podem executa-la ao mesmo tempo. Com {@code empcard.tarefas.habilitado=true} a sincronizacao vira um
+ * lote de tarefas (uma por cartao) repartido entre as instancias, ja que o resultado fica no banco.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CronogramaParcelasService {
+
+    private static final String INSERIR = """
+            insert into parcelas (lancamento_id, pessoa_id, cartao_id, competencia, numero, tipo, valor, ativo)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict do nothing
+            """;
+
+    private static final String LANCAMENTOS_DO_CARTAO = """
+            select l.id, l.pessoa_id, l.cartao_id, l.tipo, l.valor_total, l.quantidade_parcelas, l.data_compra,
+                   l.data_fim_fixo, l.ativo
+            from lancamentos l
+            where l.cartao_id = ?
+            """;
+
+    // Fixos ainda em aberto (podem ganhar meses) e qualquer lancamento sem nenhuma linha gravada.
+    private static final String LANCAMENTOS_PENDENTES = """
+            select l.id, l.pessoa_id, l.cartao_id, l.tipo, l.valor_total, l.quantidade_parcelas, l.data_compra,
+                   l.data_fim_fixo, l.ativo, c.dia_fechamento,
+                   (select max(p.numero) from parcelas p where p.lancamento_id = l.id) as ultima
+            from lancamentos l join cartoes c on c.id = l.cartao_id
+            where ((l.tipo = 'FIXO' and (l.data_fim_fixo is null or l.data_fim_fixo >= ?))
+               or not exists (select 1 from parcelas p where p.lancamento_id = l.id))
+            """;
+
+    private static final String LANCAMENTOS_PENDENTES_DO_CARTAO = LANCAMENTOS_PENDENTES + "  and l.cartao_id = ?\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TarefaService tarefaService;
+    private final ParcelasProperties properties;
+    private final TarefaProperties tarefaProperties;
+
+    /**
+     * Ultima competencia em que os fixos sem fim certamente tem linhas, mesmo antes da extensao do mes rodar.
+     *
+     * @return competencia limite das linhas de fixo
+     */
+    public YearMonth horizonteGarantido() {
+        return YearMonth.now().plusMonths(properties.horizonteMeses() - 1L);
+    }
+
+    /**
+     * Regrava o cronograma de um lancamento criado ou atualizado, na transacao da escrita.
+     *
+     * @param lancamento lancamento salvo, com pessoa e cartao definitivos
+     */
+    @Transactional
+    public void gravar(Lancamento lancamento) {
+        jdbcTemplate.update("delete from parcelas where lancamento_id = ?", lancamento.getId());
+        LancamentoCronograma dados = new LancamentoCronograma(
+                lancamento.getId(),
+                lancamento.getPessoa().getId(),
+                lancamento.getCartao().getId(),
+                lancamento.getTipo(),
+                lancamento.getValorTotal(),
+                lancamento.getQuantidadeParcelas(),
+                lancamento.getDataCompra(),
+                lancamento.getDataFimFixo(),
+                lancamento.isAtivo(),
+                lancamento.getCartao().getDiaFechamento());
+        inserir(linhas(dados, 0));
+    }
+
+    /**
+     * Acompanha a ativacao ou desativacao do lancamento.
+     *
+     * @param lancamentoId identificador do lancamento
+     * @param ativo        novo status
+     */
+    @Transactional
+    public void alterarAtivo(Long lancamentoId, boolean ativo) {
+        jdbcTemplate.update("update parcelas set ativo = ? where lancamento_id = ?", ativo, lancamentoId);
+    }
+
+    /**
+     * Remove o cronograma de um lancamento excluido.
+     *
+     * @param lancamentoId identificador do lancamento
+     */
+    @Transactional
+    public void remover(Long lancamentoId) {
+        jdbcTemplate.update("delete from parcelas where lancamento_id = ?", lancamentoId);
+    }
+
+    /**
+     * Regrava o cronograma de todos os lancamentos do cartao apos a mudanca do dia de fechamento.
+     *
+     * @param cartaoId      identificador do cartao
+     * @param diaFechamento novo dia de fechamento (a linha do cartao pode ainda nao ter sido gravada)
+     */
+    @Transactional
+    public void regravarCartao(Long cartaoId, int diaFechamento) {
+        jdbcTemplate.update("delete from parcelas where cartao_id = ?", cartaoId);
+        List<LancamentoCronograma> lancamentos = jdbcTemplate.query(LANCAMENTOS_DO_CARTAO,
+                (resultado, linha) -> lerLancamento(resultado, diaFechamento), cartaoId);
+        List<Object[]> linhas = new ArrayList<>();
+        lancamentos.forEach(lancamento -> linhas.addAll(linhas(lancamento, 0)));
+        inserir(linhas);
+        log.info("Cronograma de parcelas regravado. cartaoId={}, lancamentos={}, parcelas={}",
+                cartaoId, lancamentos.size(), linhas.size());
+    }
+
+    /**
+     * Gera as linhas que faltam (lancamentos sem cronograma e meses de fixos em aberto ate o horizonte) no startup
+     * e no inicio de cada mes, antes do fechamento mensal pre-calcular os relatorios. Com tarefas distribuidas
+     * habilitadas apenas cria o lote da competencia; os workers chamam {@link #sincronizarCartao(Long)}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${empcard.parcelas.cron:0 1 0 1 * *}")
+    public void sincronizar() {
+        if (tarefaProperties.habilitado()) {
+            distribuir();
+            return;
+        }
+        long inicio = System.nanoTime();
+        Integer inseridas = transactionTemplate.execute(status -> sincronizarPendentes(null));
+        log.info("Cronograma de parcelas sincronizado. horizonte={}, inseridas={}, tempoMs={}",
+                horizonteGarantido().plusMonths(1), inseridas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Sincroniza os lancamentos de um cartao; executado pelos workers de tarefas distribuidas.
+     *
+     * @param cartaoId identificador do cartao
+     * @return quantidade de linhas inseridas
+     */
+    @Transactional
+    public int sincronizarCartao(Long cartaoId) {
+        return sincronizarPendentes(cartaoId);
+    }
+
+    /**
+     * Cria o lote de sincronizacao da competencia atual, com uma tarefa por cartao.
+     */
+    private void distribuir() {
+        List<Long> cartaoIds = jdbcTemplate.queryForList("select id from cartoes order by id", Long.class);
+        String referencia = YearMonth.now().toString();
+        try {
+            if (tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, referencia, cartaoIds).isEmpty()) {
+                log.info("Sincronizacao do cronograma de parcelas ja em andamento. referencia={}", referencia);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Lote do cronograma de parcelas criado por outra instancia. referencia={}", referencia);
+        }
+    }
+
+    /**
+     * Percorre os lancamentos pendentes em streaming e insere as linhas faltantes em lotes.
+     *
+     * @param cartaoId cartao a sincronizar ou null para todos
+     * @return quantidade de linhas inseridas
+     */
+    private int sincronizarPendentes(Long cartaoId) {
+        List<Object[]> pendentes = new ArrayList<>();
+        int[] inseridas = {0};
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement comando = conexao.prepareStatement(
+                    cartaoId == null ? LANCAMENTOS_PENDENTES : LANCAMENTOS_PENDENTES_DO_CARTAO);
+            comando.setFetchSize(properties.tamanhoLote());
+            comando.setObject(1, YearMonth.now().atDay(1));
+            if (cartaoId != null) {
+                comando.setLong(2, cartaoId);
+            }
+            return comando;
+        }, (RowCallbackHandler) resultado -> {
+            LancamentoCronograma lancamento = lerLancamento(resultado, resultado.getInt("dia_fechamento"));
+            pendentes.addAll(linhas(lancamento, resultado.getInt("ultima")));
+            if (pendentes.size() >= properties.tamanhoLote()) {
+                inseridas[0] += inserir(pendentes);
+                pendentes.clear();
+            }
+        });
+        inseridas[0] += inserir(pendentes);
+        return inseridas[0];
+    }
+
+    /**
+     * Cobrancas de um lancamento por competencia de fatura, pelas regras do relatorio: avulso na competencia
+     * inicial, parcelado com ajuste de centavos na ultima parcela e fixo ate a data fim ou a competencia limite.
+     *
+     * @param tipo               tipo do lancamento
+     * @param valorTotal         valor total (mensal, no fixo)
+     * @param quantidadeParcelas quantidade de parcelas
+     * @param dataCompra         data da compra
+     * @param dataFimFixo        ultimo mes do fixo (null quando indeterminado)
+     * @param diaFechamento      dia de fechamento do cartao
+     * @param limiteFixo         ultima competencia gerada para fixos
+     * @return parcelas em ordem de competencia
+     */
+    static List<ParcelaCronograma> gerar(TipoLancamento tipo,
+                                         BigDecimal valorTotal,
+                                         int quantidadeParcelas,
+                                         LocalDate dataCompra,
+                                         LocalDate dataFimFixo,
+                                         int diaFechamento,
+                                         YearMonth limiteFixo) {
+        YearMonth competenciaInicial = DataCompetenciaUtils.calcularCompetenciaInicial(dataCompra, diaFechamento);
+        List<ParcelaCronograma> parcelas = new ArrayList<>();
+        switch (tipo) {
+            case AVULSO -> parcelas.add(new ParcelaCronograma(competenciaInicial, 1, valorTotal));
+            case PARCELADO -> {
+                for (int numero = 1; numero <= quantidadeParcelas; numero++) {
+                    parcelas.add(new ParcelaCronograma(competenciaInicial.plusMonths(numero - 1L), numero,
+                            RelatorioService.calcularValorParcela(valorTotal, quantidadeParcelas, numero)));
+                }
+            }
+            case FIXO -> {
+                YearMonth ultima = dataFimFixo == null || YearMonth.from(dataFimFixo).isAfter(limiteFixo)
+                        ? limiteFixo
+                        : YearMonth.from(dataFimFixo);
+                int numero = 1;
+                for (YearMonth competencia = competenciaInicial; !competencia.isAfter(ultima);
+                     competencia = competencia.plusMonths(1)) {
+                    parcelas.add(new ParcelaCronograma(competencia, numero++, valorTotal));
+                }
+            }
+        }
+        return parcelas;
+    }
+
+    /**
+     * Parametros de insercao das parcelas do lancamento com numero acima do ultimo ja gravado.
+     *
+     * @param lancamento    lancamento com dia de fechamento
+     * @param ultimaGravada maior numero de parcela ja gravado (0 quando nenhum)
+     * @return linhas para o batch de insercao
+     */
+    private List<Object[]> linhas(LancamentoCronograma lancamento, int ultimaGravada) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (ParcelaCronograma parcela : gerar(lancamento.tipo(), lancamento.valorTotal(),
+                lancamento.quantidadeParcelas(), lancamento.dataCompra(), lancamento.dataFimFixo(),
+                lancamento.diaFechamento(), horizonteGarantido().plusMonths(1))) {
+            if (parcela.numero() > ultimaGravada) {
+                linhas.add(new Object[]{lancamento.id(), lancamento.pessoaId(), lancamento.cartaoId(),
+                        parcela.competencia().atDay(1), parcela.numero(), lancamento.tipo().name(),
+                        parcela.valor(), lancamento.ativo()});
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * Insere as linhas em lote, ignorando as que ja existem.
+     *
+     * @param linhas parametros de insercao
+     * @return quantidade de linhas inseridas
+     */
+    private int inserir(List<Object[]> linhas) {
+        if (linhas.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        for (int afetadas : jdbcTemplate.batchUpdate(INSERIR, linhas)) {
+            total += Math.max(afetadas, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Le lancamento das consultas de regravacao e sincronizacao.
+     *
+     * @param resultado     linha corrente
+     * @param diaFechamento dia de fechamento a aplicar
+     * @return dados do cronograma
+     * @throws SQLException falha de leitura
+     */
+    private LancamentoCronograma lerLancamento(ResultSet resultado, int diaFechamento) throws SQLException {
+        return new LancamentoCronograma(
+                resultado.getLong("id"),
+                resultado.getLong("pessoa_id"),
+                resultado.getLong("cartao_id"),
+                TipoLancamento.valueOf(resultado.getString("tipo")),
+                resultado.getBigDecimal("valor_total"),
+                resultado.getInt("quantidade_parcelas"),
+                resultado.getObject("data_compra", LocalDate.class),
+                resultado.getObject("data_fim_fixo", LocalDate.class),
+                resultado.getBoolean("ativo"),
+                diaFechamento);
+    }
+
+    /**
+     * Cobranca de uma competencia.
+     *
+     * @param competencia competencia de fatura
+     * @param numero      numero da parcela (mes de cobranca, no fixo)
+     * @param valor       valor cobrado
+     */
+    record ParcelaCronograma(YearMonth competencia, int numero, BigDecimal valor) {
+    }
+
+    /**
+     * Colunas do lancamento usadas para gerar o cronograma.
+     *
+     * @param id                 identificador
+     * @param pessoaId           pessoa
+     * @param cartaoId           cartao
+     * @param tipo               tipo
+     * @param valorTotal         valor total
+     * @param quantidadeParcelas quantidade de parcelas
+     * @param dataCompra         data da compra
+     * @param dataFimFixo        fim do fixo
+     * @param ativo              status
+     * @param diaFechamento      dia de fechamento do cartao
+     */
+    private record LancamentoCronograma(long id, long pessoaId, long cartaoId, TipoLancamento tipo,
+                                        BigDecimal valorTotal, int quantidadeParcelas, LocalDate dataCompra,
+                                        LocalDate dataFimFixo, boolean ativo, int diaFechamento) {
+    }
+}
@@ -0,0 +1,152 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.TarefaProperties;
+import io.freitas.empcard.dto.TarefaReservadaDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker de tarefas distribuidas: cada instancia habilitada busca periodicamente tarefas pendentes, executa
+ * em um pool limitado e renova o heartbeat das que estao em andamento.
+ *
+ * <p>Somente reserva o que cabe nas threads livres, entao instancias mais ocupadas pegam menos itens e o
+ * lote se espalha sozinho entre as instancias. Ao desligar, tarefas interrompidas voltam para a fila sem
+ * gastar tentativa.</p>
+ *
+ * <p>O heartbeat roda em uma thread propria, e nao no agendador do Spring (uma thread compartilhada por todos os
+ * jobs): um job longo ali atrasaria a renovacao e outra instancia retomaria tarefas ainda vivas.</p>
+ */
+@Slf4j
+@Service
+public class ExecucaoTarefasService {
+
+    private final TarefaService tarefaService;
+    private final CronogramaParcelasService cronogramaParcelasService;
+    private final TarefaProperties properties;
+
+    /**
+     * Identifica esta instancia nas reservas ({@code pid@host} mais sufixo aleatorio, unico entre reinicios).
+     */
+    private final String instancia = ManagementFactory.getRuntimeMXBean().getName() + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    private final Set<Long> emExecucao = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService heartbeat;
+
+    public ExecucaoTarefasService(TarefaService tarefaService,
+                                  CronogramaParcelasService cronogramaParcelasService,
+                                  TarefaProperties properties) {
+        this.tarefaService = tarefaService;
+        this.cronogramaParcelasService = cronogramaParcelasService;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.threads()),
+                Thread.ofPlatform().name("tarefa-", 1).daemon(true).factory());
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("tarefa-heartbeat").daemon(true).factory());
+        if (properties.habilitado()) {
+            long intervalo = properties.intervaloHeartbeat().toMillis();
+            heartbeat.scheduleWithFixedDelay(this::renovarHeartbeat, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Recupera tarefas abandonadas e reserva pendentes ate ocupar as threads livres.
+     */
+    @Scheduled(fixedDelayString = "${empcard.tarefas.intervalo-busca:5s}")
+    public void buscarTarefas() {
+        if (!properties.habilitado()) {
+            return;
+        }
+        try {
+            tarefaService.recuperarAbandonadas();
+            int livres = Math.max(1, properties.threads()) - emExecucao.size();
+            if (livres <= 0) {
+                return;
+            }
+            List<TarefaReservadaDto> reservadas = tarefaService.reservar(instancia, livres);
+            for (TarefaReservadaDto tarefa : reservadas) {
+                emExecucao.add(tarefa.id());
+                executor.execute(() -> executar(tarefa));
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao buscar tarefas pendentes. instancia={}", instancia, ex);
+        }
+    }
+
+    /**
+     * Renova o heartbeat das tarefas em andamento nesta instancia, na thread dedicada.
+     */
+    public void renovarHeartbeat() {
+        if (emExecucao.isEmpty()) {
+            return;
+        }
+        try {
+            int renovadas = tarefaService.renovarHeartbeat(Set.copyOf(emExecucao), instancia);
+            if (renovadas < emExecucao.size()) {
+                log.warn("Tarefas retomadas por outra instancia durante a execucao. emExecucao={}, renovadas={}",
+                        emExecucao.size(), renovadas);
+            }
+        } catch (RuntimeException ex) {
+            // Uma excecao escapando cancelaria as proximas execucoes da thread dedicada.
+            log.warn("Falha ao renovar heartbeat das tarefas. instancia={}", instancia, ex);
+        }
+    }
+
+    /**
+     * Interrompe as tarefas em andamento e as devolve para outra instancia executar.
+     */
+    @PreDestroy
+    public void encerrar() {
+        heartbeat.shutdownNow();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!emExecucao.isEmpty()) {
+            int devolvidas = tarefaService.devolver(Set.copyOf(emExecucao), instancia);
+            log.info("Tarefas devolvidas no desligamento. devolvidas={}", devolvidas);
+        }
+    }
+
+    /**
+     * Executa uma tarefa reservada e registra o resultado.
+     *
+     * @param tarefa tarefa reservada por esta instancia
+     */
+    private void executar(TarefaReservadaDto tarefa) {
+        try {
+            switch (tarefa.tipo()) {
+                case CRONOGRAMA_PARCELAS -> cronogramaParcelasService.sincronizarCartao(tarefa.itemId());
+            }
+            tarefaService.concluir(tarefa.id(), instancia);
+        } catch (Exception ex) {
+            if (executor.isShutdown()) {
+                // Interrompida pelo desligamento: encerrar() devolve a tarefa sem contar a tentativa.
+                return;
+            }
+            log.warn("Falha na tarefa. tarefaId={}, tipo={}, itemId={}, tentativa={}",
+                    tarefa.id(), tarefa.tipo(), tarefa.itemId(), tarefa.tentativa(), ex);
+            tarefaService.registrarFalha(tarefa.id(), instancia, ex.toString());
+        } finally {
+            if (!executor.isShutdown()) {
+                emExecucao.remove(tarefa.id());
+            }
+        }
+    }
+}
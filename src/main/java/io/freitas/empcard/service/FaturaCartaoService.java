@@ -0,0 +1,116 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoRelatorioDto;
+import io.freitas.empcard.dto.FaturaCartaoDto;
+import io.freitas.empcard.dto.FaturaPessoaDto;
+import io.freitas.empcard.dto.ItemRelatorioDto;
+import io.freitas.empcard.dto.LancamentoRelatorioDto;
+import io.freitas.empcard.exception.RecursoNaoEncontradoException;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.CartaoRepository;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PessoaRepository;
+import io.freitas.empcard.util.DataCompetenciaUtils;
+import io.freitas.empcard.util.DocumentoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Fatura por cartao: o que o banco cobra na competencia, somando as compras de todas as pessoas.
+ *
+ * <p>Os lancamentos do cartao sao lidos limitados a janela de faturamento (avulsos comprados entre um
+ * fechamento e o seguinte, parcelados e fixos iniciados ate o fechamento) e os itens
+ * seguem as mesmas regras do relatorio por pessoa. Juros, multa e pagamentos sao acertos entre o titular
+ * e cada pessoa e nao entram na fatura do banco.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FaturaCartaoService {
+
+    private final CartaoRepository cartaoRepository;
+    private final LancamentoRepository lancamentoRepository;
+    private final PessoaRepository pessoaRepository;
+    private final RelatorioService relatorioService;
+
+    /**
+     * Gera a fatura do cartao na competencia.
+     *
+     * @param cartaoId    identificador do cartao
+     * @param competencia competencia da fatura
+     * @return total da fatura e itens por pessoa
+     */
+    @Transactional(readOnly = true)
+    public FaturaCartaoDto gerarFatura(Long cartaoId, YearMonth competencia) {
+        CartaoRelatorioDto cartao = cartaoRepository.listarParaRelatorio(List.of(cartaoId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Cartao nao encontrado para id " + cartaoId));
+
+        LocalDate inicioJanela = DataCompetenciaUtils.calcularInicioJanela(competencia, cartao.diaFechamento());
+        LocalDate fimJanela = DataCompetenciaUtils.calcularFimJanela(competencia, cartao.diaFechamento());
+        // Avulsos em consulta propria com intervalo fechado de data_compra, que toca so as particoes da janela.
+        List<LancamentoRelatorioDto> lancamentos = new ArrayList<>(lancamentoRepository
+                .listarAvulsosDoCartaoNoPeriodo(cartaoId, TipoLancamento.AVULSO, inicioJanela, fimJanela));
+        lancamentos.addAll(lancamentoRepository.listarRecorrentesDoCartao(cartaoId, TipoLancamento.AVULSO, fimJanela));
+        Map<Long, List<LancamentoRelatorioDto>> lancamentosPorPessoa = lancamentos.stream()
+                .collect(Collectors.groupingBy(LancamentoRelatorioDto::pessoaId, LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, String> nomes = lancamentosPorPessoa.isEmpty()
+                ? Map.of()
+                : pessoaRepository.findAllById(lancamentosPorPessoa.keySet()).stream()
+                .collect(Collectors.toMap(Pessoa::getId, Pessoa::getNome));
+
+        List<FaturaPessoaDto> pessoas = new ArrayList<>();
+        lancamentosPorPessoa.forEach((pessoaId, lancamentosPessoa) -> {
+            List<ItemRelatorioDto> itens = relatorioService.extrairItensDaCompetencia(lancamentosPessoa, cartao, competencia);
+            if (!itens.isEmpty()) {
+                pessoas.add(new FaturaPessoaDto(pessoaId, nomes.get(pessoaId), itens,
+                        somar(itens.stream().map(ItemRelatorioDto::valor).toList())));
+            }
+        });
+        pessoas.sort(Comparator.comparing(FaturaPessoaDto::nomePessoa, Comparator.nullsLast(String::compareTo)));
+
+        BigDecimal total = somar(pessoas.stream().map(FaturaPessoaDto::total).toList());
+        log.debug("Fatura de cartao gerada. cartaoId={}, competencia={}, pessoas={}, total={}",
+                cartaoId, competencia, pessoas.size(), total);
+
+        return new FaturaCartaoDto(
+                cartao.id(),
+                DocumentoUtils.mascararParcialCartao(cartao.numero()),
+                cartao.bandeira(),
+                cartao.banco(),
+                competencia,
+                inicioJanela,
+                fimJanela.minusDays(1),
+                DataCompetenciaUtils.calcularDataVencimento(competencia, cartao.diaFechamento(), cartao.diaVencimento()),
+                pessoas,
+                total
+        );
+    }
+
+    /**
+     * Soma valores monetarios com escala de duas casas.
+     *
+     * @param valores valores a somar
+     * @return soma total
+     */
+    private BigDecimal somar(List<BigDecimal> valores) {
+        return valores.stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,209 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.config.FechamentoMensalProperties;
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.dto.SituacaoFechamentoMensalDto;
+import io.freitas.empcard.model.Pessoa;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Job de fechamento mensal: pre-calcula o relatorio de todas as pessoas ativas na virada da competencia.
+ *
+ * <p>No primeiro dia do mes todos abrem relatorios e PDFs da nova competencia ao mesmo tempo. O job
+ * aquece o {@link RelatorioCacheService} antes desse pico usando um pool limitado de workers, para que
+ * as requisicoes do dia sejam atendidas sem recalcular o historico.</p>
+ *
+ * <p>O cache de relatorios e local, entao com varias instancias o job roda em cada uma (o cron dispara em todas)
+ * e cada instancia aquece todas as pessoas. Por isso o fechamento nao usa as tarefas distribuidas.</p>
+ */
+@Slf4j
+@Service
+public class FechamentoMensalService {
+
+    private final PessoaService pessoaService;
+    private final RelatorioService relatorioService;
+    private final ObjectProvider<PdfRelatorioService> pdfRelatorioService;
+    private final RelatorioCacheService relatorioCacheService;
+    private final FechamentoMensalProperties properties;
+    private final Timer duracaoFechamento;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private final AtomicInteger processadas = new AtomicInteger();
+    private final AtomicInteger falhas = new AtomicInteger();
+    private volatile YearMonth competencia;
+    private volatile int totalPessoas;
+    private volatile LocalDateTime inicio;
+    private volatile LocalDateTime fim;
+    private volatile Long duracaoMs;
+
+    public FechamentoMensalService(PessoaService pessoaService,
+                                   RelatorioService relatorioService,
+                                   ObjectProvider<PdfRelatorioService> pdfRelatorioService,
+                                   RelatorioCacheService relatorioCacheService,
+                                   FechamentoMensalProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.pessoaService = pessoaService;
+        this.relatorioService = relatorioService;
+        this.pdfRelatorioService = pdfRelatorioService;
+        this.relatorioCacheService = relatorioCacheService;
+        this.properties = properties;
+        this.duracaoFechamento = Timer.builder("empcard.fechamento.mensal")
+                .description("Duracao do pre-calculo de relatorios do fechamento mensal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Execucao agendada na virada do mes para a competencia que esta comecando.
+     */
+    @Scheduled(cron = "${empcard.fechamento-mensal.cron:0 5 0 1 * *}")
+    public void executarAgendado() {
+        if (!properties.habilitado()) {
+            log.debug("Fechamento mensal agendado ignorado: desabilitado por configuracao");
+            return;
+        }
+        executar(YearMonth.now());
+    }
+
+    /**
+     * Dispara o fechamento em segundo plano, usado pelo endpoint do actuator.
+     *
+     * @param competenciaAlvo competencia a pre-calcular
+     * @return false quando ja existe execucao em andamento
+     */
+    public boolean iniciarAssincrono(YearMonth competenciaAlvo) {
+        if (emExecucao.get()) {
+            return false;
+        }
+        Thread.ofPlatform().name("fechamento-mensal").daemon(true).start(() -> executar(competenciaAlvo));
+        return true;
+    }
+
+    /**
+     * Pre-calcula relatorios (e opcionalmente PDFs) de todas as pessoas ativas para a competencia.
+     *
+     * @param competenciaAlvo competencia a pre-calcular
+     * @return false quando ja existe execucao em andamento
+     */
+    public boolean executar(YearMonth competenciaAlvo) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.warn("Fechamento mensal ja em execucao. competencia solicitada={}", competenciaAlvo);
+            return false;
+        }
+
+        long inicioNanos = System.nanoTime();
+        try {
+            List<Pessoa> pessoas = pessoaService.listarAtivos();
+            iniciarSituacao(competenciaAlvo, pessoas.size());
+            log.info("Fechamento mensal iniciado. competencia={}, pessoas={}, threads={}",
+                    competenciaAlvo, pessoas.size(), properties.threads());
+
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, properties.threads()),
+                    Thread.ofPlatform().name("fechamento-mensal-", 1).daemon(true).factory());
+            try {
+                pessoas.forEach(pessoa -> executor.submit(() -> precalcular(pessoa.getId(), competenciaAlvo)));
+            } finally {
+                executor.shutdown();
+            }
+            aguardarTermino(executor);
+        } finally {
+            long nanos = System.nanoTime() - inicioNanos;
+            duracaoFechamento.record(Duration.ofNanos(nanos));
+            fim = LocalDateTime.now();
+            duracaoMs = TimeUnit.NANOSECONDS.toMillis(nanos);
+            emExecucao.set(false);
+            log.info("Fechamento mensal concluido. competencia={}, processadas={}, falhas={}, duracaoMs={}",
+                    competenciaAlvo, processadas.get(), falhas.get(), duracaoMs);
+        }
+        return true;
+    }
+
+    /**
+     * Retorna fotografia do progresso atual ou da ultima execucao.
+     *
+     * @return situacao do fechamento
+     */
+    public SituacaoFechamentoMensalDto situacao() {
+        return new SituacaoFechamentoMensalDto(
+                emExecucao.get(),
+                competencia,
+                totalPessoas,
+                processadas.get(),
+                falhas.get(),
+                inicio,
+                fim,
+                duracaoMs
+        );
+    }
+
+    /**
+     * Calcula e guarda em cache o relatorio de uma pessoa; falhas individuais nao interrompem o lote.
+     *
+     * @param pessoaId        identificador da pessoa
+     * @param competenciaAlvo competencia a pre-calcular
+     */
+    private void precalcular(Long pessoaId, YearMonth competenciaAlvo) {
+        // O que e lido aqui vai para o cache, entao a leitura e feita no principal.
+        try (DataSourceRoteador.LeituraPrincipal principal = DataSourceRoteador.lerDoPrincipal()) {
+            long geracao = relatorioCacheService.geracaoAtual(pessoaId);
+            RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(pessoaId, competenciaAlvo);
+            if (properties.gerarPdf()) {
+                byte[] pdf = pdfRelatorioService.getObject().gerarPdfRelatorioPessoa(relatorio);
+                relatorioCacheService.armazenarPdf(pessoaId, competenciaAlvo, geracao, pdf);
+            }
+            processadas.incrementAndGet();
+        } catch (Exception ex) {
+            falhas.incrementAndGet();
+            log.error("Falha no pre-calculo do fechamento mensal. pessoaId={}, competencia={}",
+                    pessoaId, competenciaAlvo, ex);
+        }
+    }
+
+    /**
+     * Zera contadores para uma nova execucao.
+     *
+     * @param competenciaAlvo competencia em processamento
+     * @param total           quantidade de pessoas a processar
+     */
+    private void iniciarSituacao(YearMonth competenciaAlvo, int total) {
+        competencia = competenciaAlvo;
+        totalPessoas = total;
+        processadas.set(0);
+        falhas.set(0);
+        inicio = LocalDateTime.now();
+        fim = null;
+        duracaoMs = null;
+    }
+
+    /**
+     * Aguarda o pool terminar preservando o status de interrupcao da thread chamadora.
+     *
+     * @param executor pool de workers
+     */
+    private void aguardarTermino(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Fechamento mensal em andamento. processadas={}/{}", processadas.get(), totalPessoas);
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.RenderizacaoPdfProperties;
+import io.freitas.empcard.dto.ArquivoPdfDto;
+import io.freitas.empcard.dto.SituacaoTrabalhoPdf;
+import io.freitas.empcard.exception.CapacidadeEsgotadaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Controle de admissao da renderizacao de PDFs: no maximo {@code concorrencia} PDFs por vez na instancia,
+ * com fila limitada de espera.
+ *
+ * <p>Gerar PDF consome CPU por centenas de milissegundos; sem limite, a rajada de downloads na virada do mes
+ * disputa CPU com todas as outras paginas. Requisicoes sincronas esperam na fila ate {@code espera-maxima} e,
+ * com a fila cheia ou a espera esgotada, recebem {@link CapacidadeEsgotadaException} (429 com Retry-After).
+ * No modo assincrono a requisicao so enfileira o trabalho e o PDF fica guardado em memoria ate ser baixado
+ * ou expirar. Os dois modos dividem as mesmas vagas.</p>
+ */
+@Slf4j
+@Service
+public class FilaRenderizacaoPdfService {
+
+    private final RenderizacaoPdfProperties properties;
+    private final Semaphore vagas;
+    private final AtomicInteger aguardando = new AtomicInteger();
+    private final AtomicInteger renderizando = new AtomicInteger();
+    private final ThreadPoolExecutor executorAssincrono;
+    private final Map<UUID, Trabalho> trabalhos = new ConcurrentHashMap<>();
+    private final Timer duracaoRenderizacao;
+    private final Counter rejeicoes;
+
+    public FilaRenderizacaoPdfService(RenderizacaoPdfProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        int concorrencia = Math.max(1, properties.concorrencia());
+        this.vagas = new Semaphore(concorrencia, true);
+        this.executorAssincrono = new ThreadPoolExecutor(concorrencia, concorrencia, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.fila())),
+                Thread.ofPlatform().name("pdf-assincrono-", 1).daemon(true).factory());
+        this.duracaoRenderizacao = Timer.builder("empcard.pdf.renderizacao")
+                .description("Duracao da renderizacao de PDFs sob demanda")
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("empcard.pdf.rejeitados")
+                .description("Pedidos de PDF recusados com 429 por fila cheia")
+                .register(meterRegistry);
+        Gauge.builder("empcard.pdf.fila", this, FilaRenderizacaoPdfService::totalAguardando)
+                .description("Pedidos de PDF aguardando vaga de renderizacao")
+                .register(meterRegistry);
+        Gauge.builder("empcard.pdf.renderizando", renderizando, AtomicInteger::get)
+                .description("PDFs em renderizacao")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Renderiza na thread da requisicao assim que houver vaga.
+     *
+     * @param renderizacao geracao do PDF
+     * @param <T>          tipo do resultado
+     * @return resultado da renderizacao
+     * @throws CapacidadeEsgotadaException com a fila cheia ou apos esperar {@code espera-maxima}
+     */
+    public <T> T executar(Supplier<T> renderizacao) {
+        if (!vagas.tryAcquire()) {
+            aguardarVaga();
+        }
+        try {
+            return medir(renderizacao);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    /**
+     * Enfileira a renderizacao em segundo plano.
+     *
+     * @param usuario      usuario dono do trabalho; so ele consulta e baixa o PDF
+     * @param renderizacao geracao do PDF
+     * @return identificador do trabalho
+     * @throws CapacidadeEsgotadaException com a fila ou o limite de trabalhos guardados cheios
+     */
+    public UUID agendar(String usuario, Supplier<ArquivoPdfDto> renderizacao) {
+        if (trabalhos.size() >= properties.maxTrabalhos()) {
+            throw recusar("Limite de PDFs assincronos atingido");
+        }
+        UUID id = UUID.randomUUID();
+        Trabalho trabalho = new Trabalho(usuario);
+        trabalhos.put(id, trabalho);
+        try {
+            executorAssincrono.execute(() -> renderizarAssincrono(id, trabalho, renderizacao));
+        } catch (RejectedExecutionException ex) {
+            trabalhos.remove(id);
+            throw recusar("Fila de PDFs cheia");
+        }
+        return id;
+    }
+
+    /**
+     * Situacao de um trabalho assincrono.
+     *
+     * @param id      trabalho
+     * @param usuario usuario solicitante
+     * @return situacao ou vazio quando o trabalho nao existe, expirou ou pertence a outro usuario
+     */
+    public Optional<SituacaoTrabalhoPdf> situacao(UUID id, String usuario) {
+        return buscar(id, usuario).map(trabalho -> trabalho.situacao);
+    }
+
+    /**
+     * PDF de um trabalho assincrono concluido.
+     *
+     * @param id      trabalho
+     * @param usuario usuario solicitante
+     * @return arquivo ou vazio quando o trabalho nao existe ou ainda nao terminou
+     */
+    public Optional<ArquivoPdfDto> arquivo(UUID id, String usuario) {
+        return buscar(id, usuario).map(trabalho -> trabalho.arquivo);
+    }
+
+    /**
+     * Descarta trabalhos assincronos concluidos ha mais que a retencao.
+     */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void removerExpirados() {
+        Instant limite = Instant.now().minus(properties.retencao());
+        trabalhos.values().removeIf(trabalho -> trabalho.concluidoEm != null && trabalho.concluidoEm.isBefore(limite));
+    }
+
+    /**
+     * Encerra as threads do modo assincrono.
+     */
+    @PreDestroy
+    public void encerrar() {
+        executorAssincrono.shutdownNow();
+    }
+
+    /**
+     * Espera na fila por uma vaga de renderizacao.
+     *
+     * @throws CapacidadeEsgotadaException com a fila cheia, apos esperar {@code espera-maxima} ou se interrompida
+     */
+    private void aguardarVaga() {
+        if (aguardando.incrementAndGet() > properties.fila()) {
+            aguardando.decrementAndGet();
+            throw recusar("Fila de PDFs cheia");
+        }
+        boolean obteve;
+        try {
+            obteve = vagas.tryAcquire(properties.esperaMaxima().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw recusar("Espera por vaga de PDF interrompida");
+        } finally {
+            aguardando.decrementAndGet();
+        }
+        if (!obteve) {
+            throw recusar("Tempo de espera por vaga de PDF esgotado");
+        }
+    }
+
+    /**
+     * Pedidos aguardando vaga nos dois modos.
+     *
+     * @return total aguardando
+     */
+    private double totalAguardando() {
+        return aguardando.get() + executorAssincrono.getQueue().size();
+    }
+
+    /**
+     * Executa o trabalho assincrono ocupando uma das vagas compartilhadas com o modo sincrono.
+     *
+     * @param id           trabalho
+     * @param trabalho     estado do trabalho
+     * @param renderizacao geracao do PDF
+     */
+    private void renderizarAssincrono(UUID id, Trabalho trabalho, Supplier<ArquivoPdfDto> renderizacao) {
+        try {
+            vagas.acquire();
+            try {
+                trabalho.arquivo = medir(renderizacao);
+                trabalho.situacao = SituacaoTrabalhoPdf.PRONTO;
+            } finally {
+                vagas.release();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            trabalho.situacao = SituacaoTrabalhoPdf.FALHA;
+        } catch (RuntimeException ex) {
+            log.error("Falha ao gerar PDF assincrono. trabalhoId={}", id, ex);
+            trabalho.situacao = SituacaoTrabalhoPdf.FALHA;
+        } finally {
+            trabalho.concluidoEm = Instant.now();
+        }
+    }
+
+    /**
+     * Mede a renderizacao mantendo o gauge de PDFs em andamento.
+     *
+     * @param renderizacao geracao do PDF
+     * @param <T>          tipo do resultado
+     * @return resultado da renderizacao
+     */
+    private <T> T medir(Supplier<T> renderizacao) {
+        renderizando.incrementAndGet();
+        try {
+            return duracaoRenderizacao.record(renderizacao);
+        } finally {
+            renderizando.decrementAndGet();
+        }
+    }
+
+    /**
+     * Busca trabalho do usuario.
+     *
+     * @param id      trabalho
+     * @param usuario usuario solicitante
+     * @return trabalho ou vazio
+     */
+    private Optional<Trabalho> buscar(UUID id, String usuario) {
+        return Optional.ofNullable(trabalhos.get(id)).filter(trabalho -> trabalho.usuario.equals(usuario));
+    }
+
+    /**
+     * Conta a recusa e monta a excecao que vira 429.
+     *
+     * @param motivo motivo registrado em log
+     * @return excecao com o Retry-After configurado
+     */
+    private CapacidadeEsgotadaException recusar(String motivo) {
+        rejeicoes.increment();
+        log.warn("Pedido de PDF recusado: {}", motivo);
+        return new CapacidadeEsgotadaException("Muitos PDFs em geracao. Tente novamente em instantes.",
+                properties.retryAfter());
+    }
+
+    /**
+     * Estado de um PDF assincrono; os campos sao escritos pela thread de renderizacao e lidos pelas requisicoes.
+     */
+    private static final class Trabalho {
+
+        private final String usuario;
+        private volatile SituacaoTrabalhoPdf situacao = SituacaoTrabalhoPdf.PENDENTE;
+        private volatile ArquivoPdfDto arquivo;
+        private volatile Instant concluidoEm;
+
+        /**
+         * Cria trabalho pendente.
+         *
+         * @param usuario usuario dono do trabalho
+         */
+        private Trabalho(String usuario) {
+            this.usuario = usuario;
+        }
+    }
+}
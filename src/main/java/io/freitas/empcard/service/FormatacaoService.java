@@ -1,21 +1,22 @@
 package io.freitas.empcard.service;
 
+import io.freitas.empcard.util.DataCompetenciaUtils;
 import io.freitas.empcard.util.DocumentoUtils;
 import io.freitas.empcard.util.ValorMonetarioUtils;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Servico utilitario exposto ao Thymeleaf para mascaras e formatacao monetaria.
+ *
+ * <p>Delega aos utilitarios de {@code util}, os mesmos usados pelos mappers e PDFs, para que tela e
+ * documentos formatem igual.</p>
  */
 @Service("formatacaoService")
 public class FormatacaoService {
 
-    private static final DateTimeFormatter FORMATADOR_COMPETENCIA = DateTimeFormatter.ofPattern("MM-uuuu");
-
     /**
      * Formata valor como moeda brasileira com simbolo R$.
      *
@@ -63,6 +64,6 @@ public class FormatacaoService {
         }
 
         // Centraliza o padrao para garantir consistencia visual entre todos os templates.
-        return competencia.format(FORMATADOR_COMPETENCIA);
+        return DataCompetenciaUtils.formatarCompetencia(competencia);
     }
 }
@@ -0,0 +1,285 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoRelatorioDto;
+import io.freitas.empcard.dto.FaixasAtrasoDto;
+import io.freitas.empcard.dto.InadimplenciaCartaoDto;
+import io.freitas.empcard.dto.LancamentoRelatorioDto;
+import io.freitas.empcard.dto.PagamentoRelatorioDto;
+import io.freitas.empcard.dto.RelatorioInadimplenciaDto;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.repository.CartaoRepository;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PagamentoRepository;
+import io.freitas.empcard.repository.PessoaRepository;
+import io.freitas.empcard.util.DataCompetenciaUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aging de inadimplencia da carteira: quanto do saldo em aberto esta vencido ha 0-30, 31-60, 61-90 e 90+ dias.
+ *
+ * <p>Le lancamentos, pagamentos, cartoes e pessoas em quatro consultas de projecao e simula cada par
+ * pessoa x cartao pelas mesmas regras do relatorio mensal. Os pagamentos quitam primeiro as cobrancas mais
+ * antigas; o que sobra de cada competencia envelhece a partir do seu vencimento. A soma das faixas de um par
+ * e igual ao saldo final do relatorio quando positivo.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InadimplenciaService {
+
+    private static final int A_VENCER = 0;
+    private static final int ATE_30 = 1;
+    private static final int DE_31_A_60 = 2;
+    private static final int DE_61_A_90 = 3;
+    private static final int ACIMA_90 = 4;
+
+    private static final String SEPARADOR_CSV = ";";
+    private static final String INICIO_FORMULA_CSV = "=+-@\t\r";
+
+    private final PessoaRepository pessoaRepository;
+    private final CartaoRepository cartaoRepository;
+    private final LancamentoRepository lancamentoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final RelatorioService relatorioService;
+
+    /**
+     * Calcula o aging de todas as pessoas e cartoes na competencia.
+     * A data base e o fim da competencia, ou hoje quando a competencia ainda esta em curso.
+     *
+     * @param competencia competencia de referencia
+     * @return linhas com saldo em aberto e totais da carteira
+     */
+    @Transactional(readOnly = true)
+    public RelatorioInadimplenciaDto gerarRelatorio(YearMonth competencia) {
+        long inicio = System.nanoTime();
+        LocalDate dataLimite = competencia.atEndOfMonth();
+        LocalDate hoje = LocalDate.now();
+        LocalDate dataBase = hoje.isBefore(dataLimite) ? hoje : dataLimite;
+
+        Map<ChaveCarteira, List<LancamentoRelatorioDto>> lancamentos = lancamentoRepository
+                .listarCarteiraParaRelatorio(dataLimite).stream()
+                .collect(Collectors.groupingBy(lancamento -> new ChaveCarteira(lancamento.pessoaId(), lancamento.cartaoId())));
+        Map<ChaveCarteira, List<PagamentoRelatorioDto>> pagamentos = pagamentoRepository
+                .listarCarteiraParaRelatorio(dataLimite).stream()
+                .collect(Collectors.groupingBy(pagamento -> new ChaveCarteira(pagamento.pessoaId(), pagamento.cartaoId())));
+        Map<Long, Pessoa> pessoas = pessoaRepository.findAll().stream()
+                .collect(Collectors.toMap(Pessoa::getId, Function.identity()));
+        Map<Long, CartaoRelatorioDto> cartoes = cartaoRepository.listarTodosParaRelatorio().stream()
+                .collect(Collectors.toMap(CartaoRelatorioDto::id, Function.identity()));
+
+        Set<ChaveCarteira> chaves = new LinkedHashSet<>(lancamentos.keySet());
+        chaves.addAll(pagamentos.keySet());
+
+        List<InadimplenciaCartaoDto> linhas = new ArrayList<>();
+        BigDecimal[] totais = faixasZeradas();
+        for (ChaveCarteira chave : chaves) {
+            Pessoa pessoa = pessoas.get(chave.pessoaId());
+            CartaoRelatorioDto cartao = cartoes.get(chave.cartaoId());
+            BigDecimal[] faixas = calcularFaixas(competencia, dataBase, pessoa, cartao,
+                    lancamentos.getOrDefault(chave, List.of()),
+                    pagamentos.getOrDefault(chave, List.of()));
+            if (faixas == null) {
+                continue;
+            }
+            for (int i = 0; i < faixas.length; i++) {
+                totais[i] = totais[i].add(faixas[i]);
+            }
+            linhas.add(new InadimplenciaCartaoDto(pessoa.getId(), pessoa.getNome(), cartao.id(),
+                    cartao.identificacao(), paraDto(faixas)));
+        }
+        linhas.sort(Comparator.comparing((InadimplenciaCartaoDto linha) -> linha.faixas().total()).reversed()
+                .thenComparing(InadimplenciaCartaoDto::nomePessoa));
+
+        log.info("Aging de inadimplencia calculado. competencia={}, pares={}, linhas={}, tempoMs={}",
+                competencia, chaves.size(), linhas.size(), (System.nanoTime() - inicio) / 1_000_000);
+        return new RelatorioInadimplenciaDto(competencia, dataBase, linhas, paraDto(totais));
+    }
+
+    /**
+     * Exporta o aging em CSV separado por ponto e virgula, com decimal em virgula e BOM para abrir no Excel.
+     *
+     * @param relatorio aging calculado
+     * @return bytes do arquivo em UTF-8
+     */
+    public byte[] gerarCsv(RelatorioInadimplenciaDto relatorio) {
+        StringBuilder csv = new StringBuilder("\uFEFF");
+        csv.append(String.join(SEPARADOR_CSV,
+                "pessoa_id", "pessoa", "cartao_id", "cartao", "a_vencer", "atraso_0_30", "atraso_31_60",
+                "atraso_61_90", "atraso_acima_90", "total")).append("\r\n");
+        for (InadimplenciaCartaoDto linha : relatorio.linhas()) {
+            FaixasAtrasoDto faixas = linha.faixas();
+            csv.append(String.join(SEPARADOR_CSV,
+                    String.valueOf(linha.pessoaId()),
+                    escaparCsv(linha.nomePessoa()),
+                    String.valueOf(linha.cartaoId()),
+                    escaparCsv(linha.cartao()),
+                    decimalCsv(faixas.aVencer()),
+                    decimalCsv(faixas.ate30()),
+                    decimalCsv(faixas.de31a60()),
+                    decimalCsv(faixas.de61a90()),
+                    decimalCsv(faixas.acima90()),
+                    decimalCsv(faixas.total()))).append("\r\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Distribui o saldo em aberto de um par pessoa x cartao pelas faixas de atraso.
+     *
+     * @param competencia competencia de referencia
+     * @param dataBase    data usada para contar os dias de atraso
+     * @param pessoa      pessoa com juros e multa
+     * @param cartao      cartao com fechamento e vencimento
+     * @param lancamentos lancamentos do par
+     * @param pagamentos  pagamentos do par
+     * @return valores por faixa ou null quando nao ha saldo em aberto
+     */
+    private BigDecimal[] calcularFaixas(YearMonth competencia,
+                                        LocalDate dataBase,
+                                        Pessoa pessoa,
+                                        CartaoRelatorioDto cartao,
+                                        List<LancamentoRelatorioDto> lancamentos,
+                                        List<PagamentoRelatorioDto> pagamentos) {
+        List<RelatorioService.MovimentoCompetencia> movimentos =
+                relatorioService.simularCompetencias(competencia, pessoa, cartao, lancamentos, pagamentos);
+
+        // Pagamentos quitam as cobrancas mais antigas primeiro (FIFO).
+        BigDecimal pagoDisponivel = movimentos.stream()
+                .map(RelatorioService.MovimentoCompetencia::pago)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal[] faixas = faixasZeradas();
+        boolean emAberto = false;
+        for (RelatorioService.MovimentoCompetencia movimento : movimentos) {
+            BigDecimal quitado = movimento.cobrado().min(pagoDisponivel);
+            pagoDisponivel = pagoDisponivel.subtract(quitado);
+            BigDecimal restante = movimento.cobrado().subtract(quitado);
+            if (restante.signum() <= 0) {
+                continue;
+            }
+            LocalDate vencimento = DataCompetenciaUtils.calcularDataVencimento(
+                    movimento.competencia(), cartao.diaFechamento(), cartao.diaVencimento());
+            int faixa = faixa(ChronoUnit.DAYS.between(vencimento, dataBase));
+            faixas[faixa] = faixas[faixa].add(restante);
+            emAberto = true;
+        }
+        return emAberto ? faixas : null;
+    }
+
+    /**
+     * Converte dias de atraso na faixa correspondente.
+     *
+     * @param diasAtraso dias entre vencimento e data base (negativo quando ainda nao venceu)
+     * @return indice da faixa
+     */
+    private int faixa(long diasAtraso) {
+        if (diasAtraso < 0) {
+            return A_VENCER;
+        }
+        if (diasAtraso <= 30) {
+            return ATE_30;
+        }
+        if (diasAtraso <= 60) {
+            return DE_31_A_60;
+        }
+        return diasAtraso <= 90 ? DE_61_A_90 : ACIMA_90;
+    }
+
+    /**
+     * Cria acumulador de faixas zerado.
+     *
+     * @return array com uma posicao por faixa
+     */
+    private BigDecimal[] faixasZeradas() {
+        BigDecimal[] faixas = new BigDecimal[ACIMA_90 + 1];
+        Arrays.fill(faixas, BigDecimal.ZERO);
+        return faixas;
+    }
+
+    /**
+     * Converte acumulador em DTO com escala monetaria e total.
+     *
+     * @param faixas valores por faixa
+     * @return faixas de atraso
+     */
+    private FaixasAtrasoDto paraDto(BigDecimal[] faixas) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal valor : faixas) {
+            total = total.add(valor);
+        }
+        return new FaixasAtrasoDto(
+                escala(faixas[A_VENCER]),
+                escala(faixas[ATE_30]),
+                escala(faixas[DE_31_A_60]),
+                escala(faixas[DE_61_A_90]),
+                escala(faixas[ACIMA_90]),
+                escala(total));
+    }
+
+    /**
+     * Aplica escala monetaria padrao.
+     *
+     * @param valor valor calculado
+     * @return valor com duas casas
+     */
+    private BigDecimal escala(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Escapa campo textual do CSV. Texto iniciado por {@code = + - @}, tabulacao ou retorno de carro ganha um
+     * apostrofo na frente para a planilha nao interpreta-lo como formula (nomes vem de cadastro livre); campos com
+     * separador, aspas ou quebra de linha ({@code \n} ou {@code \r}) vao entre aspas.
+     *
+     * @param valor texto do campo
+     * @return campo pronto para o CSV
+     */
+    private String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = !valor.isEmpty() && INICIO_FORMULA_CSV.indexOf(valor.charAt(0)) >= 0 ? "'" + valor : valor;
+        if (texto.contains(SEPARADOR_CSV) || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+
+    /**
+     * Formata decimal com virgula, como esperado por planilhas em pt-BR.
+     *
+     * @param valor valor monetario
+     * @return texto sem separador de milhar
+     */
+    private String decimalCsv(BigDecimal valor) {
+        return valor.toPlainString().replace('.', ',');
+    }
+
+    /**
+     * Par pessoa x cartao da carteira.
+     *
+     * @param pessoaId identificador da pessoa
+     * @param cartaoId identificador do cartao
+     */
+    private record ChaveCarteira(Long pessoaId, Long cartaoId) {
+    }
+}
@@ -0,0 +1,345 @@
+package io.freitas.empcard.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertido de trigramas em memoria para busca aproximada de um tipo de registro.
+ *
+ * <p>O texto e normalizado (sem acento, minusculo, apenas letras e digitos) e cada palavra recebe um espaco
+ * inicial, de modo que o trigrama " jo" casa inicio de palavra e consultas curtas funcionam como prefixo.
+ * Cada trigrama cabe em um inteiro menor que 37^3, entao as listas de postagem ficam em um array direto,
+ * sem hash. Remocoes apenas marcam a entrada; o indice e compactado quando as entradas mortas passam das
+ * vivas. Leituras concorrem entre si e so esperam durante escritas.</p>
+ */
+final class IndiceBusca {
+
+    private static final int SIMBOLOS = 37;
+    private static final int TOTAL_TRIGRAMAS = SIMBOLOS * SIMBOLOS * SIMBOLOS;
+    private static final double SEMELHANCA_MINIMA = 0.6;
+    private static final int COMPACTACAO_MINIMA = 1024;
+
+    /**
+     * Ordem dos resultados: maior relevancia, depois texto mais curto, depois id.
+     */
+    private static final Comparator<Resultado> ORDEM = Comparator
+            .comparingDouble(Resultado::relevancia).reversed()
+            .thenComparingInt(Resultado::tamanhoTexto)
+            .thenComparing(Resultado::id);
+
+    /**
+     * Contadores reaproveitados por thread; cada busca zera apenas as posicoes que tocou.
+     */
+    private static final ThreadLocal<Contadores> CONTADORES = ThreadLocal.withInitial(Contadores::new);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private List<Entrada> entradas = new ArrayList<>();
+    private int[][] postagens = new int[TOTAL_TRIGRAMAS][];
+    private int[] tamanhos = new int[TOTAL_TRIGRAMAS];
+    private final Map<Long, Integer> ordinalPorId = new HashMap<>();
+    private int removidas;
+
+    /**
+     * Inclui ou substitui o registro no indice.
+     *
+     * @param id      identificador do registro
+     * @param termos  texto pesquisavel
+     * @param titulo  texto principal exibido no resultado
+     * @param detalhe texto complementar exibido no resultado
+     */
+    void indexar(Long id, String termos, String titulo, String detalhe) {
+        String normalizado = normalizar(termos);
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+            int ordinal = entradas.size();
+            entradas.add(new Entrada(id, titulo, detalhe, normalizado));
+            ordinalPorId.put(id, ordinal);
+            for (int trigrama : trigramas(normalizado, true)) {
+                adicionarPostagem(trigrama, ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira o registro do indice.
+     *
+     * @param id identificador do registro
+     */
+    void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+            if (removidas > COMPACTACAO_MINIMA && removidas > ordinalPorId.size()) {
+                compactar();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quantidade de registros indexados.
+     *
+     * @return total de entradas vivas
+     */
+    int tamanho() {
+        lock.readLock().lock();
+        try {
+            return ordinalPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os registros mais parecidos com a consulta.
+     *
+     * <p>A relevancia e a fracao dos trigramas da consulta presentes no registro, com bonus quando a
+     * consulta aparece inteira no texto. Registros abaixo da semelhanca minima sao descartados, o que
+     * tolera erros de digitacao sem trazer ruido.</p>
+     *
+     * @param consulta texto digitado
+     * @param limite   quantidade maxima de resultados
+     * @return resultados em ordem decrescente de relevancia
+     */
+    List<Resultado> buscar(String consulta, int limite) {
+        String normalizada = normalizar(consulta);
+        int[] trigramasConsulta = trigramas(normalizada, false);
+        if (trigramasConsulta.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        int minimo = Math.max(1, (int) Math.ceil(trigramasConsulta.length * SEMELHANCA_MINIMA));
+
+        lock.readLock().lock();
+        try {
+            Contadores contadores = CONTADORES.get().preparar(entradas.size());
+            int[] contagens = contadores.contagens;
+            int totalTocados = 0;
+            for (int trigrama : trigramasConsulta) {
+                int[] lista = postagens[trigrama];
+                for (int i = 0, fim = tamanhos[trigrama]; i < fim; i++) {
+                    int ordinal = lista[i];
+                    if (contagens[ordinal]++ == 0) {
+                        totalTocados = contadores.tocar(totalTocados, ordinal);
+                    }
+                }
+            }
+
+            PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1, ORDEM.reversed());
+            int[] tocados = contadores.tocados;
+            for (int i = 0; i < totalTocados; i++) {
+                int ordinal = tocados[i];
+                int contagem = contagens[ordinal];
+                contagens[ordinal] = 0;
+                Entrada entrada = entradas.get(ordinal);
+                if (entrada == null || contagem < minimo) {
+                    continue;
+                }
+                double relevancia = (double) contagem / trigramasConsulta.length;
+                // Descarta cedo o candidato que nao supera o pior da fila cheia, sem criar objeto nem buscar substring.
+                if (melhores.size() == limite && relevancia + 1.0 < melhores.peek().relevancia()) {
+                    continue;
+                }
+                if (entrada.normalizado().contains(normalizada)) {
+                    relevancia += 1.0;
+                }
+                melhores.add(new Resultado(entrada.id(), entrada.titulo(), entrada.detalhe(), relevancia,
+                        entrada.normalizado().length()));
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+
+            List<Resultado> resultados = new ArrayList<>(melhores);
+            resultados.sort(ORDEM);
+            return resultados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza texto para indexacao e consulta.
+     *
+     * @param texto texto original
+     * @return texto sem acento, minusculo, com palavras separadas por um espaco e espaco inicial
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder resultado = new StringBuilder(semAcento.length() + 1);
+        boolean espaco = false;
+        for (int i = 0; i < semAcento.length(); i++) {
+            char c = Character.toLowerCase(semAcento.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (espaco || resultado.isEmpty()) {
+                    resultado.append(' ');
+                }
+                resultado.append(c);
+                espaco = false;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                espaco = true;
+            }
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Extrai trigramas distintos do texto normalizado.
+     *
+     * @param normalizado texto ja normalizado
+     * @param fimPalavra  quando true inclui o espaco final, usado apenas na indexacao
+     * @return codigos dos trigramas sem repeticao
+     */
+    private static int[] trigramas(String normalizado, boolean fimPalavra) {
+        String texto = fimPalavra ? normalizado + ' ' : normalizado;
+        if (texto.length() < 3) {
+            return new int[0];
+        }
+        int[] codigos = new int[texto.length() - 2];
+        for (int i = 0; i < codigos.length; i++) {
+            codigos[i] = (simbolo(texto.charAt(i)) * SIMBOLOS + simbolo(texto.charAt(i + 1))) * SIMBOLOS
+                    + simbolo(texto.charAt(i + 2));
+        }
+        return Arrays.stream(codigos).distinct().toArray();
+    }
+
+    /**
+     * Converte caractere normalizado em simbolo de 0 a 36.
+     *
+     * @param c espaco, letra minuscula ou digito
+     * @return codigo do simbolo
+     */
+    private static int simbolo(char c) {
+        if (c == ' ') {
+            return 0;
+        }
+        return c <= '9' ? 27 + (c - '0') : 1 + (c - 'a');
+    }
+
+    /**
+     * Acrescenta ordinal na lista de postagem do trigrama, dobrando a capacidade quando necessario.
+     *
+     * @param trigrama codigo do trigrama
+     * @param ordinal  ordinal da entrada
+     */
+    private void adicionarPostagem(int trigrama, int ordinal) {
+        int[] lista = postagens[trigrama];
+        int tamanho = tamanhos[trigrama];
+        if (lista == null) {
+            lista = new int[4];
+        } else if (tamanho == lista.length) {
+            lista = Arrays.copyOf(lista, tamanho * 2);
+        }
+        lista[tamanho] = ordinal;
+        postagens[trigrama] = lista;
+        tamanhos[trigrama] = tamanho + 1;
+    }
+
+    /**
+     * Marca a entrada do registro como removida; chamador deve deter o lock de escrita.
+     *
+     * @param id identificador do registro
+     */
+    private void removerSemLock(Long id) {
+        Integer ordinal = ordinalPorId.remove(id);
+        if (ordinal != null) {
+            entradas.set(ordinal, null);
+            removidas++;
+        }
+    }
+
+    /**
+     * Reconstroi as listas de postagem apenas com as entradas vivas.
+     */
+    private void compactar() {
+        List<Entrada> vivas = entradas.stream().filter(entrada -> entrada != null).toList();
+        entradas = new ArrayList<>(vivas.size());
+        postagens = new int[TOTAL_TRIGRAMAS][];
+        tamanhos = new int[TOTAL_TRIGRAMAS];
+        ordinalPorId.clear();
+        removidas = 0;
+        for (Entrada entrada : vivas) {
+            int ordinal = entradas.size();
+            entradas.add(entrada);
+            ordinalPorId.put(entrada.id(), ordinal);
+            for (int trigrama : trigramas(entrada.normalizado(), true)) {
+                adicionarPostagem(trigrama, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Buffers de contagem de uma thread, crescidos sob demanda e mantidos zerados entre buscas.
+     */
+    private static final class Contadores {
+
+        private int[] contagens = new int[0];
+        private int[] tocados = new int[64];
+
+        /**
+         * Garante capacidade para a quantidade de entradas do indice.
+         *
+         * @param tamanho quantidade de ordinais possiveis
+         * @return os proprios contadores
+         */
+        private Contadores preparar(int tamanho) {
+            if (contagens.length < tamanho) {
+                contagens = new int[tamanho + tamanho / 4];
+            }
+            return this;
+        }
+
+        /**
+         * Registra ordinal tocado pela primeira vez na busca.
+         *
+         * @param total   quantidade ja registrada
+         * @param ordinal ordinal tocado
+         * @return nova quantidade registrada
+         */
+        private int tocar(int total, int ordinal) {
+            if (total == tocados.length) {
+                tocados = Arrays.copyOf(tocados, total * 2);
+            }
+            tocados[total] = ordinal;
+            return total + 1;
+        }
+    }
+
+    /**
+     * Registro indexado.
+     *
+     * @param id          identificador
+     * @param titulo      texto principal
+     * @param detalhe     texto complementar
+     * @param normalizado texto pesquisavel normalizado
+     */
+    private record Entrada(Long id, String titulo, String detalhe, String normalizado) {
+    }
+
+    /**
+     * Registro encontrado pela busca.
+     *
+     * @param id           identificador
+     * @param titulo       texto principal
+     * @param detalhe      texto complementar
+     * @param relevancia   pontuacao da busca
+     * @param tamanhoTexto tamanho do texto normalizado, usado no desempate
+     */
+    record Resultado(Long id, String titulo, String detalhe, double relevancia, int tamanhoTexto) {
+    }
+}
@@ -0,0 +1,270 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.InvalidacaoDistribuidaProperties;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Barramento de invalidacao de caches entre instancias usando LISTEN/NOTIFY do PostgreSQL, sem broker.
+ *
+ * <p>Cada alteracao publicada pelos servicos vira um {@code pg_notify} dentro da propria transacao de escrita:
+ * o PostgreSQL so entrega a notificacao no commit e a descarta no rollback. Cada instancia escuta o canal em
+ * uma conexao dedicada, fora do pool, e republica as alteracoes das outras instancias como
+ * {@link AlteracaoRemotaEvento}. O primeiro LISTEN e feito na subida antes das cargas dos caches locais, para que
+ * nenhuma escrita de outra instancia caia entre a carga e o inicio da escuta. Se a conexao cai (ou nao abre na
+ * subida), notificacoes do intervalo se perdem; ao conectar de novo e publicado
+ * {@link AlteracoesRemotasPerdidasEvento} para os caches recomecarem do banco.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InvalidacaoDistribuidaService {
+
+    private static final Pattern CANAL_VALIDO = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final char SEPARADOR = ';';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final InvalidacaoDistribuidaProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Identifica esta instancia nas notificacoes, para ignorar as que ela mesma enviou.
+     */
+    private final String instanciaId = UUID.randomUUID().toString();
+
+    private volatile boolean ativo;
+    private volatile Thread escuta;
+    private volatile Connection conexao;
+
+    /**
+     * Envia a alteracao as demais instancias. Listener sincrono de proposito: o NOTIFY participa da
+     * transacao de escrita e so e entregue se ela for confirmada.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @EventListener
+    public void publicar(AlteracaoRegistroEvento evento) {
+        if (!properties.habilitado()) {
+            return;
+        }
+        jdbcTemplate.query("select pg_notify(?, ?)", resultado -> null, properties.canal(), codificar(instanciaId, evento));
+    }
+
+    /**
+     * Registra o LISTEN e inicia a thread de escuta assim que a aplicacao sobe, antes dos demais listeners de
+     * {@link ApplicationReadyEvent} que carregam caches do banco. Se a conexao falhar aqui, a thread tenta de
+     * novo e, ao conseguir, avisa que alteracoes podem ter sido perdidas.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!properties.habilitado()) {
+            log.debug("Invalidacao distribuida desabilitada por configuracao");
+            return;
+        }
+        if (!CANAL_VALIDO.matcher(properties.canal()).matches()) {
+            throw new IllegalStateException("empcard.invalidacao-distribuida.canal invalido: " + properties.canal());
+        }
+        ativo = true;
+        try {
+            abrirConexao();
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("Falha ao escutar o barramento de invalidacao na subida. canal={}", properties.canal(), ex);
+            fecharConexao();
+        }
+        escuta = Thread.ofPlatform().name("invalidacao-distribuida").daemon(true).start(this::escutar);
+    }
+
+    /**
+     * Encerra a escuta e fecha a conexao dedicada.
+     */
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        Thread thread = escuta;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        fecharConexao();
+    }
+
+    /**
+     * Laco da thread de escuta: recebe notificacoes e reconecta apos falhas. Toda conexao aberta por aqui
+     * sucede um periodo sem escuta, entao os caches locais sao descartados.
+     */
+    private void escutar() {
+        while (ativo) {
+            try {
+                if (conexao == null) {
+                    abrirConexao();
+                    log.info("Barramento de invalidacao conectado apos falha; caches locais serao descartados");
+                    eventPublisher.publishEvent(new AlteracoesRemotasPerdidasEvento());
+                }
+                receberAteFalhar();
+            } catch (SQLException | RuntimeException ex) {
+                if (!ativo) {
+                    return;
+                }
+                log.warn("Falha na conexao do barramento de invalidacao. canal={}", properties.canal(), ex);
+            } finally {
+                fecharConexao();
+            }
+            try {
+                Thread.sleep(properties.esperaReconexao());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Abre a conexao dedicada direto pelo driver, para nao prender uma conexao do pool indefinidamente.
+     *
+     * @throws SQLException falha ao conectar ou ao registrar o LISTEN
+     */
+    private void abrirConexao() throws SQLException {
+        Connection nova = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        conexao = nova;
+        try (Statement statement = nova.createStatement()) {
+            statement.execute("LISTEN " + properties.canal());
+        }
+        log.info("Escutando alteracoes de outras instancias. canal={}", properties.canal());
+    }
+
+    /**
+     * Recebe notificacoes ate a conexao falhar. Sem notificacoes no intervalo, um {@code select 1} confirma
+     * que a conexao continua viva.
+     *
+     * @throws SQLException falha na conexao dedicada
+     */
+    private void receberAteFalhar() throws SQLException {
+        PGConnection pgConnection = conexao.unwrap(PGConnection.class);
+        int espera = (int) properties.intervaloEspera().toMillis();
+        while (ativo) {
+            PGNotification[] notificacoes = pgConnection.getNotifications(espera);
+            if (notificacoes == null || notificacoes.length == 0) {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("select 1");
+                }
+                continue;
+            }
+            for (PGNotification notificacao : notificacoes) {
+                receber(notificacao.getParameter());
+            }
+        }
+    }
+
+    /**
+     * Republica localmente a alteracao recebida, ignorando as enviadas por esta instancia.
+     *
+     * @param payload conteudo da notificacao
+     */
+    void receber(String payload) {
+        String[] campos = payload.split(String.valueOf(SEPARADOR), -1);
+        if (campos.length != 6) {
+            log.warn("Notificacao de invalidacao ignorada por formato invalido. payload={}", payload);
+            return;
+        }
+        if (instanciaId.equals(campos[0])) {
+            return;
+        }
+        try {
+            AlteracaoRegistroEvento alteracao = new AlteracaoRegistroEvento(
+                    TipoRegistro.valueOf(campos[1]),
+                    OperacaoRegistro.valueOf(campos[2]),
+                    lerId(campos[3]),
+                    lerId(campos[4]),
+                    lerId(campos[5]));
+            eventPublisher.publishEvent(new AlteracaoRemotaEvento(alteracao));
+        } catch (IllegalArgumentException ex) {
+            // Instancia com versao diferente (tipo ou operacao desconhecidos): na duvida, descarta tudo.
+            log.warn("Notificacao de invalidacao nao reconhecida. payload={}", payload);
+            eventPublisher.publishEvent(new AlteracoesRemotasPerdidasEvento());
+        }
+    }
+
+    /**
+     * Identificador desta instancia nas notificacoes.
+     *
+     * @return id aleatorio gerado na subida
+     */
+    String getInstanciaId() {
+        return instanciaId;
+    }
+
+    /**
+     * Monta o conteudo da notificacao: instancia, tipo, operacao e ids separados por ponto e virgula.
+     *
+     * @param instanciaId instancia de origem
+     * @param evento      alteracao confirmada
+     * @return payload textual, bem abaixo do limite de 8000 bytes do NOTIFY
+     */
+    static String codificar(String instanciaId, AlteracaoRegistroEvento evento) {
+        return instanciaId + SEPARADOR + evento.tipo().name() + SEPARADOR + evento.operacao().name()
+                + SEPARADOR + escreverId(evento.registroId())
+                + SEPARADOR + escreverId(evento.pessoaId())
+                + SEPARADOR + escreverId(evento.cartaoId());
+    }
+
+    /**
+     * Converte id opcional em texto.
+     *
+     * @param id id ou null
+     * @return texto vazio para null
+     */
+    private static String escreverId(Long id) {
+        return id == null ? "" : id.toString();
+    }
+
+    /**
+     * Converte texto em id opcional.
+     *
+     * @param texto texto do payload
+     * @return id ou null quando vazio
+     */
+    private static Long lerId(String texto) {
+        return texto.isEmpty() ? null : Long.valueOf(texto);
+    }
+
+    /**
+     * Fecha a conexao dedicada, se aberta.
+     */
+    private void fecharConexao() {
+        Connection atual = conexao;
+        conexao = null;
+        if (atual == null) {
+            return;
+        }
+        try {
+            atual.close();
+        } catch (SQLException ex) {
+            log.debug("Falha ao fechar conexao do barramento de invalidacao", ex);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package io.freitas.empcard.service;
 
+import io.freitas.empcard.config.ListagemProperties;
 import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
 import io.freitas.empcard.exception.RecursoNaoEncontradoException;
 import io.freitas.empcard.exception.RegraDeNegocioException;
 import io.freitas.empcard.model.Cartao;
@@ -12,6 +16,8 @@ import io.freitas.empcard.util.TextoUtils;
 import io.freitas.empcard.util.ValorMonetarioUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +35,9 @@ public class LancamentoService {
     private final LancamentoRepository lancamentoRepository;
     private final PessoaService pessoaService;
     private final CartaoService cartaoService;
+    private final CronogramaParcelasService cronogramaParcelasService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListagemProperties listagemProperties;
 
     /**
      * Lista lancamentos com pessoa e cartao carregados para evitar consultas repetidas na tela.
@@ -37,10 +46,36 @@ public class LancamentoService {
      */
     @Transactional(readOnly = true)
     public List<Lancamento> listarTodos() {
-        log.info("Listando todos os lancamentos");
+        log.debug("Listando todos os lancamentos");
         return lancamentoRepository.findAllByOrderByDataCompraDescIdDesc();
     }
 
+    /**
+     * Conta lancamentos sem carregar as entidades.
+     *
+     * @return quantidade de lancamentos
+     */
+    @Transactional(readOnly = true)
+    public long contar() {
+        return lancamentoRepository.count();
+    }
+
+    /**
+     * Lista lancamentos em lotes por cursor, na mesma ordem de {@link #listarTodos()}, para a tela de listagem.
+     *
+     * <p>Cada lote e lido sob demanda durante a renderizacao, fora de transacao, com pessoa e cartao ja
+     * carregados.</p>
+     *
+     * @return listagem preguicosa em ordem decrescente de data
+     */
+    public ListagemEmLotes<Lancamento> listarEmLotes() {
+        Limit limite = Limit.of(listagemProperties.tamanhoLote());
+        return new ListagemEmLotes<>(ultimo -> ultimo == null
+                ? lancamentoRepository.findAllByOrderByDataCompraDescIdDesc(limite)
+                : lancamentoRepository.listarAnterioresA(ultimo.getDataCompra(), ultimo.getId(), limite),
+                limite.max());
+    }
+
     /**
      * Busca um lancamento por id validando existencia.
      *
@@ -49,7 +84,7 @@ public class LancamentoService {
      */
     @Transactional(readOnly = true)
     public Lancamento buscarPorId(Long id) {
-        log.info("Buscando lancamento por id={}", id);
+        log.debug("Buscando lancamento por id={}", id);
         return lancamentoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Lancamento nao encontrado para id " + id));
     }
@@ -71,6 +106,8 @@ public class LancamentoService {
         aplicarDados(form, lancamento, pessoa, cartao);
 
         Lancamento salvo = lancamentoRepository.save(lancamento);
+        cronogramaParcelasService.gravar(salvo);
+        publicarAlteracao(salvo, OperacaoRegistro.CRIACAO);
         log.info("Lancamento criado com sucesso. id={}, tipo={}", salvo.getId(), salvo.getTipo());
         return salvo;
     }
@@ -89,9 +126,19 @@ public class LancamentoService {
         Cartao cartao = cartaoService.buscarPorId(form.getCartaoId());
 
         validarRegrasTipo(form);
+
+        // Quando o lancamento troca de pessoa ou cartao, o vinculo anterior tambem precisa ser recalculado.
+        Long pessoaAnteriorId = lancamento.getPessoa().getId();
+        Long cartaoAnteriorId = lancamento.getCartao().getId();
         aplicarDados(form, lancamento, pessoa, cartao);
 
         Lancamento salvo = lancamentoRepository.save(lancamento);
+        cronogramaParcelasService.gravar(salvo);
+        publicarAlteracao(salvo, OperacaoRegistro.ATUALIZACAO);
+        if (!pessoaAnteriorId.equals(pessoa.getId()) || !cartaoAnteriorId.equals(cartao.getId())) {
+            eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                    TipoRegistro.LANCAMENTO, OperacaoRegistro.ATUALIZACAO, salvo.getId(), pessoaAnteriorId, cartaoAnteriorId));
+        }
         log.info("Lancamento atualizado com sucesso. id={}", salvo.getId());
         return salvo;
     }
@@ -106,6 +153,8 @@ public class LancamentoService {
         Lancamento lancamento = buscarPorId(id);
         lancamento.setAtivo(!lancamento.isAtivo());
         lancamentoRepository.save(lancamento);
+        cronogramaParcelasService.alterarAtivo(lancamento.getId(), lancamento.isAtivo());
+        publicarAlteracao(lancamento, OperacaoRegistro.ATUALIZACAO);
         log.info("Status do lancamento alterado. id={}, ativo={}", lancamento.getId(), lancamento.isAtivo());
     }
 
@@ -118,6 +167,8 @@ public class LancamentoService {
     public void excluir(Long id) {
         Lancamento lancamento = buscarPorId(id);
         lancamentoRepository.delete(lancamento);
+        cronogramaParcelasService.remover(id);
+        publicarAlteracao(lancamento, OperacaoRegistro.EXCLUSAO);
         log.info("Lancamento excluido com sucesso. id={}", id);
     }
 
@@ -173,6 +224,22 @@ public class LancamentoService {
         }
     }
 
+    /**
+     * Publica evento de alteracao do lancamento para a pessoa e o cartao vinculados.
+     *
+     * @param lancamento lancamento alterado
+     * @param operacao   operacao executada
+     */
+    private void publicarAlteracao(Lancamento lancamento, OperacaoRegistro operacao) {
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                TipoRegistro.LANCAMENTO,
+                operacao,
+                lancamento.getId(),
+                lancamento.getPessoa().getId(),
+                lancamento.getCartao().getId()
+        ));
+    }
+
     /**
      * Copia valores do formulario para entidade com normalizacao e parse monetario.
      *
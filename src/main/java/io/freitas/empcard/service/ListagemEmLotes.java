@@ -0,0 +1,101 @@
+package io.freitas.empcard.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Iterador de listagem que le o banco em lotes por cursor, sob demanda, enquanto o template e renderizado.
+ *
+ * <p>Cada lote e uma consulta curta e independente (sem transacao nem cursor aberto durante a escrita da
+ * resposta), com as entidades ja desanexadas; apenas o lote corrente fica em memoria. Antes de cada consulta o
+ * callback {@link #antesDeBuscarLote(Runnable)} e chamado, o que permite enviar ao navegador o que ja foi
+ * renderizado (cabecalho da pagina no primeiro lote, linhas anteriores nos demais).</p>
+ *
+ * @param <T> tipo listado
+ */
+public final class ListagemEmLotes<T> implements Iterator<T> {
+
+    private static final Runnable SEM_ACAO = () -> {
+    };
+
+    private final Function<T, List<T>> buscarLote;
+    private final int tamanhoLote;
+    private Runnable antesDeBuscarLote = SEM_ACAO;
+
+    private List<T> lote;
+    private int posicao;
+    private boolean esgotada;
+    private boolean possuiItens;
+
+    /**
+     * Cria a listagem.
+     *
+     * @param buscarLote  consulta do proximo lote a partir do ultimo item lido (null no primeiro lote)
+     * @param tamanhoLote quantidade maxima de itens por lote
+     */
+    ListagemEmLotes(Function<T, List<T>> buscarLote, int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho de lote deve ser positivo: " + tamanhoLote);
+        }
+        this.buscarLote = buscarLote;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Define acao executada antes de cada consulta de lote, inclusive a primeira.
+     *
+     * @param antesDeBuscarLote acao executada antes da consulta
+     * @return a propria listagem
+     */
+    public ListagemEmLotes<T> antesDeBuscarLote(Runnable antesDeBuscarLote) {
+        this.antesDeBuscarLote = antesDeBuscarLote;
+        return this;
+    }
+
+    /**
+     * Indica listagem sem nenhum item; busca o primeiro lote se ainda nao buscado.
+     *
+     * @return true quando nao ha itens
+     */
+    public boolean isVazia() {
+        return lote == null ? !hasNext() : !possuiItens;
+    }
+
+    /**
+     * Indica se ha proximo item, buscando o lote seguinte quando o atual termina.
+     *
+     * @return true quando ha proximo item
+     */
+    @Override
+    public boolean hasNext() {
+        if (lote != null && posicao < lote.size()) {
+            return true;
+        }
+        if (esgotada) {
+            return false;
+        }
+        T ultimo = lote == null ? null : lote.getLast();
+        antesDeBuscarLote.run();
+        lote = buscarLote.apply(ultimo);
+        posicao = 0;
+        // Lote incompleto e o ultimo: evita uma consulta extra so para descobrir o fim.
+        esgotada = lote.size() < tamanhoLote;
+        possuiItens |= !lote.isEmpty();
+        return !lote.isEmpty();
+    }
+
+    /**
+     * Devolve o proximo item.
+     *
+     * @return item seguinte
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return lote.get(posicao++);
+    }
+}
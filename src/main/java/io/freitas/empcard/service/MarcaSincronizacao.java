@@ -0,0 +1,140 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.exception.SincronizacaoExpiradaException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Posicao do cliente no feed de alteracoes: um cursor (updated_at, id) por colecao mais o instante de emissao.
+ * Trafega como texto opaco em base64 url-safe; o formato interno pode mudar sem afetar o cliente.
+ *
+ * @param emitidaEm   limite superior da consulta que gerou a marca
+ * @param pessoas     cursor de pessoas
+ * @param cartoes     cursor de cartoes
+ * @param lancamentos cursor de lancamentos
+ * @param pagamentos  cursor de pagamentos
+ * @param exclusoes   cursor de lapides
+ */
+record MarcaSincronizacao(
+        LocalDateTime emitidaEm,
+        Cursor pessoas,
+        Cursor cartoes,
+        Cursor lancamentos,
+        Cursor pagamentos,
+        Cursor exclusoes
+) {
+
+    private static final String VERSAO = "1";
+    private static final String SEPARADOR = ":";
+    private static final int CAMPOS = 12;
+
+    /**
+     * Marca de carga completa: todas as colecoes desde o inicio; lapides a partir do cursor informado,
+     * pois um cliente sem dados nao precisa de exclusoes antigas.
+     *
+     * @param exclusoes cursor da ultima lapide ja existente
+     * @return marca inicial
+     */
+    static MarcaSincronizacao inicial(Cursor exclusoes) {
+        return new MarcaSincronizacao(null, Cursor.INICIO, Cursor.INICIO, Cursor.INICIO, Cursor.INICIO, exclusoes);
+    }
+
+    /**
+     * Serializa a marca para envio ao cliente.
+     *
+     * @return texto opaco
+     */
+    String codificar() {
+        String texto = String.join(SEPARADOR,
+                VERSAO,
+                Long.toString(paraMicros(emitidaEm)),
+                pessoas.codificar(),
+                cartoes.codificar(),
+                lancamentos.codificar(),
+                pagamentos.codificar(),
+                exclusoes.codificar());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Le marca recebida do cliente.
+     *
+     * @param texto texto opaco
+     * @return marca decodificada
+     * @throws SincronizacaoExpiradaException quando o texto nao e uma marca valida
+     */
+    static MarcaSincronizacao decodificar(String texto) {
+        try {
+            String[] campos = new String(Base64.getUrlDecoder().decode(texto), StandardCharsets.US_ASCII).split(SEPARADOR);
+            if (campos.length != CAMPOS || !VERSAO.equals(campos[0])) {
+                throw new SincronizacaoExpiradaException("Marca de sincronizacao invalida");
+            }
+            return new MarcaSincronizacao(
+                    deMicros(Long.parseLong(campos[1])),
+                    Cursor.decodificar(campos[2], campos[3]),
+                    Cursor.decodificar(campos[4], campos[5]),
+                    Cursor.decodificar(campos[6], campos[7]),
+                    Cursor.decodificar(campos[8], campos[9]),
+                    Cursor.decodificar(campos[10], campos[11]));
+        } catch (IllegalArgumentException ex) {
+            throw new SincronizacaoExpiradaException("Marca de sincronizacao invalida");
+        }
+    }
+
+    /**
+     * Converte instante para microssegundos, a precisao do timestamp no banco.
+     *
+     * @param instante instante local
+     * @return microssegundos desde a epoca
+     */
+    private static long paraMicros(LocalDateTime instante) {
+        return instante.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + instante.getNano() / 1_000;
+    }
+
+    /**
+     * Converte microssegundos de volta para instante.
+     *
+     * @param micros microssegundos desde a epoca
+     * @return instante local
+     */
+    private static LocalDateTime deMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * Ultima linha entregue de uma colecao, na ordem (updated_at, id).
+     *
+     * @param instante updated_at da ultima linha
+     * @param id       id da ultima linha
+     */
+    record Cursor(LocalDateTime instante, long id) {
+
+        static final Cursor INICIO = new Cursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+        /**
+         * Serializa o cursor.
+         *
+         * @return instante em microssegundos e id separados
+         */
+        private String codificar() {
+            return paraMicros(instante) + SEPARADOR + id;
+        }
+
+        /**
+         * Le cursor serializado.
+         *
+         * @param micros instante em microssegundos
+         * @param id     id da linha
+         * @return cursor
+         */
+        private static Cursor decodificar(String micros, String id) {
+            return new Cursor(deMicros(Long.parseLong(micros)), Long.parseLong(id));
+        }
+    }
+}
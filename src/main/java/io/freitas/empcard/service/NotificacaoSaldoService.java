@@ -0,0 +1,199 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.config.NotificacaoProperties;
+import io.freitas.empcard.dto.NotificacaoSaldoDto;
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.TipoRegistro;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Canal SSE que avisa telas abertas (dashboard e relatorio) quando o saldo de uma pessoa muda.
+ *
+ * <p>Cada conexao e um {@link SseEmitter} em modo assincrono do servlet: a thread do Tomcat e liberada
+ * logo apos o handshake, e uma conexao ociosa custa apenas o socket e o emitter. O recalculo do saldo roda
+ * em uma unica thread dedicada apos o commit, e alteracoes seguidas da mesma pessoa sao agrupadas em
+ * uma so notificacao. Sem conexoes abertas nada e calculado.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificacaoSaldoService {
+
+    private static final String EVENTO_SALDO = "saldo";
+
+    private final RelatorioService relatorioService;
+    private final RelatorioCacheService relatorioCacheService;
+    private final NotificacaoProperties properties;
+
+    private final Set<SseEmitter> conexoes = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Pendente> pendentes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("notificacao-saldo").daemon(true).factory());
+
+    /**
+     * Abre nova conexao SSE respeitando o limite da instancia.
+     *
+     * @return emitter registrado ou vazio quando o limite foi atingido
+     */
+    public Optional<SseEmitter> conectar() {
+        if (conexoes.size() >= properties.maxConexoes()) {
+            log.warn("Limite de conexoes SSE atingido. limite={}", properties.maxConexoes());
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        emitter.onCompletion(() -> conexoes.remove(emitter));
+        emitter.onTimeout(() -> conexoes.remove(emitter));
+        emitter.onError(erro -> conexoes.remove(emitter));
+        conexoes.add(emitter);
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Quantidade de conexoes abertas.
+     *
+     * @return total de emitters registrados
+     */
+    public int totalConexoes() {
+        return conexoes.size();
+    }
+
+    /**
+     * Agenda notificacao apos o commit de lancamento ou pagamento. Roda antes da invalidacao do cache de
+     * relatorios para capturar o saldo anterior ainda em cache, e invalida a pessoa antes de entregar o recalculo
+     * a thread de notificacao, que de outra forma poderia ler o relatorio antigo e transmitir o saldo sem mudanca.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        if (conexoes.isEmpty() || evento.pessoaId() == null
+                || (evento.tipo() != TipoRegistro.LANCAMENTO && evento.tipo() != TipoRegistro.PAGAMENTO)) {
+            return;
+        }
+        YearMonth competencia = YearMonth.now();
+        RelatorioPessoaDto anterior = relatorioCacheService.buscarRelatorio(evento.pessoaId(), competencia);
+        Pendente pendente = new Pendente(evento.tipo(), competencia, anterior != null ? anterior.totalGeralSaldo() : null);
+        relatorioCacheService.invalidarPessoa(evento.pessoaId());
+
+        // Uma pessoa ja pendente mantem o saldo anterior mais antigo; o recalculo cobre todas as alteracoes.
+        if (pendentes.putIfAbsent(evento.pessoaId(), pendente) == null) {
+            executor.execute(() -> notificar(evento.pessoaId()));
+        }
+    }
+
+    /**
+     * Notifica as conexoes desta instancia sobre alteracoes confirmadas em outra. Tambem roda antes da
+     * invalidacao remota do cache de relatorios.
+     *
+     * @param evento alteracao recebida pelo barramento de invalidacao
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void aoAlterarRegistroRemoto(AlteracaoRemotaEvento evento) {
+        aoAlterarRegistro(evento.alteracao());
+    }
+
+    /**
+     * Envia comentario periodico; falhas de escrita removem conexoes encerradas pelo cliente. As escritas
+     * bloqueantes rodam na thread de notificacao para nao ocupar o agendador compartilhado.
+     */
+    @Scheduled(fixedDelayString = "${empcard.notificacoes.heartbeat:25s}")
+    public void enviarHeartbeat() {
+        if (conexoes.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> conexoes.forEach(emitter -> enviar(emitter, SseEmitter.event().comment("ping"))));
+    }
+
+    /**
+     * Encerra conexoes e a thread de notificacao no desligamento.
+     */
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        conexoes.forEach(SseEmitter::complete);
+        conexoes.clear();
+    }
+
+    /**
+     * Recalcula o saldo da pessoa e transmite a notificacao a todas as conexoes.
+     *
+     * @param pessoaId pessoa afetada
+     */
+    private void notificar(Long pessoaId) {
+        Pendente pendente = pendentes.remove(pessoaId);
+        if (pendente == null) {
+            return;
+        }
+        // Logo apos o commit a replica pode nao ter a escrita: o recalculo le do principal.
+        try (DataSourceRoteador.LeituraPrincipal principal = DataSourceRoteador.lerDoPrincipal()) {
+            RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(pessoaId, pendente.competencia());
+            BigDecimal saldo = relatorio.totalGeralSaldo();
+            NotificacaoSaldoDto notificacao = new NotificacaoSaldoDto(
+                    pendente.tipo(),
+                    pessoaId,
+                    relatorio.nomePessoa(),
+                    pendente.competencia(),
+                    pendente.saldoAnterior(),
+                    saldo,
+                    pendente.saldoAnterior() != null ? saldo.subtract(pendente.saldoAnterior()) : null);
+
+            SseEmitter.SseEventBuilder evento = SseEmitter.event()
+                    .name(EVENTO_SALDO)
+                    .data(notificacao, MediaType.APPLICATION_JSON);
+            conexoes.forEach(emitter -> enviar(emitter, evento));
+            log.debug("Notificacao de saldo enviada. pessoaId={}, conexoes={}", pessoaId, conexoes.size());
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao preparar notificacao de saldo. pessoaId={}", pessoaId, ex);
+        }
+    }
+
+    /**
+     * Escreve evento em uma conexao, descartando-a quando o cliente ja desconectou.
+     *
+     * @param emitter conexao de destino
+     * @param evento  evento a enviar
+     */
+    private void enviar(SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException ex) {
+            conexoes.remove(emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    /**
+     * Alteracao aguardando recalculo.
+     *
+     * @param tipo          tipo do registro alterado
+     * @param competencia   competencia do saldo
+     * @param saldoAnterior saldo em cache antes da alteracao
+     */
+    private record Pendente(TipoRegistro tipo, YearMonth competencia, BigDecimal saldoAnterior) {
+    }
+}
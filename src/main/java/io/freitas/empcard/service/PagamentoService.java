@@ -1,6 +1,10 @@
 package io.freitas.empcard.service;
 
+import io.freitas.empcard.config.ListagemProperties;
 import io.freitas.empcard.dto.PagamentoFormDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
 import io.freitas.empcard.exception.RecursoNaoEncontradoException;
 import io.freitas.empcard.exception.RegraDeNegocioException;
 import io.freitas.empcard.model.Cartao;
@@ -11,6 +15,8 @@ import io.freitas.empcard.util.TextoUtils;
 import io.freitas.empcard.util.ValorMonetarioUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +34,8 @@ public class PagamentoService {
     private final PagamentoRepository pagamentoRepository;
     private final PessoaService pessoaService;
     private final CartaoService cartaoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListagemProperties listagemProperties;
 
     /**
      * Lista pagamentos para consulta geral ordenada por data mais recente.
@@ -36,10 +44,36 @@ public class PagamentoService {
      */
     @Transactional(readOnly = true)
     public List<Pagamento> listarTodos() {
-        log.info("Listando todos os pagamentos");
+        log.debug("Listando todos os pagamentos");
         return pagamentoRepository.findAllByOrderByDataPagamentoDescIdDesc();
     }
 
+    /**
+     * Conta pagamentos sem carregar as entidades.
+     *
+     * @return quantidade de pagamentos
+     */
+    @Transactional(readOnly = true)
+    public long contar() {
+        return pagamentoRepository.count();
+    }
+
+    /**
+     * Lista pagamentos em lotes por cursor, na mesma ordem de {@link #listarTodos()}, para a tela de listagem.
+     *
+     * <p>Cada lote e lido sob demanda durante a renderizacao, fora de transacao, com pessoa e cartao ja
+     * carregados.</p>
+     *
+     * @return listagem preguicosa em ordem decrescente de data
+     */
+    public ListagemEmLotes<Pagamento> listarEmLotes() {
+        Limit limite = Limit.of(listagemProperties.tamanhoLote());
+        return new ListagemEmLotes<>(ultimo -> ultimo == null
+                ? pagamentoRepository.findAllByOrderByDataPagamentoDescIdDesc(limite)
+                : pagamentoRepository.listarAnterioresA(ultimo.getDataPagamento(), ultimo.getId(), limite),
+                limite.max());
+    }
+
     /**
      * Busca pagamento por id com validacao de existencia.
      *
@@ -48,7 +82,7 @@ public class PagamentoService {
      */
     @Transactional(readOnly = true)
     public Pagamento buscarPorId(Long id) {
-        log.info("Buscando pagamento por id={}", id);
+        log.debug("Buscando pagamento por id={}", id);
         return pagamentoRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Pagamento nao encontrado para id " + id));
     }
@@ -73,6 +107,7 @@ public class PagamentoService {
         aplicarDados(form, pagamento, pessoa, cartao, valor);
 
         Pagamento salvo = pagamentoRepository.save(pagamento);
+        publicarAlteracao(salvo, OperacaoRegistro.CRIACAO);
         log.info("Pagamento criado com sucesso. id={}, pessoaId={}, cartaoId={}", salvo.getId(), pessoa.getId(), cartao.getId());
         return salvo;
     }
@@ -95,9 +130,17 @@ public class PagamentoService {
             throw new RegraDeNegocioException("Valor do pagamento deve ser maior que zero");
         }
 
+        // Quando o pagamento troca de pessoa ou cartao, o vinculo anterior tambem precisa ser recalculado.
+        Long pessoaAnteriorId = pagamento.getPessoa().getId();
+        Long cartaoAnteriorId = pagamento.getCartao().getId();
         aplicarDados(form, pagamento, pessoa, cartao, valor);
 
         Pagamento salvo = pagamentoRepository.save(pagamento);
+        publicarAlteracao(salvo, OperacaoRegistro.ATUALIZACAO);
+        if (!pessoaAnteriorId.equals(pessoa.getId()) || !cartaoAnteriorId.equals(cartao.getId())) {
+            eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                    TipoRegistro.PAGAMENTO, OperacaoRegistro.ATUALIZACAO, salvo.getId(), pessoaAnteriorId, cartaoAnteriorId));
+        }
         log.info("Pagamento atualizado com sucesso. id={}", salvo.getId());
         return salvo;
     }
@@ -111,6 +154,7 @@ public class PagamentoService {
     public void excluir(Long id) {
         Pagamento pagamento = buscarPorId(id);
         pagamentoRepository.delete(pagamento);
+        publicarAlteracao(pagamento, OperacaoRegistro.EXCLUSAO);
         log.info("Pagamento excluido com sucesso. id={}", id);
     }
 
@@ -131,6 +175,22 @@ public class PagamentoService {
         return form;
     }
 
+    /**
+     * Publica evento de alteracao do pagamento para a pessoa e o cartao vinculados.
+     *
+     * @param pagamento pagamento alterado
+     * @param operacao  operacao executada
+     */
+    private void publicarAlteracao(Pagamento pagamento, OperacaoRegistro operacao) {
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                TipoRegistro.PAGAMENTO,
+                operacao,
+                pagamento.getId(),
+                pagamento.getPessoa().getId(),
+                pagamento.getCartao().getId()
+        ));
+    }
+
     /**
      * Copia dados normalizados para entidade de pagamento.
      *
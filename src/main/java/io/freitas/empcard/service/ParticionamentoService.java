@@ -0,0 +1,76 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.ParticionamentoProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+import java.util.List;
+
+/**
+ * Mantem particoes anuais futuras de {@code lancamentos} e {@code pagamentos} criadas com antecedencia.
+ *
+ * <p>As tabelas sao particionadas por ano da data (migration V4). Linhas de um ano sem particao caem na
+ * particao padrao e funcionam, mas perdem a poda por data; por isso o ano corrente e os proximos
+ * {@code anos-a-frente} sao garantidos no startup e mensalmente. A funcao {@code criar_particoes_anuais}
+ * e idempotente e move para a particao nova as linhas do ano que estivessem na padrao.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParticionamentoService {
+
+    private static final List<String> TABELAS = List.of("lancamentos", "pagamentos");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ParticionamentoProperties properties;
+
+    /**
+     * Garante as particoes assim que a aplicacao sobe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        executarAgendado();
+    }
+
+    /**
+     * Execucao periodica que cria as particoes dos anos seguintes antes da virada.
+     */
+    @Scheduled(cron = "${empcard.particionamento.cron:0 0 4 1 * *}")
+    public void executarAgendado() {
+        if (!properties.habilitado()) {
+            log.debug("Criacao de particoes ignorada: desabilitada por configuracao");
+            return;
+        }
+        int anoAtual = Year.now().getValue();
+        criarParticoes(anoAtual, anoAtual + Math.max(0, properties.anosAFrente()));
+    }
+
+    /**
+     * Cria as particoes anuais ausentes de cada tabela no intervalo informado.
+     *
+     * @param anoInicial primeiro ano
+     * @param anoFinal   ultimo ano
+     * @return quantidade de particoes criadas
+     */
+    public int criarParticoes(int anoInicial, int anoFinal) {
+        int total = 0;
+        for (String tabela : TABELAS) {
+            try {
+                Integer criadas = jdbcTemplate.queryForObject(
+                        "select criar_particoes_anuais(?, ?, ?)", Integer.class, tabela, anoInicial, anoFinal);
+                total += criadas != null ? criadas : 0;
+            } catch (DataAccessException ex) {
+                log.warn("Falha ao criar particoes anuais. tabela={}, anos={}-{}", tabela, anoInicial, anoFinal, ex);
+            }
+        }
+        log.info("Particoes anuais verificadas. anos={}-{}, criadas={}", anoInicial, anoFinal, total);
+        return total;
+    }
+}
@@ -1,9 +1,11 @@
 package io.freitas.empcard.service;
 
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import io.freitas.empcard.dto.FaturaCartaoDto;
 import io.freitas.empcard.dto.RelatorioPessoaDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
@@ -14,8 +16,12 @@ import java.time.format.DateTimeFormatter;
 
 /**
  * Converte relatorios renderizados em HTML para PDF.
+ *
+ * <p>Criado sob demanda ({@link Lazy}): os consumidores recebem um {@code ObjectProvider}, de modo que o
+ * openhtmltopdf so e carregado no primeiro PDF gerado e nao pesa no startup.</p>
  */
 @Slf4j
+@Lazy
 @Service
 @RequiredArgsConstructor
 public class PdfRelatorioService {
@@ -33,29 +39,60 @@ public class PdfRelatorioService {
      */
     public byte[] gerarPdfRelatorioPessoa(RelatorioPessoaDto relatorio) {
         try {
-            Context contexto = new Context();
-            contexto.setVariable("relatorio", relatorio);
-            contexto.setVariable("formatacaoService", formatacaoService);
-            contexto.setVariable("dataHoraImpressao", LocalDateTime.now().format(FORMATADOR_DATA_HORA_IMPRESSAO));
-
             // Renderiza o template HTML dedicado para PDF com os dados da competencia.
-            String html = templateEngine.process("relatorios/pessoa-pdf", contexto);
-
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-
-            // Converte HTML em PDF preservando layout de tabela para envio ao devedor.
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.withHtmlContent(html, null);
-            builder.toStream(output);
-            builder.run();
-
-            log.info("PDF de relatorio gerado com sucesso. pessoaId={}, competencia={}",
+            byte[] arquivo = renderizar("relatorios/pessoa-pdf", relatorio);
+            log.debug("PDF de relatorio gerado com sucesso. pessoaId={}, competencia={}",
                     relatorio.pessoaId(), relatorio.competencia());
-            return output.toByteArray();
+            return arquivo;
         } catch (Exception ex) {
             log.error("Falha ao gerar PDF do relatorio. pessoaId={}, competencia={}",
                     relatorio.pessoaId(), relatorio.competencia(), ex);
             throw new IllegalStateException("Nao foi possivel gerar o PDF do relatorio");
         }
     }
+
+    /**
+     * Gera PDF da fatura de um cartao com as compras de todas as pessoas.
+     *
+     * @param fatura dados consolidados da fatura
+     * @return bytes do arquivo PDF
+     */
+    public byte[] gerarPdfFaturaCartao(FaturaCartaoDto fatura) {
+        try {
+            byte[] arquivo = renderizar("relatorios/cartao-pdf", fatura);
+            log.debug("PDF de fatura gerado com sucesso. cartaoId={}, competencia={}",
+                    fatura.cartaoId(), fatura.competencia());
+            return arquivo;
+        } catch (Exception ex) {
+            log.error("Falha ao gerar PDF da fatura. cartaoId={}, competencia={}",
+                    fatura.cartaoId(), fatura.competencia(), ex);
+            throw new IllegalStateException("Nao foi possivel gerar o PDF da fatura");
+        }
+    }
+
+    /**
+     * Processa o template com os dados informados e converte o HTML resultante em PDF.
+     *
+     * @param template  template Thymeleaf dedicado ao PDF
+     * @param relatorio objeto exposto ao template como {@code relatorio}
+     * @return bytes do arquivo PDF
+     * @throws Exception falha de renderizacao ou conversao
+     */
+    private byte[] renderizar(String template, Object relatorio) throws Exception {
+        Context contexto = new Context();
+        contexto.setVariable("relatorio", relatorio);
+        contexto.setVariable("formatacaoService", formatacaoService);
+        contexto.setVariable("dataHoraImpressao", LocalDateTime.now().format(FORMATADOR_DATA_HORA_IMPRESSAO));
+
+        String html = templateEngine.process(template, contexto);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Converte HTML em PDF preservando layout de tabela para envio ao devedor.
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.withHtmlContent(html, null);
+        builder.toStream(output);
+        builder.run();
+        return output.toByteArray();
+    }
 }
@@ -1,6 +1,10 @@
 package io.freitas.empcard.service;
 
+import io.freitas.empcard.config.ListagemProperties;
 import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
 import io.freitas.empcard.exception.RecursoNaoEncontradoException;
 import io.freitas.empcard.exception.RegraDeNegocioException;
 import io.freitas.empcard.model.Pessoa;
@@ -11,6 +15,8 @@ import io.freitas.empcard.util.DocumentoUtils;
 import io.freitas.empcard.util.TextoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +35,8 @@ public class PessoaService {
     private final PessoaRepository pessoaRepository;
     private final LancamentoRepository lancamentoRepository;
     private final PagamentoRepository pagamentoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListagemProperties listagemProperties;
 
     /**
      * Lista todas as pessoas ordenadas por nome para facilitar a navegacao no cadastro.
@@ -37,12 +45,28 @@ public class PessoaService {
      */
     @Transactional(readOnly = true)
     public List<Pessoa> listarTodos() {
-        log.info("Listando todas as pessoas cadastradas");
+        log.debug("Listando todas as pessoas cadastradas");
         return pessoaRepository.findAll().stream()
                 .sorted(Comparator.comparing(Pessoa::getNome, Comparator.nullsLast(String::compareTo)))
                 .toList();
     }
 
+    /**
+     * Lista pessoas em lotes por cursor (nome, id) para a tela de listagem.
+     *
+     * <p>Cada lote e lido sob demanda durante a renderizacao, fora de transacao; a ordem de nomes segue a
+     * collation do banco.</p>
+     *
+     * @return listagem preguicosa em ordem de nome
+     */
+    public ListagemEmLotes<Pessoa> listarEmLotes() {
+        Limit limite = Limit.of(listagemProperties.tamanhoLote());
+        return new ListagemEmLotes<>(ultima -> ultima == null
+                ? pessoaRepository.findAllByOrderByNomeAscIdAsc(limite)
+                : pessoaRepository.listarPosterioresA(ultima.getNome(), ultima.getId(), limite),
+                limite.max());
+    }
+
     /**
      * Lista apenas pessoas ativas para uso em combos de cadastro de lancamentos e pagamentos.
      *
@@ -50,7 +74,7 @@ public class PessoaService {
      */
     @Transactional(readOnly = true)
     public List<Pessoa> listarAtivos() {
-        log.info("Listando pessoas ativas");
+        log.debug("Listando pessoas ativas");
         return pessoaRepository.findAll().stream()
                 .filter(Pessoa::isAtivo)
                 .sorted(Comparator.comparing(Pessoa::getNome, Comparator.nullsLast(String::compareTo)))
@@ -65,7 +89,7 @@ public class PessoaService {
      */
     @Transactional(readOnly = true)
     public Pessoa buscarPorId(Long id) {
-        log.info("Buscando pessoa por id={}", id);
+        log.debug("Buscando pessoa por id={}", id);
         return pessoaRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Pessoa nao encontrada para id " + id));
     }
@@ -85,6 +109,7 @@ public class PessoaService {
         aplicarDados(form, pessoa, cpf);
 
         Pessoa salvo = pessoaRepository.save(pessoa);
+        publicarAlteracao(salvo.getId(), OperacaoRegistro.CRIACAO);
         log.info("Pessoa criada com sucesso. id={}, cpf={}", salvo.getId(), salvo.getCpf());
         return salvo;
     }
@@ -105,6 +130,7 @@ public class PessoaService {
         aplicarDados(form, pessoa, cpf);
 
         Pessoa salvo = pessoaRepository.save(pessoa);
+        publicarAlteracao(salvo.getId(), OperacaoRegistro.ATUALIZACAO);
         log.info("Pessoa atualizada com sucesso. id={}", salvo.getId());
         return salvo;
     }
@@ -119,6 +145,7 @@ public class PessoaService {
         Pessoa pessoa = buscarPorId(id);
         pessoa.setAtivo(!pessoa.isAtivo());
         pessoaRepository.save(pessoa);
+        publicarAlteracao(pessoa.getId(), OperacaoRegistro.ATUALIZACAO);
         log.info("Status da pessoa alterado. id={}, ativo={}", pessoa.getId(), pessoa.isAtivo());
     }
 
@@ -137,6 +164,7 @@ public class PessoaService {
         }
 
         pessoaRepository.delete(pessoa);
+        publicarAlteracao(id, OperacaoRegistro.EXCLUSAO);
         log.info("Pessoa excluida com sucesso. id={}", id);
     }
 
@@ -185,6 +213,16 @@ public class PessoaService {
         }
     }
 
+    /**
+     * Publica evento de alteracao para que caches e consultas derivadas sejam atualizados apos o commit.
+     *
+     * @param id       identificador da pessoa
+     * @param operacao operacao executada
+     */
+    private void publicarAlteracao(Long id, OperacaoRegistro operacao) {
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(TipoRegistro.PESSOA, operacao, id, id, null));
+    }
+
     /**
      * Aplica transformacoes de negocio e normalizacao de texto antes de persistir.
      *
@@ -0,0 +1,229 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoRelatorioDto;
+import io.freitas.empcard.dto.LancamentoRelatorioDto;
+import io.freitas.empcard.dto.ProjecaoCartaoDto;
+import io.freitas.empcard.dto.ProjecaoRecebiveisDto;
+import io.freitas.empcard.exception.RegraDeNegocioException;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.CartaoRepository;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PessoaRepository;
+import io.freitas.empcard.util.DataCompetenciaUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Projecao de recebiveis dos proximos meses por pessoa e cartao e da carteira inteira.
+ *
+ * <p>Uma unica passada pelos lancamentos ativos alimenta acumuladores em centavos ({@code long[]} por par
+ * pessoa x cartao): cada lancamento soma seu valor apenas nos meses do horizonte em que e cobrado, sem
+ * simular competencia a competencia. Parcelas usam o mesmo arredondamento do relatorio (ajuste de centavos na
+ * ultima). Lancamentos desativados nao geram cobrancas futuras.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjecaoRecebiveisService {
+
+    /**
+     * Horizonte maximo aceito, em meses.
+     */
+    public static final int MESES_MAXIMO = 60;
+
+    private final LancamentoRepository lancamentoRepository;
+    private final CartaoRepository cartaoRepository;
+    private final PessoaRepository pessoaRepository;
+
+    /**
+     * Projeta os recebiveis a partir da competencia inicial.
+     *
+     * @param inicio primeira competencia projetada
+     * @param meses  quantidade de competencias (1 a {@link #MESES_MAXIMO})
+     * @return curva da carteira e valores por pessoa e cartao
+     */
+    @Transactional(readOnly = true)
+    public ProjecaoRecebiveisDto projetar(YearMonth inicio, int meses) {
+        if (meses < 1 || meses > MESES_MAXIMO) {
+            throw new RegraDeNegocioException("Horizonte da projecao deve ser de 1 a " + MESES_MAXIMO + " meses");
+        }
+        long inicioCalculo = System.nanoTime();
+        YearMonth fim = inicio.plusMonths(meses - 1L);
+
+        Map<Long, CartaoRelatorioDto> cartoes = cartaoRepository.listarTodosParaRelatorio().stream()
+                .collect(Collectors.toMap(CartaoRelatorioDto::id, Function.identity()));
+        // Avulso comprado no mes anterior ao inicio ainda pode cair na primeira competencia (apos o fechamento).
+        List<LancamentoRelatorioDto> lancamentos = new ArrayList<>(lancamentoRepository.listarAvulsosAtivosNoPeriodo(
+                TipoLancamento.AVULSO, inicio.minusMonths(1).atDay(1), fim.plusMonths(1).atDay(1)));
+        lancamentos.addAll(lancamentoRepository.listarRecorrentesAtivos(TipoLancamento.AVULSO, fim.plusMonths(1).atDay(1)));
+
+        Map<ChaveCarteira, long[]> porPar = new HashMap<>();
+        long[] curva = new long[meses];
+        for (LancamentoRelatorioDto lancamento : lancamentos) {
+            CartaoRelatorioDto cartao = cartoes.get(lancamento.cartaoId());
+            YearMonth competenciaInicial = DataCompetenciaUtils.calcularCompetenciaInicial(
+                    lancamento.dataCompra(), cartao.diaFechamento());
+            long[] valores = porPar.computeIfAbsent(
+                    new ChaveCarteira(lancamento.pessoaId(), lancamento.cartaoId()), chave -> new long[meses]);
+            projetarLancamento(lancamento, competenciaInicial, inicio, fim, valores, curva);
+        }
+
+        Map<Long, String> nomes = pessoaRepository.findAll().stream()
+                .collect(Collectors.toMap(Pessoa::getId, Pessoa::getNome));
+        List<ProjecaoCartaoDto> linhas = new ArrayList<>();
+        porPar.forEach((chave, valores) -> {
+            long total = somar(valores);
+            if (total > 0) {
+                linhas.add(new ProjecaoCartaoDto(chave.pessoaId(), nomes.get(chave.pessoaId()), chave.cartaoId(),
+                        cartoes.get(chave.cartaoId()).identificacao(), paraReais(valores), reais(total)));
+            }
+        });
+        linhas.sort(Comparator.comparing(ProjecaoCartaoDto::total).reversed()
+                .thenComparing(ProjecaoCartaoDto::nomePessoa));
+
+        List<YearMonth> competencias = new ArrayList<>(meses);
+        for (int i = 0; i < meses; i++) {
+            competencias.add(inicio.plusMonths(i));
+        }
+
+        log.info("Projecao de recebiveis calculada. inicio={}, meses={}, lancamentos={}, linhas={}, tempoMs={}",
+                inicio, meses, lancamentos.size(), linhas.size(), (System.nanoTime() - inicioCalculo) / 1_000_000);
+        return new ProjecaoRecebiveisDto(competencias, paraReais(curva), reais(somar(curva)), linhas);
+    }
+
+    /**
+     * Soma as cobrancas do lancamento que caem no horizonte.
+     *
+     * @param lancamento         lancamento ativo
+     * @param competenciaInicial competencia da primeira cobranca
+     * @param inicio             primeira competencia do horizonte
+     * @param fim                ultima competencia do horizonte
+     * @param valores            acumulador do par pessoa x cartao, em centavos
+     * @param curva              acumulador da carteira, em centavos
+     */
+    private void projetarLancamento(LancamentoRelatorioDto lancamento,
+                                    YearMonth competenciaInicial,
+                                    YearMonth inicio,
+                                    YearMonth fim,
+                                    long[] valores,
+                                    long[] curva) {
+        switch (lancamento.tipo()) {
+            case AVULSO -> acumular(competenciaInicial, centavos(lancamento.valorTotal()), inicio, fim, valores, curva);
+            case PARCELADO -> {
+                int parcelas = lancamento.quantidadeParcelas();
+                long base = centavos(RelatorioService.calcularValorParcela(lancamento.valorTotal(), parcelas, 1));
+                long ultima = centavos(RelatorioService.calcularValorParcela(lancamento.valorTotal(), parcelas, parcelas));
+                int primeira = (int) Math.max(0, ChronoUnit.MONTHS.between(competenciaInicial, inicio));
+                for (int parcela = primeira; parcela < parcelas; parcela++) {
+                    YearMonth competencia = competenciaInicial.plusMonths(parcela);
+                    if (competencia.isAfter(fim)) {
+                        break;
+                    }
+                    acumular(competencia, parcela == parcelas - 1 ? ultima : base, inicio, fim, valores, curva);
+                }
+            }
+            case FIXO -> {
+                long valor = centavos(lancamento.valorTotal());
+                YearMonth ultimaCobranca = lancamento.dataFimFixo() == null
+                        ? fim
+                        : YearMonth.from(lancamento.dataFimFixo());
+                YearMonth competencia = competenciaInicial.isBefore(inicio) ? inicio : competenciaInicial;
+                while (!competencia.isAfter(fim) && !competencia.isAfter(ultimaCobranca)) {
+                    acumular(competencia, valor, inicio, fim, valores, curva);
+                    competencia = competencia.plusMonths(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Soma valor na competencia quando ela pertence ao horizonte.
+     *
+     * @param competencia competencia da cobranca
+     * @param centavos    valor em centavos
+     * @param inicio      primeira competencia do horizonte
+     * @param fim         ultima competencia do horizonte
+     * @param valores     acumulador do par
+     * @param curva       acumulador da carteira
+     */
+    private void acumular(YearMonth competencia, long centavos, YearMonth inicio, YearMonth fim,
+                          long[] valores, long[] curva) {
+        if (competencia.isBefore(inicio) || competencia.isAfter(fim)) {
+            return;
+        }
+        int indice = (int) ChronoUnit.MONTHS.between(inicio, competencia);
+        valores[indice] += centavos;
+        curva[indice] += centavos;
+    }
+
+    /**
+     * Converte valor monetario em centavos.
+     *
+     * @param valor valor com ate duas casas
+     * @return centavos
+     */
+    private long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Converte centavos em reais com duas casas.
+     *
+     * @param centavos valor em centavos
+     * @return valor em reais
+     */
+    private BigDecimal reais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Converte acumulador em lista de valores em reais.
+     *
+     * @param centavos acumulador por competencia
+     * @return valores em reais
+     */
+    private List<BigDecimal> paraReais(long[] centavos) {
+        List<BigDecimal> valores = new ArrayList<>(centavos.length);
+        for (long valor : centavos) {
+            valores.add(reais(valor));
+        }
+        return valores;
+    }
+
+    /**
+     * Soma acumulador.
+     *
+     * @param centavos valores por competencia
+     * @return total em centavos
+     */
+    private long somar(long[] centavos) {
+        long total = 0;
+        for (long valor : centavos) {
+            total += valor;
+        }
+        return total;
+    }
+
+    /**
+     * Par pessoa x cartao da carteira.
+     *
+     * @param pessoaId identificador da pessoa
+     * @param cartaoId identificador do cartao
+     */
+    private record ChaveCarteira(Long pessoaId, Long cartaoId) {
+    }
+}
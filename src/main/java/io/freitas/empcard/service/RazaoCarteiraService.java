@@ -0,0 +1,357 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.config.RazaoColunarProperties;
+import io.freitas.empcard.dto.CartaoRelatorioDto;
+import io.freitas.empcard.dto.ExposicaoBancoDto;
+import io.freitas.empcard.dto.MemoriaRazaoColunarDto;
+import io.freitas.empcard.dto.ResumoCarteiraDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.exception.RegraDeNegocioException;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.CartaoRepository;
+import io.freitas.empcard.util.DataCompetenciaUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Agregacoes da carteira inteira (saldo em aberto, exposicao por banco e fluxo mensal) sobre o
+ * {@link RazaoColunar} em memoria, sem hidratar lancamentos e pagamentos pelo JPA.
+ *
+ * <p>O razao e carregado no startup por um cursor JDBC com fetch size limitado, em ordem de id. Depois disso
+ * cada escrita confirmada regrava apenas o registro afetado, relendo-o do banco; alterar um cartao rele os
+ * lancamentos dele, pois o dia de fechamento define a competencia de cobranca. Alteracoes que chegam durante
+ * uma carga sao reaplicadas sobre o razao novo, como nos indices de busca.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RazaoCarteiraService {
+
+    /**
+     * Competencias do fluxo mensal, terminando na de referencia.
+     */
+    public static final int MESES_FLUXO = 12;
+
+    private static final String SQL_LANCAMENTOS = """
+            select l.id, l.pessoa_id, l.cartao_id, l.tipo, l.valor_total, l.quantidade_parcelas, l.data_compra,
+                   l.data_fim_fixo, c.dia_fechamento
+            from lancamentos l
+            join cartoes c on c.id = l.cartao_id
+            """;
+    private static final String SQL_PAGAMENTOS = """
+            select p.id, p.pessoa_id, p.cartao_id, p.data_pagamento, p.valor
+            from pagamentos p
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CartaoRepository cartaoRepository;
+    private final RazaoColunarProperties properties;
+
+    private final Queue<AlteracaoRegistroEvento> alteracoesDuranteCarga = new ConcurrentLinkedQueue<>();
+    private volatile RazaoColunar razao = new RazaoColunar();
+    private volatile boolean carregando;
+    private volatile LocalDateTime carregadoEm;
+    private volatile Long tempoCargaMs;
+
+    /**
+     * Carrega lancamentos e pagamentos em um razao novo e o troca de uma vez pelo atual.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregar() {
+        if (!properties.habilitado()) {
+            log.debug("Carga do razao colunar ignorada: desabilitada por configuracao");
+            return;
+        }
+        long inicio = System.nanoTime();
+        carregando = true;
+        alteracoesDuranteCarga.clear();
+        // Eventos anteriores a carga ja foram descartados: ler da replica atrasada os perderia de vez.
+        try (DataSourceRoteador.LeituraPrincipal principal = DataSourceRoteador.lerDoPrincipal()) {
+            RazaoColunar novo = new RazaoColunar();
+            // Em ordem de id cada linha entra no fim das colunas, sem deslocamentos.
+            lerLancamentos(novo, SQL_LANCAMENTOS + " order by l.id");
+            lerPagamentos(novo, SQL_PAGAMENTOS + " order by p.id");
+            razao = novo;
+        } finally {
+            carregando = false;
+        }
+
+        AlteracaoRegistroEvento pendente;
+        while ((pendente = alteracoesDuranteCarga.poll()) != null) {
+            aplicar(razao, pendente);
+        }
+        tempoCargaMs = (System.nanoTime() - inicio) / 1_000_000;
+        carregadoEm = LocalDateTime.now();
+        RazaoColunar.Memoria memoria = razao.memoria();
+        log.info("Razao colunar carregado. lancamentos={}, pagamentos={}, bytes={}, tempoMs={}",
+                memoria.lancamentos(), memoria.pagamentos(), memoria.bytesAlocados(), tempoCargaMs);
+    }
+
+    /**
+     * Calcula saldo em aberto, exposicao por banco e fluxo dos ultimos {@link #MESES_FLUXO} meses.
+     *
+     * @param competencia competencia de referencia
+     * @return resumo da carteira
+     */
+    @Transactional(readOnly = true)
+    public ResumoCarteiraDto resumir(YearMonth competencia) {
+        if (!properties.habilitado()) {
+            throw new RegraDeNegocioException("Razao colunar desabilitado por configuracao");
+        }
+        RazaoColunar atual = razao;
+        long inicio = System.nanoTime();
+        int indice = RazaoColunar.indice(competencia);
+        RazaoColunar.Saldos saldos = atual.saldos(indice);
+        RazaoColunar.Fluxo fluxo = atual.fluxo(indice - MESES_FLUXO + 1, MESES_FLUXO);
+        long saldoEmAberto = 0;
+        for (long saldo : saldos.porPessoa()) {
+            if (saldo > 0) {
+                saldoEmAberto += saldo;
+            }
+        }
+        long calculoMicros = (System.nanoTime() - inicio) / 1_000;
+
+        List<YearMonth> competencias = new ArrayList<>(MESES_FLUXO);
+        for (int i = MESES_FLUXO - 1; i >= 0; i--) {
+            competencias.add(competencia.minusMonths(i));
+        }
+        log.debug("Resumo da carteira calculado. competencia={}, calculoMicros={}", competencia, calculoMicros);
+        return new ResumoCarteiraDto(competencia, reais(saldoEmAberto), exposicaoPorBanco(saldos.porCartao()),
+                competencias, paraReais(fluxo.cobrancas()), paraReais(fluxo.recebimentos()), calculoMicros);
+    }
+
+    /**
+     * Ocupacao atual do razao e custo projetado por milhao de linhas.
+     *
+     * @return relatorio de memoria
+     */
+    public MemoriaRazaoColunarDto memoria() {
+        RazaoColunar.Memoria memoria = razao.memoria();
+        return new MemoriaRazaoColunarDto(
+                properties.habilitado(),
+                memoria.lancamentos(),
+                memoria.pagamentos(),
+                memoria.bytesAlocados(),
+                RazaoColunar.BYTES_POR_LANCAMENTO * 1_000_000L,
+                RazaoColunar.BYTES_POR_PAGAMENTO * 1_000_000L,
+                carregadoEm,
+                tempoCargaMs);
+    }
+
+    /**
+     * Regrava o registro alterado apos o commit.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @TransactionalEventListener
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        if (!properties.habilitado()) {
+            return;
+        }
+        if (carregando) {
+            alteracoesDuranteCarga.add(evento);
+        }
+        aplicar(razao, evento);
+    }
+
+    /**
+     * Regrava o registro alterado em outra instancia.
+     *
+     * @param evento alteracao recebida pelo barramento de invalidacao
+     */
+    @EventListener
+    public void aoAlterarRegistroRemoto(AlteracaoRemotaEvento evento) {
+        aoAlterarRegistro(evento.alteracao());
+    }
+
+    /**
+     * Recarrega o razao quando alteracoes remotas podem ter sido perdidas.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(AlteracoesRemotasPerdidasEvento.class)
+    public void aoPerderAlteracoesRemotas() {
+        carregar();
+    }
+
+    /**
+     * Aplica alteracao no razao informado, relendo o registro do banco.
+     *
+     * @param alvo   razao a atualizar
+     * @param evento alteracao confirmada
+     */
+    private void aplicar(RazaoColunar alvo, AlteracaoRegistroEvento evento) {
+        boolean exclusao = evento.operacao() == OperacaoRegistro.EXCLUSAO;
+        switch (evento.tipo()) {
+            case LANCAMENTO -> {
+                if (exclusao || lerLancamentos(alvo, SQL_LANCAMENTOS + " where l.id = ?", evento.registroId()) == 0) {
+                    alvo.removerLancamento(evento.registroId());
+                }
+            }
+            case PAGAMENTO -> {
+                if (exclusao || lerPagamentos(alvo, SQL_PAGAMENTOS + " where p.id = ?", evento.registroId()) == 0) {
+                    alvo.removerPagamento(evento.registroId());
+                }
+            }
+            case CARTAO -> {
+                if (!exclusao) {
+                    // O dia de fechamento pode ter mudado a competencia de cobranca das compras do cartao.
+                    lerLancamentos(alvo, SQL_LANCAMENTOS + " where l.cartao_id = ?", evento.registroId());
+                }
+            }
+            default -> {
+                // Pessoas, usuarios e tokens nao entram no razao.
+            }
+        }
+    }
+
+    /**
+     * Le lancamentos por cursor e grava cada linha no razao.
+     *
+     * @param alvo       razao a preencher
+     * @param sql        consulta de lancamentos
+     * @param parametros parametros da consulta
+     * @return linhas lidas
+     */
+    private int lerLancamentos(RazaoColunar alvo, String sql, Object... parametros) {
+        return ler(sql, parametros, resultado -> {
+            LocalDate fimFixo = resultado.getObject("data_fim_fixo", LocalDate.class);
+            YearMonth competencia = DataCompetenciaUtils.calcularCompetenciaInicial(
+                    resultado.getObject("data_compra", LocalDate.class), resultado.getInt("dia_fechamento"));
+            alvo.gravarLancamento(
+                    resultado.getLong("id"),
+                    Math.toIntExact(resultado.getLong("pessoa_id")),
+                    Math.toIntExact(resultado.getLong("cartao_id")),
+                    RazaoColunar.indice(competencia),
+                    fimFixo == null ? RazaoColunar.SEM_FIM : RazaoColunar.indice(YearMonth.from(fimFixo)),
+                    TipoLancamento.valueOf(resultado.getString("tipo")),
+                    centavos(resultado.getBigDecimal("valor_total")),
+                    resultado.getInt("quantidade_parcelas"));
+        });
+    }
+
+    /**
+     * Le pagamentos por cursor e grava cada linha no razao.
+     *
+     * @param alvo       razao a preencher
+     * @param sql        consulta de pagamentos
+     * @param parametros parametros da consulta
+     * @return linhas lidas
+     */
+    private int lerPagamentos(RazaoColunar alvo, String sql, Object... parametros) {
+        return ler(sql, parametros, resultado -> alvo.gravarPagamento(
+                resultado.getLong("id"),
+                Math.toIntExact(resultado.getLong("pessoa_id")),
+                Math.toIntExact(resultado.getLong("cartao_id")),
+                RazaoColunar.indice(YearMonth.from(resultado.getObject("data_pagamento", LocalDate.class))),
+                centavos(resultado.getBigDecimal("valor"))));
+    }
+
+    /**
+     * Percorre o resultado com fetch size limitado, sem materializar a lista de linhas.
+     *
+     * @param sql        consulta
+     * @param parametros parametros da consulta
+     * @param linha      tratamento de cada linha
+     * @return linhas lidas
+     */
+    private int ler(String sql, Object[] parametros, RowCallbackHandler linha) {
+        int[] lidas = {0};
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement comando = conexao.prepareStatement(sql);
+            comando.setFetchSize(properties.tamanhoLoteLeitura());
+            for (int i = 0; i < parametros.length; i++) {
+                comando.setObject(i + 1, parametros[i]);
+            }
+            return comando;
+        }, (RowCallbackHandler) resultado -> {
+            linha.processRow(resultado);
+            lidas[0]++;
+        });
+        return lidas[0];
+    }
+
+    /**
+     * Soma o saldo dos cartoes por banco emissor.
+     *
+     * @param porCartao saldo em centavos indexado pelo id do cartao
+     * @return exposicao por banco, do maior para o menor saldo
+     */
+    private List<ExposicaoBancoDto> exposicaoPorBanco(long[] porCartao) {
+        Map<String, long[]> porBanco = new LinkedHashMap<>();
+        for (CartaoRelatorioDto cartao : cartaoRepository.listarTodosParaRelatorio()) {
+            int id = Math.toIntExact(cartao.id());
+            if (id >= porCartao.length || porCartao[id] == 0) {
+                continue;
+            }
+            long[] acumulado = porBanco.computeIfAbsent(Objects.requireNonNullElse(cartao.banco(), "Sem banco"),
+                    banco -> new long[2]);
+            acumulado[0]++;
+            acumulado[1] += porCartao[id];
+        }
+        return porBanco.entrySet().stream()
+                .map(banco -> new ExposicaoBancoDto(banco.getKey(), (int) banco.getValue()[0], reais(banco.getValue()[1])))
+                .sorted(Comparator.comparing(ExposicaoBancoDto::saldo).reversed()
+                        .thenComparing(ExposicaoBancoDto::banco))
+                .toList();
+    }
+
+    /**
+     * Converte valor monetario em centavos.
+     *
+     * @param valor valor com ate duas casas
+     * @return centavos
+     */
+    private static long centavos(BigDecimal valor) {
+        return valor.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Converte centavos em reais com duas casas.
+     *
+     * @param centavos valor em centavos
+     * @return valor em reais
+     */
+    private static BigDecimal reais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Converte acumulador em lista de valores em reais.
+     *
+     * @param centavos valores por competencia
+     * @return valores em reais
+     */
+    private static List<BigDecimal> paraReais(long[] centavos) {
+        List<BigDecimal> valores = new ArrayList<>(centavos.length);
+        for (long valor : centavos) {
+            valores.add(reais(valor));
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,425 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.model.TipoLancamento;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Razao da carteira em memoria, em colunas de tipos primitivos: uma posicao por lancamento e por pagamento.
+ *
+ * <p>Cada coluna e um array ({@code long[]} de ids e centavos, {@code int[]} de pessoa, cartao e competencia,
+ * {@code byte[]} de tipo), entao as agregacoes sao lacos sequenciais sem objetos por linha nem
+ * {@code BigDecimal}. Competencias sao guardadas como {@code ano * 12 + mes - 1}. As linhas ficam ordenadas
+ * por id: novos registros entram no fim e a posicao de um id e achada por busca binaria. Exclusoes deslocam
+ * as colunas, custo aceitavel por serem raras. Leituras concorrem entre si e so esperam durante escritas.</p>
+ */
+final class RazaoColunar {
+
+    /**
+     * Bytes por lancamento: id, pessoa, cartao, competencia, fim do fixo, tipo, centavos e parcelas.
+     */
+    static final int BYTES_POR_LANCAMENTO = Long.BYTES + 4 * Integer.BYTES + Byte.BYTES + Long.BYTES + Short.BYTES;
+
+    /**
+     * Bytes por pagamento: id, pessoa, cartao, competencia e centavos.
+     */
+    static final int BYTES_POR_PAGAMENTO = Long.BYTES + 3 * Integer.BYTES + Long.BYTES;
+
+    /**
+     * Competencia de fim usada por fixos sem data final.
+     */
+    static final int SEM_FIM = Integer.MAX_VALUE;
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] lancamentoIds = new long[CAPACIDADE_INICIAL];
+    private int[] lancamentoPessoas = new int[CAPACIDADE_INICIAL];
+    private int[] lancamentoCartoes = new int[CAPACIDADE_INICIAL];
+    private int[] lancamentoCompetencias = new int[CAPACIDADE_INICIAL];
+    private int[] lancamentoFinsFixo = new int[CAPACIDADE_INICIAL];
+    private byte[] lancamentoTipos = new byte[CAPACIDADE_INICIAL];
+    private long[] lancamentoCentavos = new long[CAPACIDADE_INICIAL];
+    private short[] lancamentoParcelas = new short[CAPACIDADE_INICIAL];
+    private int totalLancamentos;
+
+    private long[] pagamentoIds = new long[CAPACIDADE_INICIAL];
+    private int[] pagamentoPessoas = new int[CAPACIDADE_INICIAL];
+    private int[] pagamentoCartoes = new int[CAPACIDADE_INICIAL];
+    private int[] pagamentoCompetencias = new int[CAPACIDADE_INICIAL];
+    private long[] pagamentoCentavos = new long[CAPACIDADE_INICIAL];
+    private int totalPagamentos;
+
+    private int maiorPessoaId;
+    private int maiorCartaoId;
+
+    /**
+     * Inclui ou substitui um lancamento.
+     *
+     * @param id          identificador do lancamento
+     * @param pessoaId    pessoa
+     * @param cartaoId    cartao
+     * @param competencia competencia da primeira cobranca, ja considerando o fechamento do cartao
+     * @param fimFixo     ultima competencia cobrada de um fixo ou {@link #SEM_FIM}
+     * @param tipo        tipo do lancamento
+     * @param centavos    valor total em centavos
+     * @param parcelas    quantidade de parcelas
+     */
+    void gravarLancamento(long id, int pessoaId, int cartaoId, int competencia, int fimFixo,
+                          TipoLancamento tipo, long centavos, int parcelas) {
+        lock.writeLock().lock();
+        try {
+            int posicao = Arrays.binarySearch(lancamentoIds, 0, totalLancamentos, id);
+            if (posicao < 0) {
+                posicao = -posicao - 1;
+                abrirLancamento(posicao);
+                lancamentoIds[posicao] = id;
+            }
+            lancamentoPessoas[posicao] = pessoaId;
+            lancamentoCartoes[posicao] = cartaoId;
+            lancamentoCompetencias[posicao] = competencia;
+            lancamentoFinsFixo[posicao] = fimFixo;
+            lancamentoTipos[posicao] = (byte) tipo.ordinal();
+            lancamentoCentavos[posicao] = centavos;
+            lancamentoParcelas[posicao] = (short) parcelas;
+            registrarIds(pessoaId, cartaoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui ou substitui um pagamento.
+     *
+     * @param id          identificador do pagamento
+     * @param pessoaId    pessoa
+     * @param cartaoId    cartao
+     * @param competencia competencia do pagamento
+     * @param centavos    valor em centavos
+     */
+    void gravarPagamento(long id, int pessoaId, int cartaoId, int competencia, long centavos) {
+        lock.writeLock().lock();
+        try {
+            int posicao = Arrays.binarySearch(pagamentoIds, 0, totalPagamentos, id);
+            if (posicao < 0) {
+                posicao = -posicao - 1;
+                abrirPagamento(posicao);
+                pagamentoIds[posicao] = id;
+            }
+            pagamentoPessoas[posicao] = pessoaId;
+            pagamentoCartoes[posicao] = cartaoId;
+            pagamentoCompetencias[posicao] = competencia;
+            pagamentoCentavos[posicao] = centavos;
+            registrarIds(pessoaId, cartaoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira um lancamento.
+     *
+     * @param id identificador do lancamento
+     */
+    void removerLancamento(long id) {
+        lock.writeLock().lock();
+        try {
+            int posicao = Arrays.binarySearch(lancamentoIds, 0, totalLancamentos, id);
+            if (posicao < 0) {
+                return;
+            }
+            int seguintes = totalLancamentos - posicao - 1;
+            System.arraycopy(lancamentoIds, posicao + 1, lancamentoIds, posicao, seguintes);
+            System.arraycopy(lancamentoPessoas, posicao + 1, lancamentoPessoas, posicao, seguintes);
+            System.arraycopy(lancamentoCartoes, posicao + 1, lancamentoCartoes, posicao, seguintes);
+            System.arraycopy(lancamentoCompetencias, posicao + 1, lancamentoCompetencias, posicao, seguintes);
+            System.arraycopy(lancamentoFinsFixo, posicao + 1, lancamentoFinsFixo, posicao, seguintes);
+            System.arraycopy(lancamentoTipos, posicao + 1, lancamentoTipos, posicao, seguintes);
+            System.arraycopy(lancamentoCentavos, posicao + 1, lancamentoCentavos, posicao, seguintes);
+            System.arraycopy(lancamentoParcelas, posicao + 1, lancamentoParcelas, posicao, seguintes);
+            totalLancamentos--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira um pagamento.
+     *
+     * @param id identificador do pagamento
+     */
+    void removerPagamento(long id) {
+        lock.writeLock().lock();
+        try {
+            int posicao = Arrays.binarySearch(pagamentoIds, 0, totalPagamentos, id);
+            if (posicao < 0) {
+                return;
+            }
+            int seguintes = totalPagamentos - posicao - 1;
+            System.arraycopy(pagamentoIds, posicao + 1, pagamentoIds, posicao, seguintes);
+            System.arraycopy(pagamentoPessoas, posicao + 1, pagamentoPessoas, posicao, seguintes);
+            System.arraycopy(pagamentoCartoes, posicao + 1, pagamentoCartoes, posicao, seguintes);
+            System.arraycopy(pagamentoCompetencias, posicao + 1, pagamentoCompetencias, posicao, seguintes);
+            System.arraycopy(pagamentoCentavos, posicao + 1, pagamentoCentavos, posicao, seguintes);
+            totalPagamentos--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Soma, por pessoa e por cartao, o valor cobrado ate a competencia menos o valor pago ate ela.
+     * Sem juros e multa, que dependem da simulacao mes a mes do relatorio.
+     *
+     * @param competencia ultima competencia considerada
+     * @return saldos indexados diretamente pelo id da pessoa e do cartao
+     */
+    Saldos saldos(int competencia) {
+        lock.readLock().lock();
+        try {
+            long[] porPessoa = new long[maiorPessoaId + 1];
+            long[] porCartao = new long[maiorCartaoId + 1];
+            for (int i = 0; i < totalLancamentos; i++) {
+                long cobrado = cobradoAte(i, competencia);
+                porPessoa[lancamentoPessoas[i]] += cobrado;
+                porCartao[lancamentoCartoes[i]] += cobrado;
+            }
+            for (int i = 0; i < totalPagamentos; i++) {
+                if (pagamentoCompetencias[i] <= competencia) {
+                    porPessoa[pagamentoPessoas[i]] -= pagamentoCentavos[i];
+                    porCartao[pagamentoCartoes[i]] -= pagamentoCentavos[i];
+                }
+            }
+            return new Saldos(porPessoa, porCartao);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma cobrancas e recebimentos da carteira competencia a competencia.
+     *
+     * @param inicio primeira competencia
+     * @param meses  quantidade de competencias
+     * @return valores em centavos por competencia
+     */
+    Fluxo fluxo(int inicio, int meses) {
+        int fim = inicio + meses - 1;
+        lock.readLock().lock();
+        try {
+            long[] cobrancas = new long[meses];
+            long[] recebimentos = new long[meses];
+            for (int i = 0; i < totalLancamentos; i++) {
+                acumularCobrancas(i, inicio, fim, cobrancas);
+            }
+            for (int i = 0; i < totalPagamentos; i++) {
+                int competencia = pagamentoCompetencias[i];
+                if (competencia >= inicio && competencia <= fim) {
+                    recebimentos[competencia - inicio] += pagamentoCentavos[i];
+                }
+            }
+            return new Fluxo(cobrancas, recebimentos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tamanho das colunas.
+     *
+     * @return quantidade de linhas e bytes alocados
+     */
+    Memoria memoria() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) lancamentoIds.length * BYTES_POR_LANCAMENTO
+                    + (long) pagamentoIds.length * BYTES_POR_PAGAMENTO;
+            return new Memoria(totalLancamentos, totalPagamentos, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Converte competencia para o indice usado nas colunas.
+     *
+     * @param competencia competencia
+     * @return meses desde o ano zero
+     */
+    static int indice(YearMonth competencia) {
+        return competencia.getYear() * 12 + competencia.getMonthValue() - 1;
+    }
+
+    /**
+     * Valor cobrado de um lancamento da primeira competencia ate a informada, pelas regras do relatorio:
+     * avulso uma vez, parcelas com ajuste de centavos na ultima e fixo todo mes ate o fim.
+     *
+     * @param linha       posicao do lancamento
+     * @param competencia ultima competencia considerada
+     * @return centavos cobrados
+     */
+    private long cobradoAte(int linha, int competencia) {
+        int meses = competencia - lancamentoCompetencias[linha] + 1;
+        if (meses <= 0) {
+            return 0;
+        }
+        long centavos = lancamentoCentavos[linha];
+        return switch (TIPOS[lancamentoTipos[linha]]) {
+            case AVULSO -> centavos;
+            case PARCELADO -> {
+                int parcelas = lancamentoParcelas[linha];
+                yield meses >= parcelas ? centavos : parcelaBase(centavos, parcelas) * meses;
+            }
+            case FIXO -> centavos * Math.max(0,
+                    Math.min(competencia, lancamentoFinsFixo[linha]) - lancamentoCompetencias[linha] + 1L);
+        };
+    }
+
+    /**
+     * Soma as cobrancas de um lancamento que caem na janela.
+     *
+     * @param linha     posicao do lancamento
+     * @param inicio    primeira competencia da janela
+     * @param fim       ultima competencia da janela
+     * @param cobrancas acumulador por competencia
+     */
+    private void acumularCobrancas(int linha, int inicio, int fim, long[] cobrancas) {
+        int primeira = lancamentoCompetencias[linha];
+        long centavos = lancamentoCentavos[linha];
+        switch (TIPOS[lancamentoTipos[linha]]) {
+            case AVULSO -> {
+                if (primeira >= inicio && primeira <= fim) {
+                    cobrancas[primeira - inicio] += centavos;
+                }
+            }
+            case PARCELADO -> {
+                int parcelas = lancamentoParcelas[linha];
+                long base = parcelaBase(centavos, parcelas);
+                int ultima = primeira + parcelas - 1;
+                for (int competencia = Math.max(primeira, inicio); competencia <= Math.min(ultima, fim); competencia++) {
+                    cobrancas[competencia - inicio] += competencia == ultima ? centavos - base * (parcelas - 1) : base;
+                }
+            }
+            case FIXO -> {
+                int ultima = Math.min(lancamentoFinsFixo[linha], fim);
+                for (int competencia = Math.max(primeira, inicio); competencia <= ultima; competencia++) {
+                    cobrancas[competencia - inicio] += centavos;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parcela arredondada para cima a partir da metade do centavo, como
+     * {@link RelatorioService#calcularValorParcela(java.math.BigDecimal, int, int)}.
+     *
+     * @param centavos valor total em centavos
+     * @param parcelas quantidade de parcelas
+     * @return valor de cada parcela exceto a ultima
+     */
+    private static long parcelaBase(long centavos, int parcelas) {
+        long base = centavos / parcelas;
+        return 2 * (centavos % parcelas) >= parcelas ? base + 1 : base;
+    }
+
+    /**
+     * Abre espaco para um lancamento na posicao, crescendo as colunas quando necessario.
+     *
+     * @param posicao posicao ordenada pelo id
+     */
+    private void abrirLancamento(int posicao) {
+        if (totalLancamentos == lancamentoIds.length) {
+            int capacidade = lancamentoIds.length * 2;
+            lancamentoIds = Arrays.copyOf(lancamentoIds, capacidade);
+            lancamentoPessoas = Arrays.copyOf(lancamentoPessoas, capacidade);
+            lancamentoCartoes = Arrays.copyOf(lancamentoCartoes, capacidade);
+            lancamentoCompetencias = Arrays.copyOf(lancamentoCompetencias, capacidade);
+            lancamentoFinsFixo = Arrays.copyOf(lancamentoFinsFixo, capacidade);
+            lancamentoTipos = Arrays.copyOf(lancamentoTipos, capacidade);
+            lancamentoCentavos = Arrays.copyOf(lancamentoCentavos, capacidade);
+            lancamentoParcelas = Arrays.copyOf(lancamentoParcelas, capacidade);
+        }
+        int seguintes = totalLancamentos - posicao;
+        if (seguintes > 0) {
+            // Id fora de ordem (commit concorrente); no fluxo normal o registro entra no fim.
+            System.arraycopy(lancamentoIds, posicao, lancamentoIds, posicao + 1, seguintes);
+            System.arraycopy(lancamentoPessoas, posicao, lancamentoPessoas, posicao + 1, seguintes);
+            System.arraycopy(lancamentoCartoes, posicao, lancamentoCartoes, posicao + 1, seguintes);
+            System.arraycopy(lancamentoCompetencias, posicao, lancamentoCompetencias, posicao + 1, seguintes);
+            System.arraycopy(lancamentoFinsFixo, posicao, lancamentoFinsFixo, posicao + 1, seguintes);
+            System.arraycopy(lancamentoTipos, posicao, lancamentoTipos, posicao + 1, seguintes);
+            System.arraycopy(lancamentoCentavos, posicao, lancamentoCentavos, posicao + 1, seguintes);
+            System.arraycopy(lancamentoParcelas, posicao, lancamentoParcelas, posicao + 1, seguintes);
+        }
+        totalLancamentos++;
+    }
+
+    /**
+     * Abre espaco para um pagamento na posicao, crescendo as colunas quando necessario.
+     *
+     * @param posicao posicao ordenada pelo id
+     */
+    private void abrirPagamento(int posicao) {
+        if (totalPagamentos == pagamentoIds.length) {
+            int capacidade = pagamentoIds.length * 2;
+            pagamentoIds = Arrays.copyOf(pagamentoIds, capacidade);
+            pagamentoPessoas = Arrays.copyOf(pagamentoPessoas, capacidade);
+            pagamentoCartoes = Arrays.copyOf(pagamentoCartoes, capacidade);
+            pagamentoCompetencias = Arrays.copyOf(pagamentoCompetencias, capacidade);
+            pagamentoCentavos = Arrays.copyOf(pagamentoCentavos, capacidade);
+        }
+        int seguintes = totalPagamentos - posicao;
+        if (seguintes > 0) {
+            System.arraycopy(pagamentoIds, posicao, pagamentoIds, posicao + 1, seguintes);
+            System.arraycopy(pagamentoPessoas, posicao, pagamentoPessoas, posicao + 1, seguintes);
+            System.arraycopy(pagamentoCartoes, posicao, pagamentoCartoes, posicao + 1, seguintes);
+            System.arraycopy(pagamentoCompetencias, posicao, pagamentoCompetencias, posicao + 1, seguintes);
+            System.arraycopy(pagamentoCentavos, posicao, pagamentoCentavos, posicao + 1, seguintes);
+        }
+        totalPagamentos++;
+    }
+
+    /**
+     * Acompanha os maiores ids para dimensionar os acumuladores das agregacoes.
+     *
+     * @param pessoaId pessoa gravada
+     * @param cartaoId cartao gravado
+     */
+    private void registrarIds(int pessoaId, int cartaoId) {
+        maiorPessoaId = Math.max(maiorPessoaId, pessoaId);
+        maiorCartaoId = Math.max(maiorCartaoId, cartaoId);
+    }
+
+    /**
+     * Saldo sem encargos ate uma competencia.
+     *
+     * @param porPessoa centavos indexados pelo id da pessoa
+     * @param porCartao centavos indexados pelo id do cartao
+     */
+    record Saldos(long[] porPessoa, long[] porCartao) {
+    }
+
+    /**
+     * Movimento da carteira por competencia.
+     *
+     * @param cobrancas    centavos cobrados por competencia
+     * @param recebimentos centavos recebidos por competencia
+     */
+    record Fluxo(long[] cobrancas, long[] recebimentos) {
+    }
+
+    /**
+     * Ocupacao das colunas.
+     *
+     * @param lancamentos   lancamentos carregados
+     * @param pagamentos    pagamentos carregados
+     * @param bytesAlocados bytes dos arrays, incluindo a folga de capacidade
+     */
+    record Memoria(int lancamentos, int pagamentos, long bytesAlocados) {
+    }
+}
@@ -0,0 +1,245 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.config.RelatorioCacheProperties;
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memoria de relatorios mensais por pessoa e competencia.
+ *
+ * <p>Cada escrita em pessoa, cartao, lancamento ou pagamento invalida as entradas afetadas apos o
+ * commit. Para evitar que um calculo iniciado antes da escrita grave um resultado desatualizado,
+ * toda gravacao informa a geracao da pessoa lida antes do calculo e e descartada se a pessoa foi invalidada
+ * no meio; invalidacoes de outras pessoas nao afetam a gravacao.</p>
+ *
+ * <p>Relatorios e PDFs tem limites proprios ({@code max-entradas} e {@code max-pdfs}); ao atingir o limite sai a
+ * entrada usada ha mais tempo, entao competencias antigas e pessoas excluidas deixam o cache sozinhas.</p>
+ *
+ * <p>Resultados calculados em transacao que leu da replica de leitura nao sao guardados: a replica pode ainda nao
+ * ter a escrita que acabou de invalidar a pessoa, e o valor antigo ficaria no cache ate a proxima escrita.</p>
+ */
+@Slf4j
+@Service
+public class RelatorioCacheService {
+
+    private final Map<ChaveRelatorio, RelatorioPessoaDto> relatorios;
+    private final Map<ChaveRelatorio, byte[]> pdfs;
+
+    /**
+     * Emissor das geracoes: cada invalidacao recebe um valor maior que todos os anteriores.
+     */
+    private final AtomicLong contador = new AtomicLong();
+    private final Map<Long, Long> geracoesPorPessoa = new ConcurrentHashMap<>();
+    private volatile long geracaoGeral;
+
+    public RelatorioCacheService(RelatorioCacheProperties properties) {
+        this.relatorios = criarMapaLimitado(properties.maxEntradas());
+        this.pdfs = criarMapaLimitado(properties.maxPdfs());
+    }
+
+    /**
+     * Retorna a geracao atual da pessoa; deve ser lida antes de iniciar o calculo que sera armazenado.
+     *
+     * @param pessoaId identificador da pessoa
+     * @return ultima invalidacao que alcancou a pessoa
+     */
+    public long geracaoAtual(Long pessoaId) {
+        return Math.max(geracaoGeral, geracoesPorPessoa.getOrDefault(pessoaId, 0L));
+    }
+
+    /**
+     * Busca relatorio previamente calculado.
+     *
+     * @param pessoaId    identificador da pessoa
+     * @param competencia competencia do relatorio
+     * @return relatorio em cache ou null
+     */
+    public RelatorioPessoaDto buscarRelatorio(Long pessoaId, YearMonth competencia) {
+        return relatorios.get(new ChaveRelatorio(pessoaId, competencia));
+    }
+
+    /**
+     * Armazena relatorio calculado quando nao houve invalidacao desde a geracao informada.
+     *
+     * @param pessoaId      identificador da pessoa
+     * @param competencia   competencia do relatorio
+     * @param geracaoLida   geracao lida antes do calculo
+     * @param relatorio     relatorio calculado
+     */
+    public void armazenarRelatorio(Long pessoaId, YearMonth competencia, long geracaoLida, RelatorioPessoaDto relatorio) {
+        armazenar(relatorios, new ChaveRelatorio(pessoaId, competencia), geracaoLida, relatorio);
+    }
+
+    /**
+     * Busca PDF previamente gerado.
+     *
+     * @param pessoaId    identificador da pessoa
+     * @param competencia competencia do relatorio
+     * @return bytes do PDF ou null
+     */
+    public byte[] buscarPdf(Long pessoaId, YearMonth competencia) {
+        return pdfs.get(new ChaveRelatorio(pessoaId, competencia));
+    }
+
+    /**
+     * Armazena PDF gerado quando nao houve invalidacao desde a geracao informada.
+     *
+     * @param pessoaId    identificador da pessoa
+     * @param competencia competencia do relatorio
+     * @param geracaoLida geracao lida antes do calculo
+     * @param pdf         bytes do PDF
+     */
+    public void armazenarPdf(Long pessoaId, YearMonth competencia, long geracaoLida, byte[] pdf) {
+        armazenar(pdfs, new ChaveRelatorio(pessoaId, competencia), geracaoLida, pdf);
+    }
+
+    /**
+     * Remove todas as competencias em cache de uma pessoa.
+     *
+     * @param pessoaId identificador da pessoa
+     */
+    public void invalidarPessoa(Long pessoaId) {
+        geracoesPorPessoa.put(pessoaId, contador.incrementAndGet());
+        remover(relatorios, pessoaId);
+        remover(pdfs, pessoaId);
+        log.debug("Cache de relatorios invalidado para pessoaId={}", pessoaId);
+    }
+
+    /**
+     * Remove todo o conteudo do cache.
+     */
+    public void invalidarTudo() {
+        geracaoGeral = contador.incrementAndGet();
+        // A geracao geral supera todas as individuais ja emitidas.
+        geracoesPorPessoa.clear();
+        relatorios.clear();
+        pdfs.clear();
+        log.debug("Cache de relatorios invalidado por completo");
+    }
+
+    /**
+     * Quantidade de relatorios atualmente em cache.
+     *
+     * @return total de entradas
+     */
+    public int totalRelatorios() {
+        return relatorios.size();
+    }
+
+    /**
+     * Invalida entradas afetadas apos o commit de qualquer escrita relevante.
+     * Alteracoes de cartao mudam fechamento/vencimento de todas as pessoas vinculadas.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @TransactionalEventListener
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        if (!evento.tipo().isFinanceiro()) {
+            return;
+        }
+        if (evento.pessoaId() == null) {
+            invalidarTudo();
+            return;
+        }
+        invalidarPessoa(evento.pessoaId());
+    }
+
+    /**
+     * Aplica a mesma invalidacao para alteracoes confirmadas em outra instancia.
+     *
+     * @param evento alteracao recebida pelo barramento de invalidacao
+     */
+    @EventListener
+    public void aoAlterarRegistroRemoto(AlteracaoRemotaEvento evento) {
+        aoAlterarRegistro(evento.alteracao());
+    }
+
+    /**
+     * Descarta todo o cache quando alteracoes remotas podem ter sido perdidas.
+     */
+    @EventListener(AlteracoesRemotasPerdidasEvento.class)
+    public void aoPerderAlteracoesRemotas() {
+        invalidarTudo();
+    }
+
+    /**
+     * Quantidade de PDFs atualmente em cache.
+     *
+     * @return total de PDFs
+     */
+    public int totalPdfs() {
+        return pdfs.size();
+    }
+
+    /**
+     * Grava valor no mapa e confirma que nenhuma invalidacao concorrente da pessoa ocorreu; ignora dados lidos
+     * da replica.
+     * A segunda leitura da geracao cobre a corrida em que a invalidacao acontece entre a checagem e o put.
+     *
+     * @param mapa        mapa destino
+     * @param chave       chave do relatorio
+     * @param geracaoLida geracao da pessoa lida antes do calculo
+     * @param valor       valor a armazenar
+     * @param <T>         tipo armazenado
+     */
+    private <T> void armazenar(Map<ChaveRelatorio, T> mapa, ChaveRelatorio chave, long geracaoLida, T valor) {
+        if (geracaoAtual(chave.pessoaId()) != geracaoLida || DataSourceRoteador.transacaoLeuDaReplica()) {
+            return;
+        }
+        mapa.put(chave, valor);
+        if (geracaoAtual(chave.pessoaId()) != geracaoLida) {
+            mapa.remove(chave, valor);
+        }
+    }
+
+    /**
+     * Remove as entradas de uma pessoa; a iteracao sobre o mapa sincronizado exige o lock do proprio mapa.
+     *
+     * @param mapa     mapa de relatorios ou PDFs
+     * @param pessoaId identificador da pessoa
+     */
+    private static void remover(Map<ChaveRelatorio, ?> mapa, Long pessoaId) {
+        synchronized (mapa) {
+            mapa.keySet().removeIf(chave -> chave.pessoaId().equals(pessoaId));
+        }
+    }
+
+    /**
+     * Cria mapa em ordem de acesso que descarta a entrada menos usada ao passar do limite.
+     *
+     * @param limite quantidade maxima de entradas
+     * @param <T>    tipo armazenado
+     * @return mapa sincronizado e limitado
+     */
+    private static <T> Map<ChaveRelatorio, T> criarMapaLimitado(int limite) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChaveRelatorio, T> maisAntiga) {
+                return size() > limite;
+            }
+        });
+    }
+
+    /**
+     * Chave composta do cache.
+     *
+     * @param pessoaId    identificador da pessoa
+     * @param competencia competencia do relatorio
+     */
+    private record ChaveRelatorio(Long pessoaId, YearMonth competencia) {
+    }
+}
@@ -1,15 +1,18 @@
 package io.freitas.empcard.service;
 
+import io.freitas.empcard.dto.CartaoRelatorioDto;
 import io.freitas.empcard.dto.ItemRelatorioDto;
+import io.freitas.empcard.dto.LancamentoRelatorioDto;
+import io.freitas.empcard.dto.PagamentoRelatorioDto;
+import io.freitas.empcard.dto.ParcelaRelatorioDto;
 import io.freitas.empcard.dto.RelatorioPessoaDto;
 import io.freitas.empcard.dto.ResumoCartaoRelatorioDto;
-import io.freitas.empcard.model.Cartao;
-import io.freitas.empcard.model.Lancamento;
-import io.freitas.empcard.model.Pagamento;
 import io.freitas.empcard.model.Pessoa;
 import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.CartaoRepository;
 import io.freitas.empcard.repository.LancamentoRepository;
 import io.freitas.empcard.repository.PagamentoRepository;
+import io.freitas.empcard.repository.ParcelaRepository;
 import io.freitas.empcard.util.DataCompetenciaUtils;
 import io.freitas.empcard.util.DocumentoUtils;
 import lombok.RequiredArgsConstructor;
@@ -24,10 +27,17 @@ import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Motor de calculo mensal para consolidacao de dividas por pessoa e cartao.
@@ -38,11 +48,16 @@ import java.util.Objects;
 public class RelatorioService {
 
     private final PessoaService pessoaService;
+    private final CartaoRepository cartaoRepository;
     private final LancamentoRepository lancamentoRepository;
     private final PagamentoRepository pagamentoRepository;
+    private final ParcelaRepository parcelaRepository;
+    private final CronogramaParcelasService cronogramaParcelasService;
+    private final RelatorioCacheService relatorioCacheService;
 
     /**
      * Gera relatorio analitico mensal de uma pessoa agrupado por cartao.
+     * Relatorios pre-calculados pelo fechamento mensal (ou por chamadas anteriores) sao servidos do cache.
      *
      * @param pessoaId    identificador da pessoa
      * @param competencia competencia de referencia (yyyy-MM)
@@ -50,33 +65,184 @@ public class RelatorioService {
      */
     @Transactional(readOnly = true)
     public RelatorioPessoaDto gerarRelatorioPessoa(Long pessoaId, YearMonth competencia) {
-        log.info("Gerando relatorio mensal. pessoaId={}, competencia={}", pessoaId, competencia);
+        RelatorioPessoaDto emCache = relatorioCacheService.buscarRelatorio(pessoaId, competencia);
+        if (emCache != null) {
+            log.debug("Relatorio servido do cache. pessoaId={}, competencia={}", pessoaId, competencia);
+            return emCache;
+        }
+
+        // A geracao e lida antes das consultas para descartar o resultado caso haja escrita concorrente.
+        long geracao = relatorioCacheService.geracaoAtual(pessoaId);
+        RelatorioPessoaDto relatorio = calcularRelatorioPessoa(pessoaId, competencia);
+        relatorioCacheService.armazenarRelatorio(pessoaId, competencia, geracao, relatorio);
+        return relatorio;
+    }
+
+    /**
+     * Gera os relatorios mensais de varias pessoas com numero fixo de consultas, independente de quantas sejam.
+     * Os que estao em cache sao reaproveitados; os demais sao calculados juntos a partir das cobrancas, pagamentos
+     * e cartoes da carteira inteira, lidos uma unica vez, e guardados no cache.
+     *
+     * @param pessoas     pessoas ja carregadas
+     * @param competencia competencia de referencia
+     * @return relatorios indexados pelo id da pessoa, na ordem recebida
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, RelatorioPessoaDto> gerarRelatoriosPessoas(List<Pessoa> pessoas, YearMonth competencia) {
+        Map<Long, RelatorioPessoaDto> relatorios = new LinkedHashMap<>();
+        Map<Long, Long> geracoesPendentes = new HashMap<>();
+        for (Pessoa pessoa : pessoas) {
+            RelatorioPessoaDto emCache = relatorioCacheService.buscarRelatorio(pessoa.getId(), competencia);
+            relatorios.put(pessoa.getId(), emCache);
+            if (emCache == null) {
+                geracoesPendentes.put(pessoa.getId(), relatorioCacheService.geracaoAtual(pessoa.getId()));
+            }
+        }
+        if (geracoesPendentes.isEmpty()) {
+            return relatorios;
+        }
+
+        log.debug("Gerando relatorios em lote. pessoas={}, competencia={}", geracoesPendentes.size(), competencia);
+        LocalDate dataLimite = competencia.atEndOfMonth();
+        YearMonth limiteFixos = limiteFixos(competencia);
+        Map<Long, List<ParcelaRelatorioDto>> parcelasPorPessoa = parcelaRepository
+                .listarCarteiraParaRelatorio(competencia.atDay(1), TipoLancamento.FIXO, limiteFixos.atDay(1)).stream()
+                .collect(Collectors.groupingBy(ParcelaRelatorioDto::pessoaId));
+        Map<Long, List<PagamentoRelatorioDto>> pagamentosPorPessoa = pagamentoRepository
+                .listarCarteiraParaRelatorio(dataLimite).stream()
+                .collect(Collectors.groupingBy(PagamentoRelatorioDto::pessoaId));
+        Map<Long, List<LancamentoRelatorioDto>> fixosPorPessoa = competencia.isAfter(limiteFixos)
+                ? lancamentoRepository.listarCarteiraParaRelatorio(dataLimite).stream()
+                .filter(lancamento -> lancamento.tipo() == TipoLancamento.FIXO)
+                .collect(Collectors.groupingBy(LancamentoRelatorioDto::pessoaId))
+                : Map.of();
+        Map<Long, CartaoRelatorioDto> cartoes = cartaoRepository.listarTodosParaRelatorio().stream()
+                .collect(Collectors.toMap(CartaoRelatorioDto::id, Function.identity()));
+
+        for (Pessoa pessoa : pessoas) {
+            Long geracao = geracoesPendentes.get(pessoa.getId());
+            if (geracao == null) {
+                continue;
+            }
+            RelatorioPessoaDto relatorio = montarRelatorio(pessoa, competencia, limiteFixos,
+                    parcelasPorPessoa.getOrDefault(pessoa.getId(), List.of()),
+                    pagamentosPorPessoa.getOrDefault(pessoa.getId(), List.of()),
+                    fixosPorPessoa.getOrDefault(pessoa.getId(), List.of()),
+                    cartoes);
+            relatorioCacheService.armazenarRelatorio(pessoa.getId(), competencia, geracao, relatorio);
+            relatorios.put(pessoa.getId(), relatorio);
+        }
+        return relatorios;
+    }
+
+    /**
+     * Executa o calculo completo do relatorio, simulando o saldo mes a mes desde a primeira competencia.
+     * As cobrancas vem do cronograma materializado em {@code parcelas}, ja com o valor de cada competencia, em uma
+     * consulta por faixa de competencia; movimentos posteriores a competencia nao alteram o resultado e nao sao lidos.
+     *
+     * @param pessoaId    identificador da pessoa
+     * @param competencia competencia de referencia
+     * @return relatorio consolidado
+     */
+    private RelatorioPessoaDto calcularRelatorioPessoa(Long pessoaId, YearMonth competencia) {
+        log.debug("Gerando relatorio mensal. pessoaId={}, competencia={}", pessoaId, competencia);
 
         Pessoa pessoa = pessoaService.buscarPorId(pessoaId);
-        List<Lancamento> todosLancamentos = lancamentoRepository.findByPessoaIdOrderByDataCompraAsc(pessoaId);
-        List<Pagamento> todosPagamentos = pagamentoRepository.findByPessoaIdOrderByDataPagamentoAsc(pessoaId);
+        LocalDate dataLimite = competencia.atEndOfMonth();
+        YearMonth limiteFixos = limiteFixos(competencia);
+
+        List<ParcelaRelatorioDto> parcelas = parcelaRepository.listarParaRelatorio(
+                pessoaId, competencia.atDay(1), TipoLancamento.FIXO, limiteFixos.atDay(1));
+        List<PagamentoRelatorioDto> pagamentos = pagamentoRepository.listarParaRelatorio(pessoaId, dataLimite);
+        List<LancamentoRelatorioDto> fixos = competencia.isAfter(limiteFixos)
+                ? lancamentoRepository.listarParaRelatorio(pessoaId, dataLimite).stream()
+                .filter(lancamento -> lancamento.tipo() == TipoLancamento.FIXO)
+                .toList()
+                : List.of();
+
+        // Cartoes com qualquer historico da pessoa, carregados em uma unica consulta.
+        Set<Long> idsCartoes = new HashSet<>();
+        parcelas.forEach(parcela -> idsCartoes.add(parcela.cartaoId()));
+        pagamentos.forEach(pagamento -> idsCartoes.add(pagamento.cartaoId()));
+        fixos.forEach(fixo -> idsCartoes.add(fixo.cartaoId()));
+        Map<Long, CartaoRelatorioDto> cartoes = idsCartoes.isEmpty()
+                ? Map.of()
+                : cartaoRepository.listarParaRelatorio(idsCartoes).stream()
+                .collect(Collectors.toMap(CartaoRelatorioDto::id, Function.identity()));
+
+        return montarRelatorio(pessoa, competencia, limiteFixos, parcelas, pagamentos, fixos, cartoes);
+    }
 
-        // Descobre os cartoes com qualquer historico da pessoa para montar consolidacao por cartao.
-        Map<Long, Cartao> mapaCartoes = new LinkedHashMap<>();
-        todosLancamentos.forEach(lancamento -> mapaCartoes.put(lancamento.getCartao().getId(), lancamento.getCartao()));
-        todosPagamentos.forEach(pagamento -> mapaCartoes.put(pagamento.getCartao().getId(), pagamento.getCartao()));
+    /**
+     * Ultima competencia com fixos materializados no cronograma para o relatorio pedido.
+     *
+     * @param competencia competencia do relatorio
+     * @return a propria competencia ou o horizonte do cronograma, o que vier antes
+     */
+    private YearMonth limiteFixos(YearMonth competencia) {
+        YearMonth horizonte = cronogramaParcelasService.horizonteGarantido();
+        return competencia.isAfter(horizonte) ? horizonte : competencia;
+    }
 
-        List<ResumoCartaoRelatorioDto> cartoes = mapaCartoes.values().stream()
-                .sorted(Comparator.comparing(Cartao::getBanco, Comparator.nullsLast(String::compareTo)))
-                .map(cartao -> calcularResumoCartao(competencia, pessoa, cartao, todosLancamentos, todosPagamentos))
+    /**
+     * Monta o relatorio de uma pessoa a partir dos movimentos dela ja carregados.
+     *
+     * @param pessoa      pessoa com percentuais de juros e multa
+     * @param competencia competencia de referencia
+     * @param limiteFixos ultima competencia com fixos no cronograma
+     * @param parcelas    cobrancas da pessoa ate a competencia
+     * @param pagamentos  pagamentos da pessoa ate o fim da competencia
+     * @param fixos       fixos da pessoa a expandir alem do horizonte (vazio dentro dele)
+     * @param cartoes     cartoes indexados por id, contendo ao menos os da pessoa
+     * @return relatorio consolidado
+     */
+    private RelatorioPessoaDto montarRelatorio(Pessoa pessoa,
+                                               YearMonth competencia,
+                                               YearMonth limiteFixos,
+                                               List<ParcelaRelatorioDto> parcelas,
+                                               List<PagamentoRelatorioDto> pagamentos,
+                                               List<LancamentoRelatorioDto> fixos,
+                                               Map<Long, CartaoRelatorioDto> cartoes) {
+        Map<Long, NavigableMap<YearMonth, List<ItemRelatorioDto>>> itensPorCartao = new HashMap<>();
+        for (ParcelaRelatorioDto parcela : parcelas) {
+            itensPorCartao.computeIfAbsent(parcela.cartaoId(), cartaoId -> new TreeMap<>())
+                    .computeIfAbsent(YearMonth.from(parcela.competencia()), mes -> new ArrayList<>())
+                    .add(paraItem(parcela));
+        }
+        Map<Long, List<PagamentoRelatorioDto>> pagamentosPorCartao = pagamentos.stream()
+                .collect(Collectors.groupingBy(PagamentoRelatorioDto::cartaoId));
+        // Alem do horizonte do cronograma os fixos sem fim nao tem linhas: os meses restantes sao expandidos aqui.
+        Map<Long, List<LancamentoRelatorioDto>> fixosPorCartao = fixos.stream()
+                .collect(Collectors.groupingBy(LancamentoRelatorioDto::cartaoId));
+
+        Set<Long> idsCartoes = new HashSet<>(itensPorCartao.keySet());
+        idsCartoes.addAll(pagamentosPorCartao.keySet());
+        idsCartoes.addAll(fixosPorCartao.keySet());
+
+        List<ResumoCartaoRelatorioDto> resumos = idsCartoes.stream()
+                .map(cartoes::get)
+                .sorted(Comparator.comparing(CartaoRelatorioDto::banco, Comparator.nullsLast(String::compareTo)))
+                .map(cartao -> {
+                    NavigableMap<YearMonth, List<ItemRelatorioDto>> itens =
+                            itensPorCartao.computeIfAbsent(cartao.id(), cartaoId -> new TreeMap<>());
+                    complementarFixos(itens, fixosPorCartao.getOrDefault(cartao.id(), List.of()), cartao,
+                            limiteFixos.plusMonths(1), competencia);
+                    return calcularResumoCartao(competencia, pessoa, cartao, itens,
+                            pagamentosPorCartao.getOrDefault(cartao.id(), List.of()));
+                })
                 .filter(Objects::nonNull)
                 .toList();
 
-        BigDecimal totalDevido = somar(cartoes.stream().map(ResumoCartaoRelatorioDto::totalDevido).toList());
-        BigDecimal totalPago = somar(cartoes.stream().map(ResumoCartaoRelatorioDto::totalPagamentos).toList());
-        BigDecimal totalSaldo = somar(cartoes.stream().map(ResumoCartaoRelatorioDto::saldoFinal).toList());
+        BigDecimal totalDevido = somar(resumos.stream().map(ResumoCartaoRelatorioDto::totalDevido).toList());
+        BigDecimal totalPago = somar(resumos.stream().map(ResumoCartaoRelatorioDto::totalPagamentos).toList());
+        BigDecimal totalSaldo = somar(resumos.stream().map(ResumoCartaoRelatorioDto::saldoFinal).toList());
 
         return new RelatorioPessoaDto(
                 pessoa.getId(),
                 pessoa.getNome(),
                 DocumentoUtils.mascararCpf(pessoa.getCpf()),
                 competencia,
-                cartoes,
+                resumos,
                 totalDevido,
                 totalPago,
                 totalSaldo
@@ -86,27 +252,25 @@ public class RelatorioService {
     /**
      * Consolida valores de uma pessoa em um cartao para uma competencia especifica.
      *
-     * @param competencia      competencia solicitada
-     * @param pessoa           pessoa de referencia
-     * @param cartao           cartao em consolidacao
-     * @param todosLancamentos lista completa de lancamentos da pessoa
-     * @param todosPagamentos  lista completa de pagamentos da pessoa
+     * @param competencia         competencia solicitada
+     * @param pessoa              pessoa de referencia
+     * @param cartao              cartao em consolidacao
+     * @param itensPorCompetencia cobrancas da pessoa no cartao por competencia, ate a solicitada
+     * @param pagamentosCartao    pagamentos da pessoa no cartao ate o fim da competencia
      * @return resumo por cartao ou null quando nao ha atividade relevante
      */
     private ResumoCartaoRelatorioDto calcularResumoCartao(YearMonth competencia,
                                                           Pessoa pessoa,
-                                                          Cartao cartao,
-                                                          List<Lancamento> todosLancamentos,
-                                                          List<Pagamento> todosPagamentos) {
-        List<Lancamento> lancamentosCartao = todosLancamentos.stream()
-                .filter(lancamento -> lancamento.getCartao().getId().equals(cartao.getId()))
-                .toList();
-
-        List<Pagamento> pagamentosCartao = todosPagamentos.stream()
-                .filter(pagamento -> pagamento.getCartao().getId().equals(cartao.getId()))
-                .toList();
-
-        YearMonth primeiraCompetencia = obterPrimeiraCompetencia(lancamentosCartao, pagamentosCartao, cartao, competencia);
+                                                          CartaoRelatorioDto cartao,
+                                                          NavigableMap<YearMonth, List<ItemRelatorioDto>> itensPorCompetencia,
+                                                          List<PagamentoRelatorioDto> pagamentosCartao) {
+        YearMonth primeiraCompetencia = pagamentosCartao.stream()
+                .map(pagamento -> YearMonth.from(pagamento.dataPagamento()))
+                .min(YearMonth::compareTo)
+                .orElse(competencia);
+        if (!itensPorCompetencia.isEmpty() && itensPorCompetencia.firstKey().isBefore(primeiraCompetencia)) {
+            primeiraCompetencia = itensPorCompetencia.firstKey();
+        }
 
         BigDecimal saldoAnterior = BigDecimal.ZERO;
         BigDecimal saldoAnteriorCompetencia = BigDecimal.ZERO;
@@ -118,7 +282,7 @@ public class RelatorioService {
 
         YearMonth mesAtual = primeiraCompetencia;
         while (!mesAtual.isAfter(competencia)) {
-            List<ItemRelatorioDto> itensDoMes = extrairItensDaCompetencia(lancamentosCartao, cartao, mesAtual);
+            List<ItemRelatorioDto> itensDoMes = itensPorCompetencia.getOrDefault(mesAtual, List.of());
             BigDecimal totalComprasMes = somar(itensDoMes.stream().map(ItemRelatorioDto::valor).toList());
             BigDecimal jurosMultaMes = calcularJurosEMulta(saldoAnterior, pessoa.getJurosMensal(), pessoa.getMultaAtraso());
             BigDecimal pagamentosMes = somarPagamentosMes(pagamentosCartao, mesAtual);
@@ -155,15 +319,15 @@ public class RelatorioService {
 
         LocalDate vencimento = DataCompetenciaUtils.calcularDataVencimento(
                 competencia,
-                cartao.getDiaFechamento(),
-                cartao.getDiaVencimento()
+                cartao.diaFechamento(),
+                cartao.diaVencimento()
         );
 
         return new ResumoCartaoRelatorioDto(
-                cartao.getId(),
-                mascararParcialCartao(cartao.getNumero()),
-                cartao.getBandeira(),
-                cartao.getBanco(),
+                cartao.id(),
+                DocumentoUtils.mascararParcialCartao(cartao.numero()),
+                cartao.bandeira(),
+                cartao.banco(),
                 vencimento,
                 saldoAnteriorCompetencia,
                 totalAvulso,
@@ -178,6 +342,42 @@ public class RelatorioService {
         );
     }
 
+    /**
+     * Simula o saldo de uma pessoa em um cartao mes a mes, pelas mesmas regras do relatorio, devolvendo o
+     * valor cobrado (compras + juros e multa) e o valor pago em cada competencia ate a informada.
+     * Usado por calculos em lote que precisam da composicao do saldo, como o aging de inadimplencia.
+     *
+     * @param competencia       ultima competencia simulada
+     * @param pessoa            pessoa com percentuais de juros e multa
+     * @param cartao            cartao com regra de fechamento
+     * @param lancamentosCartao lancamentos da pessoa no cartao ate o fim da competencia
+     * @param pagamentosCartao  pagamentos da pessoa no cartao ate o fim da competencia
+     * @return movimentos em ordem cronologica
+     */
+    List<MovimentoCompetencia> simularCompetencias(YearMonth competencia,
+                                                   Pessoa pessoa,
+                                                   CartaoRelatorioDto cartao,
+                                                   List<LancamentoRelatorioDto> lancamentosCartao,
+                                                   List<PagamentoRelatorioDto> pagamentosCartao) {
+        List<MovimentoCompetencia> movimentos = new ArrayList<>();
+        BigDecimal saldoAnterior = BigDecimal.ZERO;
+
+        YearMonth mesAtual = obterPrimeiraCompetencia(lancamentosCartao, pagamentosCartao, cartao, competencia);
+        while (!mesAtual.isAfter(competencia)) {
+            BigDecimal totalComprasMes = somar(extrairItensDaCompetencia(lancamentosCartao, cartao, mesAtual).stream()
+                    .map(ItemRelatorioDto::valor)
+                    .toList());
+            BigDecimal jurosMultaMes = calcularJurosEMulta(saldoAnterior, pessoa.getJurosMensal(), pessoa.getMultaAtraso());
+            BigDecimal pagamentosMes = somarPagamentosMes(pagamentosCartao, mesAtual);
+            BigDecimal cobradoMes = totalComprasMes.add(jurosMultaMes);
+
+            movimentos.add(new MovimentoCompetencia(mesAtual, cobradoMes, pagamentosMes));
+            saldoAnterior = saldoAnterior.add(cobradoMes).subtract(pagamentosMes).setScale(2, RoundingMode.HALF_UP);
+            mesAtual = mesAtual.plusMonths(1);
+        }
+        return movimentos;
+    }
+
     /**
      * Determina primeira competencia para iniciar simulacao de saldo de um cartao.
      *
@@ -187,20 +387,60 @@ public class RelatorioService {
      * @param competenciaPadrao competencia alvo quando nao houver historico
      * @return primeira competencia conhecida
      */
-    private YearMonth obterPrimeiraCompetencia(List<Lancamento> lancamentos,
-                                               List<Pagamento> pagamentos,
-                                               Cartao cartao,
+    private YearMonth obterPrimeiraCompetencia(List<LancamentoRelatorioDto> lancamentos,
+                                               List<PagamentoRelatorioDto> pagamentos,
+                                               CartaoRelatorioDto cartao,
                                                YearMonth competenciaPadrao) {
         List<YearMonth> competencias = new ArrayList<>();
 
         lancamentos.forEach(lancamento -> competencias.add(
-                DataCompetenciaUtils.calcularCompetenciaInicial(lancamento.getDataCompra(), cartao.getDiaFechamento())
+                DataCompetenciaUtils.calcularCompetenciaInicial(lancamento.dataCompra(), cartao.diaFechamento())
         ));
-        pagamentos.forEach(pagamento -> competencias.add(YearMonth.from(pagamento.getDataPagamento())));
+        pagamentos.forEach(pagamento -> competencias.add(YearMonth.from(pagamento.dataPagamento())));
 
         return competencias.stream().min(YearMonth::compareTo).orElse(competenciaPadrao);
     }
 
+    /**
+     * Converte parcela materializada no item exibido no relatorio.
+     *
+     * @param parcela parcela com dados do lancamento
+     * @return item da competencia
+     */
+    private static ItemRelatorioDto paraItem(ParcelaRelatorioDto parcela) {
+        String rotulo = switch (parcela.tipo()) {
+            case AVULSO -> "1/1";
+            case PARCELADO -> parcela.numero() + "/" + parcela.quantidadeParcelas();
+            case FIXO -> "FIXO";
+        };
+        return new ItemRelatorioDto(parcela.descricao(), parcela.tipo(), rotulo, parcela.valor(), parcela.observacao());
+    }
+
+    /**
+     * Acrescenta as cobrancas de fixos das competencias alem do horizonte do cronograma.
+     *
+     * @param itensPorCompetencia itens do cartao por competencia
+     * @param fixos               lancamentos fixos da pessoa no cartao
+     * @param cartao              cartao com dia de fechamento
+     * @param inicio              primeira competencia sem linhas de fixo
+     * @param fim                 competencia solicitada
+     */
+    private void complementarFixos(NavigableMap<YearMonth, List<ItemRelatorioDto>> itensPorCompetencia,
+                                   List<LancamentoRelatorioDto> fixos,
+                                   CartaoRelatorioDto cartao,
+                                   YearMonth inicio,
+                                   YearMonth fim) {
+        if (fixos.isEmpty()) {
+            return;
+        }
+        for (YearMonth mes = inicio; !mes.isAfter(fim); mes = mes.plusMonths(1)) {
+            List<ItemRelatorioDto> itens = extrairItensDaCompetencia(fixos, cartao, mes);
+            if (!itens.isEmpty()) {
+                itensPorCompetencia.computeIfAbsent(mes, competencia -> new ArrayList<>()).addAll(itens);
+            }
+        }
+    }
+
     /**
      * Extrai itens cobrados em uma competencia considerando regras de avulso, parcelado e fixo.
      *
@@ -209,56 +449,58 @@ public class RelatorioService {
      * @param competencia competencia avaliada
      * @return lista de itens cobrados no mes
      */
-    private List<ItemRelatorioDto> extrairItensDaCompetencia(List<Lancamento> lancamentos, Cartao cartao, YearMonth competencia) {
+    List<ItemRelatorioDto> extrairItensDaCompetencia(List<LancamentoRelatorioDto> lancamentos,
+                                                     CartaoRelatorioDto cartao,
+                                                     YearMonth competencia) {
         List<ItemRelatorioDto> itens = new ArrayList<>();
 
-        for (Lancamento lancamento : lancamentos) {
+        for (LancamentoRelatorioDto lancamento : lancamentos) {
             YearMonth competenciaInicial = DataCompetenciaUtils.calcularCompetenciaInicial(
-                    lancamento.getDataCompra(),
-                    cartao.getDiaFechamento()
+                    lancamento.dataCompra(),
+                    cartao.diaFechamento()
             );
 
-            if (lancamento.getTipo() == TipoLancamento.AVULSO && competencia.equals(competenciaInicial)) {
+            if (lancamento.tipo() == TipoLancamento.AVULSO && competencia.equals(competenciaInicial)) {
                 itens.add(new ItemRelatorioDto(
-                        lancamento.getDescricao(),
+                        lancamento.descricao(),
                         TipoLancamento.AVULSO,
                         "1/1",
-                        lancamento.getValorTotal(),
-                        lancamento.getObservacao()
+                        lancamento.valorTotal(),
+                        lancamento.observacao()
                 ));
             }
 
-            if (lancamento.getTipo() == TipoLancamento.PARCELADO) {
+            if (lancamento.tipo() == TipoLancamento.PARCELADO) {
                 long meses = ChronoUnit.MONTHS.between(competenciaInicial, competencia);
-                if (meses >= 0 && meses < lancamento.getQuantidadeParcelas()) {
+                if (meses >= 0 && meses < lancamento.quantidadeParcelas()) {
                     int parcelaAtual = (int) meses + 1;
                     BigDecimal valorParcela = calcularValorParcela(
-                            lancamento.getValorTotal(),
-                            lancamento.getQuantidadeParcelas(),
+                            lancamento.valorTotal(),
+                            lancamento.quantidadeParcelas(),
                             parcelaAtual
                     );
                     itens.add(new ItemRelatorioDto(
-                            lancamento.getDescricao(),
+                            lancamento.descricao(),
                             TipoLancamento.PARCELADO,
-                            parcelaAtual + "/" + lancamento.getQuantidadeParcelas(),
+                            parcelaAtual + "/" + lancamento.quantidadeParcelas(),
                             valorParcela,
-                            lancamento.getObservacao()
+                            lancamento.observacao()
                     ));
                 }
             }
 
-            if (lancamento.getTipo() == TipoLancamento.FIXO) {
+            if (lancamento.tipo() == TipoLancamento.FIXO) {
                 boolean iniciou = !competencia.isBefore(competenciaInicial);
-                boolean dentroDoFim = lancamento.getDataFimFixo() == null
-                        || !competencia.isAfter(YearMonth.from(lancamento.getDataFimFixo()));
+                boolean dentroDoFim = lancamento.dataFimFixo() == null
+                        || !competencia.isAfter(YearMonth.from(lancamento.dataFimFixo()));
 
                 if (iniciou && dentroDoFim) {
                     itens.add(new ItemRelatorioDto(
-                            lancamento.getDescricao(),
+                            lancamento.descricao(),
                             TipoLancamento.FIXO,
                             "FIXO",
-                            lancamento.getValorTotal(),
-                            lancamento.getObservacao()
+                            lancamento.valorTotal(),
+                            lancamento.observacao()
                     ));
                 }
             }
@@ -298,10 +540,10 @@ public class RelatorioService {
      * @param competencia competencia de referencia
      * @return total pago no mes
      */
-    private BigDecimal somarPagamentosMes(List<Pagamento> pagamentos, YearMonth competencia) {
+    private BigDecimal somarPagamentosMes(List<PagamentoRelatorioDto> pagamentos, YearMonth competencia) {
         return pagamentos.stream()
-                .filter(pagamento -> YearMonth.from(pagamento.getDataPagamento()).equals(competencia))
-                .map(Pagamento::getValor)
+                .filter(pagamento -> YearMonth.from(pagamento.dataPagamento()).equals(competencia))
+                .map(PagamentoRelatorioDto::valor)
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
                 .setScale(2, RoundingMode.HALF_UP);
     }
@@ -342,7 +584,7 @@ public class RelatorioService {
      * @param numeroParcela      parcela atual (1-indexada)
      * @return valor da parcela atual
      */
-    private BigDecimal calcularValorParcela(BigDecimal valorTotal, int quantidadeParcelas, int numeroParcela) {
+    static BigDecimal calcularValorParcela(BigDecimal valorTotal, int quantidadeParcelas, int numeroParcela) {
         BigDecimal base = valorTotal.divide(BigDecimal.valueOf(quantidadeParcelas), 2, RoundingMode.HALF_UP);
 
         if (numeroParcela < quantidadeParcelas) {
@@ -354,15 +596,12 @@ public class RelatorioService {
     }
 
     /**
-     * Mascara numero de cartao para exibir apenas os 4 primeiros e 4 ultimos digitos.
+     * Valores de uma competencia na simulacao de saldo.
      *
-     * @param numero numero completo sem mascara
-     * @return numero parcialmente mascarado
+     * @param competencia competencia simulada
+     * @param cobrado     compras do mes mais juros e multa sobre o saldo anterior
+     * @param pago        pagamentos feitos no mes
      */
-    private String mascararParcialCartao(String numero) {
-        if (numero == null || numero.length() != 16) {
-            return numero;
-        }
-        return numero.substring(0, 4) + " **** **** " + numero.substring(12);
+    record MovimentoCompetencia(YearMonth competencia, BigDecimal cobrado, BigDecimal pago) {
     }
 }
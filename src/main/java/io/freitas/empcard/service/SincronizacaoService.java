@@ -0,0 +1,230 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.DataSourceRoteador;
+import io.freitas.empcard.config.SincronizacaoProperties;
+import io.freitas.empcard.dto.ExclusaoSincronizacaoDto;
+import io.freitas.empcard.dto.SincronizacaoResponseDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.exception.SincronizacaoExpiradaException;
+import io.freitas.empcard.mapper.CartaoMapper;
+import io.freitas.empcard.mapper.LancamentoMapper;
+import io.freitas.empcard.mapper.PagamentoMapper;
+import io.freitas.empcard.mapper.PessoaMapper;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.EntidadeBase;
+import io.freitas.empcard.model.ExclusaoRegistro;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pagamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.repository.CartaoRepository;
+import io.freitas.empcard.repository.ExclusaoRegistroRepository;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PagamentoRepository;
+import io.freitas.empcard.repository.PessoaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Feed de alteracoes para sincronizacao incremental de clientes (ex.: app de cobranca).
+ *
+ * <p>Cada colecao e lida por cursor (updated_at, id) a partir da marca enviada pelo cliente, de modo que o
+ * custo acompanha o numero de alteracoes e nao o tamanho da base. Exclusoes definitivas viram lapides,
+ * gravadas na mesma transacao da exclusao. O limite superior fica {@code margem-consistencia} atras do
+ * relogio porque o {@code updated_at} e o inicio da transacao: uma escrita ainda sem commit nao pode
+ * ficar para tras do cursor.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SincronizacaoService {
+
+    private final PessoaRepository pessoaRepository;
+    private final CartaoRepository cartaoRepository;
+    private final LancamentoRepository lancamentoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final ExclusaoRegistroRepository exclusaoRegistroRepository;
+    private final SincronizacaoProperties properties;
+
+    /**
+     * Lista alteracoes posteriores a marca informada; sem marca, devolve a carga completa paginada.
+     *
+     * @param marcaTexto marca opaca recebida na chamada anterior (null para carga completa)
+     * @return pagina de alteracoes com a nova marca
+     */
+    @Transactional(readOnly = true)
+    public SincronizacaoResponseDto listarAlteracoes(String marcaTexto) {
+        // O cursor avanca ate agora - margem: linhas ainda nao replicadas ficariam para tras para sempre.
+        try (DataSourceRoteador.LeituraPrincipal principal = DataSourceRoteador.lerDoPrincipal()) {
+            return listar(marcaTexto);
+        }
+    }
+
+    /**
+     * Monta a pagina de alteracoes a partir da marca.
+     *
+     * @param marcaTexto marca opaca recebida na chamada anterior (null para carga completa)
+     * @return pagina de alteracoes com a nova marca
+     */
+    private SincronizacaoResponseDto listar(String marcaTexto) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime ate = agora.minus(properties.margemConsistencia());
+        MarcaSincronizacao marca = marcaTexto == null || marcaTexto.isBlank()
+                ? MarcaSincronizacao.inicial(cursorUltimaExclusao(ate))
+                : validar(MarcaSincronizacao.decodificar(marcaTexto), agora);
+
+        int tamanho = properties.tamanhoPagina();
+        Limit limite = Limit.of(tamanho + 1);
+        MarcaSincronizacao.Cursor cursor;
+
+        cursor = marca.pessoas();
+        List<Pessoa> pessoas = pessoaRepository.listarAlteradosDesde(cursor.instante(), cursor.id(), ate, limite);
+        cursor = marca.cartoes();
+        List<Cartao> cartoes = cartaoRepository.listarAlteradosDesde(cursor.instante(), cursor.id(), ate, limite);
+        cursor = marca.lancamentos();
+        List<Lancamento> lancamentos = lancamentoRepository.listarAlteradosDesde(cursor.instante(), cursor.id(), ate, limite);
+        cursor = marca.pagamentos();
+        List<Pagamento> pagamentos = pagamentoRepository.listarAlteradosDesde(cursor.instante(), cursor.id(), ate, limite);
+        cursor = marca.exclusoes();
+        List<ExclusaoRegistro> exclusoes = exclusaoRegistroRepository.listarDesde(cursor.instante(), cursor.id(), ate, limite);
+
+        boolean possuiMais = pessoas.size() > tamanho
+                || cartoes.size() > tamanho
+                || lancamentos.size() > tamanho
+                || pagamentos.size() > tamanho
+                || exclusoes.size() > tamanho;
+
+        pessoas = pagina(pessoas);
+        cartoes = pagina(cartoes);
+        lancamentos = pagina(lancamentos);
+        pagamentos = pagina(pagamentos);
+        exclusoes = pagina(exclusoes);
+
+        MarcaSincronizacao proxima = new MarcaSincronizacao(
+                ate,
+                avancar(marca.pessoas(), pessoas, Pessoa::getId),
+                avancar(marca.cartoes(), cartoes, Cartao::getId),
+                avancar(marca.lancamentos(), lancamentos, Lancamento::getId),
+                avancar(marca.pagamentos(), pagamentos, Pagamento::getId),
+                exclusoes.isEmpty()
+                        ? marca.exclusoes()
+                        : paraCursor(exclusoes.get(exclusoes.size() - 1)));
+
+        log.debug("Sincronizacao listada. pessoas={}, cartoes={}, lancamentos={}, pagamentos={}, exclusoes={}, possuiMais={}",
+                pessoas.size(), cartoes.size(), lancamentos.size(), pagamentos.size(), exclusoes.size(), possuiMais);
+
+        return new SincronizacaoResponseDto(
+                proxima.codificar(),
+                possuiMais,
+                pessoas.stream().map(PessoaMapper::paraResponse).toList(),
+                cartoes.stream().map(CartaoMapper::paraResponse).toList(),
+                lancamentos.stream().map(LancamentoMapper::paraResponse).toList(),
+                pagamentos.stream().map(PagamentoMapper::paraResponse).toList(),
+                exclusoes.stream().map(exclusao -> new ExclusaoSincronizacaoDto(exclusao.getTipo(), exclusao.getRegistroId())).toList()
+        );
+    }
+
+    /**
+     * Grava lapide na mesma transacao da exclusao definitiva de um registro sincronizado.
+     * Listener sincrono de proposito: exclusao e lapide sao confirmadas ou desfeitas juntas.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @EventListener
+    public void registrarExclusao(AlteracaoRegistroEvento evento) {
+        if (evento.operacao() != OperacaoRegistro.EXCLUSAO || !evento.tipo().isFinanceiro()) {
+            return;
+        }
+        ExclusaoRegistro exclusao = new ExclusaoRegistro();
+        exclusao.setTipo(evento.tipo());
+        exclusao.setRegistroId(evento.registroId());
+        exclusaoRegistroRepository.save(exclusao);
+    }
+
+    /**
+     * Remove lapides mais antigas que a retencao; marcas emitidas antes disso passam a exigir carga completa.
+     */
+    @Transactional
+    @Scheduled(cron = "${empcard.sincronizacao.cron-limpeza:0 30 3 * * *}")
+    public void limparExclusoesVencidas() {
+        int removidas = exclusaoRegistroRepository.excluirAnterioresA(LocalDateTime.now().minus(properties.retencaoExclusoes()));
+        log.info("Lapides de sincronizacao vencidas removidas. quantidade={}", removidas);
+    }
+
+    /**
+     * Recusa marcas emitidas antes da retencao das lapides, pois exclusoes podem ter sido perdidas.
+     *
+     * @param marca marca decodificada
+     * @param agora instante atual
+     * @return a propria marca quando ainda valida
+     */
+    private MarcaSincronizacao validar(MarcaSincronizacao marca, LocalDateTime agora) {
+        if (marca.emitidaEm().isBefore(agora.minus(properties.retencaoExclusoes()))) {
+            throw new SincronizacaoExpiradaException("Marca de sincronizacao expirada; refaca a carga completa");
+        }
+        return marca;
+    }
+
+    /**
+     * Cursor da ultima lapide existente ate o limite, usado como ponto de partida da carga completa.
+     *
+     * @param ate limite superior da consulta
+     * @return cursor da ultima lapide ou inicio quando nao ha nenhuma
+     */
+    private MarcaSincronizacao.Cursor cursorUltimaExclusao(LocalDateTime ate) {
+        return exclusaoRegistroRepository.findFirstByExcluidoEmLessThanEqualOrderByExcluidoEmDescIdDesc(ate)
+                .map(this::paraCursor)
+                .orElse(MarcaSincronizacao.Cursor.INICIO);
+    }
+
+    /**
+     * Descarta a linha extra lida apenas para detectar se ha mais paginas.
+     *
+     * @param encontrados linhas lidas com uma a mais que o tamanho da pagina
+     * @param <T>         tipo da linha
+     * @return linhas da pagina
+     */
+    private <T> List<T> pagina(List<T> encontrados) {
+        return encontrados.size() > properties.tamanhoPagina()
+                ? encontrados.subList(0, properties.tamanhoPagina())
+                : encontrados;
+    }
+
+    /**
+     * Avanca o cursor para a ultima linha entregue da colecao.
+     *
+     * @param atual  cursor recebido
+     * @param pagina linhas entregues
+     * @param id     extrator do id
+     * @param <T>    tipo da entidade
+     * @return novo cursor
+     */
+    private <T extends EntidadeBase> MarcaSincronizacao.Cursor avancar(MarcaSincronizacao.Cursor atual,
+                                                                        List<T> pagina,
+                                                                        Function<T, Long> id) {
+        if (pagina.isEmpty()) {
+            return atual;
+        }
+        T ultima = pagina.get(pagina.size() - 1);
+        return new MarcaSincronizacao.Cursor(ultima.getUpdatedAt(), id.apply(ultima));
+    }
+
+    /**
+     * Converte lapide em cursor.
+     *
+     * @param exclusao lapide
+     * @return cursor posicionado na lapide
+     */
+    private MarcaSincronizacao.Cursor paraCursor(ExclusaoRegistro exclusao) {
+        return new MarcaSincronizacao.Cursor(exclusao.getExcluidoEm(), exclusao.getId());
+    }
+}
@@ -0,0 +1,275 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.TarefaProperties;
+import io.freitas.empcard.dto.ContagemSituacaoTarefaDto;
+import io.freitas.empcard.dto.ProgressoLoteTarefaDto;
+import io.freitas.empcard.dto.TarefaReservadaDto;
+import io.freitas.empcard.model.LoteTarefa;
+import io.freitas.empcard.model.SituacaoTarefa;
+import io.freitas.empcard.model.Tarefa;
+import io.freitas.empcard.model.TipoTarefa;
+import io.freitas.empcard.repository.LoteTarefaRepository;
+import io.freitas.empcard.repository.TarefaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Estado das tarefas distribuidas no banco: criacao de lotes, reserva, heartbeat, retentativa e progresso.
+ *
+ * <p>A reserva usa {@code SELECT ... FOR UPDATE SKIP LOCKED}: instancias buscando ao mesmo tempo pulam as
+ * linhas que outra ja travou, sem esperar nem reservar o mesmo item. Toda mudanca de uma tarefa reservada
+ * confere a instancia dona, entao uma instancia que perdeu a tarefa por heartbeat atrasado nao sobrescreve
+ * o trabalho de quem a retomou.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TarefaService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final LoteTarefaRepository loteTarefaRepository;
+    private final TarefaRepository tarefaRepository;
+    private final TarefaProperties properties;
+
+    /**
+     * Cria lote com uma tarefa pendente por item. Enquanto a geracao anterior do mesmo tipo e referencia tiver
+     * tarefas pendentes ou em execucao nada e criado; depois que ela termina (concluida ou com falhas) uma nova
+     * execucao cria a geracao seguinte. Duas instancias criando a mesma geracao ao mesmo tempo esbarram na
+     * restricao unica; a segunda recebe {@link org.springframework.dao.DataIntegrityViolationException}.
+     *
+     * @param tipo       tipo do lote
+     * @param referencia referencia do lote (ex.: competencia)
+     * @param itemIds    itens a processar
+     * @return lote criado ou vazio quando a geracao anterior ainda esta em andamento
+     */
+    @Transactional
+    public Optional<LoteTarefa> criarLote(TipoTarefa tipo, String referencia, List<Long> itemIds) {
+        Optional<LoteTarefa> anterior = loteTarefaRepository.findFirstByTipoAndReferenciaOrderByGeracaoDesc(tipo, referencia);
+        if (anterior.isPresent() && tarefaRepository.existsByLoteIdAndSituacaoIn(anterior.get().getId(),
+                List.of(SituacaoTarefa.PENDENTE, SituacaoTarefa.EM_EXECUCAO))) {
+            return Optional.empty();
+        }
+        LoteTarefa lote = new LoteTarefa();
+        lote.setTipo(tipo);
+        lote.setReferencia(referencia);
+        lote.setGeracao(anterior.map(LoteTarefa::getGeracao).orElse(0) + 1);
+        lote.setTotal(itemIds.size());
+        loteTarefaRepository.saveAndFlush(lote);
+
+        LocalDateTime agora = LocalDateTime.now();
+        tarefaRepository.saveAll(itemIds.stream().map(itemId -> {
+            Tarefa tarefa = new Tarefa();
+            tarefa.setLoteId(lote.getId());
+            tarefa.setItemId(itemId);
+            tarefa.setSituacao(SituacaoTarefa.PENDENTE);
+            tarefa.setExecutarApos(agora);
+            return tarefa;
+        }).toList());
+        log.info("Lote de tarefas criado. loteId={}, tipo={}, referencia={}, geracao={}, total={}",
+                lote.getId(), tipo, referencia, lote.getGeracao(), itemIds.size());
+        return Optional.of(lote);
+    }
+
+    /**
+     * Reserva ate {@code quantidade} tarefas pendentes para a instancia, pulando as travadas por outras.
+     *
+     * @param instancia  identificador da instancia
+     * @param quantidade maximo de tarefas
+     * @return tarefas reservadas com os dados do lote
+     */
+    @Transactional
+    public List<TarefaReservadaDto> reservar(String instancia, int quantidade) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<Tarefa> tarefas = tarefaRepository.travarPendentes(agora, quantidade);
+        if (tarefas.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, LoteTarefa> lotes = loteTarefaRepository
+                .findAllById(tarefas.stream().map(Tarefa::getLoteId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(LoteTarefa::getId, Function.identity()));
+
+        return tarefas.stream().map(tarefa -> {
+            tarefa.setSituacao(SituacaoTarefa.EM_EXECUCAO);
+            tarefa.setInstancia(instancia);
+            tarefa.setHeartbeatEm(agora);
+            tarefa.setTentativas(tarefa.getTentativas() + 1);
+            LoteTarefa lote = lotes.get(tarefa.getLoteId());
+            return new TarefaReservadaDto(tarefa.getId(), lote.getTipo(), lote.getReferencia(), tarefa.getItemId(),
+                    tarefa.getTentativas());
+        }).toList();
+    }
+
+    /**
+     * Marca tarefa como concluida.
+     *
+     * @param id        tarefa
+     * @param instancia instancia que a executou
+     * @return false quando a tarefa ja nao pertencia a instancia
+     */
+    @Transactional
+    public boolean concluir(Long id, String instancia) {
+        Optional<Tarefa> tarefa = travarSePertencer(id, instancia);
+        tarefa.ifPresent(encontrada -> {
+            encontrada.setSituacao(SituacaoTarefa.CONCLUIDA);
+            encontrada.setConcluidaEm(LocalDateTime.now());
+            encontrada.setErro(null);
+        });
+        return tarefa.isPresent();
+    }
+
+    /**
+     * Registra falha: a tarefa volta para a fila com espera crescente ou, sem tentativas restantes, vira falha.
+     *
+     * @param id        tarefa
+     * @param instancia instancia que a executou
+     * @param erro      descricao do erro
+     * @return false quando a tarefa ja nao pertencia a instancia
+     */
+    @Transactional
+    public boolean registrarFalha(Long id, String instancia, String erro) {
+        Optional<Tarefa> tarefa = travarSePertencer(id, instancia);
+        tarefa.ifPresent(encontrada -> {
+            encontrada.setErro(erro == null || erro.length() <= TAMANHO_MAXIMO_ERRO
+                    ? erro
+                    : erro.substring(0, TAMANHO_MAXIMO_ERRO));
+            if (encontrada.getTentativas() >= properties.maxTentativas()) {
+                encontrada.setSituacao(SituacaoTarefa.FALHA);
+                return;
+            }
+            int expoente = Math.min(encontrada.getTentativas() - 1, 10);
+            encontrada.setSituacao(SituacaoTarefa.PENDENTE);
+            encontrada.setInstancia(null);
+            encontrada.setExecutarApos(LocalDateTime.now().plus(properties.esperaRetentativa().multipliedBy(1L << expoente)));
+        });
+        return tarefa.isPresent();
+    }
+
+    /**
+     * Renova o heartbeat das tarefas em execucao na instancia.
+     *
+     * @param ids       tarefas em execucao
+     * @param instancia instancia dona
+     * @return quantidade renovada; menor que {@code ids} quando alguma foi retomada por outra instancia
+     */
+    @Transactional
+    public int renovarHeartbeat(Collection<Long> ids, String instancia) {
+        return tarefaRepository.renovarHeartbeat(ids, instancia, SituacaoTarefa.EM_EXECUCAO, LocalDateTime.now());
+    }
+
+    /**
+     * Devolve para a fila, sem gastar tentativa, tarefas interrompidas pelo desligamento da instancia.
+     *
+     * @param ids       tarefas em execucao
+     * @param instancia instancia dona
+     * @return quantidade devolvida
+     */
+    @Transactional
+    public int devolver(Collection<Long> ids, String instancia) {
+        return tarefaRepository.devolver(ids, instancia, SituacaoTarefa.EM_EXECUCAO, SituacaoTarefa.PENDENTE);
+    }
+
+    /**
+     * Retoma tarefas cuja instancia parou de renovar o heartbeat: voltam para a fila ou, sem tentativas
+     * restantes, viram falha.
+     *
+     * @return quantidade de tarefas afetadas
+     */
+    @Transactional
+    public int recuperarAbandonadas() {
+        LocalDateTime limite = LocalDateTime.now().minus(properties.limiteHeartbeat());
+        int encerradas = tarefaRepository.encerrarAbandonadas(SituacaoTarefa.EM_EXECUCAO, SituacaoTarefa.FALHA,
+                limite, properties.maxTentativas(), "Heartbeat perdido na ultima tentativa");
+        int liberadas = tarefaRepository.liberarAbandonadas(SituacaoTarefa.EM_EXECUCAO, SituacaoTarefa.PENDENTE,
+                limite, properties.maxTentativas(), "Heartbeat perdido");
+        if (encerradas + liberadas > 0) {
+            log.warn("Tarefas abandonadas recuperadas. devolvidas={}, falhas={}", liberadas, encerradas);
+        }
+        return encerradas + liberadas;
+    }
+
+    /**
+     * Progresso dos lotes mais recentes.
+     *
+     * @param limite quantidade de lotes
+     * @return progresso do mais novo para o mais antigo
+     */
+    @Transactional(readOnly = true)
+    public List<ProgressoLoteTarefaDto> listarProgresso(int limite) {
+        return montarProgresso(loteTarefaRepository.findAllByOrderByIdDesc(Limit.of(limite)));
+    }
+
+    /**
+     * Progresso de um lote.
+     *
+     * @param loteId lote
+     * @return progresso ou vazio quando o lote nao existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProgressoLoteTarefaDto> buscarProgresso(Long loteId) {
+        return loteTarefaRepository.findById(loteId).map(lote -> montarProgresso(List.of(lote)).getFirst());
+    }
+
+    /**
+     * Trava a tarefa e confere se ela continua em execucao pela instancia.
+     *
+     * @param id        tarefa
+     * @param instancia instancia que espera ser a dona
+     * @return tarefa travada ou vazio quando foi retomada por outra instancia
+     */
+    private Optional<Tarefa> travarSePertencer(Long id, String instancia) {
+        Optional<Tarefa> tarefa = tarefaRepository.travarPorId(id)
+                .filter(encontrada -> encontrada.getSituacao() == SituacaoTarefa.EM_EXECUCAO
+                        && instancia.equals(encontrada.getInstancia()));
+        if (tarefa.isEmpty()) {
+            log.warn("Tarefa nao pertence mais a instancia; resultado descartado. tarefaId={}, instancia={}", id, instancia);
+        }
+        return tarefa;
+    }
+
+    /**
+     * Soma as tarefas de cada lote por situacao com uma unica consulta agrupada.
+     *
+     * @param lotes lotes a resumir
+     * @return progresso na mesma ordem dos lotes
+     */
+    private List<ProgressoLoteTarefaDto> montarProgresso(List<LoteTarefa> lotes) {
+        if (lotes.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Map<SituacaoTarefa, Long>> contagens = tarefaRepository
+                .contarPorSituacao(lotes.stream().map(LoteTarefa::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(ContagemSituacaoTarefaDto::loteId,
+                        Collectors.toMap(ContagemSituacaoTarefaDto::situacao, ContagemSituacaoTarefaDto::total,
+                                Long::sum, () -> new EnumMap<>(SituacaoTarefa.class))));
+
+        return lotes.stream().map(lote -> {
+            Map<SituacaoTarefa, Long> porSituacao = contagens.getOrDefault(lote.getId(), Map.of());
+            return new ProgressoLoteTarefaDto(
+                    lote.getId(),
+                    lote.getTipo(),
+                    lote.getReferencia(),
+                    lote.getGeracao(),
+                    lote.getTotal(),
+                    porSituacao.getOrDefault(SituacaoTarefa.PENDENTE, 0L),
+                    porSituacao.getOrDefault(SituacaoTarefa.EM_EXECUCAO, 0L),
+                    porSituacao.getOrDefault(SituacaoTarefa.CONCLUIDA, 0L),
+                    porSituacao.getOrDefault(SituacaoTarefa.FALHA, 0L),
+                    lote.getCreatedAt());
+        }).toList();
+    }
+}
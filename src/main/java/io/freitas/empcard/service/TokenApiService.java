@@ -0,0 +1,274 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.TokenApiProperties;
+import io.freitas.empcard.dto.TokenApiEmitidoDto;
+import io.freitas.empcard.dto.TokenApiFormDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
+import io.freitas.empcard.exception.RecursoNaoEncontradoException;
+import io.freitas.empcard.exception.RegraDeNegocioException;
+import io.freitas.empcard.model.PapelUsuario;
+import io.freitas.empcard.model.TokenApi;
+import io.freitas.empcard.model.Usuario;
+import io.freitas.empcard.repository.TokenApiRepository;
+import io.freitas.empcard.repository.UsuarioRepository;
+import io.freitas.empcard.util.TextoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emissao, revogacao e verificacao de tokens opacos de acesso a API.
+ *
+ * <p>O token tem 256 bits aleatorios e so o seu SHA-256 e persistido; por ser de alta entropia nao
+ * precisa de BCrypt. Verificacoes bem-sucedidas ficam em memoria por {@code empcard.token-api.cache-ttl},
+ * de modo que requisicoes seguidas do mesmo cliente nao consultam o banco. Revogacao e desativacao do
+ * usuario removem as entradas apos o commit; em outras instancias o efeito vale ao fim do TTL.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenApiService {
+
+    private static final String PREFIXO_TOKEN = "emp_";
+    private static final int BYTES_TOKEN = 32;
+    private static final int TAMANHO_PREFIXO = 12;
+
+    private final TokenApiRepository tokenApiRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TokenApiProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Map<String, TokenVerificado> verificados = new ConcurrentHashMap<>();
+
+    /**
+     * Emite novo token para o usuario autenticado.
+     *
+     * @param nomeUsuario usuario dono do token
+     * @param form        descricao e validade
+     * @return dados do token, incluindo o valor secreto exibido somente nesta resposta
+     */
+    @Transactional
+    public TokenApiEmitidoDto emitir(String nomeUsuario, TokenApiFormDto form) {
+        Usuario usuario = buscarUsuario(nomeUsuario);
+        int validadeDias = form.getValidadeDias() != null ? form.getValidadeDias() : properties.validadePadraoDias();
+
+        String valor = gerarValor();
+        TokenApi token = new TokenApi();
+        token.setUsuario(usuario);
+        token.setDescricao(TextoUtils.normalizarMaiusculo(form.getDescricao()));
+        token.setPrefixo(valor.substring(0, TAMANHO_PREFIXO));
+        token.setHashToken(calcularHash(valor));
+        token.setExpiraEm(validadeDias > 0 ? LocalDateTime.now().plusDays(validadeDias) : null);
+
+        TokenApi salvo = tokenApiRepository.save(token);
+        log.info("Token de API emitido. id={}, usuarioId={}, expiraEm={}", salvo.getId(), usuario.getId(), salvo.getExpiraEm());
+        return new TokenApiEmitidoDto(salvo.getId(), salvo.getDescricao(), valor, salvo.getExpiraEm());
+    }
+
+    /**
+     * Lista tokens do usuario autenticado, ativos e revogados.
+     *
+     * @param nomeUsuario usuario dono dos tokens
+     * @return tokens em ordem decrescente de emissao
+     */
+    @Transactional(readOnly = true)
+    public List<TokenApi> listarDoUsuario(String nomeUsuario) {
+        return tokenApiRepository.findAllByUsuarioIdOrderByIdDesc(buscarUsuario(nomeUsuario).getId());
+    }
+
+    /**
+     * Revoga token do proprio usuario; administradores podem revogar qualquer token.
+     *
+     * @param id          identificador do token
+     * @param nomeUsuario usuario que solicita a revogacao
+     */
+    @Transactional
+    public void revogar(Long id, String nomeUsuario) {
+        Usuario solicitante = buscarUsuario(nomeUsuario);
+        TokenApi token = tokenApiRepository.findById(id)
+                .filter(encontrado -> solicitante.getPapel() == PapelUsuario.ADMIN
+                        || encontrado.getUsuario().getId().equals(solicitante.getId()))
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Token de API nao encontrado para id " + id));
+
+        if (token.getRevogadoEm() != null) {
+            throw new RegraDeNegocioException("Token de API ja revogado");
+        }
+
+        token.setRevogadoEm(LocalDateTime.now());
+        tokenApiRepository.save(token);
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                TipoRegistro.TOKEN_API, OperacaoRegistro.EXCLUSAO, token.getId(), null, null));
+        log.info("Token de API revogado. id={}, solicitanteId={}", id, solicitante.getId());
+    }
+
+    /**
+     * Verifica o token apresentado, consultando o banco apenas na primeira vez dentro do TTL do cache.
+     * Sem {@code @Transactional} de proposito: um acerto no cache nao deve abrir conexao.
+     *
+     * @param valor token recebido no cabecalho Authorization
+     * @return dados do dono quando o token e valido
+     */
+    public Optional<TokenVerificado> verificar(String valor) {
+        if (valor == null || !valor.startsWith(PREFIXO_TOKEN)) {
+            return Optional.empty();
+        }
+        String hash = calcularHash(valor);
+        long agora = System.nanoTime();
+
+        TokenVerificado emCache = verificados.get(hash);
+        if (emCache != null && agora - emCache.carregadoEmNanos() < properties.cacheTtl().toNanos()) {
+            return emCache.valido(LocalDateTime.now()) ? Optional.of(emCache) : Optional.empty();
+        }
+
+        Optional<TokenVerificado> carregado = tokenApiRepository.findByHashToken(hash)
+                .filter(token -> token.getRevogadoEm() == null && token.getUsuario().isAtivo())
+                .map(token -> new TokenVerificado(
+                        token.getId(),
+                        token.getUsuario().getId(),
+                        token.getUsuario().getNomeUsuario(),
+                        token.getUsuario().getPapel(),
+                        token.getExpiraEm(),
+                        agora))
+                .filter(token -> token.valido(LocalDateTime.now()));
+
+        carregado.ifPresentOrElse(token -> armazenar(hash, token), () -> verificados.remove(hash));
+        return carregado;
+    }
+
+    /**
+     * Remove do cache tokens revogados ou de usuarios alterados, apos o commit.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @TransactionalEventListener
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        if (evento.tipo() == TipoRegistro.TOKEN_API) {
+            verificados.values().removeIf(token -> token.tokenId().equals(evento.registroId()));
+        } else if (evento.tipo() == TipoRegistro.USUARIO) {
+            verificados.values().removeIf(token -> token.usuarioId().equals(evento.registroId()));
+        }
+    }
+
+    /**
+     * Aplica revogacoes e alteracoes de usuario feitas em outra instancia.
+     *
+     * @param evento alteracao recebida pelo barramento de invalidacao
+     */
+    @EventListener
+    public void aoAlterarRegistroRemoto(AlteracaoRemotaEvento evento) {
+        aoAlterarRegistro(evento.alteracao());
+    }
+
+    /**
+     * Esvazia o cache de verificacoes quando alteracoes remotas podem ter sido perdidas.
+     */
+    @EventListener(AlteracoesRemotasPerdidasEvento.class)
+    public void aoPerderAlteracoesRemotas() {
+        verificados.clear();
+    }
+
+    /**
+     * Guarda verificacao em cache respeitando o limite de entradas.
+     *
+     * @param hash  hash do token
+     * @param token dados verificados
+     */
+    private void armazenar(String hash, TokenVerificado token) {
+        if (verificados.size() >= properties.cacheMaxEntradas()) {
+            long limite = System.nanoTime() - properties.cacheTtl().toNanos();
+            verificados.values().removeIf(existente -> existente.carregadoEmNanos() < limite);
+            if (verificados.size() >= properties.cacheMaxEntradas()) {
+                return;
+            }
+        }
+        verificados.put(hash, token);
+    }
+
+    /**
+     * Busca usuario pelo nome autenticado.
+     *
+     * @param nomeUsuario nome de usuario
+     * @return usuario encontrado
+     */
+    private Usuario buscarUsuario(String nomeUsuario) {
+        return usuarioRepository.findByNomeUsuarioIgnoreCase(nomeUsuario)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuario autenticado nao encontrado"));
+    }
+
+    /**
+     * Gera valor aleatorio do token em base64 url-safe.
+     *
+     * @return token com prefixo identificador
+     */
+    private String gerarValor() {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        secureRandom.nextBytes(bytes);
+        return PREFIXO_TOKEN + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Calcula SHA-256 hexadecimal do token.
+     *
+     * @param valor token em texto
+     * @return hash persistido
+     */
+    private String calcularHash(String valor) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(valor.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponivel na JVM", ex);
+        }
+    }
+
+    /**
+     * Resultado de uma verificacao de token mantido em cache.
+     *
+     * @param tokenId           identificador do token
+     * @param usuarioId         identificador do dono
+     * @param nomeUsuario       login do dono, usado como principal
+     * @param papel             papel do dono para autorizacao
+     * @param expiraEm          expiracao do token (null quando nao expira)
+     * @param carregadoEmNanos  instante monotonico em que a verificacao foi feita no banco
+     */
+    public record TokenVerificado(
+            Long tokenId,
+            Long usuarioId,
+            String nomeUsuario,
+            PapelUsuario papel,
+            LocalDateTime expiraEm,
+            long carregadoEmNanos
+    ) {
+
+        /**
+         * Confere expiracao sem consultar o banco.
+         *
+         * @param agora instante de referencia
+         * @return true quando o token ainda nao expirou
+         */
+        public boolean valido(LocalDateTime agora) {
+            return expiraEm == null || expiraEm.isAfter(agora);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package io.freitas.empcard.service;
 import io.freitas.empcard.dto.AlterarSenhaFormDto;
 import io.freitas.empcard.dto.SetupInicialFormDto;
 import io.freitas.empcard.dto.UsuarioFormDto;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
 import io.freitas.empcard.exception.RecursoNaoEncontradoException;
 import io.freitas.empcard.exception.RegraDeNegocioException;
 import io.freitas.empcard.model.PapelUsuario;
@@ -11,6 +14,7 @@ import io.freitas.empcard.repository.UsuarioRepository;
 import io.freitas.empcard.util.TextoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +32,7 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Informa se ja existe ao menos um usuario para decidir fluxo de setup inicial.
@@ -37,7 +42,7 @@ public class UsuarioService {
     @Transactional(readOnly = true)
     public boolean possuiUsuarios() {
         boolean possui = usuarioRepository.count() > 0;
-        log.info("Verificacao de usuarios existentes: {}", possui);
+        log.debug("Verificacao de usuarios existentes: {}", possui);
         return possui;
     }
 
@@ -48,7 +53,7 @@ public class UsuarioService {
      */
     @Transactional(readOnly = true)
     public List<Usuario> listarTodos() {
-        log.info("Listando usuarios");
+        log.debug("Listando usuarios");
         return usuarioRepository.findAll().stream()
                 .sorted(Comparator.comparing(Usuario::getNomeExibicao, Comparator.nullsLast(String::compareTo)))
                 .toList();
@@ -62,7 +67,7 @@ public class UsuarioService {
      */
     @Transactional(readOnly = true)
     public Usuario buscarPorId(Long id) {
-        log.info("Buscando usuario por id={}", id);
+        log.debug("Buscando usuario por id={}", id);
         return usuarioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Usuario nao encontrado para id " + id));
     }
@@ -88,6 +93,8 @@ public class UsuarioService {
         usuario.setAtivo(true);
 
         Usuario salvo = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                TipoRegistro.USUARIO, OperacaoRegistro.CRIACAO, salvo.getId(), null, null));
         log.info("Primeiro administrador criado com sucesso. id={}, nomeUsuario={}", salvo.getId(), salvo.getNomeUsuario());
         return salvo;
     }
@@ -114,6 +121,8 @@ public class UsuarioService {
         usuario.setAtivo(form.isAtivo());
 
         Usuario salvo = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                TipoRegistro.USUARIO, OperacaoRegistro.CRIACAO, salvo.getId(), null, null));
         log.info("Usuario criado com sucesso. id={}, papel={}", salvo.getId(), salvo.getPapel());
         return salvo;
     }
@@ -133,6 +142,9 @@ public class UsuarioService {
 
         usuario.setAtivo(!usuario.isAtivo());
         usuarioRepository.save(usuario);
+        // Tokens de API verificados em cache deixam de valer apos o commit da desativacao.
+        eventPublisher.publishEvent(new AlteracaoRegistroEvento(
+                TipoRegistro.USUARIO, OperacaoRegistro.ATUALIZACAO, usuario.getId(), null, null));
         log.info("Status do usuario alterado. id={}, ativo={}", id, usuario.isAtivo());
     }
 
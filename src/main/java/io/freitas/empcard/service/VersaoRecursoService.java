@@ -0,0 +1,205 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.TipoRegistro;
+import io.freitas.empcard.model.EntidadeBase;
+import io.freitas.empcard.model.VersaoRegistro;
+import io.freitas.empcard.repository.VersaoRegistroRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Deriva validadores (ETag) de contadores de versao incrementados na propria transacao de cada escrita.
+ *
+ * <p>Ha um contador por tabela e um por pessoa (dados que entram no relatorio dela). O incremento trava a linha
+ * do contador ate o commit, entao escritas concorrentes sao serializadas e a versao lida so muda quando a
+ * alteracao fica visivel. {@code count} e {@code max(updated_at)} nao servem para isso: updated_at e o inicio da
+ * transacao, um commit tardio pode gravar valor menor que o ja observado e atualizar um registro e excluir outro
+ * pode manter os dois numeros. Consultar os contadores continua muito mais barato que montar a resposta, entao um
+ * GET condicional sem mudancas responde 304 sem carregar entidades nem serializar o corpo.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class VersaoRecursoService {
+
+    private static final String PESSOAS = "pessoas";
+    private static final String CARTOES = "cartoes";
+    private static final String LANCAMENTOS = "lancamentos";
+    private static final String PAGAMENTOS = "pagamentos";
+    private static final String USUARIOS = "usuarios";
+
+    private final VersaoRegistroRepository versaoRegistroRepository;
+
+    /**
+     * Incrementa, na transacao da escrita, a versao da tabela alterada e a da pessoa afetada.
+     * Listener sincrono de proposito: depois do commit o incremento ja nao seria atomico com a alteracao.
+     *
+     * @param evento evento de alteracao publicado pelos servicos
+     */
+    @EventListener
+    @Transactional
+    public void aoAlterarRegistro(AlteracaoRegistroEvento evento) {
+        String tabela = chaveTabela(evento.tipo());
+        if (tabela != null) {
+            incrementar(tabela);
+        }
+        if (evento.pessoaId() != null) {
+            incrementar(chavePessoa(evento.pessoaId()));
+        }
+    }
+
+    /**
+     * ETag da listagem de pessoas.
+     *
+     * @return validador da colecao
+     */
+    @Transactional(readOnly = true)
+    public String etagPessoas() {
+        return gerarEtag(PESSOAS, PESSOAS);
+    }
+
+    /**
+     * ETag da listagem de cartoes.
+     *
+     * @return validador da colecao
+     */
+    @Transactional(readOnly = true)
+    public String etagCartoes() {
+        return gerarEtag(CARTOES, CARTOES);
+    }
+
+    /**
+     * ETag da listagem de usuarios.
+     *
+     * @return validador da colecao
+     */
+    @Transactional(readOnly = true)
+    public String etagUsuarios() {
+        return gerarEtag(USUARIOS, USUARIOS);
+    }
+
+    /**
+     * ETag da listagem de lancamentos; inclui pessoas e cartoes porque a resposta exibe nome e numero.
+     *
+     * @return validador da colecao
+     */
+    @Transactional(readOnly = true)
+    public String etagLancamentos() {
+        return gerarEtag(LANCAMENTOS, LANCAMENTOS, PESSOAS, CARTOES);
+    }
+
+    /**
+     * ETag da listagem de pagamentos; inclui pessoas e cartoes porque a resposta exibe nome e numero.
+     *
+     * @return validador da colecao
+     */
+    @Transactional(readOnly = true)
+    public String etagPagamentos() {
+        return gerarEtag(PAGAMENTOS, PAGAMENTOS, PESSOAS, CARTOES);
+    }
+
+    /**
+     * ETag do relatorio mensal de uma pessoa. O relatorio depende dos dados da pessoa (juros e multa),
+     * de todo o historico de lancamentos e pagamentos dela, cobertos pela versao da pessoa, e das regras de
+     * fechamento dos cartoes.
+     *
+     * @param pessoaId    identificador da pessoa
+     * @param competencia competencia do relatorio
+     * @return validador do relatorio
+     */
+    @Transactional(readOnly = true)
+    public String etagRelatorioPessoa(Long pessoaId, YearMonth competencia) {
+        return gerarEtag("relatorio:" + pessoaId + ":" + competencia, chavePessoa(pessoaId), CARTOES);
+    }
+
+    /**
+     * ETag de uma entidade individual com base em id e updated_at da entidade e das associacoes exibidas.
+     * Escritas na mesma linha sao serializadas pelo banco, entao cada versao gravada tem valor proprio.
+     *
+     * @param recurso   nome do recurso
+     * @param id        identificador da entidade
+     * @param entidades entidade principal seguida das associacoes que aparecem na resposta
+     * @return validador da entidade
+     */
+    public String etagEntidade(String recurso, Long id, EntidadeBase... entidades) {
+        StringBuilder base = new StringBuilder(recurso).append(':').append(id);
+        for (EntidadeBase entidade : entidades) {
+            base.append('|').append(entidade.getUpdatedAt());
+        }
+        return hash(base.toString());
+    }
+
+    /**
+     * Garante a linha do contador e incrementa a versao; o insert ignora conflito para que a primeira escrita de
+     * uma pessoa nao falhe quando outra transacao cria a mesma linha.
+     *
+     * @param chave chave do contador
+     */
+    private void incrementar(String chave) {
+        versaoRegistroRepository.criarSeAusente(chave);
+        versaoRegistroRepository.incrementar(chave);
+    }
+
+    /**
+     * Le as versoes atuais e condensa em um hash curto; contador ainda inexistente vale zero.
+     *
+     * @param recurso prefixo do recurso para evitar colisao entre endpoints
+     * @param chaves  contadores que cobrem os dados da resposta
+     * @return valor do ETag (sem aspas)
+     */
+    private String gerarEtag(String recurso, String... chaves) {
+        Map<String, Long> versoes = versaoRegistroRepository.findByChaveIn(List.of(chaves)).stream()
+                .collect(Collectors.toMap(VersaoRegistro::getChave, VersaoRegistro::getVersao));
+        StringBuilder base = new StringBuilder(recurso);
+        for (String chave : chaves) {
+            base.append('|').append(chave).append(':').append(versoes.getOrDefault(chave, 0L));
+        }
+        return hash(base.toString());
+    }
+
+    /**
+     * Hash curto usado como valor do ETag.
+     *
+     * @param base texto com as versoes
+     * @return md5 em hexadecimal
+     */
+    private static String hash(String base) {
+        return DigestUtils.md5DigestAsHex(base.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Contador da tabela alterada; tokens de API nao tem listagem condicional.
+     *
+     * @param tipo tipo do registro alterado
+     * @return chave do contador ou null
+     */
+    private static String chaveTabela(TipoRegistro tipo) {
+        return switch (tipo) {
+            case PESSOA -> PESSOAS;
+            case CARTAO -> CARTOES;
+            case LANCAMENTO -> LANCAMENTOS;
+            case PAGAMENTO -> PAGAMENTOS;
+            case USUARIO -> USUARIOS;
+            case TOKEN_API -> null;
+        };
+    }
+
+    /**
+     * Contador dos dados de uma pessoa.
+     *
+     * @param pessoaId identificador da pessoa
+     * @return chave do contador
+     */
+    private static String chavePessoa(Long pessoaId) {
+        return "pessoa:" + pessoaId;
+    }
+}
@@ -0,0 +1,71 @@
+package io.freitas.empcard.util;
+
+/**
+ * Cache limitado de mascaras ja montadas, indexado diretamente pelo hash da entrada.
+ *
+ * <p>Cada posicao guarda uma unica entrada imutavel; colisoes apenas substituem a anterior. Nao ha lock: a
+ * escrita de referencia e atomica e a entrada e imutavel, entao uma leitura concorrente ve a entrada antiga,
+ * a nova ou nenhuma, e nos dois ultimos casos a mascara e recalculada. O tamanho e fixo, sem crescimento nem
+ * remocao, o que basta para o volume de CPFs e cartoes da carteira.</p>
+ */
+final class CacheMascaras {
+
+    private final Entrada[] entradas;
+    private final int mascaraIndice;
+
+    /**
+     * Cria cache com a capacidade informada.
+     *
+     * @param capacidade quantidade de posicoes, potencia de 2
+     */
+    CacheMascaras(int capacidade) {
+        if (Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("Capacidade deve ser potencia de 2: " + capacidade);
+        }
+        this.entradas = new Entrada[capacidade];
+        this.mascaraIndice = capacidade - 1;
+    }
+
+    /**
+     * Busca a mascara ja montada para o valor.
+     *
+     * @param valor valor original
+     * @return mascara em cache ou null quando ausente
+     */
+    String buscar(String valor) {
+        Entrada entrada = entradas[indice(valor)];
+        return entrada != null && entrada.valor().equals(valor) ? entrada.mascara() : null;
+    }
+
+    /**
+     * Guarda a mascara montada para o valor.
+     *
+     * @param valor   valor original
+     * @param mascara mascara correspondente
+     * @return a propria mascara, para uso encadeado
+     */
+    String guardar(String valor, String mascara) {
+        entradas[indice(valor)] = new Entrada(valor, mascara);
+        return mascara;
+    }
+
+    /**
+     * Posicao do valor no array, espalhando os bits altos do hash.
+     *
+     * @param valor valor original
+     * @return indice da posicao
+     */
+    private int indice(String valor) {
+        int hash = valor.hashCode();
+        return (hash ^ (hash >>> 16)) & mascaraIndice;
+    }
+
+    /**
+     * Valor original e mascara correspondente.
+     *
+     * @param valor   valor original
+     * @param mascara mascara montada
+     */
+    private record Entrada(String valor, String mascara) {
+    }
+}
@@ -2,12 +2,15 @@ package io.freitas.empcard.util;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Regras de calendario para determinar competencia e vencimento de faturas.
  */
 public final class DataCompetenciaUtils {
 
+    private static final DateTimeFormatter FORMATADOR_COMPETENCIA_EXTENSO = DateTimeFormatter.ofPattern("MM-uuuu");
+
     private DataCompetenciaUtils() {
     }
 
@@ -41,4 +44,51 @@ public final class DataCompetenciaUtils {
         int diaAjustado = Math.min(diaVencimento, mesBase.lengthOfMonth());
         return mesBase.atDay(diaAjustado);
     }
+
+    /**
+     * Primeiro dia de compra que cai na competencia (janela de faturamento).
+     * Quando o dia de fechamento nao existe no mes anterior, nenhuma compra daquele mes vira a competencia.
+     *
+     * @param competencia   competencia da fatura
+     * @param diaFechamento dia de fechamento do cartao
+     * @return data inicial da janela, inclusiva
+     */
+    public static LocalDate calcularInicioJanela(YearMonth competencia, int diaFechamento) {
+        YearMonth anterior = competencia.minusMonths(1);
+        return diaFechamento <= anterior.lengthOfMonth() ? anterior.atDay(diaFechamento) : competencia.atDay(1);
+    }
+
+    /**
+     * Dia seguinte a ultima compra que cai na competencia (janela de faturamento).
+     *
+     * @param competencia   competencia da fatura
+     * @param diaFechamento dia de fechamento do cartao
+     * @return data final da janela, exclusiva
+     */
+    public static LocalDate calcularFimJanela(YearMonth competencia, int diaFechamento) {
+        return diaFechamento <= competencia.lengthOfMonth()
+                ? competencia.atDay(diaFechamento)
+                : competencia.plusMonths(1).atDay(1);
+    }
+
+    /**
+     * Formata a competencia em MM-yyyy para exibicao, sem passar por DateTimeFormatter.
+     *
+     * @param competencia competencia com ano entre 0 e 9999
+     * @return texto no formato MM-yyyy
+     */
+    public static String formatarCompetencia(YearMonth competencia) {
+        int mes = competencia.getMonthValue();
+        int ano = competencia.getYear();
+        if (ano < 0 || ano > 9999) {
+            // Fora de quatro digitos o padrao uuuu usa sinal; fica com o formatador para manter a mesma saida.
+            return competencia.format(FORMATADOR_COMPETENCIA_EXTENSO);
+        }
+        char[] texto = {
+                (char) ('0' + mes / 10), (char) ('0' + mes % 10), '-',
+                (char) ('0' + ano / 1000), (char) ('0' + ano / 100 % 10), (char) ('0' + ano / 10 % 10),
+                (char) ('0' + ano % 10)
+        };
+        return new String(texto);
+    }
 }
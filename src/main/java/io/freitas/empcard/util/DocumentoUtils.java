@@ -2,9 +2,22 @@ package io.freitas.empcard.util;
 
 /**
  * Utilitarios para tratar documentos e mascaras exibidas no frontend.
+ *
+ * <p>Chamados por celula nas tabelas e PDFs: os digitos sao extraidos varrendo os caracteres, sem regex, e as
+ * mascaras prontas ficam em cache, ja que CPFs e cartoes se repetem em quase todas as linhas.</p>
  */
 public final class DocumentoUtils {
 
+    private static final int TAMANHO_CPF = 11;
+    private static final int TAMANHO_CARTAO = 16;
+    private static final char POSICAO_DIGITO = '#';
+    private static final char[] MODELO_CPF = "###.###.###-##".toCharArray();
+    private static final char[] MODELO_CARTAO = "#### #### #### ####".toCharArray();
+
+    private static final CacheMascaras CACHE_CPF = new CacheMascaras(1024);
+    private static final CacheMascaras CACHE_CARTAO = new CacheMascaras(256);
+    private static final CacheMascaras CACHE_CARTAO_PARCIAL = new CacheMascaras(256);
+
     private DocumentoUtils() {
     }
 
@@ -18,7 +31,25 @@ public final class DocumentoUtils {
         if (valor == null) {
             return "";
         }
-        return valor.replaceAll("\\D", "");
+        int tamanho = valor.length();
+        int primeiroNaoDigito = 0;
+        while (primeiroNaoDigito < tamanho && ehDigito(valor.charAt(primeiroNaoDigito))) {
+            primeiroNaoDigito++;
+        }
+        // Valor ja limpo (caso comum de leitura do banco) volta sem copia.
+        if (primeiroNaoDigito == tamanho) {
+            return valor;
+        }
+        char[] digitos = new char[tamanho - 1];
+        valor.getChars(0, primeiroNaoDigito, digitos, 0);
+        int quantidade = primeiroNaoDigito;
+        for (int i = primeiroNaoDigito + 1; i < tamanho; i++) {
+            char c = valor.charAt(i);
+            if (ehDigito(c)) {
+                digitos[quantidade++] = c;
+            }
+        }
+        return new String(digitos, 0, quantidade);
     }
 
     /**
@@ -28,11 +59,18 @@ public final class DocumentoUtils {
      * @return CPF mascarado quando valido ou valor original quando invalido
      */
     public static String mascararCpf(String cpfSomenteDigitos) {
-        String cpf = somenteDigitos(cpfSomenteDigitos);
-        if (cpf.length() != 11) {
+        if (cpfSomenteDigitos == null) {
+            return null;
+        }
+        String emCache = CACHE_CPF.buscar(cpfSomenteDigitos);
+        if (emCache != null) {
+            return emCache;
+        }
+        char[] mascara = MODELO_CPF.clone();
+        if (!preencherDigitos(cpfSomenteDigitos, mascara, TAMANHO_CPF)) {
             return cpfSomenteDigitos;
         }
-        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+        return CACHE_CPF.guardar(cpfSomenteDigitos, new String(mascara));
     }
 
     /**
@@ -42,10 +80,74 @@ public final class DocumentoUtils {
      * @return numero mascarado em blocos de 4 ou valor original quando invalido
      */
     public static String mascararCartao(String numeroSomenteDigitos) {
-        String numero = somenteDigitos(numeroSomenteDigitos);
-        if (numero.length() != 16) {
+        if (numeroSomenteDigitos == null) {
+            return null;
+        }
+        String emCache = CACHE_CARTAO.buscar(numeroSomenteDigitos);
+        if (emCache != null) {
+            return emCache;
+        }
+        char[] mascara = MODELO_CARTAO.clone();
+        if (!preencherDigitos(numeroSomenteDigitos, mascara, TAMANHO_CARTAO)) {
             return numeroSomenteDigitos;
         }
-        return numero.substring(0, 4) + " " + numero.substring(4, 8) + " " + numero.substring(8, 12) + " " + numero.substring(12, 16);
+        return CACHE_CARTAO.guardar(numeroSomenteDigitos, new String(mascara));
+    }
+
+    /**
+     * Oculta os 8 digitos centrais do cartao em relatorios e faturas enviados para fora do sistema.
+     *
+     * @param numero numero do cartao com 16 digitos
+     * @return numero com 4 primeiros e 4 ultimos digitos visiveis, ou valor original quando fora do padrao
+     */
+    public static String mascararParcialCartao(String numero) {
+        if (numero == null || numero.length() != TAMANHO_CARTAO) {
+            return numero;
+        }
+        String emCache = CACHE_CARTAO_PARCIAL.buscar(numero);
+        if (emCache != null) {
+            return emCache;
+        }
+        char[] mascara = "0000 **** **** 0000".toCharArray();
+        numero.getChars(0, 4, mascara, 0);
+        numero.getChars(12, 16, mascara, 15);
+        return CACHE_CARTAO_PARCIAL.guardar(numero, new String(mascara));
+    }
+
+    /**
+     * Copia os digitos do valor para as posicoes livres da mascara, ignorando qualquer outro caractere.
+     *
+     * @param valor     valor original, com ou sem mascara
+     * @param mascara   copia do modelo; cada {@code #} recebe um digito, na ordem
+     * @param esperados quantidade exata de digitos exigida
+     * @return true quando o valor tem exatamente a quantidade esperada de digitos
+     */
+    private static boolean preencherDigitos(String valor, char[] mascara, int esperados) {
+        int quantidade = 0;
+        int posicao = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (!ehDigito(c)) {
+                continue;
+            }
+            if (++quantidade > esperados) {
+                return false;
+            }
+            while (mascara[posicao] != POSICAO_DIGITO) {
+                posicao++;
+            }
+            mascara[posicao++] = c;
+        }
+        return quantidade == esperados;
+    }
+
+    /**
+     * Indica digito ASCII, mesmo conjunto do {@code \d} de regex sem flag Unicode.
+     *
+     * @param c caractere avaliado
+     * @return true para 0 a 9
+     */
+    static boolean ehDigito(char c) {
+        return c >= '0' && c <= '9';
     }
 }
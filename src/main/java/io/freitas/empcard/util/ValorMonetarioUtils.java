@@ -2,15 +2,19 @@ package io.freitas.empcard.util;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.text.NumberFormat;
-import java.util.Locale;
 
 /**
  * Utilitarios para conversao e formatacao monetaria no padrao brasileiro.
+ *
+ * <p>A formatacao e escrita a mao e reproduz byte a byte o {@code NumberFormat.getCurrencyInstance} de pt-BR
+ * ({@code R$}, espaco nao separavel, milhar com ponto, duas casas com virgula, arredondamento HALF_EVEN e sinal
+ * pelo valor original), sem criar formatador a cada chamada. A conversao varre os caracteres em vez de usar
+ * regex.</p>
  */
 public final class ValorMonetarioUtils {
 
-    private static final Locale LOCALE_PT_BR = Locale.of("pt", "BR");
+    private static final char[] PREFIXO_MOEDA = {'R', '$', '\u00A0'};
+    private static final int MAXIMO_DIGITOS_LONG = 18;
 
     private ValorMonetarioUtils() {
     }
@@ -26,20 +30,27 @@ public final class ValorMonetarioUtils {
             return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         }
 
-        // Remove simbolos para aceitar entradas como "R$ 1.234,56", "R$ 1.234,56" ou "1234,56".
-        String limpo = valorFormatado
-                .trim()
-                .replaceAll("[^\\d,.-]", "");
-
-        if (limpo.isBlank()) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        // Mantem so digitos, virgula, ponto e sinal para aceitar entradas como "R$ 1.234,56" ou "1234,56".
+        // Com virgula presente, ela e o separador decimal e os pontos sao separadores de milhar.
+        boolean decimalComVirgula = valorFormatado.indexOf(',') >= 0;
+        char[] limpo = new char[valorFormatado.length()];
+        int tamanho = 0;
+        for (int i = 0; i < valorFormatado.length(); i++) {
+            char c = valorFormatado.charAt(i);
+            if (DocumentoUtils.ehDigito(c) || c == '-') {
+                limpo[tamanho++] = c;
+            } else if (c == ',') {
+                limpo[tamanho++] = '.';
+            } else if (c == '.' && !decimalComVirgula) {
+                limpo[tamanho++] = c;
+            }
         }
 
-        if (limpo.contains(",")) {
-            limpo = limpo.replace(".", "").replace(",", ".");
+        if (tamanho == 0) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         }
 
-        return new BigDecimal(limpo).setScale(2, RoundingMode.HALF_UP);
+        return new BigDecimal(limpo, 0, tamanho).setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
@@ -49,8 +60,68 @@ public final class ValorMonetarioUtils {
      * @return texto formatado no padrao pt-BR
      */
     public static String formatar(BigDecimal valor) {
-        NumberFormat formatador = NumberFormat.getCurrencyInstance(LOCALE_PT_BR);
         BigDecimal valorSeguro = valor == null ? BigDecimal.ZERO : valor;
-        return formatador.format(valorSeguro);
+        boolean negativo = valorSeguro.signum() < 0;
+        BigDecimal arredondado = valorSeguro.setScale(2, RoundingMode.HALF_EVEN);
+        if (arredondado.precision() <= MAXIMO_DIGITOS_LONG) {
+            return formatarCentavos(Math.abs(arredondado.unscaledValue().longValue()), negativo);
+        }
+        return formatarDigitos(arredondado.unscaledValue().abs().toString(), negativo);
+    }
+
+    /**
+     * Monta o texto de um valor em centavos que cabe em long, preenchendo o buffer do fim para o inicio.
+     *
+     * @param centavos valor absoluto em centavos
+     * @param negativo indica sinal negativo
+     * @return texto formatado
+     */
+    private static String formatarCentavos(long centavos, boolean negativo) {
+        // 18 digitos, 5 pontos de milhar, virgula, prefixo e sinal.
+        char[] buffer = new char[MAXIMO_DIGITOS_LONG + 6 + PREFIXO_MOEDA.length + 1];
+        int posicao = buffer.length;
+        buffer[--posicao] = (char) ('0' + centavos % 10);
+        centavos /= 10;
+        buffer[--posicao] = (char) ('0' + centavos % 10);
+        centavos /= 10;
+        buffer[--posicao] = ',';
+        int digitosInteiros = 0;
+        do {
+            if (digitosInteiros > 0 && digitosInteiros % 3 == 0) {
+                buffer[--posicao] = '.';
+            }
+            buffer[--posicao] = (char) ('0' + centavos % 10);
+            centavos /= 10;
+            digitosInteiros++;
+        } while (centavos > 0);
+        posicao -= PREFIXO_MOEDA.length;
+        System.arraycopy(PREFIXO_MOEDA, 0, buffer, posicao, PREFIXO_MOEDA.length);
+        if (negativo) {
+            buffer[--posicao] = '-';
+        }
+        return new String(buffer, posicao, buffer.length - posicao);
+    }
+
+    /**
+     * Monta o texto de um valor grande a partir dos digitos em centavos.
+     *
+     * @param digitos  digitos do valor absoluto em centavos, com ao menos 3 digitos
+     * @param negativo indica sinal negativo
+     * @return texto formatado
+     */
+    private static String formatarDigitos(String digitos, boolean negativo) {
+        int inteiros = digitos.length() - 2;
+        StringBuilder texto = new StringBuilder(digitos.length() + inteiros / 3 + PREFIXO_MOEDA.length + 2);
+        if (negativo) {
+            texto.append('-');
+        }
+        texto.append(PREFIXO_MOEDA);
+        for (int i = 0; i < inteiros; i++) {
+            if (i > 0 && (inteiros - i) % 3 == 0) {
+                texto.append('.');
+            }
+            texto.append(digitos.charAt(i));
+        }
+        return texto.append(',').append(digitos, inteiros, digitos.length()).toString();
     }
 }
@@ -0,0 +1,8 @@
+-- Contadores de versao usados nos ETags da API: um por tabela e um por pessoa (relatorio).
+-- Incrementados na mesma transacao das escritas (VersaoRecursoService); a linha travada ate o commit garante
+-- que a versao lida so muda quando a alteracao fica visivel, ao contrario de count/max(updated_at).
+CREATE TABLE IF NOT EXISTS versoes_registro
+(
+    chave  VARCHAR(60) PRIMARY KEY,
+    versao BIGINT      NOT NULL DEFAULT 0
+);
@@ -0,0 +1,21 @@
+-- Tokens opacos para clientes da API REST. Apenas o hash SHA-256 do token e persistido.
+CREATE TABLE IF NOT EXISTS tokens_api
+(
+    id          BIGSERIAL PRIMARY KEY,
+    usuario_id  BIGINT       NOT NULL REFERENCES usuarios (id),
+    descricao   VARCHAR(120) NOT NULL,
+    prefixo     VARCHAR(12)  NOT NULL,
+    hash_token  VARCHAR(64)  NOT NULL UNIQUE,
+    expira_em   TIMESTAMP,
+    revogado_em TIMESTAMP,
+    created_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
+    updated_at  TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_tokens_api_usuario ON tokens_api (usuario_id);
+
+CREATE TRIGGER trg_tokens_api_updated_at
+    BEFORE UPDATE
+    ON tokens_api
+    FOR EACH ROW
+EXECUTE FUNCTION atualizar_updated_at_coluna();
@@ -0,0 +1,15 @@
+-- Registro de exclusoes definitivas para a sincronizacao incremental (lapides).
+CREATE TABLE IF NOT EXISTS exclusoes_registro
+(
+    id          BIGSERIAL PRIMARY KEY,
+    tipo        VARCHAR(20) NOT NULL,
+    registro_id BIGINT      NOT NULL,
+    excluido_em TIMESTAMP   NOT NULL DEFAULT NOW()
+);
+
+-- Indices de cursor (updated_at, id) usados pelo feed de alteracoes.
+CREATE INDEX IF NOT EXISTS idx_exclusoes_registro_cursor ON exclusoes_registro (excluido_em, id);
+CREATE INDEX IF NOT EXISTS idx_pessoas_cursor ON pessoas (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_cartoes_cursor ON cartoes (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_lancamentos_cursor ON lancamentos (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_pagamentos_cursor ON pagamentos (updated_at, id);
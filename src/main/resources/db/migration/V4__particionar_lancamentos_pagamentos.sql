@@ -0,0 +1,154 @@
+-- Particionamento declarativo anual de lancamentos (data_compra) e pagamentos (data_pagamento).
+-- Requer PostgreSQL 13+ (trigger BEFORE UPDATE por linha em tabela particionada).
+--
+-- A chave primaria passa a ser (id, data) porque toda restricao unica de tabela particionada precisa conter a
+-- chave de particao; a unicidade do id continua garantida pela sequence. Nenhuma tabela referencia
+-- lancamentos ou pagamentos por FK. Cada tabela ganha uma particao padrao que recebe datas fora dos anos
+-- criados; criar_particao_anual move essas linhas para a particao do ano quando ela e criada.
+
+CREATE OR REPLACE FUNCTION criar_particao_anual(tabela TEXT, ano INTEGER)
+    RETURNS BOOLEAN AS
+$$
+DECLARE
+    particao TEXT := tabela || '_' || ano;
+    inicio   DATE := make_date(ano, 1, 1);
+    fim      DATE := make_date(ano + 1, 1, 1);
+    coluna   TEXT;
+BEGIN
+    coluna := CASE tabela
+                  WHEN 'lancamentos' THEN 'data_compra'
+                  WHEN 'pagamentos' THEN 'data_pagamento'
+        END;
+    IF coluna IS NULL THEN
+        RAISE EXCEPTION 'Tabela sem particionamento anual: %', tabela;
+    END IF;
+    IF to_regclass(particao) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Cria a tabela solta, move as linhas do ano que estavam na particao padrao e so entao anexa:
+    -- o ATTACH valida que a particao padrao nao tem mais linhas no intervalo.
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', particao, tabela);
+    EXECUTE format('WITH movidas AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM movidas',
+                   tabela || '_padrao', coluna, inicio, coluna, fim, particao);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   tabela, particao, inicio, fim);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION criar_particoes_anuais(tabela TEXT, ano_inicial INTEGER, ano_final INTEGER)
+    RETURNS INTEGER AS
+$$
+DECLARE
+    criadas INTEGER := 0;
+BEGIN
+    FOR ano IN ano_inicial..ano_final
+        LOOP
+            IF criar_particao_anual(tabela, ano) THEN
+                criadas := criadas + 1;
+            END IF;
+        END LOOP;
+    RETURN criadas;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Lancamentos ----------------------------------------------------------------------------------------------
+
+ALTER TABLE lancamentos RENAME TO lancamentos_legado;
+ALTER TABLE lancamentos_legado RENAME CONSTRAINT lancamentos_pkey TO lancamentos_legado_pkey;
+DROP INDEX IF EXISTS idx_lancamentos_pessoa_cartao;
+DROP INDEX IF EXISTS idx_lancamentos_data_compra;
+DROP INDEX IF EXISTS idx_lancamentos_cursor;
+
+CREATE TABLE lancamentos
+(
+    id                  BIGINT         NOT NULL DEFAULT nextval('lancamentos_id_seq'),
+    pessoa_id           BIGINT         NOT NULL REFERENCES pessoas (id),
+    cartao_id           BIGINT         NOT NULL REFERENCES cartoes (id),
+    descricao           VARCHAR(255)   NOT NULL,
+    tipo                VARCHAR(20)    NOT NULL CHECK (tipo IN ('AVULSO', 'PARCELADO', 'FIXO')),
+    valor_total         NUMERIC(15, 2) NOT NULL CHECK (valor_total > 0),
+    quantidade_parcelas INTEGER        NOT NULL CHECK (quantidade_parcelas > 0),
+    data_compra         DATE           NOT NULL,
+    data_fim_fixo       DATE,
+    observacao          VARCHAR(255),
+    ativo               BOOLEAN        NOT NULL DEFAULT TRUE,
+    created_at          TIMESTAMP      NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMP      NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, data_compra)
+) PARTITION BY RANGE (data_compra);
+
+ALTER SEQUENCE lancamentos_id_seq OWNED BY lancamentos.id;
+CREATE TABLE lancamentos_padrao PARTITION OF lancamentos DEFAULT;
+
+SELECT criar_particoes_anuais('lancamentos',
+                              COALESCE((SELECT EXTRACT(YEAR FROM MIN(data_compra))::INTEGER FROM lancamentos_legado),
+                                       EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER),
+                              EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1);
+
+INSERT INTO lancamentos (id, pessoa_id, cartao_id, descricao, tipo, valor_total, quantidade_parcelas, data_compra,
+                         data_fim_fixo, observacao, ativo, created_at, updated_at)
+SELECT id, pessoa_id, cartao_id, descricao, tipo, valor_total, quantidade_parcelas, data_compra,
+       data_fim_fixo, observacao, ativo, created_at, updated_at
+FROM lancamentos_legado;
+
+DROP TABLE lancamentos_legado;
+
+-- Indices criados apos a carga; propagam para as particoes existentes e futuras.
+CREATE INDEX idx_lancamentos_pessoa_cartao ON lancamentos (pessoa_id, cartao_id);
+CREATE INDEX idx_lancamentos_cartao_data_compra ON lancamentos (cartao_id, data_compra);
+CREATE INDEX idx_lancamentos_data_compra ON lancamentos (data_compra);
+CREATE INDEX idx_lancamentos_cursor ON lancamentos (updated_at, id);
+
+CREATE TRIGGER trg_lancamentos_updated_at
+    BEFORE UPDATE
+    ON lancamentos
+    FOR EACH ROW
+EXECUTE FUNCTION atualizar_updated_at_coluna();
+
+-- Pagamentos -----------------------------------------------------------------------------------------------
+
+ALTER TABLE pagamentos RENAME TO pagamentos_legado;
+ALTER TABLE pagamentos_legado RENAME CONSTRAINT pagamentos_pkey TO pagamentos_legado_pkey;
+DROP INDEX IF EXISTS idx_pagamentos_pessoa_cartao;
+DROP INDEX IF EXISTS idx_pagamentos_data_pagamento;
+DROP INDEX IF EXISTS idx_pagamentos_cursor;
+
+CREATE TABLE pagamentos
+(
+    id             BIGINT         NOT NULL DEFAULT nextval('pagamentos_id_seq'),
+    pessoa_id      BIGINT         NOT NULL REFERENCES pessoas (id),
+    cartao_id      BIGINT         NOT NULL REFERENCES cartoes (id),
+    data_pagamento DATE           NOT NULL,
+    valor          NUMERIC(15, 2) NOT NULL CHECK (valor > 0),
+    observacao     VARCHAR(255),
+    created_at     TIMESTAMP      NOT NULL DEFAULT NOW(),
+    updated_at     TIMESTAMP      NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, data_pagamento)
+) PARTITION BY RANGE (data_pagamento);
+
+ALTER SEQUENCE pagamentos_id_seq OWNED BY pagamentos.id;
+CREATE TABLE pagamentos_padrao PARTITION OF pagamentos DEFAULT;
+
+SELECT criar_particoes_anuais('pagamentos',
+                              COALESCE((SELECT EXTRACT(YEAR FROM MIN(data_pagamento))::INTEGER FROM pagamentos_legado),
+                                       EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER),
+                              EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1);
+
+INSERT INTO pagamentos (id, pessoa_id, cartao_id, data_pagamento, valor, observacao, created_at, updated_at)
+SELECT id, pessoa_id, cartao_id, data_pagamento, valor, observacao, created_at, updated_at
+FROM pagamentos_legado;
+
+DROP TABLE pagamentos_legado;
+
+CREATE INDEX idx_pagamentos_pessoa_cartao ON pagamentos (pessoa_id, cartao_id);
+CREATE INDEX idx_pagamentos_data_pagamento ON pagamentos (data_pagamento);
+CREATE INDEX idx_pagamentos_cursor ON pagamentos (updated_at, id);
+
+CREATE TRIGGER trg_pagamentos_updated_at
+    BEFORE UPDATE
+    ON pagamentos
+    FOR EACH ROW
+EXECUTE FUNCTION atualizar_updated_at_coluna();
@@ -0,0 +1,9 @@
+-- Indices de cursor das telas de listagem em lotes: (data, id) para lancamentos e pagamentos, (nome, id) para
+-- pessoas. Os indices compostos tambem atendem filtros so pela data, entao substituem os indices simples.
+DROP INDEX IF EXISTS idx_lancamentos_data_compra;
+CREATE INDEX idx_lancamentos_listagem ON lancamentos (data_compra, id);
+
+DROP INDEX IF EXISTS idx_pagamentos_data_pagamento;
+CREATE INDEX idx_pagamentos_listagem ON pagamentos (data_pagamento, id);
+
+CREATE INDEX IF NOT EXISTS idx_pessoas_listagem ON pessoas (nome, id);
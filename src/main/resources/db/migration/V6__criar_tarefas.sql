@@ -0,0 +1,30 @@
+-- Tarefas em lote distribuidas entre as instancias. Cada lote (tipo + referencia, ex.: fechamento de uma competencia)
+-- e criado uma unica vez; seus itens sao reservados pelos workers com FOR UPDATE SKIP LOCKED.
+CREATE TABLE IF NOT EXISTS lotes_tarefa
+(
+    id         BIGSERIAL PRIMARY KEY,
+    tipo       VARCHAR(40) NOT NULL,
+    referencia VARCHAR(40) NOT NULL,
+    total      INTEGER     NOT NULL,
+    created_at TIMESTAMP   NOT NULL DEFAULT NOW(),
+    CONSTRAINT uk_lotes_tarefa_tipo_referencia UNIQUE (tipo, referencia)
+);
+
+CREATE TABLE IF NOT EXISTS tarefas
+(
+    id            BIGSERIAL PRIMARY KEY,
+    lote_id       BIGINT      NOT NULL REFERENCES lotes_tarefa (id) ON DELETE CASCADE,
+    item_id       BIGINT      NOT NULL,
+    situacao      VARCHAR(20) NOT NULL,
+    tentativas    INTEGER     NOT NULL DEFAULT 0,
+    executar_apos TIMESTAMP   NOT NULL DEFAULT NOW(),
+    instancia     VARCHAR(100),
+    heartbeat_em  TIMESTAMP,
+    concluida_em  TIMESTAMP,
+    erro          VARCHAR(500)
+);
+
+-- Indices parciais: a fila de pendentes e a varredura de reservas abandonadas so tocam as linhas vivas.
+CREATE INDEX IF NOT EXISTS idx_tarefas_pendentes ON tarefas (executar_apos, id) WHERE situacao = 'PENDENTE';
+CREATE INDEX IF NOT EXISTS idx_tarefas_em_execucao ON tarefas (heartbeat_em) WHERE situacao = 'EM_EXECUCAO';
+CREATE INDEX IF NOT EXISTS idx_tarefas_lote ON tarefas (lote_id, situacao);
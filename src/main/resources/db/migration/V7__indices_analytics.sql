@@ -0,0 +1,8 @@
+-- Indices de cobertura das series de /api/analytics: a faixa de datas na chave e as colunas agregadas no INCLUDE
+-- permitem index-only scan nas particoes do periodo, sem ler as linhas da tabela. O cartao_id no INCLUDE atende o
+-- join com cartoes nas series por banco e bandeira.
+CREATE INDEX IF NOT EXISTS idx_lancamentos_analytics
+    ON lancamentos (data_compra) INCLUDE (tipo, cartao_id, valor_total, quantidade_parcelas);
+
+CREATE INDEX IF NOT EXISTS idx_pagamentos_analytics
+    ON pagamentos (data_pagamento) INCLUDE (cartao_id, valor);
@@ -0,0 +1,21 @@
+-- Cronograma materializado de cobrancas: uma linha por lancamento e competencia de fatura (primeiro dia do mes),
+-- com o valor da parcela ja arredondado. Fixos sao gerados ate um horizonte movel (empcard.parcelas.horizonte-meses).
+-- As linhas sao preenchidas pela aplicacao no startup (CronogramaParcelasService), inclusive para os lancamentos
+-- existentes antes desta migration. Sem FK para lancamentos, que e particionada com chave (id, data_compra).
+CREATE TABLE IF NOT EXISTS parcelas
+(
+    id            BIGSERIAL PRIMARY KEY,
+    lancamento_id BIGINT         NOT NULL,
+    pessoa_id     BIGINT         NOT NULL REFERENCES pessoas (id),
+    cartao_id     BIGINT         NOT NULL REFERENCES cartoes (id),
+    competencia   DATE           NOT NULL,
+    numero        INTEGER        NOT NULL CHECK (numero > 0),
+    tipo          VARCHAR(20)    NOT NULL CHECK (tipo IN ('AVULSO', 'PARCELADO', 'FIXO')),
+    valor         NUMERIC(15, 2) NOT NULL,
+    ativo         BOOLEAN        NOT NULL DEFAULT TRUE,
+    CONSTRAINT uk_parcelas_lancamento_numero UNIQUE (lancamento_id, numero)
+);
+
+-- Relatorio por pessoa (faixa de competencias por cartao) e fatura por cartao.
+CREATE INDEX IF NOT EXISTS idx_parcelas_pessoa_cartao_competencia ON parcelas (pessoa_id, cartao_id, competencia);
+CREATE INDEX IF NOT EXISTS idx_parcelas_cartao_competencia ON parcelas (cartao_id, competencia);
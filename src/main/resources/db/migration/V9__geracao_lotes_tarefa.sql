@@ -0,0 +1,6 @@
+-- Permite executar de novo o lote de uma referencia: cada execucao vira uma geracao, criada somente depois que a
+-- anterior terminou (sem tarefas pendentes ou em execucao).
+ALTER TABLE lotes_tarefa ADD COLUMN IF NOT EXISTS geracao INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE lotes_tarefa DROP CONSTRAINT IF EXISTS uk_lotes_tarefa_tipo_referencia;
+ALTER TABLE lotes_tarefa
+    ADD CONSTRAINT uk_lotes_tarefa_tipo_referencia_geracao UNIQUE (tipo, referencia, geracao);
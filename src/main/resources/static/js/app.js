@@ -147,11 +147,7 @@
         if (!digitos) {
             return '';
         }
-        const numero = Number(digitos) / 100;
-        return new Intl.NumberFormat('pt-BR', {
-            style: 'currency',
-            currency: 'BRL'
-        }).format(numero);
+        return formatarMoeda(Number(digitos) / 100);
     }
 
     /**
@@ -373,6 +369,95 @@
         });
     }
 
+    /**
+     * Formata numero em moeda BRL para exibicao.
+     * @param {number} numero valor em reais
+     * @returns {string} valor formatado
+     */
+    function formatarMoeda(numero) {
+        return new Intl.NumberFormat('pt-BR', {
+            style: 'currency',
+            currency: 'BRL'
+        }).format(numero);
+    }
+
+    /**
+     * Aplica notificacao de saldo ao dashboard: atualiza a linha da pessoa e o total em aberto.
+     * Quando a ordem do ranking pode mudar, apenas sinaliza que ha dados novos.
+     * @param {{pessoaId: number, saldoAnterior: ?number, saldo: number}} notificacao dados recebidos
+     */
+    function atualizarDashboard(notificacao) {
+        const total = document.querySelector('#totalEmAberto');
+        const aviso = document.querySelector('#avisoSaldos');
+        if (!total) {
+            return;
+        }
+
+        // O total soma apenas saldos positivos; sem saldo anterior conhecido nao ha como aplicar a diferenca.
+        if (notificacao.saldoAnterior === null) {
+            if (aviso) {
+                aviso.hidden = false;
+            }
+            return;
+        }
+        const diferenca = Math.max(notificacao.saldo, 0) - Math.max(notificacao.saldoAnterior, 0);
+        const novoTotal = Number(total.dataset.valor) + diferenca;
+        total.dataset.valor = String(novoTotal);
+        total.textContent = formatarMoeda(novoTotal);
+
+        const linha = document.querySelector(`tr[data-pessoa-id="${notificacao.pessoaId}"]`);
+        if (linha && notificacao.saldo <= 0) {
+            linha.remove();
+        } else if (linha) {
+            const celula = linha.querySelector('[data-valor]');
+            celula.dataset.valor = String(notificacao.saldo);
+            celula.textContent = formatarMoeda(notificacao.saldo);
+        }
+        if (aviso && (linha || notificacao.saldo > 0)) {
+            aviso.hidden = false;
+        }
+    }
+
+    /**
+     * Recarrega o bloco de resultado do relatorio quando a notificacao e da pessoa exibida.
+     * @param {{pessoaId: number}} notificacao dados recebidos
+     */
+    async function atualizarRelatorio(notificacao) {
+        const resultado = document.querySelector('#resultadoRelatorio');
+        if (!resultado || resultado.dataset.pessoaId !== String(notificacao.pessoaId)) {
+            return;
+        }
+
+        try {
+            const response = await fetch(resultado.dataset.urlResultado);
+            if (response.ok) {
+                resultado.outerHTML = await response.text();
+            }
+        } catch (error) {
+            // A tela continua valida; o usuario pode gerar o relatorio novamente.
+            console.error('Falha ao atualizar relatorio:', error);
+        }
+    }
+
+    /**
+     * Assina o canal SSE de saldos nas telas que o declaram. O EventSource reconecta sozinho
+     * apos timeout ou queda de rede.
+     */
+    function configurarNotificacoesSaldo() {
+        const pagina = document.querySelector('[data-notificacoes-saldo]');
+        if (!pagina || !window.EventSource) {
+            return;
+        }
+
+        const fonte = new EventSource(pagina.dataset.notificacoesSaldo);
+        fonte.addEventListener('saldo', (evento) => {
+            const notificacao = JSON.parse(evento.data);
+            atualizarDashboard(notificacao);
+            atualizarRelatorio(notificacao);
+        });
+        window.addEventListener('pagehide', () => fonte.close());
+    }
+
     configurarTema();
     configurarMascaras();
     configurarMaiusculas();
@@ -381,4 +466,5 @@
     configurarFormularioLancamento();
     configurarConfirmacoes();
     configurarSanitizacaoNoSubmit();
+    configurarNotificacoesSaldo();
 })();
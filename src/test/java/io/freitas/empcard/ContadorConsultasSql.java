@@ -0,0 +1,110 @@
+package io.freitas.empcard;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inspetor de SQL do Hibernate usado nos testes para contar as instrucoes preparadas durante um fluxo.
+ *
+ * <p>Registrado em {@code hibernate.session_factory.statement_inspector} no application.properties de teste.
+ * A contagem e por thread: so registra instrucoes da thread que abriu a {@link Captura}, entao requisicoes
+ * MockMvc (executadas na thread do teste) sao medidas sem interferencia de tarefas agendadas.</p>
+ */
+public class ContadorConsultasSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURA_ATUAL = new ThreadLocal<>();
+
+    /**
+     * Registra a instrucao na captura aberta pela thread atual, sem altera-la.
+     *
+     * @param sql instrucao preparada pelo Hibernate
+     * @return a mesma instrucao
+     */
+    @Override
+    public String inspect(String sql) {
+        List<String> instrucoes = CAPTURA_ATUAL.get();
+        if (instrucoes != null) {
+            instrucoes.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Abre captura na thread atual; deve ser fechada com try-with-resources.
+     *
+     * @return captura vazia
+     */
+    public static Captura capturar() {
+        List<String> instrucoes = new ArrayList<>();
+        CAPTURA_ATUAL.set(instrucoes);
+        return new Captura(instrucoes);
+    }
+
+    /**
+     * Instrucoes SQL preparadas entre a abertura e o fechamento da captura.
+     */
+    public static final class Captura implements AutoCloseable {
+
+        private final List<String> instrucoes;
+
+        /**
+         * Cria captura sobre a lista preenchida pelo inspetor.
+         *
+         * @param instrucoes lista compartilhada com o inspetor
+         */
+        private Captura(List<String> instrucoes) {
+            this.instrucoes = instrucoes;
+        }
+
+        /**
+         * Total de instrucoes executadas.
+         *
+         * @return quantidade de instrucoes
+         */
+        public int total() {
+            return instrucoes.size();
+        }
+
+        /**
+         * Maior numero de vezes que uma mesma instrucao se repetiu; acima de 1 em fluxos de leitura costuma
+         * indicar N+1 (carga lazy ou consulta dentro de laco).
+         *
+         * @return repeticoes da instrucao mais frequente
+         */
+        public long maiorRepeticao() {
+            return contarPorInstrucao().values().stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+
+        /**
+         * Quantidade de execucoes por instrucao, para a mensagem de falha das assercoes.
+         *
+         * @return instrucoes e repeticoes
+         */
+        public Map<String, Long> contarPorInstrucao() {
+            return instrucoes.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        }
+
+        /**
+         * Instrucoes na ordem de execucao.
+         *
+         * @return instrucoes capturadas
+         */
+        public List<String> instrucoes() {
+            return Collections.unmodifiableList(instrucoes);
+        }
+
+        /**
+         * Encerra a captura da thread atual; instrucoes posteriores deixam de ser contadas.
+         */
+        @Override
+        public void close() {
+            CAPTURA_ATUAL.remove();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package io.freitas.empcard;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PagamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.PessoaRepository;
+import io.freitas.empcard.service.CartaoService;
+import io.freitas.empcard.service.LancamentoService;
+import io.freitas.empcard.service.PagamentoService;
+import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.RelatorioCacheService;
+import io.freitas.empcard.service.RelatorioService;
+import io.freitas.empcard.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de regressao de quantidade de consultas SQL nos fluxos principais.
+ *
+ * <p>Cada fluxo tem contagem exata: uma carga lazy fora do {@code @EntityGraph} ou uma consulta dentro de laco
+ * muda o total e quebra o build. Os fluxos medidos nao dependem da quantidade de linhas do banco (as listagens
+ * cabem em um lote), entao os numeros valem mesmo com dados criados por outros testes no H2 compartilhado.</p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ContagemConsultasTests {
+
+    private static final String CPF = "66677788830";
+    private static final String CPF_EXTRA = "85274196302";
+    private static final YearMonth COMPETENCIA = YearMonth.of(2026, 6);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private RelatorioCacheService relatorioCacheService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    private Long pessoaId;
+
+    /**
+     * Conclui o setup inicial e cadastra, uma unica vez, pessoa com compras em dois cartoes e um pagamento.
+     *
+     * @throws Exception falha na requisicao de aquecimento
+     */
+    @BeforeEach
+    void preparar() throws Exception {
+        if (!usuarioService.possuiUsuarios()) {
+            SetupInicialFormDto setup = new SetupInicialFormDto();
+            setup.setNomeExibicao("Administrador");
+            setup.setNomeUsuario("admin");
+            setup.setSenha("segredo123");
+            usuarioService.criarPrimeiroAdmin(setup);
+        }
+        // A primeira requisicao do contexto faz o filtro de setup registrar que ja existem usuarios.
+        mockMvc.perform(get("/login"));
+        Optional<Pessoa> existente = pessoaRepository.findByCpf(CPF);
+        if (existente.isPresent()) {
+            pessoaId = existente.get().getId();
+            return;
+        }
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Contagem");
+        formPessoa.setCpf(CPF);
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+        pessoaId = pessoa.getId();
+
+        Cartao visa = criarCartao("4532015112830366", "Visa", "Banco Contagem A");
+        Cartao discover = criarCartao("6011000990139473", "Discover", "Banco Contagem B");
+        criarLancamento(pessoaId, visa, "Compra contagem 1", 3);
+        criarLancamento(pessoaId, visa, "Compra contagem 2", 1);
+        criarLancamento(pessoaId, discover, "Compra contagem 3", 2);
+
+        PagamentoFormDto pagamento = new PagamentoFormDto();
+        pagamento.setPessoaId(pessoaId);
+        pagamento.setCartaoId(visa.getId());
+        pagamento.setDataPagamento(LocalDate.of(2026, 5, 20));
+        pagamento.setValorFormatado("15,00");
+        pagamentoService.criar(pagamento);
+    }
+
+    /**
+     * Relatorio sem cache: pessoa, lancamentos, pagamentos e cartoes, uma consulta cada.
+     */
+    @Test
+    void deveGerarRelatorioComConsultasFixas() {
+        relatorioCacheService.invalidarTudo();
+
+        try (ContadorConsultasSql.Captura captura = ContadorConsultasSql.capturar()) {
+            relatorioService.gerarRelatorioPessoa(pessoaId, COMPETENCIA);
+
+            verificar(captura, 4);
+        }
+    }
+
+    /**
+     * Dashboard sem cache: pessoas, cobrancas, pagamentos e cartoes da carteira em lote e tres contagens. Uma
+     * pessoa a mais com compras nao muda o total, ou seja, nao ha consulta no laco por pessoa.
+     *
+     * @throws Exception falha na requisicao
+     */
+    @Test
+    void deveCarregarDashboardSemConsultaPorPessoa() throws Exception {
+        relatorioCacheService.invalidarTudo();
+        ContadorConsultasSql.Captura antes = medir(get("/dashboard"));
+        verificar(antes, 7);
+
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Contagem Extra");
+        formPessoa.setCpf(CPF_EXTRA);
+        Pessoa extra = pessoaService.criar(formPessoa);
+        Cartao cartao = criarCartao("4000056655665580", "Visa", "Banco Contagem C");
+        criarLancamento(extra.getId(), cartao, "Compra contagem extra", 2);
+        assertThat(pessoaService.listarAtivos()).hasSizeGreaterThanOrEqualTo(2);
+
+        relatorioCacheService.invalidarTudo();
+        verificar(medir(get("/dashboard")), antes.total());
+
+        // Com os relatorios ja em cache restam pessoas e as contagens.
+        verificar(medir(get("/dashboard")), 4);
+    }
+
+    /**
+     * Listagens de pessoas, lancamentos e pagamentos: um select por lote, com pessoa e cartao no mesmo select
+     * das linhas. O filtro de setup inicial nao consulta usuarios depois do primeiro cadastro.
+     *
+     * @throws Exception falha na requisicao
+     */
+    @Test
+    void deveListarTelasComConsultasFixas() throws Exception {
+        verificar(medir(get("/pessoas")), 1);
+        verificar(medir(get("/lancamentos")), 1);
+        verificar(medir(get("/pagamentos")), 1);
+    }
+
+    /**
+     * Exportacao de PDF sem cache consulta o mesmo que o relatorio, sem cargas extras durante a renderizacao.
+     *
+     * @throws Exception falha na requisicao
+     */
+    @Test
+    void deveExportarPdfComConsultasFixas() throws Exception {
+        relatorioCacheService.invalidarTudo();
+
+        verificar(medir(get("/relatorios/pessoas/{pessoaId}/pdf", pessoaId)
+                .param("competenciaTexto", COMPETENCIA.toString())), 4);
+    }
+
+    /**
+     * Executa a requisicao contando as instrucoes SQL.
+     *
+     * @param requisicao requisicao MockMvc
+     * @return captura encerrada
+     * @throws Exception falha na requisicao
+     */
+    private ContadorConsultasSql.Captura medir(RequestBuilder requisicao) throws Exception {
+        try (ContadorConsultasSql.Captura captura = ContadorConsultasSql.capturar()) {
+            mockMvc.perform(requisicao).andExpect(status().isOk());
+            return captura;
+        }
+    }
+
+    /**
+     * Confere o total exato e que nenhuma instrucao se repetiu.
+     *
+     * @param captura  instrucoes capturadas
+     * @param esperado total esperado
+     */
+    private static void verificar(ContadorConsultasSql.Captura captura, int esperado) {
+        assertThat(captura.total()).as("consultas: %s", captura.instrucoes()).isEqualTo(esperado);
+        assertThat(captura.maiorRepeticao()).as("instrucoes repetidas: %s", captura.contarPorInstrucao()).isEqualTo(1);
+    }
+
+    /**
+     * Cadastra cartao de teste.
+     *
+     * @param numero   numero valido pelo Luhn
+     * @param bandeira bandeira
+     * @param banco    banco emissor
+     * @return cartao criado
+     */
+    private Cartao criarCartao(String numero, String bandeira, String banco) {
+        CartaoFormDto form = new CartaoFormDto();
+        form.setNumero(numero);
+        form.setBandeira(bandeira);
+        form.setBanco(banco);
+        form.setDiaFechamento(5);
+        form.setDiaVencimento(15);
+        return cartaoService.criar(form);
+    }
+
+    /**
+     * Cadastra compra de teste.
+     *
+     * @param pessoa    pessoa da compra
+     * @param cartao    cartao da compra
+     * @param descricao descricao
+     * @param parcelas  quantidade de parcelas
+     */
+    private void criarLancamento(Long pessoa, Cartao cartao, String descricao, int parcelas) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa);
+        form.setCartaoId(cartao.getId());
+        form.setDescricao(descricao);
+        form.setTipo(parcelas > 1 ? TipoLancamento.PARCELADO : TipoLancamento.AVULSO);
+        form.setValorFormatado("30,00");
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(LocalDate.of(2026, 5, 10));
+        lancamentoService.criar(form);
+    }
+}
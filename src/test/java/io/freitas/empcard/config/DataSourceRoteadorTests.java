@@ -0,0 +1,172 @@
+package io.freitas.empcard.config;
+
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.service.RelatorioCacheService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do roteamento entre principal e replica com dois bancos H2 independentes.
+ */
+class DataSourceRoteadorTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    /**
+     * Cria um banco H2 para cada destino, cada um identificado por uma linha na tabela {@code origem}.
+     */
+    @BeforeEach
+    void preparar() {
+        DataSource primario = criarBanco("primario");
+        DataSource replica = criarBanco("replica");
+        DataSource roteado = new LazyConnectionDataSourceProxy(
+                new DataSourceRoteador(primario, replica, Duration.ofSeconds(5)));
+
+        jdbcTemplate = new JdbcTemplate(roteado);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(roteado);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    /**
+     * Limpa a requisicao simulada da thread.
+     */
+    @AfterEach
+    void limpar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Garante leitura na replica e escrita ou codigo sem transacao no principal.
+     */
+    @Test
+    void deveEnviarSomenteLeituraParaReplica() {
+        assertThat(origemEm(leitura)).isEqualTo("replica");
+        assertThat(origemEm(escrita)).isEqualTo("primario");
+        assertThat(origem()).isEqualTo("primario");
+    }
+
+    /**
+     * Garante que a sessao que confirmou uma escrita le do principal ate o fim da janela, sem afetar outras
+     * sessoes nem requisicoes sem sessao.
+     */
+    @Test
+    void deveLerDoPrincipalAposEscritaDaSessao() {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest();
+        requisicao.getSession(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(requisicao));
+
+        assertThat(origemEm(leitura)).isEqualTo("replica");
+        escrita.executeWithoutResult(status -> origem());
+        assertThat(origemEm(leitura)).isEqualTo("primario");
+
+        requisicao.getSession().setAttribute(DataSourceRoteador.ATRIBUTO_ULTIMA_ESCRITA,
+                Instant.now().minusSeconds(6));
+        assertThat(origemEm(leitura)).isEqualTo("replica");
+
+        escrita.executeWithoutResult(status -> status.setRollbackOnly());
+        assertThat(origemEm(leitura)).isEqualTo("replica");
+
+        MockHttpServletRequest semSessao = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(semSessao));
+        escrita.executeWithoutResult(status -> origem());
+        assertThat(origemEm(leitura)).isEqualTo("replica");
+        assertThat(semSessao.getSession(false)).isNull();
+    }
+
+    /**
+     * Garante que um relatorio invalidado nao volta ao cache com dados lidos da replica atrasada, e que a
+     * leitura marcada para o principal e armazenada normalmente.
+     */
+    @Test
+    void deveDescartarRelatorioLidoDaReplicaAposInvalidacao() {
+        RelatorioCacheService cache = new RelatorioCacheService(new RelatorioCacheProperties(10, 1));
+        YearMonth competencia = YearMonth.of(2026, 1);
+        cache.invalidarPessoa(1L);
+        long geracao = cache.geracaoAtual(1L);
+
+        leitura.executeWithoutResult(status -> {
+            assertThat(origem()).isEqualTo("replica");
+            assertThat(DataSourceRoteador.transacaoLeuDaReplica()).isTrue();
+            cache.armazenarRelatorio(1L, competencia, geracao, relatorio(competencia));
+        });
+        assertThat(cache.buscarRelatorio(1L, competencia)).isNull();
+        assertThat(DataSourceRoteador.transacaoLeuDaReplica()).isFalse();
+
+        try (DataSourceRoteador.LeituraPrincipal principal = DataSourceRoteador.lerDoPrincipal()) {
+            leitura.executeWithoutResult(status -> {
+                assertThat(origem()).isEqualTo("primario");
+                cache.armazenarRelatorio(1L, competencia, geracao, relatorio(competencia));
+            });
+        }
+        assertThat(cache.buscarRelatorio(1L, competencia)).isNotNull();
+        assertThat(origemEm(leitura)).isEqualTo("replica");
+    }
+
+    /**
+     * Monta um relatorio vazio para a pessoa 1.
+     *
+     * @param competencia competencia do relatorio
+     * @return relatorio sem cartoes
+     */
+    private static RelatorioPessoaDto relatorio(YearMonth competencia) {
+        return new RelatorioPessoaDto(1L, "Pessoa", "***.***.***-00", competencia, List.of(),
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * Consulta qual banco respondeu dentro de uma transacao.
+     *
+     * @param transacao modelo de transacao de leitura ou escrita
+     * @return nome do banco
+     */
+    private String origemEm(TransactionTemplate transacao) {
+        return transacao.execute(status -> origem());
+    }
+
+    /**
+     * Consulta qual banco respondeu.
+     *
+     * @return nome do banco
+     */
+    private String origem() {
+        return jdbcTemplate.queryForObject("select nome from origem", String.class);
+    }
+
+    /**
+     * Cria banco H2 em memoria com a tabela de identificacao.
+     *
+     * @param nome nome do banco
+     * @return datasource do banco
+     */
+    private static DataSource criarBanco(String nome) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:roteador_" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists origem (nome varchar(20))");
+        jdbc.update("delete from origem");
+        jdbc.update("insert into origem (nome) values (?)", nome);
+        return dataSource;
+    }
+}
@@ -0,0 +1,42 @@
+package io.freitas.empcard.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do cache HTTP dos assets versionados de producao.
+ */
+class RecursosEstaticosConfigTests {
+
+    private final RecursosEstaticosConfig.CacheAssets cacheAssets =
+            new RecursosEstaticosConfig.CacheAssets(new ContentVersionStrategy());
+
+    /**
+     * Garante cache imutavel so na URL com hash e revalidacao no mesmo arquivo pedido sem hash.
+     */
+    @Test
+    void deveMarcarImutavelSomenteUrlComHash() {
+        assertThat(cacheControl("/css/app-3f2a9c1d0b8e7f6a5d4c3b2a1f0e9d8c.css"))
+                .isEqualTo("max-age=31536000, public, immutable");
+        assertThat(cacheControl("/css/app.css")).isEqualTo("no-cache, public");
+        assertThat(cacheControl("/js/lib-min.js")).isEqualTo("no-cache, public");
+    }
+
+    /**
+     * Executa o interceptor para o caminho informado.
+     *
+     * @param caminho caminho do asset
+     * @return valor do Cache-Control gravado
+     */
+    private String cacheControl(String caminho) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", caminho);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cacheAssets.preHandle(request, response, new Object());
+        return response.getHeader(HttpHeaders.CACHE_CONTROL);
+    }
+}
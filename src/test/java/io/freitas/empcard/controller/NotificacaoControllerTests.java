@@ -0,0 +1,130 @@
+package io.freitas.empcard.controller;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.service.CartaoService;
+import io.freitas.empcard.service.LancamentoService;
+import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.RelatorioService;
+import io.freitas.empcard.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Testes de integracao do canal SSE de notificacoes de saldo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class NotificacaoControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    /**
+     * Conclui o setup inicial para que o filtro de primeiro acesso libere as telas.
+     */
+    @BeforeEach
+    void prepararSetupInicial() {
+        if (usuarioService.possuiUsuarios()) {
+            return;
+        }
+        SetupInicialFormDto setup = new SetupInicialFormDto();
+        setup.setNomeExibicao("Administrador");
+        setup.setNomeUsuario("admin");
+        setup.setSenha("segredo123");
+        usuarioService.criarPrimeiroAdmin(setup);
+    }
+
+    /**
+     * Garante que um lancamento confirmado chega a conexao aberta com o novo saldo da pessoa, e nao com o
+     * relatorio que estava em cache antes da escrita.
+     */
+    @Test
+    void deveNotificarConexaoAbertaAposLancamento() throws Exception {
+        MockHttpServletResponse conexao = mockMvc.perform(get("/notificacoes/saldos"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Notificacao");
+        formPessoa.setCpf("39053344705");
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("6011000990139424");
+        formCartao.setBandeira("Discover");
+        formCartao.setBanco("Banco Notificacao");
+        formCartao.setDiaFechamento(28);
+        formCartao.setDiaVencimento(10);
+        Cartao cartao = cartaoService.criar(formCartao);
+        relatorioService.gerarRelatorioPessoa(pessoa.getId(), YearMonth.now());
+
+        LancamentoFormDto formLancamento = new LancamentoFormDto();
+        formLancamento.setPessoaId(pessoa.getId());
+        formLancamento.setCartaoId(cartao.getId());
+        formLancamento.setDescricao("Compra notificada");
+        formLancamento.setTipo(TipoLancamento.AVULSO);
+        formLancamento.setValorFormatado("42,00");
+        formLancamento.setQuantidadeParcelas(1);
+        formLancamento.setDataCompra(LocalDate.now().withDayOfMonth(1));
+        lancamentoService.criar(formLancamento);
+
+        String conteudo = aguardarEvento(conexao);
+        assertThat(conteudo)
+                .contains("event:saldo")
+                .contains("\"pessoaId\":" + pessoa.getId())
+                .contains("\"saldoAnterior\":0.00")
+                .contains("\"saldo\":42.00")
+                .contains("\"variacao\":42.00");
+    }
+
+    /**
+     * Aguarda a thread de notificacao escrever o evento na resposta assincrona.
+     *
+     * @param conexao resposta da conexao SSE
+     * @return conteudo escrito ate o momento
+     * @throws Exception falha ao ler a resposta ou interrupcao
+     */
+    private String aguardarEvento(MockHttpServletResponse conexao) throws Exception {
+        long limite = System.currentTimeMillis() + 5_000;
+        // O evento esta completo quando a linha em branco que o encerra foi escrita.
+        while (!conexao.getContentAsString().endsWith("}\n\n") && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        return conexao.getContentAsString();
+    }
+}
@@ -0,0 +1,127 @@
+package io.freitas.empcard.controller.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.freitas.empcard.dto.LancamentoResponseDto;
+import io.freitas.empcard.model.TipoLancamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Vazao de serializacao e bytes trafegados de uma listagem de lancamentos em JSON, CBOR e Smile, com e sem
+ * gzip. Os tamanhos sao impressos no setup. Executar com:
+ * {@code ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath io.freitas.empcard.controller.api.FormatoRespostaBenchmark"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoRespostaBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    @Param({"10000"})
+    private int quantidade;
+
+    private ObjectMapper objectMapper;
+    private List<LancamentoResponseDto> lancamentos;
+
+    /**
+     * Monta a listagem e o mapper do formato, configurado como o do Spring Boot, e imprime os tamanhos.
+     *
+     * @throws IOException falha de serializacao
+     */
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        JsonFactory fabrica = switch (formato) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(fabrica)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        lancamentos = new ArrayList<>(quantidade);
+        LocalDate inicio = LocalDate.of(2026, 1, 1);
+        TipoLancamento[] tipos = TipoLancamento.values();
+        for (int i = 0; i < quantidade; i++) {
+            TipoLancamento tipo = tipos[i % tipos.length];
+            lancamentos.add(new LancamentoResponseDto((long) i, (long) (i % 200), "PESSOA " + (i % 200),
+                    (long) (i % 12), "**** **** **** " + (1000 + i % 12), "COMPRA " + i, tipo,
+                    BigDecimal.valueOf(1999 + i % 50_000, 2), tipo == TipoLancamento.PARCELADO ? 1 + i % 12 : null,
+                    inicio.plusDays(i % 365), null, i % 5 == 0 ? "observacao " + i : null, i % 20 != 0));
+        }
+
+        byte[] cru = objectMapper.writeValueAsBytes(lancamentos);
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+            gzip.write(cru);
+        }
+        System.out.printf("%n%s: %d bytes, %d bytes com gzip%n", formato, cru.length, comprimido.size());
+    }
+
+    /**
+     * Serializa a listagem direto em um stream, como o conversor HTTP faz no corpo da resposta.
+     *
+     * @throws IOException falha de serializacao
+     */
+    @Benchmark
+    public void serializar() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), lancamentos);
+    }
+
+    /**
+     * Serializa a listagem passando pelo gzip, como o Tomcat faz com a compressao habilitada.
+     *
+     * @throws IOException falha de serializacao
+     */
+    @Benchmark
+    public void serializarComGzip() throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+            objectMapper.writeValue(gzip, lancamentos);
+        }
+    }
+
+    /**
+     * Ponto de entrada para execucao fora do surefire.
+     *
+     * @param args argumentos ignorados
+     * @throws RunnerException falha do JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FormatoRespostaBenchmark.class.getSimpleName()).build()).run();
+    }
+}
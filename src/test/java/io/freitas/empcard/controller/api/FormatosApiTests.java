@@ -0,0 +1,123 @@
+package io.freitas.empcard.controller.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.PessoaResponseDto;
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.UsuarioService;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de integracao da negociacao de formato (JSON, CBOR e Smile) na API REST.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class FormatosApiTests {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    /**
+     * Conclui o setup inicial e garante ao menos uma pessoa na listagem.
+     */
+    @BeforeEach
+    void preparar() {
+        if (!usuarioService.possuiUsuarios()) {
+            SetupInicialFormDto setup = new SetupInicialFormDto();
+            setup.setNomeExibicao("Administrador");
+            setup.setNomeUsuario("admin");
+            setup.setSenha("segredo123");
+            usuarioService.criarPrimeiroAdmin(setup);
+        }
+        if (pessoaService.listarTodos().stream().noneMatch(pessoa -> "44455566619".equals(pessoa.getCpf()))) {
+            PessoaFormDto form = new PessoaFormDto();
+            form.setNome("Pessoa Formatos");
+            form.setCpf("44455566619");
+            pessoaService.criar(form);
+        }
+    }
+
+    /**
+     * Garante que CBOR e Smile carregam os mesmos dados do JSON.
+     */
+    @Test
+    void deveResponderEmCborESmileComMesmoConteudoDoJson() throws Exception {
+        PessoaResponseDto[] json = objectMapper.readValue(mockMvc.perform(get("/api/pessoas").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray(), PessoaResponseDto[].class);
+
+        byte[] cbor = mockMvc.perform(get("/api/pessoas").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] smile = mockMvc.perform(get("/api/pessoas").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(json).isNotEmpty();
+        assertThat(new ObjectMapper(new CBORFactory()).readValue(cbor, PessoaResponseDto[].class))
+                .usingRecursiveFieldByFieldElementComparator(comparadorDecimal())
+                .containsExactly(json);
+        assertThat(new ObjectMapper(new SmileFactory()).readValue(smile, PessoaResponseDto[].class))
+                .usingRecursiveFieldByFieldElementComparator(comparadorDecimal())
+                .containsExactly(json);
+    }
+
+    /**
+     * Compara decimais pelo valor, ja que o JSON nao preserva a escala que os formatos binarios preservam.
+     *
+     * @return configuracao da comparacao recursiva
+     */
+    private static RecursiveComparisonConfiguration comparadorDecimal() {
+        return RecursiveComparisonConfiguration.builder()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .build();
+    }
+
+    /**
+     * Garante que clientes sem preferencia de formato continuam recebendo JSON.
+     */
+    @Test
+    void deveManterJsonComoPadraoQuandoAcceptGenerico() throws Exception {
+        mockMvc.perform(get("/api/pessoas").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
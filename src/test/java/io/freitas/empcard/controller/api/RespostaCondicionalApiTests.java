@@ -0,0 +1,101 @@
+package io.freitas.empcard.controller.api;
+
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de integracao do GET condicional (ETag/If-None-Match) na API REST.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class RespostaCondicionalApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    /**
+     * Conclui o setup inicial para que o filtro de primeiro acesso libere a API.
+     */
+    @BeforeEach
+    void prepararSetupInicial() {
+        if (usuarioService.possuiUsuarios()) {
+            return;
+        }
+        SetupInicialFormDto setup = new SetupInicialFormDto();
+        setup.setNomeExibicao("Administrador");
+        setup.setNomeUsuario("admin");
+        setup.setSenha("segredo123");
+        usuarioService.criarPrimeiroAdmin(setup);
+    }
+
+    /**
+     * Garante que a listagem devolve ETag fraco e que o mesmo validador resulta em 304 sem corpo.
+     */
+    @Test
+    void deveResponderNaoModificadoQuandoEtagAindaValido() throws Exception {
+        String etag = mockMvc.perform(get("/api/pessoas"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("W/\"");
+
+        byte[] corpo = mockMvc.perform(get("/api/pessoas").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(corpo).isEmpty();
+    }
+
+    /**
+     * Garante que criar e depois atualizar uma pessoa alteram o validador da colecao e o cliente volta a receber
+     * o corpo; a atualizacao nao muda a quantidade de registros.
+     */
+    @Test
+    void deveInvalidarEtagQuandoColecaoMuda() throws Exception {
+        String etag = mockMvc.perform(get("/api/pessoas"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        PessoaFormDto form = new PessoaFormDto();
+        form.setNome("Pessoa Etag");
+        form.setCpf("98765432100");
+        Pessoa pessoa = pessoaService.criar(form);
+
+        String etagAposCriacao = mockMvc.perform(get("/api/pessoas").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        form.setNome("Pessoa Etag Renomeada");
+        pessoaService.atualizar(pessoa.getId(), form);
+
+        mockMvc.perform(get("/api/pessoas").header(HttpHeaders.IF_NONE_MATCH, etagAposCriacao))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etagAposCriacao)));
+    }
+}
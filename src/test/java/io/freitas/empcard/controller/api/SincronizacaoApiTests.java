@@ -0,0 +1,138 @@
+package io.freitas.empcard.controller.api;
+
+import com.jayway.jsonpath.JsonPath;
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.service.CartaoService;
+import io.freitas.empcard.service.LancamentoService;
+import io.freitas.empcard.service.PessoaService;
+import io.freitas.empcard.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de integracao do feed de sincronizacao incremental.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class SincronizacaoApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    /**
+     * Conclui o setup inicial para que o filtro de primeiro acesso libere a API.
+     */
+    @BeforeEach
+    void prepararSetupInicial() {
+        if (usuarioService.possuiUsuarios()) {
+            return;
+        }
+        SetupInicialFormDto setup = new SetupInicialFormDto();
+        setup.setNomeExibicao("Administrador");
+        setup.setNomeUsuario("admin");
+        setup.setSenha("segredo123");
+        usuarioService.criarPrimeiroAdmin(setup);
+    }
+
+    /**
+     * Garante que a marca devolve apenas o que mudou depois dela, incluindo lapides de exclusao.
+     */
+    @Test
+    void deveDevolverSomenteAlteracoesEExclusoesPosterioresAMarca() throws Exception {
+        String marcaInicial = consultarMarcaInicial();
+
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Sincronizacao");
+        formPessoa.setCpf("52998224725");
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("5555444433332222");
+        formCartao.setBandeira("Master");
+        formCartao.setBanco("Banco Sincronizacao");
+        formCartao.setDiaFechamento(5);
+        formCartao.setDiaVencimento(15);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        LancamentoFormDto formLancamento = new LancamentoFormDto();
+        formLancamento.setPessoaId(pessoa.getId());
+        formLancamento.setCartaoId(cartao.getId());
+        formLancamento.setDescricao("Compra excluida");
+        formLancamento.setTipo(TipoLancamento.AVULSO);
+        formLancamento.setValorFormatado("10,00");
+        formLancamento.setQuantidadeParcelas(1);
+        formLancamento.setDataCompra(LocalDate.of(2026, 1, 2));
+        Lancamento lancamento = lancamentoService.criar(formLancamento);
+        lancamentoService.excluir(lancamento.getId());
+
+        String resposta = mockMvc.perform(get("/api/sincronizacao").param("marca", marcaInicial))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.possuiMais").value(false))
+                .andExpect(jsonPath("$.pessoas[*].id").value(hasItem(pessoa.getId().intValue())))
+                .andExpect(jsonPath("$.cartoes[*].id").value(hasItem(cartao.getId().intValue())))
+                .andExpect(jsonPath("$.lancamentos[*].id").value(not(hasItem(lancamento.getId().intValue()))))
+                .andExpect(jsonPath("$.exclusoes[?(@.tipo == 'LANCAMENTO')].id").value(hasItem(lancamento.getId().intValue())))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/sincronizacao").param("marca", JsonPath.<String>read(resposta, "$.marca")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pessoas").value(empty()))
+                .andExpect(jsonPath("$.exclusoes").value(empty()));
+    }
+
+    /**
+     * Garante que marca adulterada e recusada com 410, orientando carga completa.
+     */
+    @Test
+    void deveRecusarMarcaInvalida() throws Exception {
+        mockMvc.perform(get("/api/sincronizacao").param("marca", "invalida"))
+                .andExpect(status().isGone());
+    }
+
+    /**
+     * Faz a carga completa e devolve a marca da resposta.
+     *
+     * @return marca para as proximas chamadas
+     * @throws Exception falha na requisicao
+     */
+    private String consultarMarcaInicial() throws Exception {
+        String resposta = mockMvc.perform(get("/api/sincronizacao"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(resposta, "$.marca");
+    }
+}
@@ -0,0 +1,113 @@
+package io.freitas.empcard.controller.api;
+
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.dto.TokenApiEmitidoDto;
+import io.freitas.empcard.dto.TokenApiFormDto;
+import io.freitas.empcard.service.TokenApiService;
+import io.freitas.empcard.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de integracao da autenticacao stateless por token Bearer na API REST.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenApiAutenticacaoTests {
+
+    private static final String ADMIN = "ADMIN";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private TokenApiService tokenApiService;
+
+    /**
+     * Conclui o setup inicial para que exista um usuario dono dos tokens.
+     */
+    @BeforeEach
+    void prepararSetupInicial() {
+        if (usuarioService.possuiUsuarios()) {
+            return;
+        }
+        SetupInicialFormDto setup = new SetupInicialFormDto();
+        setup.setNomeExibicao("Administrador");
+        setup.setNomeUsuario("admin");
+        setup.setSenha("segredo123");
+        usuarioService.criarPrimeiroAdmin(setup);
+    }
+
+    /**
+     * Garante que token valido autentica sem criar sessao e que a revogacao passa a recusar o token.
+     */
+    @Test
+    void deveAutenticarSemSessaoERecusarAposRevogacao() throws Exception {
+        TokenApiEmitidoDto emitido = emitir();
+
+        MvcResult resultado = mockMvc.perform(get("/api/pessoas").header(HttpHeaders.AUTHORIZATION, "Bearer " + emitido.token()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(resultado.getRequest().getSession(false)).isNull();
+
+        tokenApiService.revogar(emitido.id(), ADMIN);
+
+        mockMvc.perform(get("/api/pessoas").header(HttpHeaders.AUTHORIZATION, "Bearer " + emitido.token()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Garante que token desconhecido recebe 401 e que token nao gerencia outros tokens.
+     */
+    @Test
+    void deveRecusarTokenInvalidoEGerenciamentoPorToken() throws Exception {
+        mockMvc.perform(get("/api/pessoas").header(HttpHeaders.AUTHORIZATION, "Bearer emp_invalido"))
+                .andExpect(status().isUnauthorized());
+
+        TokenApiEmitidoDto emitido = emitir();
+        mockMvc.perform(get("/api/tokens").header(HttpHeaders.AUTHORIZATION, "Bearer " + emitido.token()))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * Garante que operacoes de escrita do actuator exigem CSRF na sessao e aceitam token Bearer sem CSRF.
+     */
+    @Test
+    void deveExigirCsrfNoActuatorComSessao() throws Exception {
+        mockMvc.perform(post("/actuator/razaocolunar").with(user(ADMIN).roles(ADMIN)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/actuator/razaocolunar").with(user(ADMIN).roles(ADMIN)).with(csrf()))
+                .andExpect(status().isOk());
+
+        TokenApiEmitidoDto emitido = emitir();
+        mockMvc.perform(post("/actuator/razaocolunar").header(HttpHeaders.AUTHORIZATION, "Bearer " + emitido.token()))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Emite token para o administrador do setup.
+     *
+     * @return token emitido
+     */
+    private TokenApiEmitidoDto emitir() {
+        TokenApiFormDto form = new TokenApiFormDto();
+        form.setDescricao("Integracao teste");
+        return tokenApiService.emitir(ADMIN, form);
+    }
+}
@@ -0,0 +1,111 @@
+package io.freitas.empcard.observabilidade;
+
+import io.freitas.empcard.config.RegistroAcessoProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do log de acesso na thread da requisicao: cadeia sem filtro versus cadeia com o filtro,
+ * com amostragem total e nula. Executar com:
+ * {@code ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath io.freitas.empcard.observabilidade.RegistroAcessoBenchmark"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistroAcessoBenchmark {
+
+    private static final FilterChain CADEIA_VAZIA = (request, response) -> {
+    };
+
+    @Param({"1.0", "0.0"})
+    private double taxaAmostragem;
+
+    private RegistradorAcessoAssincrono registrador;
+    private FiltroRegistroAcesso filtro;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    /**
+     * Monta filtro e registrador reais; o logger de saida fica desligado para medir so o lado da requisicao.
+     */
+    @Setup(Level.Trial)
+    public void preparar() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(RegistradorAcessoAssincrono.NOME_LOGGER))
+                .setLevel(ch.qos.logback.classic.Level.OFF);
+        registrador = new RegistradorAcessoAssincrono(8192, new SimpleMeterRegistry());
+        registrador.iniciar();
+        RegistroAcessoProperties properties = new RegistroAcessoProperties(
+                true, 8192, 1000, Map.of("/api/**", taxaAmostragem));
+        filtro = new FiltroRegistroAcesso(registrador, properties);
+
+        request = new MockHttpServletRequest("GET", "/api/pessoas/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/pessoas/{id}");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    /**
+     * Encerra a thread escritora.
+     */
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        registrador.encerrar();
+    }
+
+    /**
+     * Referencia: apenas a cadeia vazia.
+     *
+     * @throws Exception erro da cadeia
+     */
+    @Benchmark
+    public void semFiltro() throws Exception {
+        CADEIA_VAZIA.doFilter(request, response);
+    }
+
+    /**
+     * Cadeia vazia passando pelo filtro de acesso.
+     *
+     * @throws Exception erro da cadeia
+     */
+    @Benchmark
+    public void comFiltro() throws Exception {
+        filtro.doFilter(request, response, CADEIA_VAZIA);
+    }
+
+    /**
+     * Ponto de entrada para execucao fora do surefire.
+     *
+     * @param args argumentos ignorados
+     * @throws RunnerException falha do JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RegistroAcessoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,193 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.ContadorConsultasSql;
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.DimensaoAnalitica;
+import io.freitas.empcard.dto.GrupoSerieAnaliticaDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PagamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.SerieAnaliticaDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao das series analiticas: agregacao por mes e grupo e cache dos meses encerrados.
+ *
+ * <p>Os movimentos ficam em 2020, periodo sem dados dos demais testes no H2 compartilhado.</p>
+ */
+@SpringBootTest
+class AnaliticaCarteiraServiceTests {
+
+    private static final String CPF = "13579246828";
+    private static final String BANCO = "BANCO ANALITICA";
+    private static final YearMonth INICIO = YearMonth.of(2020, 1);
+    private static final YearMonth FIM = YearMonth.of(2020, 6);
+
+    @Autowired
+    private AnaliticaCarteiraService analiticaCarteiraService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    private Pessoa pessoa;
+    private Cartao cartao;
+
+    /**
+     * Cadastra, uma unica vez, compras parceladas e avulsa em marco e abril de 2020 e um pagamento em abril.
+     */
+    @BeforeEach
+    void preparar() {
+        analiticaCarteiraService.invalidarTudo();
+        if (pessoaRepository.findByCpf(CPF).isPresent()) {
+            pessoa = pessoaRepository.findByCpf(CPF).get();
+            cartao = cartaoService.listarTodos().stream()
+                    .filter(item -> item.getBanco().equals(BANCO))
+                    .findFirst()
+                    .orElseThrow();
+            return;
+        }
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Analitica");
+        formPessoa.setCpf(CPF);
+        pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("5555666677778009");
+        formCartao.setBandeira("Mastercard");
+        formCartao.setBanco("Banco Analitica");
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        cartao = cartaoService.criar(formCartao);
+
+        lancar(TipoLancamento.PARCELADO, "300,00", 3, LocalDate.of(2020, 3, 5));
+        lancar(TipoLancamento.AVULSO, "50,00", 1, LocalDate.of(2020, 3, 18));
+        lancar(TipoLancamento.PARCELADO, "120,00", 6, LocalDate.of(2020, 4, 2));
+
+        PagamentoFormDto pagamento = new PagamentoFormDto();
+        pagamento.setPessoaId(pessoa.getId());
+        pagamento.setCartaoId(cartao.getId());
+        pagamento.setDataPagamento(LocalDate.of(2020, 4, 20));
+        pagamento.setValorFormatado("80,00");
+        pagamentoService.criar(pagamento);
+    }
+
+    /**
+     * Compras por tipo e banco e pagamentos por banco saem como listas paralelas as competencias, com zero nos
+     * meses sem movimento e media de parcelas so nos meses com compra.
+     */
+    @Test
+    void deveAgregarSeriesPorMesEGrupo() {
+        SerieAnaliticaDto porTipo = analiticaCarteiraService.compras(DimensaoAnalitica.TIPO, INICIO, FIM);
+        assertThat(porTipo.competencias()).hasSize(6).first().isEqualTo(INICIO);
+        GrupoSerieAnaliticaDto parcelados = grupo(porTipo, "PARCELADO");
+        assertThat(parcelados.quantidades()).containsExactly(0L, 0L, 1L, 1L, 0L, 0L);
+        assertThat(parcelados.valores().subList(2, 4)).containsExactly(new BigDecimal("300.00"), new BigDecimal("120.00"));
+        assertThat(parcelados.mediasParcelas())
+                .containsExactly(null, null, new BigDecimal("3.00"), new BigDecimal("6.00"), null, null);
+        assertThat(grupo(porTipo, "AVULSO").quantidades()).containsExactly(0L, 0L, 1L, 0L, 0L, 0L);
+
+        SerieAnaliticaDto porBanco = analiticaCarteiraService.compras(DimensaoAnalitica.BANCO, INICIO, FIM);
+        assertThat(grupo(porBanco, BANCO).valores().subList(2, 4))
+                .containsExactly(new BigDecimal("350.00"), new BigDecimal("120.00"));
+
+        SerieAnaliticaDto pagamentos = analiticaCarteiraService.pagamentos(DimensaoAnalitica.BANCO, INICIO, FIM);
+        GrupoSerieAnaliticaDto recebidos = grupo(pagamentos, BANCO);
+        assertThat(recebidos.valores().get(3)).isEqualByComparingTo("80.00");
+        assertThat(recebidos.mediasParcelas()).isNull();
+    }
+
+    /**
+     * Meses encerrados ja consultados nao voltam ao banco; o mes corrente e sempre consultado; uma compra nova
+     * invalida so o mes dela e uma alteracao invalida todos os meses de compras.
+     */
+    @Test
+    void deveReaproveitarMesesEncerradosEmCache() {
+        analiticaCarteiraService.compras(DimensaoAnalitica.TOTAL, INICIO, FIM);
+
+        try (ContadorConsultasSql.Captura captura = ContadorConsultasSql.capturar()) {
+            analiticaCarteiraService.compras(DimensaoAnalitica.TOTAL, INICIO, FIM);
+            assertThat(captura.total()).isZero();
+        }
+
+        YearMonth atual = YearMonth.now();
+        analiticaCarteiraService.compras(DimensaoAnalitica.TOTAL, atual.minusMonths(2), atual);
+        try (ContadorConsultasSql.Captura captura = ContadorConsultasSql.capturar()) {
+            analiticaCarteiraService.compras(DimensaoAnalitica.TOTAL, atual.minusMonths(2), atual);
+            assertThat(captura.total()).isEqualTo(1);
+        }
+
+        Lancamento maio = lancar(TipoLancamento.AVULSO, "10,00", 1, LocalDate.of(2020, 5, 7));
+        assertThat(analiticaCarteiraService.totalEmCache()).isEqualTo(7);
+        try (ContadorConsultasSql.Captura captura = ContadorConsultasSql.capturar()) {
+            SerieAnaliticaDto serie = analiticaCarteiraService.compras(DimensaoAnalitica.TOTAL, INICIO, FIM);
+            assertThat(captura.total()).isEqualTo(1);
+            assertThat(grupo(serie, "TOTAL").quantidades().get(4)).isEqualTo(1L);
+        }
+
+        lancamentoService.excluir(maio.getId());
+        assertThat(analiticaCarteiraService.totalEmCache()).isZero();
+        assertThat(grupo(analiticaCarteiraService.compras(DimensaoAnalitica.TOTAL, INICIO, FIM), "TOTAL")
+                .quantidades().get(4)).isZero();
+    }
+
+    /**
+     * Busca grupo da serie.
+     *
+     * @param serie serie montada
+     * @param nome  valor do agrupamento
+     * @return grupo encontrado
+     */
+    private static GrupoSerieAnaliticaDto grupo(SerieAnaliticaDto serie, String nome) {
+        return serie.grupos().stream()
+                .filter(item -> item.grupo().equals(nome))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(nome + " ausente em " + serie.grupos()));
+    }
+
+    /**
+     * Cadastra compra da pessoa de teste.
+     *
+     * @param tipo       tipo do lancamento
+     * @param valor      valor formatado
+     * @param parcelas   quantidade de parcelas
+     * @param dataCompra data da compra
+     * @return lancamento criado
+     */
+    private Lancamento lancar(TipoLancamento tipo, String valor, int parcelas, LocalDate dataCompra) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa.getId());
+        form.setCartaoId(cartao.getId());
+        form.setDescricao("Compra analitica " + tipo);
+        form.setTipo(tipo);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(dataCompra);
+        return lancamentoService.criar(form);
+    }
+}
@@ -0,0 +1,85 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.ItemBuscaDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.ResultadoBuscaDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao da busca aproximada mantida pelos eventos de escrita.
+ */
+@SpringBootTest
+class BuscaServiceTests {
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    /**
+     * Garante busca por nome com erro de digitacao e sem acento, CPF mascarado, final do cartao e
+     * descricao, e que o lancamento excluido sai do indice.
+     */
+    @Test
+    void deveEncontrarRegistrosIndexadosPelasEscritas() {
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Joaquina Conceição");
+        formPessoa.setCpf("74185296355");
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("3782822463107315");
+        formCartao.setBandeira("Amex");
+        formCartao.setBanco("Banco Busca");
+        formCartao.setDiaFechamento(3);
+        formCartao.setDiaVencimento(12);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        LancamentoFormDto formLancamento = new LancamentoFormDto();
+        formLancamento.setPessoaId(pessoa.getId());
+        formLancamento.setCartaoId(cartao.getId());
+        formLancamento.setDescricao("Bicicleta ergométrica");
+        formLancamento.setTipo(TipoLancamento.AVULSO);
+        formLancamento.setValorFormatado("899,90");
+        formLancamento.setQuantidadeParcelas(1);
+        formLancamento.setDataCompra(LocalDate.of(2026, 3, 4));
+        Lancamento lancamento = lancamentoService.criar(formLancamento);
+
+        assertThat(buscaService.buscar("joaqina concei", 5).pessoas())
+                .extracting(ItemBuscaDto::id)
+                .first().isEqualTo(pessoa.getId());
+        assertThat(buscaService.buscar("741.852.963-55", 5).pessoas())
+                .extracting(ItemBuscaDto::id)
+                .containsExactly(pessoa.getId());
+
+        ResultadoBuscaDto porFinal = buscaService.buscar("7315", 5);
+        assertThat(porFinal.cartoes()).extracting(ItemBuscaDto::id).containsExactly(cartao.getId());
+        assertThat(porFinal.cartoes().get(0).titulo()).isEqualTo("Final 7315 - AMEX");
+
+        ResultadoBuscaDto porDescricao = buscaService.buscar("ergometrica", 5);
+        assertThat(porDescricao.lancamentos()).extracting(ItemBuscaDto::id).containsExactly(lancamento.getId());
+        assertThat(porDescricao.lancamentos().get(0).detalhe()).startsWith("JOAQUINA CONCEIÇÃO - 04/03/2026");
+
+        lancamentoService.excluir(lancamento.getId());
+        assertThat(buscaService.buscar("ergometrica", 5).lancamentos()).isEmpty();
+    }
+}
@@ -0,0 +1,187 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Parcela;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.ParcelaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao do cronograma materializado de parcelas: manutencao nas escritas, sincronizacao e
+ * relatorio lido das linhas gravadas.
+ */
+@SpringBootTest
+class CronogramaParcelasServiceTests {
+
+    private static final YearMonth JANEIRO = YearMonth.of(2024, 1);
+    private static final YearMonth FEVEREIRO = YearMonth.of(2024, 2);
+
+    @Autowired
+    private CronogramaParcelasService cronogramaParcelasService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private ParcelaRepository parcelaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Criacao grava as parcelas com ajuste de centavos na ultima e fixo ate o horizonte; atualizacao, status,
+     * mudanca do fechamento do cartao e exclusao mantem as linhas coerentes.
+     */
+    @Test
+    void deveManterCronogramaNasEscritas() {
+        Carteira carteira = cadastrar("24681357928", "4012888818811883", "Banco Cronograma A");
+        Lancamento parcelado = lancar(carteira, TipoLancamento.PARCELADO, "100,00", 3, LocalDate.of(2024, 1, 5));
+        Lancamento fixo = lancar(carteira, TipoLancamento.FIXO, "50,00", 1, LocalDate.of(2024, 2, 5));
+
+        List<Parcela> parcelas = parcelaRepository.findByLancamentoIdOrderByNumero(parcelado.getId());
+        assertThat(parcelas).extracting(Parcela::getValor)
+                .containsExactly(new BigDecimal("33.33"), new BigDecimal("33.33"), new BigDecimal("33.34"));
+        assertThat(parcelas).extracting(Parcela::getCompetencia)
+                .containsExactly(JANEIRO.atDay(1), FEVEREIRO.atDay(1), LocalDate.of(2024, 3, 1));
+        List<Parcela> fixos = parcelaRepository.findByLancamentoIdOrderByNumero(fixo.getId());
+        assertThat(fixos.getLast().getCompetencia())
+                .isEqualTo(cronogramaParcelasService.horizonteGarantido().plusMonths(1).atDay(1));
+        assertThat(fixos).hasSize((int) ChronoUnit.MONTHS.between(FEVEREIRO, cronogramaParcelasService.horizonteGarantido()) + 2);
+
+        LancamentoFormDto form = lancamentoService.paraForm(parcelado);
+        form.setQuantidadeParcelas(4);
+        lancamentoService.atualizar(parcelado.getId(), form);
+        assertThat(parcelaRepository.findByLancamentoIdOrderByNumero(parcelado.getId())).extracting(Parcela::getValor)
+                .containsExactly(new BigDecimal("25.00"), new BigDecimal("25.00"), new BigDecimal("25.00"),
+                        new BigDecimal("25.00"));
+
+        lancamentoService.alternarAtivo(parcelado.getId());
+        assertThat(parcelaRepository.findByLancamentoIdOrderByNumero(parcelado.getId()))
+                .extracting(Parcela::isAtivo).containsOnly(false);
+
+        // Com fechamento no dia 3 a compra de 05/01 passa para a fatura de fevereiro.
+        CartaoFormDto cartao = cartaoService.paraForm(carteira.cartao());
+        cartao.setDiaFechamento(3);
+        cartaoService.atualizar(carteira.cartao().getId(), cartao);
+        assertThat(parcelaRepository.findByLancamentoIdOrderByNumero(parcelado.getId()).getFirst().getCompetencia())
+                .isEqualTo(FEVEREIRO.atDay(1));
+
+        lancamentoService.excluir(parcelado.getId());
+        assertThat(parcelaRepository.findByLancamentoIdOrderByNumero(parcelado.getId())).isEmpty();
+    }
+
+    /**
+     * A sincronizacao recompoe linhas ausentes e o relatorio soma as mesmas cobrancas dentro e alem do horizonte
+     * do cronograma.
+     */
+    @Test
+    void deveSincronizarEGerarRelatorioPeloCronograma() {
+        Carteira carteira = cadastrar("36925814755", "5300130013001301", "Banco Cronograma B");
+        Lancamento parcelado = lancar(carteira, TipoLancamento.PARCELADO, "100,00", 3, LocalDate.of(2024, 1, 5));
+        lancar(carteira, TipoLancamento.FIXO, "50,00", 1, LocalDate.of(2024, 2, 5));
+
+        jdbcTemplate.update("delete from parcelas where lancamento_id = ?", parcelado.getId());
+        cronogramaParcelasService.sincronizar();
+        assertThat(parcelaRepository.findByLancamentoIdOrderByNumero(parcelado.getId())).hasSize(3);
+
+        YearMonth atual = YearMonth.now();
+        assertThat(relatorioService.gerarRelatorioPessoa(carteira.pessoa().getId(), atual).totalGeralSaldo())
+                .isEqualByComparingTo(saldoEsperado(atual));
+
+        YearMonth alemDoHorizonte = cronogramaParcelasService.horizonteGarantido().plusMonths(3);
+        RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(carteira.pessoa().getId(), alemDoHorizonte);
+        assertThat(relatorio.totalGeralSaldo()).isEqualByComparingTo(saldoEsperado(alemDoHorizonte));
+        assertThat(relatorio.cartoes().getFirst().totalFixo()).isEqualByComparingTo("50.00");
+    }
+
+    /**
+     * Saldo da pessoa sem juros e sem pagamentos: parcelado quitado mais um fixo por mes desde fevereiro de 2024.
+     *
+     * @param competencia competencia do relatorio
+     * @return saldo acumulado
+     */
+    private static BigDecimal saldoEsperado(YearMonth competencia) {
+        long meses = ChronoUnit.MONTHS.between(FEVEREIRO, competencia) + 1;
+        return new BigDecimal("100.00").add(new BigDecimal("50.00").multiply(BigDecimal.valueOf(meses)));
+    }
+
+    /**
+     * Cadastra pessoa sem juros e cartao com fechamento no dia 10.
+     *
+     * @param cpf    CPF unico da pessoa
+     * @param numero numero de cartao unico
+     * @param banco  banco do cartao
+     * @return registros criados
+     */
+    private Carteira cadastrar(String cpf, String numero, String banco) {
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa " + banco);
+        formPessoa.setCpf(cpf);
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero(numero);
+        formCartao.setBandeira("Visa");
+        formCartao.setBanco(banco);
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        return new Carteira(pessoa, cartaoService.criar(formCartao));
+    }
+
+    /**
+     * Cadastra lancamento de teste.
+     *
+     * @param carteira   pessoa e cartao
+     * @param tipo       tipo do lancamento
+     * @param valor      valor formatado
+     * @param parcelas   quantidade de parcelas
+     * @param dataCompra data da compra
+     * @return lancamento criado
+     */
+    private Lancamento lancar(Carteira carteira, TipoLancamento tipo, String valor, int parcelas, LocalDate dataCompra) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(carteira.pessoa().getId());
+        form.setCartaoId(carteira.cartao().getId());
+        form.setDescricao("Compra cronograma " + tipo);
+        form.setTipo(tipo);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(dataCompra);
+        return lancamentoService.criar(form);
+    }
+
+    /**
+     * Registros cadastrados para um teste.
+     *
+     * @param pessoa pessoa
+     * @param cartao cartao
+     */
+    private record Carteira(Pessoa pessoa, Cartao cartao) {
+    }
+}
@@ -0,0 +1,137 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.FaturaCartaoDto;
+import io.freitas.empcard.dto.FaturaPessoaDto;
+import io.freitas.empcard.dto.ItemRelatorioDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.ResumoCartaoRelatorioDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Testes de integracao da fatura por cartao.
+ */
+@SpringBootTest
+class FaturaCartaoServiceTests {
+
+    @Autowired
+    private FaturaCartaoService faturaCartaoService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PdfRelatorioService pdfRelatorioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    /**
+     * Garante que a fatura respeita a janela de fechamento, soma as compras de todas as pessoas e bate com
+     * o total de compras do cartao no relatorio de cada pessoa.
+     */
+    @Test
+    void deveSomarComprasDeTodasAsPessoasNaJanelaDaFatura() {
+        Pessoa ana = criarPessoa("Ana Fatura", "22233344405");
+        Pessoa bruno = criarPessoa("Bruno Fatura", "33344455508");
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("4000056655665556");
+        formCartao.setBandeira("Visa");
+        formCartao.setBanco("Banco Fatura");
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        lancar(ana, cartao, TipoLancamento.AVULSO, "Antes do fechamento", "10,00", 1, LocalDate.of(2026, 2, 9));
+        lancar(ana, cartao, TipoLancamento.AVULSO, "No fechamento", "20,00", 1, LocalDate.of(2026, 2, 10));
+        lancar(ana, cartao, TipoLancamento.PARCELADO, "Parcelado", "90,00", 3, LocalDate.of(2026, 1, 5));
+        lancar(bruno, cartao, TipoLancamento.FIXO, "Assinatura", "15,00", 1, LocalDate.of(2025, 12, 1));
+        lancar(bruno, cartao, TipoLancamento.AVULSO, "Proxima fatura", "40,00", 1, LocalDate.of(2026, 3, 10));
+
+        YearMonth competencia = YearMonth.of(2026, 3);
+        FaturaCartaoDto fatura = faturaCartaoService.gerarFatura(cartao.getId(), competencia);
+
+        assertThat(fatura.inicioJanela()).isEqualTo(LocalDate.of(2026, 2, 10));
+        assertThat(fatura.fimJanela()).isEqualTo(LocalDate.of(2026, 3, 9));
+        assertThat(fatura.dataVencimento()).isEqualTo(LocalDate.of(2026, 3, 20));
+        assertThat(fatura.pessoas()).extracting(FaturaPessoaDto::nomePessoa)
+                .containsExactly("ANA FATURA", "BRUNO FATURA");
+        assertThat(fatura.pessoas().get(0).itens()).extracting(ItemRelatorioDto::descricao, ItemRelatorioDto::parcela)
+                .containsExactlyInAnyOrder(
+                        tuple("NO FECHAMENTO", "1/1"),
+                        tuple("PARCELADO", "3/3"));
+        assertThat(fatura.pessoas().get(0).total()).isEqualByComparingTo("50.00");
+        assertThat(fatura.pessoas().get(1).total()).isEqualByComparingTo("15.00");
+        assertThat(fatura.total()).isEqualByComparingTo("65.00");
+
+        for (FaturaPessoaDto pessoaFatura : fatura.pessoas()) {
+            ResumoCartaoRelatorioDto resumo = relatorioService.gerarRelatorioPessoa(pessoaFatura.pessoaId(), competencia)
+                    .cartoes().stream()
+                    .filter(item -> item.cartaoId().equals(cartao.getId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(pessoaFatura.total()).isEqualByComparingTo(resumo.totalCompras());
+        }
+
+        byte[] pdf = pdfRelatorioService.gerarPdfFaturaCartao(fatura);
+        assertThat(new String(pdf, StandardCharsets.ISO_8859_1)).startsWith("%PDF-");
+    }
+
+    /**
+     * Cadastra pessoa para o cenario do teste.
+     *
+     * @param nome nome da pessoa
+     * @param cpf  CPF valido
+     * @return pessoa salva
+     */
+    private Pessoa criarPessoa(String nome, String cpf) {
+        PessoaFormDto form = new PessoaFormDto();
+        form.setNome(nome);
+        form.setCpf(cpf);
+        return pessoaService.criar(form);
+    }
+
+    /**
+     * Cadastra lancamento para o cenario do teste.
+     *
+     * @param pessoa     pessoa do lancamento
+     * @param cartao     cartao do lancamento
+     * @param tipo       tipo do lancamento
+     * @param descricao  descricao
+     * @param valor      valor formatado
+     * @param parcelas   quantidade de parcelas
+     * @param dataCompra data da compra
+     */
+    private void lancar(Pessoa pessoa, Cartao cartao, TipoLancamento tipo, String descricao, String valor,
+                        int parcelas, LocalDate dataCompra) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa.getId());
+        form.setCartaoId(cartao.getId());
+        form.setDescricao(descricao);
+        form.setTipo(tipo);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(dataCompra);
+        lancamentoService.criar(form);
+    }
+}
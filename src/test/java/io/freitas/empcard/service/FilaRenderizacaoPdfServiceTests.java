@@ -0,0 +1,129 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.RenderizacaoPdfProperties;
+import io.freitas.empcard.dto.ArquivoPdfDto;
+import io.freitas.empcard.dto.SituacaoTrabalhoPdf;
+import io.freitas.empcard.exception.CapacidadeEsgotadaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do controle de admissao da renderizacao de PDFs.
+ */
+class FilaRenderizacaoPdfServiceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private FilaRenderizacaoPdfService service;
+
+    /**
+     * Libera renderizacoes presas e encerra o executor.
+     */
+    @AfterEach
+    void encerrar() {
+        liberar.countDown();
+        service.encerrar();
+    }
+
+    /**
+     * Com a vaga ocupada e sem fila, o pedido seguinte e recusado na hora com o Retry-After configurado.
+     *
+     * @throws Exception falha na renderizacao concorrente
+     */
+    @Test
+    void deveRecusarComRetryAfterQuandoFilaEstiverCheia() throws Exception {
+        service = criar(0, Duration.ofSeconds(5));
+        CountDownLatch renderizando = new CountDownLatch(1);
+        CompletableFuture<String> primeiro = CompletableFuture.supplyAsync(() -> service.executar(() -> {
+            renderizando.countDown();
+            aguardar(liberar);
+            return "pdf";
+        }));
+        assertThat(renderizando.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> service.executar(() -> "outro"))
+                .isInstanceOfSatisfying(CapacidadeEsgotadaException.class,
+                        ex -> assertThat(ex.getTentarNovamenteEm()).isEqualTo(Duration.ofSeconds(10)));
+        assertThat(meterRegistry.get("empcard.pdf.renderizando").gauge().value()).isEqualTo(1.0);
+
+        liberar.countDown();
+        assertThat(primeiro.get(5, TimeUnit.SECONDS)).isEqualTo("pdf");
+        assertThat(meterRegistry.get("empcard.pdf.rejeitados").counter().count()).isEqualTo(1.0);
+        assertThat(service.executar(() -> "depois")).isEqualTo("depois");
+    }
+
+    /**
+     * Pedido na fila desiste apos a espera maxima em vez de prender a requisicao indefinidamente.
+     */
+    @Test
+    void deveRecusarAposEsperaMaximaNaFila() {
+        service = criar(1, Duration.ofMillis(50));
+        CountDownLatch renderizando = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> service.executar(() -> {
+            renderizando.countDown();
+            aguardar(liberar);
+            return null;
+        }));
+        aguardar(renderizando);
+
+        assertThatThrownBy(() -> service.executar(() -> "outro")).isInstanceOf(CapacidadeEsgotadaException.class);
+        assertThat(meterRegistry.get("empcard.pdf.fila").gauge().value()).isZero();
+    }
+
+    /**
+     * PDF assincrono fica pronto em segundo plano e so o usuario que pediu consegue baixar.
+     *
+     * @throws Exception espera interrompida
+     */
+    @Test
+    void deveGerarPdfAssincronoSomenteParaODono() throws Exception {
+        service = criar(4, Duration.ofSeconds(5));
+        byte[] conteudo = {1, 2, 3};
+
+        UUID id = service.agendar("ana", () -> new ArquivoPdfDto("relatorio.pdf", conteudo));
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.situacao(id, "ana").orElseThrow() == SituacaoTrabalhoPdf.PENDENTE && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(service.situacao(id, "ana")).contains(SituacaoTrabalhoPdf.PRONTO);
+        assertThat(service.arquivo(id, "ana")).get().extracting(ArquivoPdfDto::conteudo).isEqualTo(conteudo);
+        assertThat(service.situacao(id, "bruno")).isEmpty();
+        assertThat(service.arquivo(id, "bruno")).isEmpty();
+    }
+
+    /**
+     * Cria o servico com uma vaga de renderizacao.
+     *
+     * @param fila         pedidos aguardando
+     * @param esperaMaxima espera maxima na fila
+     * @return servico configurado
+     */
+    private FilaRenderizacaoPdfService criar(int fila, Duration esperaMaxima) {
+        return new FilaRenderizacaoPdfService(new RenderizacaoPdfProperties(
+                1, fila, esperaMaxima, Duration.ofSeconds(10), Duration.ofMinutes(10), 10), meterRegistry);
+    }
+
+    /**
+     * Aguarda o sinal do teste.
+     *
+     * @param sinal latch liberado pelo teste
+     */
+    private static void aguardar(CountDownLatch sinal) {
+        try {
+            sinal.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.FaixasAtrasoDto;
+import io.freitas.empcard.dto.InadimplenciaCartaoDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PagamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.RelatorioInadimplenciaDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao do aging de inadimplencia da carteira.
+ */
+@SpringBootTest
+class InadimplenciaServiceTests {
+
+    @Autowired
+    private InadimplenciaService inadimplenciaService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    /**
+     * Garante que o pagamento quita a cobranca mais antiga e que o restante de cada competencia cai na
+     * faixa do seu vencimento, somando o mesmo saldo do relatorio mensal.
+     */
+    @Test
+    void deveDistribuirSaldoPorFaixaDeAtrasoQuitandoMaisAntigoPrimeiro() {
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Inadimplente");
+        formPessoa.setCpf("12345678909");
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("4012888888881881");
+        formCartao.setBandeira("Visa");
+        formCartao.setBanco("Banco Aging");
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        lancar(pessoa, cartao, "Compra janeiro", "100,00", LocalDate.of(2026, 1, 5));
+        lancar(pessoa, cartao, "Compra fevereiro", "50,00", LocalDate.of(2026, 2, 5));
+        lancar(pessoa, cartao, "Compra marco", "30,00", LocalDate.of(2026, 3, 5));
+
+        PagamentoFormDto formPagamento = new PagamentoFormDto();
+        formPagamento.setPessoaId(pessoa.getId());
+        formPagamento.setCartaoId(cartao.getId());
+        formPagamento.setDataPagamento(LocalDate.of(2026, 2, 25));
+        formPagamento.setValorFormatado("40,00");
+        pagamentoService.criar(formPagamento);
+
+        YearMonth competencia = YearMonth.of(2026, 3);
+        RelatorioInadimplenciaDto relatorio = inadimplenciaService.gerarRelatorio(competencia);
+
+        assertThat(relatorio.dataBase()).isEqualTo(LocalDate.of(2026, 3, 31));
+        InadimplenciaCartaoDto linha = relatorio.linhas().stream()
+                .filter(item -> item.pessoaId().equals(pessoa.getId()))
+                .findFirst()
+                .orElseThrow();
+        FaixasAtrasoDto faixas = linha.faixas();
+        assertThat(linha.cartao()).isEqualTo("BANCO AGING VISA final 1881");
+        assertThat(faixas.aVencer()).isEqualByComparingTo("0.00");
+        assertThat(faixas.ate30()).isEqualByComparingTo("30.00");
+        assertThat(faixas.de31a60()).isEqualByComparingTo("50.00");
+        assertThat(faixas.de61a90()).isEqualByComparingTo("60.00");
+        assertThat(faixas.acima90()).isEqualByComparingTo("0.00");
+        assertThat(faixas.total()).isEqualByComparingTo(
+                relatorioService.gerarRelatorioPessoa(pessoa.getId(), competencia).totalGeralSaldo());
+
+        String csv = new String(inadimplenciaService.gerarCsv(relatorio), StandardCharsets.UTF_8);
+        assertThat(csv).contains(pessoa.getId() + ";PESSOA INADIMPLENTE;" + cartao.getId()
+                + ";BANCO AGING VISA final 1881;0,00;30,00;50,00;60,00;0,00;140,00");
+    }
+
+    /**
+     * Nomes que a planilha leria como formula saem com apostrofo, e retorno de carro forca aspas no campo.
+     */
+    @Test
+    void deveNeutralizarFormulasNoCsv() {
+        BigDecimal zero = new BigDecimal("0.00");
+        BigDecimal um = new BigDecimal("1.00");
+        FaixasAtrasoDto faixas = new FaixasAtrasoDto(zero, um, zero, zero, zero, um);
+        RelatorioInadimplenciaDto relatorio = new RelatorioInadimplenciaDto(YearMonth.of(2026, 3),
+                LocalDate.of(2026, 3, 31), List.of(
+                new InadimplenciaCartaoDto(1L, "=HYPERLINK(\"http://x\")", 2L, "+CARTAO", faixas),
+                new InadimplenciaCartaoDto(3L, "@SOMA", 4L, "-1", faixas),
+                new InadimplenciaCartaoDto(5L, "NOME\rQUEBRADO", 6L, "CARTAO", faixas)),
+                faixas);
+
+        String csv = new String(inadimplenciaService.gerarCsv(relatorio), StandardCharsets.UTF_8);
+
+        assertThat(csv).contains("1;\"'=HYPERLINK(\"\"http://x\"\")\";2;'+CARTAO;0,00;1,00");
+        assertThat(csv).contains("3;'@SOMA;4;'-1;0,00;1,00");
+        assertThat(csv).contains("5;\"NOME\rQUEBRADO\";6;CARTAO;0,00;1,00");
+    }
+
+    /**
+     * Cadastra lancamento avulso para o cenario do teste.
+     *
+     * @param pessoa     pessoa do lancamento
+     * @param cartao     cartao do lancamento
+     * @param descricao  descricao
+     * @param valor      valor formatado
+     * @param dataCompra data da compra
+     */
+    private void lancar(Pessoa pessoa, Cartao cartao, String descricao, String valor, LocalDate dataCompra) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa.getId());
+        form.setCartaoId(cartao.getId());
+        form.setDescricao(descricao);
+        form.setTipo(TipoLancamento.AVULSO);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(1);
+        form.setDataCompra(dataCompra);
+        lancamentoService.criar(form);
+    }
+}
@@ -0,0 +1,64 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.InvalidacaoDistribuidaProperties;
+import io.freitas.empcard.evento.AlteracaoRegistroEvento;
+import io.freitas.empcard.evento.AlteracaoRemotaEvento;
+import io.freitas.empcard.evento.AlteracoesRemotasPerdidasEvento;
+import io.freitas.empcard.evento.OperacaoRegistro;
+import io.freitas.empcard.evento.TipoRegistro;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do formato das notificacoes e da republicacao local do barramento de invalidacao, sem PostgreSQL.
+ */
+class InvalidacaoDistribuidaServiceTests {
+
+    private final List<Object> publicados = new ArrayList<>();
+
+    private final InvalidacaoDistribuidaService service = new InvalidacaoDistribuidaService(null, null,
+            new InvalidacaoDistribuidaProperties(true, "empcard_alteracoes", Duration.ofSeconds(10), Duration.ofSeconds(5)),
+            publicados::add);
+
+    /**
+     * Alteracao de outra instancia deve voltar como evento remoto com os mesmos campos, inclusive ids nulos.
+     */
+    @Test
+    void deveRepublicarAlteracaoDeOutraInstancia() {
+        AlteracaoRegistroEvento original = new AlteracaoRegistroEvento(
+                TipoRegistro.CARTAO, OperacaoRegistro.ATUALIZACAO, 12L, null, 12L);
+
+        service.receber(InvalidacaoDistribuidaService.codificar("outra-instancia", original));
+
+        assertThat(publicados).containsExactly(new AlteracaoRemotaEvento(original));
+    }
+
+    /**
+     * Notificacoes enviadas pela propria instancia devem ser ignoradas: o cache local ja foi invalidado no commit.
+     */
+    @Test
+    void deveIgnorarNotificacaoDaPropriaInstancia() {
+        AlteracaoRegistroEvento original = new AlteracaoRegistroEvento(
+                TipoRegistro.LANCAMENTO, OperacaoRegistro.EXCLUSAO, 7L, 3L, 5L);
+
+        service.receber(InvalidacaoDistribuidaService.codificar(service.getInstanciaId(), original));
+
+        assertThat(publicados).isEmpty();
+    }
+
+    /**
+     * Payload de versao desconhecida deve descartar os caches em vez de ser ignorado em silencio.
+     */
+    @Test
+    void deveDescartarCachesQuandoNotificacaoNaoForReconhecida() {
+        service.receber("outra-instancia;TIPO_NOVO;CRIACAO;1;;");
+        service.receber("formato-antigo");
+
+        assertThat(publicados).containsExactly(new AlteracoesRemotasPerdidasEvento());
+    }
+}
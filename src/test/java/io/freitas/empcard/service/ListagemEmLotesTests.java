@@ -0,0 +1,149 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.SetupInicialFormDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import io.freitas.empcard.repository.LancamentoRepository;
+import io.freitas.empcard.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de integracao das listagens renderizadas em lotes por cursor.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ListagemEmLotesTests {
+
+    private static final String CPF = "55566677720";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    /**
+     * Conclui o setup inicial e cadastra, uma unica vez, lancamentos com datas repetidas para exercitar o
+     * desempate por id no cursor.
+     */
+    @BeforeEach
+    void preparar() {
+        if (!usuarioService.possuiUsuarios()) {
+            SetupInicialFormDto setup = new SetupInicialFormDto();
+            setup.setNomeExibicao("Administrador");
+            setup.setNomeUsuario("admin");
+            setup.setSenha("segredo123");
+            usuarioService.criarPrimeiroAdmin(setup);
+        }
+        if (pessoaRepository.existsByCpf(CPF)) {
+            return;
+        }
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Listagem");
+        formPessoa.setCpf(CPF);
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("5200828282828210");
+        formCartao.setBandeira("Mastercard");
+        formCartao.setBanco("Banco Listagem");
+        formCartao.setDiaFechamento(5);
+        formCartao.setDiaVencimento(15);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        for (int i = 0; i < 7; i++) {
+            LancamentoFormDto form = new LancamentoFormDto();
+            form.setPessoaId(pessoa.getId());
+            form.setCartaoId(cartao.getId());
+            form.setDescricao("Compra listagem " + i);
+            form.setTipo(TipoLancamento.AVULSO);
+            form.setValorFormatado("10,00");
+            form.setQuantidadeParcelas(1);
+            form.setDataCompra(LocalDate.of(2026, 4, 1 + i / 3));
+            lancamentoService.criar(form);
+        }
+    }
+
+    /**
+     * Garante que a leitura em lotes pequenos percorre todos os lancamentos na mesma ordem da listagem completa,
+     * chamando o callback antes de cada consulta.
+     */
+    @Test
+    void deveListarEmLotesNaMesmaOrdemDaListagemCompleta() {
+        int tamanhoLote = 3;
+        Limit limite = Limit.of(tamanhoLote);
+        AtomicInteger consultas = new AtomicInteger();
+        ListagemEmLotes<Lancamento> listagem = new ListagemEmLotes<Lancamento>(ultimo -> ultimo == null
+                ? lancamentoRepository.findAllByOrderByDataCompraDescIdDesc(limite)
+                : lancamentoRepository.listarAnterioresA(ultimo.getDataCompra(), ultimo.getId(), limite),
+                tamanhoLote)
+                .antesDeBuscarLote(consultas::incrementAndGet);
+
+        assertThat(listagem.isVazia()).isFalse();
+        List<Long> ids = new ArrayList<>();
+        listagem.forEachRemaining(lancamento -> ids.add(lancamento.getId()));
+
+        List<Long> esperados = lancamentoService.listarTodos().stream().map(Lancamento::getId).toList();
+        assertThat(ids).containsExactlyElementsOf(esperados);
+        assertThat(consultas.get()).isEqualTo(esperados.size() / tamanhoLote + 1);
+        assertThat(listagem.isVazia()).isFalse();
+    }
+
+    /**
+     * Garante que as telas de listagem renderizam as linhas lidas em lotes.
+     *
+     * @throws Exception falha na requisicao
+     */
+    @Test
+    void deveRenderizarTelasDeListagemEmLotes() throws Exception {
+        mockMvc.perform(get("/lancamentos"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("COMPRA LISTAGEM 6")))
+                .andExpect(content().string(not(containsString("Nenhum lançamento cadastrado."))));
+        mockMvc.perform(get("/pessoas"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("PESSOA LISTAGEM")));
+        mockMvc.perform(get("/pagamentos"))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,5 +1,7 @@
 package io.freitas.empcard.service;
 
+import io.freitas.empcard.dto.FaturaCartaoDto;
+import io.freitas.empcard.dto.FaturaPessoaDto;
 import io.freitas.empcard.dto.ItemRelatorioDto;
 import io.freitas.empcard.dto.RelatorioPessoaDto;
 import io.freitas.empcard.dto.ResumoCartaoRelatorioDto;
@@ -7,6 +9,8 @@ import io.freitas.empcard.model.TipoLancamento;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -17,7 +21,7 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
- * Testes de integracao para o fluxo de geracao de PDF do relatorio de pessoa.
+ * Testes de integracao para o fluxo de geracao de PDF do relatorio de pessoa e da fatura do cartao.
  */
 @SpringBootTest
 class PdfRelatorioServiceTests {
@@ -25,6 +29,12 @@ class PdfRelatorioServiceTests {
     @Autowired
     private PdfRelatorioService pdfRelatorioService;
 
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private FormatacaoService formatacaoService;
+
     /**
      * Valida que o servico gera um PDF valido ao processar o template com formatacao monetaria.
      * Este teste protege especificamente o uso de variaveis de formatacao dentro do template
@@ -74,4 +84,40 @@ class PdfRelatorioServiceTests {
         assertThat(pdfGerado).isNotNull().isNotEmpty();
         assertThat(new String(pdfGerado, StandardCharsets.ISO_8859_1)).startsWith("%PDF-");
     }
+
+    /**
+     * Valida que a fatura do cartao gera PDF e recebe os estilos do fragmento compartilhado com o relatorio de
+     * pessoa.
+     */
+    @Test
+    void deveGerarPdfFaturaCartaoComEstilosCompartilhados() {
+        ItemRelatorioDto item = new ItemRelatorioDto(
+                "Compra farmacia",
+                TipoLancamento.PARCELADO,
+                "2/3",
+                new BigDecimal("45.00"),
+                null);
+        FaturaCartaoDto fatura = new FaturaCartaoDto(
+                1L,
+                "1234 **** **** 3456",
+                "VISA",
+                "Banco Teste",
+                YearMonth.of(2026, 3),
+                LocalDate.of(2026, 2, 3),
+                LocalDate.of(2026, 3, 2),
+                LocalDate.of(2026, 3, 10),
+                List.of(new FaturaPessoaDto(1L, "Pessoa Teste", List.of(item), new BigDecimal("45.00"))),
+                new BigDecimal("45.00"));
+
+        Context contexto = new Context();
+        contexto.setVariable("relatorio", fatura);
+        contexto.setVariable("formatacaoService", formatacaoService);
+        contexto.setVariable("dataHoraImpressao", "10/03/2026 08:00");
+        String html = templateEngine.process("relatorios/cartao-pdf", contexto);
+        assertThat(html).contains("@page").contains(".tabela-lancamentos");
+
+        byte[] pdfGerado = pdfRelatorioService.gerarPdfFaturaCartao(fatura);
+
+        assertThat(new String(pdfGerado, StandardCharsets.ISO_8859_1)).startsWith("%PDF-");
+    }
 }
@@ -0,0 +1,109 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.ProjecaoCartaoDto;
+import io.freitas.empcard.dto.ProjecaoRecebiveisDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao da projecao de recebiveis.
+ */
+@SpringBootTest
+class ProjecaoRecebiveisServiceTests {
+
+    @Autowired
+    private ProjecaoRecebiveisService projecaoRecebiveisService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    /**
+     * Garante que parcelas restantes seguem o arredondamento do relatorio, que o fixo para na data fim e que
+     * lancamento desativado nao entra na projecao.
+     */
+    @Test
+    void deveProjetarParcelasRestantesEFixosAtivos() {
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Projecao");
+        formPessoa.setCpf("11122233396");
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("5105105105105100");
+        formCartao.setBandeira("Master");
+        formCartao.setBanco("Banco Projecao");
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        lancar(pessoa, cartao, TipoLancamento.PARCELADO, "100,00", 3, LocalDate.of(2026, 1, 5), null);
+        lancar(pessoa, cartao, TipoLancamento.FIXO, "50,00", 1, LocalDate.of(2026, 2, 5), LocalDate.of(2026, 4, 30));
+        Lancamento desativado = lancar(pessoa, cartao, TipoLancamento.FIXO, "70,00", 1,
+                LocalDate.of(2026, 2, 5), null);
+        lancamentoService.alternarAtivo(desativado.getId());
+
+        ProjecaoRecebiveisDto projecao = projecaoRecebiveisService.projetar(YearMonth.of(2026, 2), 4);
+
+        assertThat(projecao.competencias()).containsExactly(
+                YearMonth.of(2026, 2), YearMonth.of(2026, 3), YearMonth.of(2026, 4), YearMonth.of(2026, 5));
+        ProjecaoCartaoDto linha = projecao.linhas().stream()
+                .filter(item -> item.pessoaId().equals(pessoa.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(linha.cartao()).isEqualTo("BANCO PROJECAO MASTER final 5100");
+        assertThat(linha.valores()).containsExactly(
+                new BigDecimal("83.33"), new BigDecimal("83.34"), new BigDecimal("50.00"), new BigDecimal("0.00"));
+        assertThat(linha.total()).isEqualByComparingTo("216.67");
+
+        BigDecimal somaLinhas = projecao.linhas().stream()
+                .map(ProjecaoCartaoDto::total)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(projecao.total()).isEqualByComparingTo(somaLinhas);
+    }
+
+    /**
+     * Cadastra lancamento para o cenario do teste.
+     *
+     * @param pessoa      pessoa do lancamento
+     * @param cartao      cartao do lancamento
+     * @param tipo        tipo do lancamento
+     * @param valor       valor formatado
+     * @param parcelas    quantidade de parcelas
+     * @param dataCompra  data da compra
+     * @param dataFimFixo data fim do fixo, quando houver
+     * @return lancamento salvo
+     */
+    private Lancamento lancar(Pessoa pessoa, Cartao cartao, TipoLancamento tipo, String valor, int parcelas,
+                              LocalDate dataCompra, LocalDate dataFimFixo) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa.getId());
+        form.setCartaoId(cartao.getId());
+        form.setDescricao("Lancamento " + tipo);
+        form.setTipo(tipo);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(dataCompra);
+        form.setDataFimFixo(dataFimFixo);
+        return lancamentoService.criar(form);
+    }
+}
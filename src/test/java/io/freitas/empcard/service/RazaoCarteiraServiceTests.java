@@ -0,0 +1,212 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.ExposicaoBancoDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.MemoriaRazaoColunarDto;
+import io.freitas.empcard.dto.PagamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.ResumoCarteiraDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Lancamento;
+import io.freitas.empcard.model.Pagamento;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao do razao colunar: agregacoes pelas regras do relatorio e atualizacao pelas escritas.
+ */
+@SpringBootTest
+class RazaoCarteiraServiceTests {
+
+    private static final YearMonth MARCO = YearMonth.of(2026, 3);
+
+    @Autowired
+    private RazaoCarteiraService razaoCarteiraService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    /**
+     * Parcelas com ajuste de centavos, fixo com data fim, avulso apos o fechamento e pagamento: o saldo do
+     * razao bate com o relatorio (pessoa sem juros) e o fluxo distribui as cobrancas por competencia.
+     */
+    @Test
+    void deveAgregarCarteiraPelasRegrasDoRelatorio() {
+        ResumoCarteiraDto antes = razaoCarteiraService.resumir(MARCO);
+        Carteira carteira = cadastrar("77788899941", "5222333344445552", "Banco Razao A");
+
+        ResumoCarteiraDto depois = razaoCarteiraService.resumir(MARCO);
+
+        assertThat(exposicao(depois, "BANCO RAZAO A")).isEqualByComparingTo("180.00");
+        assertThat(depois.saldoEmAberto().subtract(antes.saldoEmAberto())).isEqualByComparingTo("180.00");
+        assertThat(relatorioService.gerarRelatorioPessoa(carteira.pessoa().getId(), MARCO).totalGeralSaldo())
+                .isEqualByComparingTo("180.00");
+        assertThat(depois.competencias()).hasSize(RazaoCarteiraService.MESES_FLUXO).last().isEqualTo(MARCO);
+        assertThat(diferenca(depois.cobrancas(), antes.cobrancas()).subList(9, 12))
+                .containsExactly(new BigDecimal("33.33"), new BigDecimal("83.33"), new BigDecimal("103.34"));
+        assertThat(diferenca(depois.recebimentos(), antes.recebimentos()).subList(9, 12))
+                .containsExactly(new BigDecimal("0.00"), new BigDecimal("40.00"), new BigDecimal("0.00"));
+    }
+
+    /**
+     * Atualizacao de lancamento, exclusao de pagamento e mudanca do fechamento do cartao chegam ao razao, e o
+     * estado incremental e igual ao de uma carga completa.
+     */
+    @Test
+    void deveManterRazaoAtualizadoNasEscritas() {
+        Carteira carteira = cadastrar("88899911193", "4916338812345006", "Banco Razao B");
+        YearMonth fevereiro = YearMonth.of(2026, 2);
+
+        LancamentoFormDto parcelado = lancamentoService.paraForm(carteira.parcelado());
+        parcelado.setValorFormatado("200,00");
+        lancamentoService.atualizar(carteira.parcelado().getId(), parcelado);
+        pagamentoService.excluir(carteira.pagamento().getId());
+        // Com fechamento no dia 20 a compra avulsa de 15/02 passa a ser cobrada em fevereiro.
+        CartaoFormDto cartao = cartaoService.paraForm(carteira.cartao());
+        cartao.setDiaFechamento(20);
+        cartaoService.atualizar(carteira.cartao().getId(), cartao);
+
+        ResumoCarteiraDto incremental = razaoCarteiraService.resumir(fevereiro);
+        assertThat(exposicao(incremental, "BANCO RAZAO B")).isEqualByComparingTo("203.34");
+        assertThat(relatorioService.gerarRelatorioPessoa(carteira.pessoa().getId(), fevereiro).totalGeralSaldo())
+                .isEqualByComparingTo("203.34");
+
+        razaoCarteiraService.carregar();
+        ResumoCarteiraDto recarregado = razaoCarteiraService.resumir(fevereiro);
+        assertThat(recarregado).usingRecursiveComparison().ignoringFields("calculoMicros").isEqualTo(incremental);
+
+        MemoriaRazaoColunarDto memoria = razaoCarteiraService.memoria();
+        assertThat(memoria.lancamentos()).isGreaterThanOrEqualTo(3);
+        assertThat(memoria.bytesPorMilhaoLancamentos()).isEqualTo(35_000_000L);
+        assertThat(memoria.bytesAlocados()).isPositive();
+        assertThat(memoria.carregadoEm()).isNotNull();
+    }
+
+    /**
+     * Cadastra pessoa sem juros com parcelado de 100,00 em 3x (jan), fixo de 50,00 de fev a mar, avulso de
+     * 20,00 comprado apos o fechamento de fev (cobrado em mar) e pagamento de 40,00 em fev.
+     *
+     * @param cpf    CPF unico da pessoa
+     * @param numero numero de cartao unico
+     * @param banco  banco unico do cartao
+     * @return registros criados
+     */
+    private Carteira cadastrar(String cpf, String numero, String banco) {
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa " + banco);
+        formPessoa.setCpf(cpf);
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero(numero);
+        formCartao.setBandeira("Visa");
+        formCartao.setBanco(banco);
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        Lancamento parcelado = lancar(pessoa, cartao, TipoLancamento.PARCELADO, "100,00", 3,
+                LocalDate.of(2026, 1, 5), null);
+        lancar(pessoa, cartao, TipoLancamento.FIXO, "50,00", 1, LocalDate.of(2026, 2, 5), LocalDate.of(2026, 3, 31));
+        lancar(pessoa, cartao, TipoLancamento.AVULSO, "20,00", 1, LocalDate.of(2026, 2, 15), null);
+
+        PagamentoFormDto formPagamento = new PagamentoFormDto();
+        formPagamento.setPessoaId(pessoa.getId());
+        formPagamento.setCartaoId(cartao.getId());
+        formPagamento.setDataPagamento(LocalDate.of(2026, 2, 20));
+        formPagamento.setValorFormatado("40,00");
+        Pagamento pagamento = pagamentoService.criar(formPagamento);
+        return new Carteira(pessoa, cartao, parcelado, pagamento);
+    }
+
+    /**
+     * Cadastra lancamento de teste.
+     *
+     * @param pessoa     pessoa
+     * @param cartao     cartao
+     * @param tipo       tipo do lancamento
+     * @param valor      valor formatado
+     * @param parcelas   quantidade de parcelas
+     * @param dataCompra data da compra
+     * @param dataFim    fim do fixo
+     * @return lancamento criado
+     */
+    private Lancamento lancar(Pessoa pessoa, Cartao cartao, TipoLancamento tipo, String valor, int parcelas,
+                              LocalDate dataCompra, LocalDate dataFim) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa.getId());
+        form.setCartaoId(cartao.getId());
+        form.setDescricao("Compra razao " + tipo);
+        form.setTipo(tipo);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(dataCompra);
+        form.setDataFimFixo(dataFim);
+        return lancamentoService.criar(form);
+    }
+
+    /**
+     * Saldo de um banco no resumo.
+     *
+     * @param resumo resumo da carteira
+     * @param banco  banco normalizado
+     * @return saldo do banco
+     */
+    private static BigDecimal exposicao(ResumoCarteiraDto resumo, String banco) {
+        return resumo.exposicaoPorBanco().stream()
+                .filter(item -> item.banco().equals(banco))
+                .map(ExposicaoBancoDto::saldo)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Diferenca competencia a competencia entre dois fluxos.
+     *
+     * @param depois fluxo apos o cadastro
+     * @param antes  fluxo antes do cadastro
+     * @return variacao por competencia
+     */
+    private static List<BigDecimal> diferenca(List<BigDecimal> depois, List<BigDecimal> antes) {
+        List<BigDecimal> variacao = new ArrayList<>();
+        for (int i = 0; i < depois.size(); i++) {
+            variacao.add(depois.get(i).subtract(antes.get(i)));
+        }
+        return variacao;
+    }
+
+    /**
+     * Registros cadastrados para um teste.
+     *
+     * @param pessoa    pessoa
+     * @param cartao    cartao
+     * @param parcelado lancamento parcelado
+     * @param pagamento pagamento
+     */
+    private record Carteira(Pessoa pessoa, Cartao cartao, Lancamento parcelado, Pagamento pagamento) {
+    }
+}
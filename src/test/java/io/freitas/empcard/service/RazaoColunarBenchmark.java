@@ -0,0 +1,96 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.model.TipoLancamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.YearMonth;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo das agregacoes da carteira sobre o razao colunar com milhares a milhoes de lancamentos (e metade disso
+ * em pagamentos). Executar com:
+ * {@code ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath io.freitas.empcard.service.RazaoColunarBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RazaoColunarBenchmark {
+
+    private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+
+    @Param({"10000", "1000000"})
+    private int lancamentos;
+
+    private RazaoColunar razao;
+    private int competencia;
+
+    /**
+     * Preenche o razao com uma carteira de 5 mil pessoas, 200 cartoes e compras espalhadas por tres anos.
+     */
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        razao = new RazaoColunar();
+        int inicio = RazaoColunar.indice(YearMonth.of(2024, 1));
+        for (int id = 1; id <= lancamentos; id++) {
+            TipoLancamento tipo = TIPOS[aleatorio.nextInt(TIPOS.length)];
+            razao.gravarLancamento(id, 1 + aleatorio.nextInt(5_000), 1 + aleatorio.nextInt(200),
+                    inicio + aleatorio.nextInt(36), tipo == TipoLancamento.FIXO ? RazaoColunar.SEM_FIM : 0, tipo,
+                    1_000 + aleatorio.nextInt(200_000), tipo == TipoLancamento.PARCELADO ? 2 + aleatorio.nextInt(11) : 1);
+        }
+        for (int id = 1; id <= lancamentos / 2; id++) {
+            razao.gravarPagamento(id, 1 + aleatorio.nextInt(5_000), 1 + aleatorio.nextInt(200),
+                    inicio + aleatorio.nextInt(36), 1_000 + aleatorio.nextInt(100_000));
+        }
+        competencia = inicio + 35;
+    }
+
+    /**
+     * Saldo por pessoa e por cartao ate a ultima competencia.
+     *
+     * @return saldos calculados
+     */
+    @Benchmark
+    public RazaoColunar.Saldos saldos() {
+        return razao.saldos(competencia);
+    }
+
+    /**
+     * Cobrancas e recebimentos dos ultimos doze meses.
+     *
+     * @return fluxo calculado
+     */
+    @Benchmark
+    public RazaoColunar.Fluxo fluxo() {
+        return razao.fluxo(competencia - 11, 12);
+    }
+
+    /**
+     * Ponto de entrada para execucao fora do surefire.
+     *
+     * @param args argumentos ignorados
+     * @throws RunnerException falha do JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RazaoColunarBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.config.RelatorioCacheProperties;
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do cache de relatorios: limites com descarte do menos usado e geracao por pessoa.
+ */
+class RelatorioCacheServiceTests {
+
+    private static final YearMonth MARCO = YearMonth.of(2026, 3);
+
+    private final RelatorioCacheService cache = new RelatorioCacheService(new RelatorioCacheProperties(2, 1));
+
+    /**
+     * Cheio, o cache continua aceitando entradas e descarta a usada ha mais tempo; PDFs tem limite proprio.
+     */
+    @Test
+    void deveDescartarEntradaMenosUsadaAoAtingirLimite() {
+        armazenar(1L, MARCO);
+        armazenar(2L, MARCO);
+        cache.buscarRelatorio(1L, MARCO);
+        armazenar(3L, MARCO);
+
+        assertThat(cache.totalRelatorios()).isEqualTo(2);
+        assertThat(cache.buscarRelatorio(1L, MARCO)).isNotNull();
+        assertThat(cache.buscarRelatorio(2L, MARCO)).isNull();
+        assertThat(cache.buscarRelatorio(3L, MARCO)).isNotNull();
+
+        cache.armazenarPdf(1L, MARCO, cache.geracaoAtual(1L), new byte[]{1});
+        cache.armazenarPdf(3L, MARCO, cache.geracaoAtual(3L), new byte[]{3});
+        assertThat(cache.totalPdfs()).isEqualTo(1);
+        assertThat(cache.buscarPdf(3L, MARCO)).containsExactly(3);
+    }
+
+    /**
+     * Invalidar uma pessoa descarta so os calculos em andamento dela; invalidar tudo descarta os de todas.
+     */
+    @Test
+    void deveDescartarSomenteCalculosDaPessoaInvalidada() {
+        long geracaoPessoa1 = cache.geracaoAtual(1L);
+        long geracaoPessoa2 = cache.geracaoAtual(2L);
+        cache.invalidarPessoa(1L);
+
+        cache.armazenarRelatorio(1L, MARCO, geracaoPessoa1, relatorio(1L, MARCO));
+        cache.armazenarRelatorio(2L, MARCO, geracaoPessoa2, relatorio(2L, MARCO));
+        assertThat(cache.buscarRelatorio(1L, MARCO)).isNull();
+        assertThat(cache.buscarRelatorio(2L, MARCO)).isNotNull();
+
+        long antesDoGeral = cache.geracaoAtual(3L);
+        cache.invalidarTudo();
+        cache.armazenarRelatorio(3L, MARCO, antesDoGeral, relatorio(3L, MARCO));
+        assertThat(cache.totalRelatorios()).isZero();
+    }
+
+    /**
+     * Armazena relatorio com a geracao atual da pessoa.
+     *
+     * @param pessoaId    pessoa
+     * @param competencia competencia
+     */
+    private void armazenar(Long pessoaId, YearMonth competencia) {
+        cache.armazenarRelatorio(pessoaId, competencia, cache.geracaoAtual(pessoaId), relatorio(pessoaId, competencia));
+    }
+
+    /**
+     * Relatorio vazio de teste.
+     *
+     * @param pessoaId    pessoa
+     * @param competencia competencia
+     * @return relatorio sem cartoes
+     */
+    private static RelatorioPessoaDto relatorio(Long pessoaId, YearMonth competencia) {
+        return new RelatorioPessoaDto(pessoaId, "Pessoa " + pessoaId, "***", competencia, List.of(),
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
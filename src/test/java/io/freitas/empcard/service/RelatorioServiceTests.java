@@ -0,0 +1,113 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.CartaoFormDto;
+import io.freitas.empcard.dto.ItemRelatorioDto;
+import io.freitas.empcard.dto.LancamentoFormDto;
+import io.freitas.empcard.dto.PagamentoFormDto;
+import io.freitas.empcard.dto.PessoaFormDto;
+import io.freitas.empcard.dto.RelatorioPessoaDto;
+import io.freitas.empcard.dto.ResumoCartaoRelatorioDto;
+import io.freitas.empcard.model.Cartao;
+import io.freitas.empcard.model.Pessoa;
+import io.freitas.empcard.model.TipoLancamento;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Testes de integracao do motor de relatorio mensal sobre as projecoes de leitura.
+ */
+@SpringBootTest
+class RelatorioServiceTests {
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CartaoService cartaoService;
+
+    @Autowired
+    private LancamentoService lancamentoService;
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    /**
+     * Garante o calculo da competencia com avulso quitado no mes anterior, parcela, fixo e
+     * compra posterior a competencia ignorada.
+     */
+    @Test
+    void deveConsolidarCompetenciaIgnorandoMovimentosPosteriores() {
+        PessoaFormDto formPessoa = new PessoaFormDto();
+        formPessoa.setNome("Pessoa Relatorio");
+        formPessoa.setCpf("11144477735");
+        Pessoa pessoa = pessoaService.criar(formPessoa);
+
+        CartaoFormDto formCartao = new CartaoFormDto();
+        formCartao.setNumero("4111111111111111");
+        formCartao.setBandeira("Visa");
+        formCartao.setBanco("Banco Relatorio");
+        formCartao.setDiaFechamento(10);
+        formCartao.setDiaVencimento(20);
+        Cartao cartao = cartaoService.criar(formCartao);
+
+        lancar(pessoa, cartao, "Mercado", TipoLancamento.AVULSO, "100,00", 1, LocalDate.of(2026, 1, 5));
+        lancar(pessoa, cartao, "Geladeira", TipoLancamento.PARCELADO, "300,00", 3, LocalDate.of(2026, 1, 15));
+        lancar(pessoa, cartao, "Streaming", TipoLancamento.FIXO, "50,00", 1, LocalDate.of(2026, 2, 1));
+        lancar(pessoa, cartao, "Compra futura", TipoLancamento.AVULSO, "999,00", 1, LocalDate.of(2026, 3, 1));
+
+        PagamentoFormDto formPagamento = new PagamentoFormDto();
+        formPagamento.setPessoaId(pessoa.getId());
+        formPagamento.setCartaoId(cartao.getId());
+        formPagamento.setDataPagamento(LocalDate.of(2026, 1, 25));
+        formPagamento.setValorFormatado("100,00");
+        pagamentoService.criar(formPagamento);
+
+        RelatorioPessoaDto relatorio = relatorioService.gerarRelatorioPessoa(pessoa.getId(), YearMonth.of(2026, 2));
+
+        assertThat(relatorio.cartoes()).hasSize(1);
+        ResumoCartaoRelatorioDto resumo = relatorio.cartoes().get(0);
+        assertThat(resumo.numeroMascarado()).isEqualTo("4111 **** **** 1111");
+        assertThat(resumo.saldoAnterior()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(resumo.itens())
+                .extracting(ItemRelatorioDto::descricao, ItemRelatorioDto::parcela)
+                .containsExactly(
+                        tuple("GELADEIRA", "1/3"),
+                        tuple("STREAMING", "FIXO"));
+        assertThat(relatorio.totalGeralSaldo()).isEqualByComparingTo("150.00");
+    }
+
+    /**
+     * Cadastra lancamento para o cenario do teste.
+     *
+     * @param pessoa     pessoa do lancamento
+     * @param cartao     cartao do lancamento
+     * @param descricao  descricao
+     * @param tipo       tipo do lancamento
+     * @param valor      valor formatado
+     * @param parcelas   quantidade de parcelas
+     * @param dataCompra data da compra
+     */
+    private void lancar(Pessoa pessoa, Cartao cartao, String descricao, TipoLancamento tipo,
+                        String valor, int parcelas, LocalDate dataCompra) {
+        LancamentoFormDto form = new LancamentoFormDto();
+        form.setPessoaId(pessoa.getId());
+        form.setCartaoId(cartao.getId());
+        form.setDescricao(descricao);
+        form.setTipo(tipo);
+        form.setValorFormatado(valor);
+        form.setQuantidadeParcelas(parcelas);
+        form.setDataCompra(dataCompra);
+        lancamentoService.criar(form);
+    }
+}
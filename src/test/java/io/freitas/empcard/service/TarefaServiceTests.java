@@ -0,0 +1,189 @@
+package io.freitas.empcard.service;
+
+import io.freitas.empcard.dto.ProgressoLoteTarefaDto;
+import io.freitas.empcard.dto.TarefaReservadaDto;
+import io.freitas.empcard.model.LoteTarefa;
+import io.freitas.empcard.model.SituacaoTarefa;
+import io.freitas.empcard.model.Tarefa;
+import io.freitas.empcard.model.TipoTarefa;
+import io.freitas.empcard.repository.LoteTarefaRepository;
+import io.freitas.empcard.repository.TarefaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de integracao da fila de tarefas distribuidas: lote unico, reserva com SKIP LOCKED, retentativa e
+ * recuperacao de tarefas abandonadas.
+ */
+@SpringBootTest
+class TarefaServiceTests {
+
+    @Autowired
+    private TarefaService tarefaService;
+
+    @Autowired
+    private TarefaRepository tarefaRepository;
+
+    @Autowired
+    private LoteTarefaRepository loteTarefaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Cada teste parte de uma fila vazia, ja que a reserva considera pendentes de qualquer lote.
+     */
+    @BeforeEach
+    void limparFila() {
+        tarefaRepository.deleteAll();
+        loteTarefaRepository.deleteAll();
+    }
+
+    /**
+     * O mesmo tipo e referencia so geram um novo lote depois que a geracao anterior termina, com uma tarefa
+     * pendente por item.
+     */
+    @Test
+    void deveCriarNovaGeracaoSomenteAposTerminoDaAnterior() {
+        LoteTarefa lote = tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, "2031-01", List.of(1L, 2L, 3L))
+                .orElseThrow();
+
+        assertThat(tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, "2031-01", List.of(4L))).isEmpty();
+        ProgressoLoteTarefaDto progresso = tarefaService.buscarProgresso(lote.getId()).orElseThrow();
+        assertThat(progresso.total()).isEqualTo(3);
+        assertThat(progresso.geracao()).isEqualTo(1);
+        assertThat(progresso.pendentes()).isEqualTo(3);
+        assertThat(progresso.concluidas()).isZero();
+
+        tarefaService.reservar("instancia-a", 3).forEach(tarefa -> tarefaService.concluir(tarefa.id(), "instancia-a"));
+        LoteTarefa novo = tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, "2031-01", List.of(4L)).orElseThrow();
+        assertThat(novo.getGeracao()).isEqualTo(2);
+        assertThat(tarefaService.buscarProgresso(novo.getId()).orElseThrow().pendentes()).isEqualTo(1);
+    }
+
+    /**
+     * Uma reserva concorrente deve pular as tarefas travadas pela outra transacao, sem esperar nem repetir.
+     *
+     * @throws Exception falha na thread concorrente
+     */
+    @Test
+    void deveReservarSemRepetirTarefasTravadasPorOutraInstancia() throws Exception {
+        tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, "2031-02", List.of(10L, 11L, 12L, 13L));
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch reservou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<List<TarefaReservadaDto>> primeira = CompletableFuture.supplyAsync(() ->
+                transacao.execute(status -> {
+                    List<TarefaReservadaDto> reservadas = tarefaService.reservar("instancia-a", 2);
+                    reservou.countDown();
+                    aguardar(liberar);
+                    return reservadas;
+                }));
+        assertThat(reservou.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<TarefaReservadaDto> segunda = tarefaService.reservar("instancia-b", 4);
+        liberar.countDown();
+
+        assertThat(primeira.get(10, TimeUnit.SECONDS)).extracting(TarefaReservadaDto::itemId)
+                .containsExactly(10L, 11L);
+        // O H2 trava todas as linhas lidas antes do limit (o PostgreSQL so as devolvidas), entao a segunda
+        // reserva pode vir vazia aqui; o que vale nos dois bancos e nao esperar nem repetir itens.
+        List<TarefaReservadaDto> terceira = tarefaService.reservar("instancia-c", 4);
+        assertThat(segunda).extracting(TarefaReservadaDto::itemId).doesNotContain(10L, 11L);
+        assertThat(concatenar(segunda, terceira)).extracting(TarefaReservadaDto::itemId)
+                .containsExactlyInAnyOrder(12L, 13L);
+    }
+
+    /**
+     * Falhas voltam a tarefa para a fila com espera ate esgotar as tentativas.
+     */
+    @Test
+    void deveRetentarComEsperaEEncerrarAposMaxTentativas() {
+        LoteTarefa lote = tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, "2031-03", List.of(20L)).orElseThrow();
+
+        for (int tentativa = 1; tentativa <= 3; tentativa++) {
+            TarefaReservadaDto reservada = tarefaService.reservar("instancia-a", 1).getFirst();
+            assertThat(reservada.tentativa()).isEqualTo(tentativa);
+            assertThat(tarefaService.registrarFalha(reservada.id(), "instancia-a", "erro " + tentativa)).isTrue();
+            if (tentativa < 3) {
+                assertThat(tarefaService.reservar("instancia-a", 1)).as("aguardando nova tentativa").isEmpty();
+                liberarParaAgora(reservada.id());
+            }
+        }
+
+        Tarefa tarefa = tarefaRepository.findAll().getFirst();
+        assertThat(tarefa.getSituacao()).isEqualTo(SituacaoTarefa.FALHA);
+        assertThat(tarefa.getErro()).isEqualTo("erro 3");
+        assertThat(tarefaService.buscarProgresso(lote.getId()).orElseThrow().falhas()).isEqualTo(1);
+    }
+
+    /**
+     * Tarefa sem heartbeat volta para a fila, e a instancia antiga nao consegue mais concluir.
+     */
+    @Test
+    void deveRecuperarTarefaAbandonadaEDescartarResultadoDaInstanciaAntiga() {
+        tarefaService.criarLote(TipoTarefa.CRONOGRAMA_PARCELAS, "2031-04", List.of(30L));
+        TarefaReservadaDto reservada = tarefaService.reservar("instancia-a", 1).getFirst();
+        Tarefa tarefa = tarefaRepository.findById(reservada.id()).orElseThrow();
+        tarefa.setHeartbeatEm(LocalDateTime.now().minusMinutes(5));
+        tarefaRepository.save(tarefa);
+
+        assertThat(tarefaService.recuperarAbandonadas()).isEqualTo(1);
+        TarefaReservadaDto retomada = tarefaService.reservar("instancia-b", 1).getFirst();
+
+        assertThat(retomada.id()).isEqualTo(reservada.id());
+        assertThat(retomada.tentativa()).isEqualTo(2);
+        assertThat(tarefaService.concluir(reservada.id(), "instancia-a")).isFalse();
+        assertThat(tarefaService.concluir(retomada.id(), "instancia-b")).isTrue();
+    }
+
+    /**
+     * Antecipa a proxima tentativa para nao depender da espera configurada.
+     *
+     * @param tarefaId tarefa a liberar
+     */
+    private void liberarParaAgora(Long tarefaId) {
+        Tarefa tarefa = tarefaRepository.findById(tarefaId).orElseThrow();
+        tarefa.setExecutarApos(LocalDateTime.now().minusSeconds(1));
+        tarefaRepository.save(tarefa);
+    }
+
+    /**
+     * Junta duas listas de reservas.
+     *
+     * @param primeira primeira lista
+     * @param segunda  segunda lista
+     * @return reservas das duas listas
+     */
+    private static List<TarefaReservadaDto> concatenar(List<TarefaReservadaDto> primeira,
+                                                       List<TarefaReservadaDto> segunda) {
+        return Stream.concat(primeira.stream(), segunda.stream()).toList();
+    }
+
+    /**
+     * Aguarda o sinal do teste mantendo a transacao aberta.
+     *
+     * @param sinal latch liberado pelo teste
+     */
+    private static void aguardar(CountDownLatch sinal) {
+        try {
+            sinal.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.freitas.empcard.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por celula das formatacoes usadas em telas e PDFs: implementacao anterior (NumberFormat por chamada,
+ * regex e DateTimeFormatter) versus os utilitarios atuais. Executar com:
+ * {@code ./mvnw -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath io.freitas.empcard.util.FormatacaoBenchmark"}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatacaoBenchmark {
+
+    private static final int QUANTIDADE = 1024;
+    private static final Locale LOCALE_PT_BR = Locale.of("pt", "BR");
+    private static final DateTimeFormatter FORMATADOR_COMPETENCIA = DateTimeFormatter.ofPattern("MM-uuuu");
+
+    private BigDecimal[] valores;
+    private String[] textosMonetarios;
+    private String[] cpfs;
+    private String[] cartoes;
+    private YearMonth[] competencias;
+    private int indice;
+
+    /**
+     * Gera entradas parecidas com as de uma tela de lancamentos: valores com centavos, poucos CPFs e cartoes
+     * repetidos em varias linhas e competencias proximas.
+     */
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        valores = new BigDecimal[QUANTIDADE];
+        textosMonetarios = new String[QUANTIDADE];
+        cpfs = new String[QUANTIDADE];
+        cartoes = new String[QUANTIDADE];
+        competencias = new YearMonth[QUANTIDADE];
+        for (int i = 0; i < QUANTIDADE; i++) {
+            valores[i] = BigDecimal.valueOf(aleatorio.nextInt(5_000_000), 2);
+            textosMonetarios[i] = "R$ " + valores[i].toPlainString().replace('.', ',');
+            cpfs[i] = String.format("%011d", 10_000_000_000L + aleatorio.nextInt(200));
+            cartoes[i] = String.format("4111%012d", aleatorio.nextInt(20));
+            competencias[i] = YearMonth.of(2024 + aleatorio.nextInt(4), 1 + aleatorio.nextInt(12));
+        }
+    }
+
+    /**
+     * Avanca para a proxima entrada.
+     *
+     * @return indice da entrada
+     */
+    private int proximo() {
+        indice = (indice + 1) & (QUANTIDADE - 1);
+        return indice;
+    }
+
+    /**
+     * Moeda com NumberFormat criado a cada chamada.
+     *
+     * @return texto formatado
+     */
+    @Benchmark
+    public String moedaAnterior() {
+        return NumberFormat.getCurrencyInstance(LOCALE_PT_BR).format(valores[proximo()]);
+    }
+
+    /**
+     * Moeda com a formatacao escrita a mao.
+     *
+     * @return texto formatado
+     */
+    @Benchmark
+    public String moedaAtual() {
+        return ValorMonetarioUtils.formatar(valores[proximo()]);
+    }
+
+    /**
+     * Conversao de texto monetario com regex.
+     *
+     * @return valor convertido
+     */
+    @Benchmark
+    public BigDecimal parseAnterior() {
+        String limpo = textosMonetarios[proximo()].trim().replaceAll("[^\\d,.-]", "");
+        if (limpo.contains(",")) {
+            limpo = limpo.replace(".", "").replace(",", ".");
+        }
+        return new BigDecimal(limpo).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Conversao de texto monetario varrendo caracteres.
+     *
+     * @return valor convertido
+     */
+    @Benchmark
+    public BigDecimal parseAtual() {
+        return ValorMonetarioUtils.parse(textosMonetarios[proximo()]);
+    }
+
+    /**
+     * Mascara de CPF com regex e concatenacao de substrings.
+     *
+     * @return CPF mascarado
+     */
+    @Benchmark
+    public String cpfAnterior() {
+        String cpf = cpfs[proximo()].replaceAll("\\D", "");
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+
+    /**
+     * Mascara de CPF com modelo e cache.
+     *
+     * @return CPF mascarado
+     */
+    @Benchmark
+    public String cpfAtual() {
+        return DocumentoUtils.mascararCpf(cpfs[proximo()]);
+    }
+
+    /**
+     * Mascara de cartao com regex e concatenacao de substrings.
+     *
+     * @return numero mascarado
+     */
+    @Benchmark
+    public String cartaoAnterior() {
+        String numero = cartoes[proximo()].replaceAll("\\D", "");
+        return numero.substring(0, 4) + " " + numero.substring(4, 8) + " " + numero.substring(8, 12) + " "
+                + numero.substring(12, 16);
+    }
+
+    /**
+     * Mascara de cartao com modelo e cache.
+     *
+     * @return numero mascarado
+     */
+    @Benchmark
+    public String cartaoAtual() {
+        return DocumentoUtils.mascararCartao(cartoes[proximo()]);
+    }
+
+    /**
+     * Competencia com DateTimeFormatter.
+     *
+     * @return competencia formatada
+     */
+    @Benchmark
+    public String competenciaAnterior() {
+        return competencias[proximo()].format(FORMATADOR_COMPETENCIA);
+    }
+
+    /**
+     * Competencia montada em array de caracteres.
+     *
+     * @return competencia formatada
+     */
+    @Benchmark
+    public String competenciaAtual() {
+        return DataCompetenciaUtils.formatarCompetencia(competencias[proximo()]);
+    }
+
+    /**
+     * Ponto de entrada para execucao fora do surefire.
+     *
+     * @param args argumentos ignorados
+     * @throws RunnerException falha do JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FormatacaoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
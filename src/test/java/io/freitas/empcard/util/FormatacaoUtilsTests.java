@@ -0,0 +1,123 @@
+package io.freitas.empcard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compara os utilitarios de formatacao escritos a mao com as implementacoes de JDK e regex que substituiram.
+ */
+class FormatacaoUtilsTests {
+
+    private static final Locale LOCALE_PT_BR = Locale.of("pt", "BR");
+    private static final Random ALEATORIO = new Random(20260301L);
+
+    /**
+     * Garante saida identica ao NumberFormat de moeda pt-BR, inclusive arredondamento, sinal e valores enormes.
+     */
+    @Test
+    void deveFormatarMoedaIgualAoNumberFormat() {
+        NumberFormat referencia = NumberFormat.getCurrencyInstance(LOCALE_PT_BR);
+        List<String> casos = List.of("0", "-0", "0.00", "0.005", "0.015", "0.025", "-0.001", "-0.005", "-0.006",
+                "999.995", "1000", "-1234.5", "1E+3", "1E-7", "1234567.891", "999999999999999.99",
+                "9999999999999999.99", "-99999999999999999.995", "123456789012345678901234567890.125");
+        for (String caso : casos) {
+            BigDecimal valor = new BigDecimal(caso);
+            assertThat(ValorMonetarioUtils.formatar(valor)).as(caso).isEqualTo(referencia.format(valor));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal valor = BigDecimal.valueOf(ALEATORIO.nextLong() >> ALEATORIO.nextInt(64), ALEATORIO.nextInt(5));
+            assertThat(ValorMonetarioUtils.formatar(valor)).as(valor.toString()).isEqualTo(referencia.format(valor));
+        }
+        assertThat(ValorMonetarioUtils.formatar(null)).isEqualTo(referencia.format(BigDecimal.ZERO));
+    }
+
+    /**
+     * Garante que a conversao de texto monetario devolve o mesmo valor e rejeita as mesmas entradas.
+     */
+    @Test
+    void deveConverterMoedaIgualAoParseComRegex() {
+        List<String> casos = List.of("R$ 1.234,56", "R$\u00A01.234,56", "1234,56", "1234.56", "-R$ 10,005",
+                "  7 ", "abc", "", "   ", ",5", "- 3,2", "1.234.567,8");
+        for (String caso : casos) {
+            assertThat(ValorMonetarioUtils.parse(caso)).as(caso).isEqualTo(parseReferencia(caso));
+        }
+        assertThat(ValorMonetarioUtils.parse(null)).isEqualTo(new BigDecimal("0.00"));
+        for (String invalido : List.of("1-2", ".", "1.234.567", "12,3,4x")) {
+            assertThatThrownBy(() -> parseReferencia(invalido)).isInstanceOf(NumberFormatException.class);
+            assertThatThrownBy(() -> ValorMonetarioUtils.parse(invalido)).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    /**
+     * Garante extracao de digitos e mascaras de CPF e cartao identicas as versoes com regex e substring.
+     */
+    @Test
+    void deveExtrairDigitosEMascararDocumentosIgualAReferencia() {
+        List<String> casos = List.of("", "abc", "52998224725", "529.982.247-25", "5299822472", "529982247251",
+                "4111111111111111", "4111 1111 1111 1111", "4111-1111-1111-111", "41111111111111112",
+                "٣٤٥12345678901", "x1y2z3");
+        for (String caso : casos) {
+            String digitos = caso.replaceAll("\\D", "");
+            assertThat(DocumentoUtils.somenteDigitos(caso)).as(caso).isEqualTo(digitos);
+            String cpf = digitos.length() != 11 ? caso
+                    : digitos.substring(0, 3) + "." + digitos.substring(3, 6) + "." + digitos.substring(6, 9)
+                    + "-" + digitos.substring(9);
+            String cartao = digitos.length() != 16 ? caso
+                    : digitos.substring(0, 4) + " " + digitos.substring(4, 8) + " " + digitos.substring(8, 12)
+                    + " " + digitos.substring(12, 16);
+            // Duas chamadas: a segunda vem do cache e deve ser igual a primeira.
+            assertThat(DocumentoUtils.mascararCpf(caso)).as(caso).isEqualTo(cpf);
+            assertThat(DocumentoUtils.mascararCpf(caso)).as(caso).isEqualTo(cpf);
+            assertThat(DocumentoUtils.mascararCartao(caso)).as(caso).isEqualTo(cartao);
+            assertThat(DocumentoUtils.mascararCartao(caso)).as(caso).isEqualTo(cartao);
+        }
+        assertThat(DocumentoUtils.somenteDigitos(null)).isEmpty();
+        assertThat(DocumentoUtils.mascararCpf(null)).isNull();
+        assertThat(DocumentoUtils.mascararCartao(null)).isNull();
+        assertThat(DocumentoUtils.mascararParcialCartao("4111222233334444")).isEqualTo("4111 **** **** 4444");
+        assertThat(DocumentoUtils.mascararParcialCartao("411122223333")).isEqualTo("411122223333");
+    }
+
+    /**
+     * Garante competencia em MM-yyyy identica ao DateTimeFormatter, inclusive anos fora de quatro digitos.
+     */
+    @Test
+    void deveFormatarCompetenciaIgualAoDateTimeFormatter() {
+        DateTimeFormatter referencia = DateTimeFormatter.ofPattern("MM-uuuu");
+        for (YearMonth competencia : List.of(YearMonth.of(2026, 1), YearMonth.of(2026, 12), YearMonth.of(7, 3),
+                YearMonth.of(9999, 12), YearMonth.of(10000, 1), YearMonth.of(-5, 6))) {
+            assertThat(DataCompetenciaUtils.formatarCompetencia(competencia)).isEqualTo(competencia.format(referencia));
+        }
+    }
+
+    /**
+     * Implementacao anterior da conversao, usada como referencia.
+     *
+     * @param valorFormatado texto monetario
+     * @return valor com escala 2
+     */
+    private static BigDecimal parseReferencia(String valorFormatado) {
+        if (valorFormatado == null || valorFormatado.isBlank()) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+        String limpo = valorFormatado.trim().replaceAll("[^\\d,.-]", "");
+        if (limpo.isBlank()) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+        if (limpo.contains(",")) {
+            limpo = limpo.replace(".", "").replace(",", ".");
+        }
+        return new BigDecimal(limpo).setScale(2, RoundingMode.HALF_UP);
+    }
+}